@@ -27,11 +27,10 @@
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.List;
 import java.util.Properties;
 
 /**
@@ -124,12 +123,28 @@ public synchronized void stop() {
     }
 
     @Override
-    public synchronized boolean logJSON(Collection<String> events) {
+    public boolean logJSON(Collection<String> events) {
+        return write("logJSON", events, PrintWriter::println);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * org.apache.ranger.audit.provider.AuditProvider#log(java.util.Collection)
+     */
+    @Override
+    public boolean log(Collection<AuditEventBase> events) {
+        return write("log", events, (out, event) -> MiscUtil.writeJsonLine(event, out)); // Convert event to json
+    }
+
+    // Helper methods in this class
+    private synchronized <T> boolean write(String caller, Collection<T> events, EventWriter<T> eventWriter) {
         logStatusIfRequired();
         addTotalCount(events.size());
 
         if (isStopped) {
-            logError("logJSON() called after stop was requested. name={}", getName());
+            logError("{}() called after stop was requested. name={}", caller, getName());
 
             addDeferredCount(events.size());
 
@@ -139,8 +154,8 @@ public synchronized boolean logJSON(Collection<String> events) {
         try {
             PrintWriter out = getLogFileStream();
 
-            for (String event : events) {
-                out.println(event);
+            for (T event : events) {
+                eventWriter.write(out, event);
             }
 
             out.flush();
@@ -157,41 +172,6 @@ public synchronized boolean logJSON(Collection<String> events) {
         return true;
     }
 
-    /*
-     * (non-Javadoc)
-     *
-     * @see
-     * org.apache.ranger.audit.provider.AuditProvider#log(java.util.Collection)
-     */
-    @Override
-    public boolean log(Collection<AuditEventBase> events) {
-        if (isStopped) {
-            addTotalCount(events.size());
-            addDeferredCount(events.size());
-
-            logError("log() called after stop was requested. name={}", getName());
-
-            return false;
-        }
-
-        List<String> jsonList = new ArrayList<>();
-
-        for (AuditEventBase event : events) {
-            try {
-                jsonList.add(MiscUtil.stringify(event));
-            } catch (Throwable t) {
-                addTotalCount(1);
-                addFailedCount(1);
-                logFailedEvent(event);
-
-                logger.error("Error converting to JSON. event={}", event);
-            }
-        }
-
-        return logJSON(jsonList);
-    }
-
-    // Helper methods in this class
     private synchronized PrintWriter getLogFileStream() throws Exception {
         closeFileIfNeeded();
 
@@ -262,4 +242,8 @@ private void closeFileIfNeeded() {
             currentFileName = null;
         }
     }
+
+    private interface EventWriter<T> {
+        void write(PrintWriter out, T event) throws IOException;
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.ranger.audit.provider;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang.ArrayUtils;
@@ -32,8 +33,10 @@
 import javax.security.auth.login.Configuration;
 import javax.security.auth.login.LoginContext;
 
+import java.io.CharArrayWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.rmi.dgc.VMID;
 import java.security.Principal;
@@ -96,6 +99,7 @@ public class MiscUtil {
 
         return objectMapper;
     });
+    private static final ThreadLocal<JsonLineBuffer> JSON_LINE_BUFFER = new ThreadLocal<>();
 
     private MiscUtil() {
         // to block instantiation
@@ -320,6 +324,36 @@ public static <T> String stringify(T log) {
         return ret;
     }
 
+    /**
+     * Writes the object as JSON followed by line separator, i.e. the same content as println(stringify(log)), without
+     * creating a String for each object. A generator and a buffer are reused across calls in the same thread.
+     */
+    public static <T> void writeJsonLine(T log, Writer out) throws IOException {
+        if (log == null || log instanceof String) {
+            out.write(String.valueOf(log));
+        } else {
+            JsonLineBuffer buffer = JSON_LINE_BUFFER.get();
+
+            try {
+                if (buffer == null) {
+                    buffer = new JsonLineBuffer(getMapper());
+
+                    JSON_LINE_BUFFER.set(buffer);
+                }
+
+                buffer.write(log, out);
+            } catch (Exception e) {
+                logger.error("Error occurred while processing JSOn object {}", log, e);
+
+                JSON_LINE_BUFFER.remove(); // generator state is unknown after a failure
+
+                out.write(log.toString()); // Fallback to default toString() method
+            }
+        }
+
+        out.write(LINE_SEPARATOR);
+    }
+
     public static <T> T fromJson(String jsonStr, Class<T> clazz) {
         try {
             return getMapper().readValue(jsonStr, clazz);
@@ -1030,4 +1064,26 @@ private static class RandomHolder {
     static {
         initLocalHost();
     }
+
+    private static final class JsonLineBuffer {
+        private final ObjectMapper    mapper;
+        private final CharArrayWriter buffer = new CharArrayWriter(4096);
+        private final JsonGenerator   generator;
+
+        JsonLineBuffer(ObjectMapper mapper) throws IOException {
+            this.mapper    = mapper;
+            this.generator = mapper.getFactory().createGenerator(buffer);
+
+            generator.setRootValueSeparator(null);
+        }
+
+        void write(Object obj, Writer out) throws IOException {
+            buffer.reset();
+
+            mapper.writeValue(generator, obj);
+            generator.flush();
+
+            buffer.writeTo(out);
+        }
+    }
 }
@@ -27,10 +27,12 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
- * This is a non-blocking queue with no limit on capacity.
+ * This is a non-blocking queue: when the queue is full, events are dropped (or handled as per the overflow policy).
  */
 public class AuditAsyncQueue extends AuditQueue implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(AuditAsyncQueue.class);
@@ -39,8 +41,8 @@ public class AuditAsyncQueue extends AuditQueue implements Runnable {
     static final String DEFAULT_NAME = "async";
     static       int    threadCount;
 
-    LinkedBlockingQueue<AuditEventBase> queue          = new LinkedBlockingQueue<>();
-    Thread                              consumerThread;
+    BlockingQueue<AuditEventBase> queue          = new LinkedBlockingQueue<>();
+    Thread                        consumerThread;
 
     public AuditAsyncQueue(AuditHandler consumer) {
         super(consumer);
@@ -62,15 +64,28 @@ public boolean log(AuditEventBase event) {
         addTotalCount(1);
 
         // Add to the queue and return ASAP
-        if (queue.size() >= getMaxQueueSize()) {
-            addFailedCount(1);
+        boolean ret;
+
+        try {
+            ret = enqueue(queue, event);
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
 
-            return false;
+            ret = false;
         }
 
-        queue.add(event);
+        if (!ret) {
+            addFailedCount(1);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void init(Properties props, String basePropertyName) {
+        super.init(props, basePropertyName);
 
-        return true;
+        queue = isRingBufferEnabled() ? createRingBuffer() : new LinkedBlockingQueue<>(getMaxQueueSize());
     }
 
     @Override
@@ -160,6 +175,11 @@ public int size() {
         return queue.size();
     }
 
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
     public void runLogAudit() {
         while (true) {
             try {
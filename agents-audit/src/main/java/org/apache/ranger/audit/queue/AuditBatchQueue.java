@@ -59,13 +59,11 @@ public AuditBatchQueue(AuditHandler consumer) {
     @Override
     public boolean log(AuditEventBase event) {
         try {
-            // Add to batchQueue. Block if full
-            queue.put(event);
+            // Add to batchQueue. If full, block or drop/spill as per the overflow policy
+            return enqueue(queue, event);
         } catch (InterruptedException ex) {
             throw new RuntimeException(ex);
         }
-
-        return true;
     }
 
     @Override
@@ -96,9 +94,13 @@ public synchronized void start() {
             return;
         }
 
-        logger.info("Creating ArrayBlockingQueue with maxSize={}", getMaxQueueSize());
+        if (isRingBufferEnabled()) {
+            queue = createRingBuffer();
+        } else {
+            logger.info("Creating ArrayBlockingQueue with maxSize={}", getMaxQueueSize());
 
-        queue = new ArrayBlockingQueue<>(getMaxQueueSize());
+            queue = new ArrayBlockingQueue<>(getMaxQueueSize());
+        }
 
         // Start the consumer first
         consumer.start();
@@ -151,6 +153,13 @@ public void init(Properties prop, String basePropertyName) {
         super.init(prop, propPrefix);
     }
 
+    @Override
+    public int getQueueDepth() {
+        BlockingQueue<AuditEventBase> queue = this.queue;
+
+        return queue != null ? queue.size() : 0;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -239,6 +248,16 @@ public void run() {
         }
     }
 
+    @Override
+    protected OverflowPolicy getDefaultOverflowPolicy() {
+        return OverflowPolicy.BLOCK;
+    }
+
+    @Override
+    protected boolean isSpillSupported() {
+        return fileSpoolerEnabled && fileSpooler != null;
+    }
+
     public void runLogAudit() {
         long    lastDispatchTime = System.currentTimeMillis();
         boolean isDestActive     = true;
@@ -66,6 +66,8 @@ public class AuditFileCacheProviderSpool implements Runnable {
     public static final String PROP_FILE_SPOOL_INDEX_FILE              = "filespool.index.filename";
     public static final String PROP_FILE_SPOOL_DEST_RETRY_MS           = "filespool.destination.retry.ms";
     public static final String PROP_FILE_SPOOL_BATCH_SIZE              = "filespool.buffer.size";
+    public static final String PROP_FILE_SPOOL_FSYNC_ENABLE            = "filespool.fsync.enable";
+    public static final String PROP_FILE_SPOOL_INDEX_JOURNAL_MAX       = "filespool.index.journal.max.records";
     public static final String AUDIT_IS_FILE_CACHE_PROVIDER_ENABLE_PROP = "xasecure.audit.provider.filecache.is.enabled";
     public static final String FILE_CACHE_PROVIDER_NAME                 = "AuditFileCacheProviderSpool";
 
@@ -89,6 +91,8 @@ public class AuditFileCacheProviderSpool implements Runnable {
     long             lastAttemptTime;
     boolean          initDone;
     PrintWriter      logWriter;
+    FileOutputStream logFileStream;
+    boolean          isFsyncEnabled;
     AuditIndexRecord currentWriterIndexRecord;
     AuditIndexRecord currentConsumerIndexRecord;
     Thread           destinationThread;
@@ -97,11 +101,14 @@ public class AuditFileCacheProviderSpool implements Runnable {
     int              retryDestinationMS   = 30 * 1000; // Default 30 seconds
     int              fileRolloverSec      = 24 * 60 * 60; // In seconds
     int              maxArchiveFiles      = 100;
+    int              maxJournalRecords    = AuditSpoolIndex.DEFAULT_MAX_JOURNAL_RECORDS;
     int              errorLogIntervalMS   = 30 * 1000; // Every 30 seconds
     int              auditBatchSize       = 1000;
     boolean          isWriting            = true;
     boolean          isSpoolingSuccessful = true;
 
+    AuditSpoolIndex<AuditIndexRecord> spoolIndex;
+
     public AuditFileCacheProviderSpool(AuditHandler consumerProvider) {
         this.consumerProvider = consumerProvider;
     }
@@ -137,11 +144,14 @@ public boolean init(Properties props, String basePropertyName) {
             retryDestinationMS              = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_DEST_RETRY_MS, retryDestinationMS);
             fileRolloverSec                 = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_FILE_ROLLOVER, fileRolloverSec);
             maxArchiveFiles                 = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_ARCHIVE_MAX_FILES_COUNT, maxArchiveFiles);
+            isFsyncEnabled                  = MiscUtil.getBooleanProperty(props, propPrefix + "." + PROP_FILE_SPOOL_FSYNC_ENABLE, isFsyncEnabled);
+            maxJournalRecords               = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_INDEX_JOURNAL_MAX, maxJournalRecords);
             isAuditFileCacheProviderEnabled = MiscUtil.getBooleanProperty(props, AUDIT_IS_FILE_CACHE_PROVIDER_ENABLE_PROP, false);
 
             logger.info("retryDestinationMS={}, queueName={}", retryDestinationMS, FILE_CACHE_PROVIDER_NAME);
             logger.info("fileRolloverSec={}, queueName={}", fileRolloverSec, FILE_CACHE_PROVIDER_NAME);
             logger.info("maxArchiveFiles={}, queueName={}", maxArchiveFiles, FILE_CACHE_PROVIDER_NAME);
+            logger.info("isFsyncEnabled={}, maxJournalRecords={}, queueName={}", isFsyncEnabled, maxJournalRecords, FILE_CACHE_PROVIDER_NAME);
 
             if (logFolderProp == null || logFolderProp.isEmpty()) {
                 logger.error("Audit spool folder is not configured. Please set {}.{}.queueName={}", propPrefix, PROP_FILE_SPOOL_LOCAL_DIR, FILE_CACHE_PROVIDER_NAME);
@@ -208,7 +218,9 @@ public boolean init(Properties props, String basePropertyName) {
                 }
             }
 
-            logger.info("indexFile={}, queueName={}", indexFile, FILE_CACHE_PROVIDER_NAME);
+            spoolIndex = new AuditSpoolIndex<>(indexFile, AuditIndexRecord.class, record -> record.id, isFsyncEnabled, maxJournalRecords);
+
+            logger.info("indexFile={}, indexJournalFile={}, queueName={}", indexFile, spoolIndex.getJournalFile(), FILE_CACHE_PROVIDER_NAME);
 
             int lastDot = indexFileName.lastIndexOf('.');
 
@@ -327,6 +339,7 @@ public void stop() {
                     logger.info("Closing open file, queueName={}, consumer={}", FILE_CACHE_PROVIDER_NAME, consumerProvider.getName());
 
                     out.flush();
+                    syncLogFile();
                     out.close();
 
                     break;
@@ -336,15 +349,24 @@ public void stop() {
             }
         }
 
-        try {
-            if (destinationThread != null) {
-                destinationThread.interrupt();
+        // destination thread updates the index, hence stop it before closing the index
+        if (destinationThread != null) {
+            destinationThread.interrupt();
+
+            try {
+                destinationThread.join(retryDestinationMS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (destinationThread.isAlive()) {
+                logger.warn("Destination thread did not exit in {} ms. queueName={}, consumer={}", retryDestinationMS, FILE_CACHE_PROVIDER_NAME, consumerProvider.getName());
             }
 
             destinationThread = null;
-        } catch (Throwable e) {
-            // ignore
         }
+
+        spoolIndex.close();
     }
 
     public void flush() {
@@ -358,6 +380,8 @@ public void flush() {
 
         if (out != null) {
             out.flush();
+
+            syncLogFile();
         }
     }
 
@@ -401,10 +425,9 @@ public synchronized void stashLogs(AuditEventBase event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut  = getLogFileStream();
-            String      jsonStr = MiscUtil.stringify(event); // Convert event to json
+            PrintWriter logOut = getLogFileStream();
 
-            logOut.println(jsonStr);
+            MiscUtil.writeJsonLine(event, logOut); // Convert event to json
             logOut.flush();
 
             isPending            = true;
@@ -570,7 +593,7 @@ public void runLogAudit() {
                         currentConsumerIndexRecord.failedAttemptCount++;
                         currentConsumerIndexRecord.lastAttempt = false;
 
-                        saveIndexFile();
+                        saveIndexRecord(currentConsumerIndexRecord);
                     }
                 }
 
@@ -600,21 +623,8 @@ public void runLogAudit() {
     void loadIndexFile() throws IOException {
         logger.info("Loading index file. fileName={}", indexFile.getPath());
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
-            indexRecords.clear();
-
-            for (String line = br.readLine(); line != null; line = br.readLine()) {
-                if (!line.isEmpty() && !line.startsWith("#")) {
-                    try {
-                        AuditIndexRecord record = MiscUtil.fromJson(line, AuditIndexRecord.class);
-
-                        indexRecords.add(record);
-                    } catch (Exception e) {
-                        logger.error("Error parsing following JSON: {}", line, e);
-                    }
-                }
-            }
-        }
+        indexRecords.clear();
+        indexRecords.addAll(spoolIndex.load());
     }
 
     synchronized void printIndex() {
@@ -651,14 +661,16 @@ synchronized void removeIndexRecord(AuditIndexRecord indexRecord) throws IOExcep
     }
 
     synchronized void saveIndexFile() throws IOException {
-        PrintWriter out = new PrintWriter(indexFile, StandardCharsets.UTF_8.name());
-
-        for (AuditIndexRecord auditIndexRecord : indexRecords) {
-            out.println(MiscUtil.stringify(auditIndexRecord));
-        }
+        spoolIndex.checkpoint(indexRecords);
+    }
 
-        out.close();
-        // printIndex();
+    /**
+     * Record progress of the given record, without rewriting the index file
+     *
+     * @throws IOException
+     */
+    synchronized void saveIndexRecord(AuditIndexRecord indexRecord) throws IOException {
+        spoolIndex.update(indexRecord, indexRecords);
     }
 
     void appendToDoneFile(AuditIndexRecord indexRecord) throws IOException {
@@ -750,11 +762,11 @@ void appendToDoneFile(AuditIndexRecord indexRecord) throws IOException {
         }
     }
 
-    void logError(String msg) {
+    void logError(String msg, Object... arguments) {
         long currTimeMS = System.currentTimeMillis();
 
         if (currTimeMS - lastErrorLogMS > errorLogIntervalMS) {
-            logger.error(msg);
+            logger.error(msg, arguments);
 
             lastErrorLogMS = currTimeMS;
         }
@@ -809,7 +821,8 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
             logger.info("Creating new file. queueName={}, fileName={}", FILE_CACHE_PROVIDER_NAME, fileName);
 
             // Open the file
-            logWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outLogFile), StandardCharsets.UTF_8)));
+            logFileStream = new FileOutputStream(outLogFile);
+            logWriter     = new PrintWriter(new BufferedWriter(new OutputStreamWriter(logFileStream, StandardCharsets.UTF_8)));
 
             AuditIndexRecord tmpIndexRecord = new AuditIndexRecord();
 
@@ -829,13 +842,24 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
                 // This means the process just started. We need to open the file in append mode.
                 logger.info("Opening existing file for append. queueName={}, fileName={}", FILE_CACHE_PROVIDER_NAME, currentWriterIndexRecord.filePath);
 
-                logWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(currentWriterIndexRecord.filePath, true), StandardCharsets.UTF_8)));
+                logFileStream = new FileOutputStream(currentWriterIndexRecord.filePath, true);
+                logWriter     = new PrintWriter(new BufferedWriter(new OutputStreamWriter(logFileStream, StandardCharsets.UTF_8)));
             }
         }
 
         return logWriter;
     }
 
+    private synchronized void syncLogFile() {
+        if (isFsyncEnabled && logFileStream != null) {
+            try {
+                logFileStream.getChannel().force(false);
+            } catch (IOException excp) {
+                logError("Error syncing spool file. queueName={}, consumer={}", FILE_CACHE_PROVIDER_NAME, consumerProvider.getName(), excp);
+            }
+        }
+    }
+
     private synchronized void closeFileIfNeeded() throws IOException {
         // Is there file open to write or there are no pending file, then close the active file
 
@@ -847,9 +871,11 @@ private synchronized void closeFileIfNeeded() throws IOException {
                 // Roll the file
                 if (logWriter != null) {
                     logWriter.flush();
+                    syncLogFile();
                     logWriter.close();
 
-                    logWriter = null;
+                    logWriter     = null;
+                    logFileStream = null;
                     closeFile = false;
                 }
 
@@ -891,7 +917,7 @@ private boolean sendEvent(List<AuditEventBase> events, AuditIndexRecord indexRec
                 indexRecord.lastSuccessTime = new Date();
                 indexRecord.lastAttempt     = true;
 
-                saveIndexFile();
+                saveIndexRecord(indexRecord);
 
                 if (isDestDown) {
                     isDestDown = false;
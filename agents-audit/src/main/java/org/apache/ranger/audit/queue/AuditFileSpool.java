@@ -31,9 +31,11 @@
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -60,6 +62,8 @@ public class AuditFileSpool implements Runnable {
     public static final String PROP_FILE_SPOOL_FILE_ROLLOVER           = "filespool.file.rollover.sec";
     public static final String PROP_FILE_SPOOL_INDEX_FILE              = "filespool.index.filename";
     public static final String PROP_FILE_SPOOL_DEST_RETRY_MS           = "filespool.destination.retry.ms";
+    public static final String PROP_FILE_SPOOL_FSYNC_ENABLE            = "filespool.fsync.enable";
+    public static final String PROP_FILE_SPOOL_INDEX_JOURNAL_MAX       = "filespool.index.journal.max.records";
     public static final String CONSUMER                                = ", consumer=";
 
     AuditQueue                      queueProvider;
@@ -78,6 +82,11 @@ public class AuditFileSpool implements Runnable {
     int    retryDestinationMS = 30 * 1000; // Default 30 seconds
     int    fileRolloverSec    = 24 * 60 * 60; // In seconds
     int    maxArchiveFiles    = 100;
+    int    maxJournalRecords  = AuditSpoolIndex.DEFAULT_MAX_JOURNAL_RECORDS;
+
+    // when enabled, spool file is synced on flush i.e. once per batch of events, and index on every update
+    boolean                           isFsyncEnabled;
+    AuditSpoolIndex<AuditIndexRecord> spoolIndex;
 
     int  errorLogIntervalMS = 30 * 1000; // Every 30 seconds
     long lastErrorLogMS;
@@ -89,6 +98,7 @@ public class AuditFileSpool implements Runnable {
     boolean initDone;
 
     PrintWriter      logWriter;
+    FileOutputStream logFileStream;
     AuditIndexRecord currentWriterIndexRecord;
     AuditIndexRecord currentConsumerIndexRecord;
 
@@ -132,10 +142,13 @@ public boolean init(Properties props, String basePropertyName) {
             retryDestinationMS = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_DEST_RETRY_MS, retryDestinationMS);
             fileRolloverSec    = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_FILE_ROLLOVER, fileRolloverSec);
             maxArchiveFiles    = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_ARCHIVE_MAX_FILES_COUNT, maxArchiveFiles);
+            isFsyncEnabled     = MiscUtil.getBooleanProperty(props, propPrefix + "." + PROP_FILE_SPOOL_FSYNC_ENABLE, isFsyncEnabled);
+            maxJournalRecords  = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_FILE_SPOOL_INDEX_JOURNAL_MAX, maxJournalRecords);
 
             logger.info("retryDestinationMS={}, queueName={}", retryDestinationMS, queueProvider.getName());
             logger.info("fileRolloverSec={}, queueName={}", fileRolloverSec, queueProvider.getName());
             logger.info("maxArchiveFiles={}, queueName={}", maxArchiveFiles, queueProvider.getName());
+            logger.info("isFsyncEnabled={}, maxJournalRecords={}, queueName={}", isFsyncEnabled, maxJournalRecords, queueProvider.getName());
 
             if (logFolderProp == null || logFolderProp.isEmpty()) {
                 logger.error("Audit spool folder is not configured. Please set {}.{}.queueName={}", propPrefix, PROP_FILE_SPOOL_LOCAL_DIR, queueProvider.getName());
@@ -202,7 +215,9 @@ public boolean init(Properties props, String basePropertyName) {
                 }
             }
 
-            logger.info("indexFile={}, queueName={}", indexFile, queueProvider.getName());
+            spoolIndex = new AuditSpoolIndex<>(indexFile, AuditIndexRecord.class, AuditIndexRecord::getId, isFsyncEnabled, maxJournalRecords);
+
+            logger.info("indexFile={}, indexJournalFile={}, queueName={}", indexFile, spoolIndex.getJournalFile(), queueProvider.getName());
 
             int lastDot = indexFileName.lastIndexOf('.');
 
@@ -316,6 +331,7 @@ public void stop() {
                     logger.info("Closing open file, queueName={}, consumer={}", queueProvider.getName(), consumerProvider.getName());
 
                     out.flush();
+                    syncLogFile();
                     out.close();
 
                     break;
@@ -325,15 +341,24 @@ public void stop() {
             }
         }
 
-        try {
-            if (destinationThread != null) {
-                destinationThread.interrupt();
+        // destination thread updates the index, hence stop it before closing the index
+        if (destinationThread != null) {
+            destinationThread.interrupt();
+
+            try {
+                destinationThread.join(retryDestinationMS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (destinationThread.isAlive()) {
+                logger.warn("Destination thread did not exit in {} ms. queueName={}, consumer={}", retryDestinationMS, queueProvider.getName(), consumerProvider.getName());
             }
 
             destinationThread = null;
-        } catch (Exception e) {
-            // ignore
         }
+
+        spoolIndex.close();
     }
 
     public void flush() {
@@ -346,6 +371,8 @@ public void flush() {
 
         if (out != null) {
             out.flush();
+
+            syncLogFile();
         }
     }
 
@@ -389,10 +416,9 @@ public synchronized void stashLogs(AuditEventBase event) {
         try {
             isWriting = true;
 
-            PrintWriter logOut  = getLogFileStream();
-            String      jsonStr = MiscUtil.stringify(event); // Convert event to json
+            PrintWriter logOut = getLogFileStream();
 
-            logOut.println(jsonStr);
+            MiscUtil.writeJsonLine(event, logOut); // Convert event to json
 
             isPending = true;
         } catch (Exception ex) {
@@ -547,7 +573,7 @@ public void runLogAudit() {
                         currentConsumerIndexRecord.setFailedAttemptCount(currentConsumerIndexRecord.getFailedAttemptCount() + 1);
                         currentConsumerIndexRecord.setLastAttempt(false);
 
-                        saveIndexFile();
+                        saveIndexRecord(currentConsumerIndexRecord);
                     }
                 }
 
@@ -579,17 +605,8 @@ public void runLogAudit() {
     void loadIndexFile() throws IOException {
         logger.info("Loading index file. fileName={}", indexFile.getPath());
 
-        try (BufferedReader br = new BufferedReader(new FileReader(indexFile))) {
-            indexRecords.clear();
-
-            for (String line = br.readLine(); line != null; line = br.readLine()) {
-                if (!line.isEmpty() && !line.startsWith("#")) {
-                    AuditIndexRecord record = MiscUtil.fromJson(line, AuditIndexRecord.class);
-
-                    indexRecords.add(record);
-                }
-            }
-        }
+        indexRecords.clear();
+        indexRecords.addAll(spoolIndex.load());
     }
 
     synchronized void printIndex() {
@@ -627,11 +644,16 @@ synchronized void removeIndexRecord(AuditIndexRecord indexRecord) throws IOExcep
     }
 
     synchronized void saveIndexFile() throws IOException {
-        try (PrintWriter out = new PrintWriter(indexFile)) {
-            for (AuditIndexRecord auditIndexRecord : indexRecords) {
-                out.println(MiscUtil.stringify(auditIndexRecord));
-            }
-        }
+        spoolIndex.checkpoint(indexRecords);
+    }
+
+    /**
+     * Record progress of the given record, without rewriting the index file
+     *
+     * @throws IOException
+     */
+    synchronized void saveIndexRecord(AuditIndexRecord indexRecord) throws IOException {
+        spoolIndex.update(indexRecord, indexRecords);
     }
 
     void appendToDoneFile(AuditIndexRecord indexRecord) throws IOException {
@@ -774,7 +796,8 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
             logger.info("Creating new file. queueName={}, filename={}", queueProvider.getName(), fileName);
 
             // Open the file
-            logWriter = new PrintWriter(new BufferedWriter(new FileWriter(outLogFile)));
+            logFileStream = new FileOutputStream(outLogFile);
+            logWriter     = new PrintWriter(new BufferedWriter(new OutputStreamWriter(logFileStream)));
 
             AuditIndexRecord tmpIndexRecord = new AuditIndexRecord();
 
@@ -794,13 +817,24 @@ private synchronized PrintWriter getLogFileStream() throws Exception {
                 // This means the process just started. We need to open the file
                 // in append mode.
                 logger.info("Opening existing file for append. queueName={}, filename={}", queueProvider.getName(), currentWriterIndexRecord.getFilePath());
-                logWriter = new PrintWriter(new BufferedWriter(new FileWriter(currentWriterIndexRecord.getFilePath(), true)));
+                logFileStream = new FileOutputStream(currentWriterIndexRecord.getFilePath(), true);
+                logWriter     = new PrintWriter(new BufferedWriter(new OutputStreamWriter(logFileStream)));
             }
         }
 
         return logWriter;
     }
 
+    private synchronized void syncLogFile() {
+        if (isFsyncEnabled && logFileStream != null) {
+            try {
+                logFileStream.getChannel().force(false);
+            } catch (IOException excp) {
+                logError("Error syncing spool file. queueName={}, consumer={}", queueProvider.getName(), consumerProvider.getName(), excp);
+            }
+        }
+    }
+
     private synchronized void closeFileIfNeeded() throws IOException {
         // Is there file open to write or there are no pending file, then close the active file
         if (currentWriterIndexRecord != null) {
@@ -821,9 +855,11 @@ private synchronized void closeFileIfNeeded() throws IOException {
                 // Roll the file
                 if (logWriter != null) {
                     logWriter.flush();
+                    syncLogFile();
                     logWriter.close();
 
-                    logWriter = null;
+                    logWriter     = null;
+                    logFileStream = null;
                 }
 
                 currentWriterIndexRecord.setStatus(SPOOL_FILE_STATUS.pending);
@@ -856,7 +892,7 @@ private boolean sendEvent(List<String> lines, AuditIndexRecord indexRecord, int
                 indexRecord.setLastSuccessTime(new Date());
                 indexRecord.setLastAttempt(true);
 
-                saveIndexFile();
+                saveIndexRecord(indexRecord);
 
                 if (isDestDown) {
                     isDestDown = false;
@@ -20,6 +20,7 @@
 package org.apache.ranger.audit.queue;
 
 import org.apache.ranger.audit.destination.AuditDestination;
+import org.apache.ranger.audit.model.AuditEventBase;
 import org.apache.ranger.audit.provider.AuditHandler;
 import org.apache.ranger.audit.provider.BaseAuditHandler;
 import org.apache.ranger.audit.provider.MiscUtil;
@@ -27,6 +28,9 @@
 import org.slf4j.LoggerFactory;
 
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 public abstract class AuditQueue extends BaseAuditHandler {
     private static final Logger LOG = LoggerFactory.getLogger(AuditQueue.class);
@@ -42,6 +46,8 @@ public abstract class AuditQueue extends BaseAuditHandler {
     public static final String PROP_FILE_SPOOL_ENABLE              = "filespool.enable";
     public static final String PROP_FILE_SPOOL_WAIT_FOR_FULL_DRAIN = "filespool.drain.full.wait.ms";
     public static final String PROP_FILE_SPOOL_QUEUE_THRESHOLD     = "filespool.drain.threshold.percent";
+    public static final String PROP_QUEUE_RING_BUFFER_ENABLE       = "queue.ring.buffer.enable";
+    public static final String PROP_QUEUE_OVERFLOW_POLICY          = "queue.overflow.policy";
 
     protected final AuditHandler   consumer;
     protected       AuditFileSpool fileSpooler;
@@ -59,6 +65,15 @@ public abstract class AuditQueue extends BaseAuditHandler {
     private int     maxBatchSize     = AUDIT_BATCH_SIZE_DEFAULT;
     private boolean isDrain;
 
+    private       boolean         isRingBufferEnabled;
+    private       OverflowPolicy  overflowPolicy;
+    private final LongAdder       droppedCount     = new LongAdder();
+    private final LongAdder       spilledCount     = new LongAdder();
+    private final LongAdder       enqueueCount     = new LongAdder();
+    private final LongAdder       enqueueTimeNanos = new LongAdder();
+    private final LongAccumulator maxEnqueueNanos  = new LongAccumulator(Long::max, 0);
+    private       long            lastEnqueueCount;
+
     /**
      * @param consumer
      */
@@ -85,7 +100,8 @@ public void init(Properties props, String basePropertyName) {
         setMaxQueueSize(MiscUtil.getIntProperty(props, propPrefix + "." + PROP_QUEUE_SIZE, getMaxQueueSize()));
         setMaxBatchInterval(MiscUtil.getIntProperty(props, propPrefix + "." + PROP_BATCH_INTERVAL, getMaxBatchInterval()));
 
-        fileSpoolerEnabled = MiscUtil.getBooleanProperty(props, propPrefix + "." + PROP_FILE_SPOOL_ENABLE, false);
+        fileSpoolerEnabled  = MiscUtil.getBooleanProperty(props, propPrefix + "." + PROP_FILE_SPOOL_ENABLE, false);
+        isRingBufferEnabled = MiscUtil.getBooleanProperty(props, propPrefix + "." + PROP_QUEUE_RING_BUFFER_ENABLE, false);
 
         String logFolderProp = MiscUtil.getStringProperty(props, propPrefix + "." + AuditFileSpool.PROP_FILE_SPOOL_LOCAL_DIR);
 
@@ -105,6 +121,39 @@ public void init(Properties props, String basePropertyName) {
         } else {
             LOG.info("File spool is disabled for {}", getName());
         }
+
+        String overflowPolicyProp = MiscUtil.getStringProperty(props, propPrefix + "." + PROP_QUEUE_OVERFLOW_POLICY);
+
+        overflowPolicy = getDefaultOverflowPolicy();
+
+        if (overflowPolicyProp != null) {
+            try {
+                overflowPolicy = OverflowPolicy.valueOf(overflowPolicyProp.trim().toUpperCase());
+            } catch (IllegalArgumentException excp) {
+                LOG.warn("Invalid value {} for {}.{}. Using {}", overflowPolicyProp, propPrefix, PROP_QUEUE_OVERFLOW_POLICY, overflowPolicy);
+            }
+        }
+
+        if (overflowPolicy == OverflowPolicy.SPILL && !isSpillSupported()) {
+            overflowPolicy = OverflowPolicy.DROP_NEW;
+
+            LOG.warn("Overflow policy SPILL requires a queue that replays its file spool, with file spool enabled. Using {} for queue {}", overflowPolicy, getName());
+        }
+
+        LOG.info("Queue {}: ringBufferEnabled={}, overflowPolicy={}", getName(), isRingBufferEnabled, overflowPolicy);
+    }
+
+    @Override
+    public void logStatus() {
+        super.logStatus();
+
+        long enqueued = enqueueCount.sum();
+
+        if (isStatusLogEnabled() && enqueued != lastEnqueueCount) {
+            lastEnqueueCount = enqueued;
+
+            LOG.info("AuditQueue(name={}): queueDepth={}, droppedCount={}, spilledCount={}, avgEnqueueMicros={}, maxEnqueueMicros={}", getName(), getQueueDepth(), getDroppedCount(), getSpilledCount(), getAvgEnqueueNanos() / 1000, maxEnqueueNanos.getThenReset() / 1000);
+        }
     }
 
     @Override
@@ -182,6 +231,40 @@ public void setMaxBatchSize(int maxBatchSize) {
         this.maxBatchSize = maxBatchSize;
     }
 
+    public boolean isRingBufferEnabled() {
+        return isRingBufferEnabled;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy != null ? overflowPolicy : getDefaultOverflowPolicy();
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int getQueueDepth() {
+        return 0;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+
+    public long getAvgEnqueueNanos() {
+        long count = enqueueCount.sum();
+
+        return count > 0 ? enqueueTimeNanos.sum() / count : 0;
+    }
+
+    public long getMaxEnqueueNanos() {
+        return maxEnqueueNanos.get();
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -212,4 +295,83 @@ public void flush() {
             consumer.flush();
         }
     }
+
+    protected OverflowPolicy getDefaultOverflowPolicy() {
+        return OverflowPolicy.DROP_NEW;
+    }
+
+    /*
+     * spilled events are sent to the consumer by the file spooler; queues that start, flush and stop the file spooler
+     * should override this to return true when the file spool is enabled
+     */
+    protected boolean isSpillSupported() {
+        return false;
+    }
+
+    protected BlockingQueue<AuditEventBase> createRingBuffer() {
+        LOG.info("Creating RingBufferBlockingQueue with maxSize={}", getMaxQueueSize());
+
+        return new RingBufferBlockingQueue<>(getMaxQueueSize());
+    }
+
+    /**
+     * Adds the event to the queue; when the queue is full, handles the event as per the overflow policy.
+     *
+     * @return false if the event was dropped
+     */
+    protected boolean enqueue(BlockingQueue<AuditEventBase> queue, AuditEventBase event) throws InterruptedException {
+        long    startNanos = System.nanoTime();
+        boolean ret        = queue.offer(event);
+
+        if (!ret) {
+            switch (getOverflowPolicy()) {
+                case BLOCK:
+                    queue.put(event);
+
+                    ret = true;
+                    break;
+
+                case DROP_OLDEST:
+                    while (!ret) {
+                        if (queue.poll() != null) {
+                            droppedCount.increment();
+                        }
+
+                        ret = queue.offer(event);
+                    }
+                    break;
+
+                case SPILL:
+                    if (isSpillSupported()) {
+                        fileSpooler.stashLogs(event);
+                        spilledCount.increment();
+
+                        ret = true;
+                    } else { // set with setOverflowPolicy() on a queue that doesn't replay the file spool
+                        droppedCount.increment();
+                    }
+                    break;
+
+                case DROP_NEW:
+                default:
+                    droppedCount.increment();
+                    break;
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        enqueueCount.increment();
+        enqueueTimeNanos.add(elapsedNanos);
+        maxEnqueueNanos.accumulate(elapsedNanos);
+
+        return ret;
+    }
+
+    public enum OverflowPolicy {
+        BLOCK,       // wait for space in the queue
+        DROP_OLDEST, // remove the oldest event in the queue to make space
+        DROP_NEW,    // drop the new event
+        SPILL        // write the new event to file spool
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.provider.MiscUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Persists the index of audit spool files as a checkpoint file and an append-only journal.
+ *
+ * The checkpoint, i.e. the index file, has one line per spool file and is rewritten only when a spool file is added
+ * to or removed from the index; it is written to a temporary file which then replaces the index file. Progress
+ * updates of a spool file - like the line position read by the destination, or a failed attempt - are appended to
+ * the journal; on load, the last journal entry of each spool file in the checkpoint replaces its checkpoint entry.
+ * The journal is truncated after each checkpoint, and a checkpoint is forced once the journal has maxJournalRecords
+ * entries.
+ *
+ * Replaying a journal left over from a crash between writing the checkpoint and truncating the journal can move a
+ * spool file back to an earlier line position; this results in the events being sent again, same as a crash before
+ * the progress was recorded.
+ *
+ * @param <T> type of index records, which are serialized as JSON
+ */
+public class AuditSpoolIndex<T> {
+    private static final Logger logger = LoggerFactory.getLogger(AuditSpoolIndex.class);
+
+    public static final int DEFAULT_MAX_JOURNAL_RECORDS = 10000;
+
+    private final File                indexFile;
+    private final File                journalFile;
+    private final File                tmpIndexFile;
+    private final Class<T>            recordClass;
+    private final Function<T, String> idOf;
+    private final boolean             isFsyncEnabled;
+    private final int                 maxJournalRecords;
+
+    private FileOutputStream journalStream;
+    private Writer           journalWriter;
+    private int              journalRecordCount;
+
+    public AuditSpoolIndex(File indexFile, Class<T> recordClass, Function<T, String> idOf, boolean isFsyncEnabled, int maxJournalRecords) {
+        String indexFileName = indexFile.getName();
+        int    lastDot       = indexFileName.lastIndexOf('.');
+        String baseName      = lastDot < 0 ? indexFileName : indexFileName.substring(0, lastDot);
+
+        this.indexFile         = indexFile;
+        this.journalFile       = new File(indexFile.getParentFile(), baseName + "_journal.json");
+        this.tmpIndexFile      = new File(indexFile.getParentFile(), indexFileName + ".tmp");
+        this.recordClass       = recordClass;
+        this.idOf              = idOf;
+        this.isFsyncEnabled    = isFsyncEnabled;
+        this.maxJournalRecords = maxJournalRecords > 0 ? maxJournalRecords : DEFAULT_MAX_JOURNAL_RECORDS;
+    }
+
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Loads the checkpoint and applies the journal on it
+     *
+     * @return records in the order they were added to the index
+     * @throws IOException
+     */
+    public synchronized List<T> load() throws IOException {
+        Map<String, T> records = new LinkedHashMap<>();
+
+        for (T record : readRecords(indexFile)) {
+            records.put(idOf.apply(record), record);
+        }
+
+        List<T> journalRecords = readRecords(journalFile);
+
+        for (T record : journalRecords) {
+            String id = idOf.apply(record);
+
+            if (records.containsKey(id)) {
+                records.put(id, record);
+            }
+        }
+
+        logger.info("Loaded index. fileName={}, records={}, journalRecords={}", indexFile.getPath(), records.size(), journalRecords.size());
+
+        List<T> ret = new ArrayList<>(records.values());
+
+        if (!journalRecords.isEmpty()) { // fold the journal into the checkpoint, so that it doesn't get replayed again
+            checkpoint(ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Rewrites the index file with given records and truncates the journal
+     *
+     * @param records all records in the index
+     * @throws IOException
+     */
+    public synchronized void checkpoint(Collection<T> records) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(tmpIndexFile)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            for (T record : records) {
+                writeRecord(record, writer);
+            }
+
+            writer.flush();
+
+            if (isFsyncEnabled) {
+                out.getChannel().force(false);
+            }
+        }
+
+        try {
+            Files.move(tmpIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException excp) {
+            Files.move(tmpIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        closeJournal();
+
+        try (FileOutputStream ignored = new FileOutputStream(journalFile)) {
+            journalRecordCount = 0;
+        }
+    }
+
+    /**
+     * Appends the given record to the journal. A checkpoint is written instead when the journal is full
+     *
+     * @param record  the updated record
+     * @param records all records in the index
+     * @throws IOException
+     */
+    public synchronized void update(T record, Collection<T> records) throws IOException {
+        if (journalRecordCount >= maxJournalRecords) {
+            logger.debug("Index journal has {} records. Writing checkpoint. fileName={}", journalRecordCount, indexFile.getPath());
+
+            checkpoint(records);
+        } else {
+            if (journalWriter == null) {
+                journalStream = new FileOutputStream(journalFile, true);
+                journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream, StandardCharsets.UTF_8));
+            }
+
+            writeRecord(record, journalWriter);
+
+            journalWriter.flush();
+
+            if (isFsyncEnabled) {
+                journalStream.getChannel().force(false);
+            }
+
+            journalRecordCount++;
+        }
+    }
+
+    public synchronized void close() {
+        try {
+            closeJournal();
+        } catch (IOException excp) {
+            logger.warn("Error closing index journal. fileName={}", journalFile.getPath(), excp);
+        }
+    }
+
+    private void closeJournal() throws IOException {
+        if (journalWriter != null) {
+            try {
+                journalWriter.close();
+            } finally {
+                journalWriter = null;
+                journalStream = null;
+            }
+        }
+    }
+
+    private void writeRecord(T record, Writer writer) throws IOException {
+        writer.write(MiscUtil.stringify(record));
+        writer.write(System.lineSeparator());
+    }
+
+    private List<T> readRecords(File file) throws IOException {
+        List<T> ret = new ArrayList<>();
+
+        if (file.exists()) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                for (String line = br.readLine(); line != null; line = br.readLine()) {
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        try {
+                            T record = MiscUtil.fromJson(line, recordClass);
+
+                            if (record != null && idOf.apply(record) != null) {
+                                ret.add(record);
+                            }
+                        } catch (Exception e) { // a partially written last line, when the process was killed while writing
+                            logger.error("Error parsing following JSON: {}", line, e);
+                        }
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+}
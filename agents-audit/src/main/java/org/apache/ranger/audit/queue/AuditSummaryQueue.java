@@ -32,11 +32,12 @@
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
- * This is a non-blocking queue with no limit on capacity.
+ * This is a non-blocking queue: when the queue is full, events are dropped (or handled as per the overflow policy).
  */
 public class AuditSummaryQueue extends AuditQueue implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(AuditSummaryQueue.class);
@@ -48,9 +49,9 @@ public class AuditSummaryQueue extends AuditQueue implements Runnable {
     static final String DEFAULT_NAME = "summary";
     static       int    threadCount;
 
-    Thread                              consumerThread;
-    LinkedBlockingQueue<AuditEventBase> queue      = new LinkedBlockingQueue<>();
-    HashMap<String, AuditSummary>       summaryMap = new HashMap<>();
+    Thread                        consumerThread;
+    BlockingQueue<AuditEventBase> queue      = new LinkedBlockingQueue<>();
+    HashMap<String, AuditSummary> summaryMap = new HashMap<>();
 
     private int maxSummaryIntervalMs = 5000;
 
@@ -64,6 +65,8 @@ public AuditSummaryQueue(AuditHandler consumer) {
     public void init(Properties props, String propPrefix) {
         super.init(props, propPrefix);
 
+        queue = isRingBufferEnabled() ? createRingBuffer() : new LinkedBlockingQueue<>(getMaxQueueSize());
+
         maxSummaryIntervalMs = MiscUtil.getIntProperty(props, propPrefix + "." + PROP_SUMMARY_INTERVAL, maxSummaryIntervalMs);
 
         logger.info("maxSummaryInterval={}, name={}", maxSummaryIntervalMs, getName());
@@ -79,13 +82,18 @@ public void init(Properties props, String propPrefix) {
     @Override
     public boolean log(AuditEventBase event) {
         // Add to the queue and return ASAP
-        if (queue.size() >= getMaxQueueSize()) {
+        try {
+            return enqueue(queue, event);
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
             return false;
         }
+    }
 
-        queue.add(event);
-
-        return true;
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
     }
 
     @Override
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring-buffer queue in which offer() and poll() don't take any lock.
+ *
+ * Each slot carries a sequence number that tells whether the slot is free for the producer at a given position or
+ * holds an element for the consumer at that position; producers and consumers claim positions with a CAS on the
+ * respective counter. Multiple producers and consumers are supported - AuditQueue has a single consumer thread, but
+ * producers remove the oldest element when overflow policy is DROP_OLDEST.
+ *
+ * The lock is used only by threads that have to wait, i.e. put()/take() and timed offer()/poll(), and is acquired by
+ * offer()/poll() only when there are such waiting threads.
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final int                     capacity;
+    private final int                     mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray         sequences;
+    private final AtomicLong              enqueuePos       = new AtomicLong();
+    private final AtomicLong              dequeuePos       = new AtomicLong();
+    private final AtomicInteger           waitingProducers = new AtomicInteger();
+    private final AtomicInteger           waitingConsumers = new AtomicInteger();
+    private final ReentrantLock           lock             = new ReentrantLock();
+    private final Condition               notEmpty         = lock.newCondition();
+    private final Condition               notFull          = lock.newCondition();
+
+    /**
+     * @param capacity rounded up to the next power of 2
+     */
+    public RingBufferBlockingQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("invalid capacity " + capacity + ": must be between 1 and " + MAX_CAPACITY);
+        }
+
+        this.capacity  = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask      = this.capacity - 1;
+        this.elements  = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long pos = enqueuePos.get();
+
+        while (true) {
+            int  idx = (int) (pos & mask);
+            long seq = sequences.get(idx);
+
+            if (seq == pos) { // slot is free for this position
+                if (enqueuePos.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(idx, e);
+                    sequences.set(idx, pos + 1); // publish to consumer
+
+                    if (waitingConsumers.get() > 0) {
+                        signal(notEmpty);
+                    }
+
+                    return true;
+                }
+
+                pos = enqueuePos.get();
+            } else if (seq < pos) { // slot still has the element enqueued capacity positions earlier: full
+                return false;
+            } else { // another producer claimed this position
+                pos = enqueuePos.get();
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        long pos = dequeuePos.get();
+
+        while (true) {
+            int  idx = (int) (pos & mask);
+            long seq = sequences.get(idx);
+
+            if (seq == pos + 1) { // slot has the element for this position
+                if (dequeuePos.compareAndSet(pos, pos + 1)) {
+                    E ret = elements.get(idx);
+
+                    elements.lazySet(idx, null);
+                    sequences.set(idx, pos + capacity); // release to producer
+
+                    if (waitingProducers.get() > 0) {
+                        signal(notFull);
+                    }
+
+                    return ret;
+                }
+
+                pos = dequeuePos.get();
+            } else if (seq < pos + 1) { // element for this position not yet published: empty
+                return null;
+            } else { // another consumer claimed this position
+                pos = dequeuePos.get();
+            }
+        }
+    }
+
+    @Override
+    public E peek() {
+        long pos = dequeuePos.get();
+        int  idx = (int) (pos & mask);
+
+        return sequences.get(idx) == pos + 1 ? elements.get(idx) : null;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offer(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        boolean ret = offer(e);
+
+        if (!ret) {
+            long nanos    = unit.toNanos(timeout);
+            long deadline = nanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + nanos;
+
+            waitingProducers.incrementAndGet();
+
+            try {
+                while (!ret) {
+                    long waitNanos = deadline == Long.MAX_VALUE ? MAX_WAIT_NANOS : Math.min(MAX_WAIT_NANOS, deadline - System.nanoTime());
+
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+
+                    lock.lockInterruptibly();
+
+                    try {
+                        if (size() >= capacity) {
+                            notFull.awaitNanos(waitNanos);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    ret = offer(e);
+                }
+            } finally {
+                waitingProducers.decrementAndGet();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E ret = poll();
+
+        if (ret == null) {
+            long nanos    = unit.toNanos(timeout);
+            long deadline = nanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + nanos;
+
+            waitingConsumers.incrementAndGet();
+
+            try {
+                while (ret == null) {
+                    long waitNanos = deadline == Long.MAX_VALUE ? MAX_WAIT_NANOS : Math.min(MAX_WAIT_NANOS, deadline - System.nanoTime());
+
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+
+                    lock.lockInterruptibly();
+
+                    try {
+                        if (isEmpty()) {
+                            notEmpty.awaitNanos(waitNanos);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    ret = poll();
+                }
+            } finally {
+                waitingConsumers.decrementAndGet();
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+
+        int ret = 0;
+
+        while (ret < maxElements) {
+            E e = poll();
+
+            if (e == null) {
+                break;
+            }
+
+            c.add(e);
+
+            ret++;
+        }
+
+        return ret;
+    }
+
+    @Override
+    public int size() {
+        long dequeued = dequeuePos.get();
+        long enqueued = enqueuePos.get();
+
+        return (int) Math.max(0, Math.min(capacity, enqueued - dequeued));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return a snapshot of the elements in the queue; the iterator doesn't support remove()
+     */
+    @Override
+    public Iterator<E> iterator() {
+        List<E> ret = new ArrayList<>();
+        long    end = enqueuePos.get();
+
+        for (long pos = dequeuePos.get(); pos < end; pos++) {
+            int idx = (int) (pos & mask);
+            E   e   = sequences.get(idx) == pos + 1 ? elements.get(idx) : null;
+
+            if (e != null) {
+                ret.add(e);
+            }
+        }
+
+        return Collections.unmodifiableList(ret).iterator();
+    }
+
+    private void signal(Condition condition) {
+        lock.lock();
+
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
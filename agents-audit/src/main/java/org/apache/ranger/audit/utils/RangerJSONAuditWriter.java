@@ -20,11 +20,13 @@
  */
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.ranger.audit.model.AuditEventBase;
 import org.apache.ranger.audit.provider.MiscUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.security.PrivilegedExceptionAction;
 import java.util.Collection;
@@ -89,6 +91,18 @@ public void init() {
     }
 
     public synchronized boolean logJSON(final Collection<String> events) throws Exception {
+        return writeEvents(events, PrintWriter::println);
+    }
+
+    /**
+     * Writes the events as JSON lines directly into the file stream, without creating a String for each event.
+     */
+    @Override
+    public synchronized boolean logEvents(final Collection<AuditEventBase> events) throws Exception {
+        return writeEvents(events, (out, event) -> MiscUtil.writeJsonLine(event, out));
+    }
+
+    private <T> boolean writeEvents(final Collection<T> events, final EventWriter<T> eventWriter) throws Exception {
         PrintWriter out = null;
 
         try {
@@ -102,8 +116,8 @@ public synchronized boolean logJSON(final Collection<String> events) throws Exce
                 } else {
                     out1 = getLogFileStream();
 
-                    for (String event : events) {
-                        out1.println(event);
+                    for (T event : events) {
+                        eventWriter.write(out1, event);
                     }
                 }
 
@@ -202,6 +216,10 @@ private void startAuditFilePeriodicRollOverTask() {
         executorService.scheduleAtFixedRate(new AuditFilePeriodicRollOverTask(), 0, periodicRollOverCheckTimeinSec, TimeUnit.SECONDS);
     }
 
+    private interface EventWriter<T> {
+        void write(PrintWriter out, T event) throws IOException;
+    }
+
     static class AuditFilePeriodicRollOverTaskThreadFactory implements ThreadFactory {
         //Threadfactory to create a daemon Thread.
         @Override
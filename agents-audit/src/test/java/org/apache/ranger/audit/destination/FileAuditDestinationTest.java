@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.destination;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.audit.provider.MiscUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileAuditDestinationTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testLogStreamsEventsAsJsonLines() throws Exception {
+        FileAuditDestination  destination = createDestination();
+        List<AuditEventBase>  events      = new ArrayList<>();
+        List<String>          expected    = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            AuthzAuditEvent event = new AuthzAuditEvent();
+
+            event.setEventId("event-" + i);
+            event.setUser("user-" + i);
+            event.setResourcePath("/path/" + i);
+            event.setAccessResult((short) 1);
+
+            events.add(event);
+            expected.add(MiscUtil.stringify(event));
+        }
+
+        assertTrue(destination.log(events));
+        assertTrue(destination.logJSON(Arrays.asList("{\"id\":\"json-1\"}", "{\"id\":\"json-2\"}")));
+
+        destination.stop();
+
+        expected.add("{\"id\":\"json-1\"}");
+        expected.add("{\"id\":\"json-2\"}");
+
+        assertEquals(expected, readLogLines());
+        assertEquals(5, destination.getTotalCount());
+        assertEquals(5, destination.getTotalSuccessCount());
+    }
+
+    @Test
+    public void testLogAfterStopIsDeferred() throws Exception {
+        FileAuditDestination destination = createDestination();
+
+        destination.stop();
+
+        assertFalse(destination.log(Arrays.asList(new AuthzAuditEvent(), new AuthzAuditEvent())));
+        assertFalse(destination.logJSON(Arrays.asList("{}")));
+        assertEquals(3, destination.getTotalDeferredCount());
+        assertEquals(0, destination.getTotalSuccessCount());
+    }
+
+    private FileAuditDestination createDestination() throws Exception {
+        FileAuditDestination destination = new FileAuditDestination();
+        Properties           props       = new Properties();
+
+        props.setProperty("test." + FileAuditDestination.PROP_FILE_LOCAL_DIR, tempFolder.getRoot().getAbsolutePath());
+        props.setProperty("test." + FileAuditDestination.PROP_FILE_LOCAL_FILE_NAME_FORMAT, "test_audit.log");
+
+        destination.init(props, "test");
+        destination.start();
+
+        return destination;
+    }
+
+    private List<String> readLogLines() throws Exception {
+        File[] files = tempFolder.getRoot().listFiles();
+
+        assertNotNull(files);
+        assertEquals(1, files.length);
+
+        return Files.readAllLines(files[0].toPath(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.destination.AuditDestination;
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.audit.queue.AuditQueue.OverflowPolicy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AuditQueueSpillTest {
+    private static final int EVENT_COUNT = 20;
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void testSpilledEventsReachDestination() throws Exception {
+        String          prefix      = "test.batch";
+        CountDownLatch  release     = new CountDownLatch(1);
+        TestDestination destination = new TestDestination(release);
+        AuditBatchQueue queue       = new AuditBatchQueue(destination);
+
+        queue.init(getSpillProperties(prefix), prefix);
+
+        assertEquals(OverflowPolicy.SPILL, queue.getOverflowPolicy());
+
+        queue.start();
+
+        try {
+            Set<String> eventIds = new HashSet<>();
+
+            // the destination holds the first batch, so that the queue fills up and further events are spilled
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                AuthzAuditEvent event = new AuthzAuditEvent();
+
+                event.setEventId("event-" + i);
+                eventIds.add(event.getEventId());
+
+                assertTrue(queue.log(event));
+            }
+
+            assertTrue("no event was spilled", queue.getSpilledCount() > 0);
+            assertEquals(0, queue.getDroppedCount());
+
+            release.countDown();
+
+            long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+
+            while (!destination.eventIds.containsAll(eventIds) && System.currentTimeMillis() < endTime) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(eventIds, destination.eventIds);
+        } finally {
+            queue.stop();
+        }
+    }
+
+    @Test
+    public void testSpillNotUsedByQueuesWithoutSpoolReplay() throws Exception {
+        String          prefix = "test.async";
+        AuditAsyncQueue queue  = new AuditAsyncQueue(new TestDestination(new CountDownLatch(0)));
+
+        queue.init(getSpillProperties(prefix), prefix);
+
+        assertEquals(OverflowPolicy.DROP_NEW, queue.getOverflowPolicy());
+
+        queue.setOverflowPolicy(OverflowPolicy.SPILL);
+
+        AuthzAuditEvent event = new AuthzAuditEvent();
+
+        assertTrue(queue.log(event));
+        assertTrue(queue.log(event));
+        assertFalse(queue.log(event));
+        assertEquals(0, queue.getSpilledCount());
+        assertEquals(1, queue.getDroppedCount());
+    }
+
+    private Properties getSpillProperties(String prefix) throws Exception {
+        Properties props = new Properties();
+
+        props.setProperty(prefix + "." + AuditQueue.PROP_QUEUE_SIZE, "2");
+        props.setProperty(prefix + "." + AuditQueue.PROP_BATCH_SIZE, "1");
+        props.setProperty(prefix + "." + AuditQueue.PROP_QUEUE_OVERFLOW_POLICY, "spill");
+        props.setProperty(prefix + "." + AuditQueue.PROP_FILE_SPOOL_ENABLE, "true");
+        props.setProperty(prefix + "." + AuditFileSpool.PROP_FILE_SPOOL_LOCAL_DIR, tmpFolder.newFolder().getAbsolutePath());
+        props.setProperty(prefix + "." + AuditFileSpool.PROP_FILE_SPOOL_DEST_RETRY_MS, "100");
+
+        return props;
+    }
+
+    private static class TestDestination extends AuditDestination {
+        final Set<String>    eventIds = ConcurrentHashMap.newKeySet();
+        final CountDownLatch release;
+
+        TestDestination(CountDownLatch release) {
+            this.release = release;
+
+            setName("test_dest");
+        }
+
+        @Override
+        public boolean log(Collection<AuditEventBase> events) {
+            try {
+                release.await();
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+
+            for (AuditEventBase event : events) {
+                eventIds.add(((AuthzAuditEvent) event).getEventId());
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit.queue;
+
+import org.apache.ranger.audit.model.AuditEventBase;
+import org.apache.ranger.audit.model.AuthzAuditEvent;
+import org.apache.ranger.audit.provider.AuditHandler;
+import org.apache.ranger.audit.queue.AuditQueue.OverflowPolicy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class RingBufferBlockingQueueTest {
+    @Test
+    public void testOfferPoll() {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(3);
+
+        assertEquals(4, queue.getCapacity());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+
+        assertFalse("queue should be full", queue.offer(4));
+        assertEquals(4, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertEquals(Integer.valueOf(0), queue.peek());
+
+        for (int round = 0; round < 10; round++) { // wrap around several times
+            assertEquals(Integer.valueOf(round), queue.poll());
+            assertTrue(queue.offer(round + 4));
+        }
+
+        List<Integer> drained = new ArrayList<>();
+
+        assertEquals(4, queue.drainTo(drained));
+        assertEquals(4, drained.size());
+        assertEquals(Integer.valueOf(10), drained.get(0));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final int                        producerCount     = 4;
+        final int                        eventsPerProducer = 50000;
+        RingBufferBlockingQueue<Integer> queue             = new RingBufferBlockingQueue<>(128);
+        ExecutorService                  executor          = Executors.newFixedThreadPool(producerCount);
+        List<Future<?>>                  producers         = new ArrayList<>();
+        Set<Integer>                     received          = new HashSet<>();
+
+        try {
+            for (int p = 0; p < producerCount; p++) {
+                final int base = p * eventsPerProducer;
+
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        queue.put(base + i);
+                    }
+
+                    return null;
+                }));
+            }
+
+            while (received.size() < producerCount * eventsPerProducer) {
+                Integer value = queue.poll(10, TimeUnit.SECONDS);
+
+                assertTrue("timed out waiting for events; received " + received.size(), value != null);
+                assertTrue("duplicate value " + value, received.add(value));
+            }
+
+            for (Future<?> producer : producers) {
+                producer.get(10, TimeUnit.SECONDS);
+            }
+
+            assertTrue(queue.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOverflowPolicies() throws Exception {
+        AuditEventBase[] events = new AuditEventBase[] {new AuthzAuditEvent(), new AuthzAuditEvent(), new AuthzAuditEvent()};
+
+        AuditAsyncQueue dropNew = createQueue(OverflowPolicy.DROP_NEW);
+
+        assertTrue(dropNew.log(events[0]));
+        assertTrue(dropNew.log(events[1]));
+        assertFalse(dropNew.log(events[2]));
+        assertEquals(1, dropNew.getDroppedCount());
+        assertEquals(2, dropNew.getQueueDepth());
+        assertSame(events[0], dropNew.queue.poll());
+
+        AuditAsyncQueue dropOldest = createQueue(OverflowPolicy.DROP_OLDEST);
+
+        assertTrue(dropOldest.log(events[0]));
+        assertTrue(dropOldest.log(events[1]));
+        assertTrue(dropOldest.log(events[2]));
+        assertEquals(1, dropOldest.getDroppedCount());
+        assertSame(events[1], dropOldest.queue.poll());
+        assertSame(events[2], dropOldest.queue.poll());
+
+        AuditAsyncQueue block    = createQueue(OverflowPolicy.BLOCK);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            assertTrue(block.log(events[0]));
+            assertTrue(block.log(events[1]));
+
+            Future<Boolean> blocked = executor.submit(() -> block.log(events[2]));
+
+            Thread.sleep(200);
+
+            assertFalse("log() should block while the queue is full", blocked.isDone());
+            assertSame(events[0], block.queue.poll());
+            assertTrue(blocked.get(10, TimeUnit.SECONDS));
+            assertEquals(0, block.getDroppedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static AuditAsyncQueue createQueue(OverflowPolicy overflowPolicy) {
+        Properties props  = new Properties();
+        String     prefix = "test.async";
+
+        props.setProperty(prefix + "." + AuditQueue.PROP_QUEUE_SIZE, "2");
+        props.setProperty(prefix + "." + AuditQueue.PROP_QUEUE_RING_BUFFER_ENABLE, "true");
+        props.setProperty(prefix + "." + AuditQueue.PROP_QUEUE_OVERFLOW_POLICY, overflowPolicy.name().toLowerCase());
+
+        AuditAsyncQueue ret = new AuditAsyncQueue(mock(AuditHandler.class));
+
+        ret.init(props, prefix);
+
+        BlockingQueue<AuditEventBase> queue = ret.queue;
+
+        assertTrue(queue instanceof RingBufferBlockingQueue);
+        assertEquals(overflowPolicy, ret.getOverflowPolicy());
+
+        return ret;
+    }
+}
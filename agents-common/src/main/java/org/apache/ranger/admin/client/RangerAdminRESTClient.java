@@ -71,6 +71,7 @@ public class RangerAdminRESTClient extends AbstractRangerAdminClient {
     private       RangerRESTClient restClient;
     private       boolean          supportsPolicyDeltas;
     private       boolean          supportsTagDeltas;
+    private       long             longPollTimeoutMs;
     private       boolean          isRangerCookieEnabled;
     private       String           rangerAdminCookieName;
     private       Cookie           sessionId;
@@ -107,6 +108,11 @@ public void init(String serviceName, String appId, String propertyPrefix, Config
         supportsTagDeltas     = config.getBoolean(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_TAG_DELTA_DEFAULT);
         isRangerCookieEnabled = config.getBoolean(propertyPrefix + ".policy.rest.client.cookie.enabled", RangerCommonConstants.POLICY_REST_CLIENT_SESSION_COOKIE_ENABLED);
         rangerAdminCookieName = config.get(propertyPrefix + ".policy.rest.client.session.cookie.name", RangerCommonConstants.DEFAULT_COOKIE_NAME);
+        longPollTimeoutMs     = config.getLong(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS_DEFAULT);
+
+        if (longPollTimeoutMs >= restClientReadTimeOutMs) {
+            LOG.warn("{}{}={} must be less than the read timeout {}ms; downloads might time out while waiting for updates", propertyPrefix, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS, longPollTimeoutMs, restClientReadTimeOutMs);
+        }
 
         if (!StringUtil.isEmpty(tmpUrl)) {
             url = tmpUrl.trim();
@@ -143,6 +149,10 @@ public ServicePolicies getServicePoliciesIfUpdated(final long lastKnownVersion,
         queryParams.put(RangerRESTUtils.REST_PARAM_SUPPORTS_POLICY_DELTAS, Boolean.toString(supportsPolicyDeltas));
         queryParams.put(RangerRESTUtils.REST_PARAM_CAPABILITIES, pluginCapabilities);
 
+        if (longPollTimeoutMs > 0) {
+            queryParams.put(RangerRESTUtils.REST_PARAM_LONG_POLL_TIMEOUT_MS, Long.toString(longPollTimeoutMs));
+        }
+
         final ClientResponse response;
 
         if (isSecureMode) {
@@ -766,6 +776,10 @@ public ServiceTags getServiceTagsIfUpdated(final long lastKnownVersion, final lo
         queryParams.put(RangerRESTUtils.REST_PARAM_SUPPORTS_TAG_DELTAS, Boolean.toString(supportsTagDeltas));
         queryParams.put(RangerRESTUtils.REST_PARAM_CAPABILITIES, pluginCapabilities);
 
+        if (longPollTimeoutMs > 0) {
+            queryParams.put(RangerRESTUtils.REST_PARAM_LONG_POLL_TIMEOUT_MS, Long.toString(longPollTimeoutMs));
+        }
+
         final ClientResponse response;
 
         if (isSecureMode) {
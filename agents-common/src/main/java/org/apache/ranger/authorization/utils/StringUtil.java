@@ -27,7 +27,9 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
@@ -40,11 +42,13 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.WeakHashMap;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 public class StringUtil {
-    private static final TimeZone gmtTimeZone = TimeZone.getTimeZone("GMT+0");
+    private static final TimeZone            gmtTimeZone    = TimeZone.getTimeZone("GMT+0");
+    private static final Map<String, String> SHARED_STR_TBL = new WeakStringTable();
 
     private StringUtil() {
         // to block instantiation
@@ -504,6 +508,35 @@ public static String dedupString(String str, Map<String, String> strTbl) {
         return ret == null ? str : ret;
     }
 
+    // returns an unmodifiable list, shared by all callers having an equal list
+    public static <T> List<T> dedupList(List<T> value, Map<List<T>, List<T>> listTbl) {
+        final List<T> ret;
+
+        if (CollectionUtils.isNotEmpty(value)) {
+            List<T> existing = listTbl.get(value);
+
+            if (existing == null) {
+                existing = Collections.unmodifiableList(new ArrayList<>(value));
+
+                listTbl.put(existing, existing);
+            }
+
+            ret = existing;
+        } else {
+            ret = value;
+        }
+
+        return ret;
+    }
+
+    /*
+     * Returns a string table that can be used with dedupString(), to share strings across all callers in the process.
+     * Strings are held weakly, hence are removed from the table once they are no longer referenced elsewhere.
+     */
+    public static Map<String, String> getSharedStringTable() {
+        return SHARED_STR_TBL;
+    }
+
     public static String compressString(String input) throws IOException {
         final String ret;
 
@@ -558,4 +591,49 @@ public static String gzipDecompress(byte[] input) throws IOException {
 
         return new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
     }
+
+    /*
+     * Map of strings held weakly, with each string mapped to itself; to be used only as string table in dedupString()
+     */
+    private static class WeakStringTable extends AbstractMap<String, String> {
+        private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+        @Override
+        public synchronized String get(Object key) {
+            WeakReference<String> ref = strings.get(key);
+
+            return ref != null ? ref.get() : null;
+        }
+
+        @Override
+        public synchronized String putIfAbsent(String key, String value) {
+            String ret = get(key);
+
+            if (ret == null) {
+                strings.put(value, new WeakReference<>(value));
+            }
+
+            return ret;
+        }
+
+        @Override
+        public synchronized int size() {
+            return strings.size();
+        }
+
+        @Override
+        public synchronized Set<Entry<String, String>> entrySet() {
+            Map<String, String> ret = new HashMap<>(strings.size());
+
+            for (WeakReference<String> ref : strings.values()) {
+                String str = ref.get();
+
+                if (str != null) {
+                    ret.put(str, str);
+                }
+            }
+
+            return ret.entrySet();
+        }
+    }
 }
@@ -28,6 +28,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 
 import java.util.List;
@@ -38,8 +39,10 @@
 public class RangerScriptConditionEvaluator extends RangerAbstractConditionEvaluator {
     private static final Logger LOG = LoggerFactory.getLogger(RangerScriptConditionEvaluator.class);
 
-    private ScriptEngine scriptEngine;
-    private Boolean      enableJsonCtx;
+    private          ScriptEngine   scriptEngine;
+    private          Boolean        enableJsonCtx;
+    private volatile CompiledScript compiledScript;
+    private volatile boolean        isCompileDone;
 
     @Override
     public void init() {
@@ -96,8 +99,13 @@ public boolean isMatched(RangerAccessRequest request) {
                 }
 
                 RangerRequestScriptEvaluator evaluator = new RangerRequestScriptEvaluator(request, scriptEngine, enableJsonCtx);
+                CompiledScript               compiled  = getCompiledScript(script);
 
-                evaluator.evaluateConditionScript(script);
+                if (compiled != null) {
+                    evaluator.evaluateConditionScript(compiled);
+                } else {
+                    evaluator.evaluateConditionScript(script);
+                }
 
                 result = evaluator.getResult();
             } else {
@@ -116,6 +124,22 @@ public boolean isMatched(RangerAccessRequest request) {
         return result;
     }
 
+    // script is compiled on first use, as subclasses (like RangerScriptTemplateConditionEvaluator) set it up after super.init()
+    private CompiledScript getCompiledScript(String script) {
+        if (!isCompileDone) {
+            synchronized (this) {
+                if (!isCompileDone) {
+                    compiledScript = RangerRequestScriptEvaluator.compileScript(scriptEngine, script);
+                    isCompileDone  = true;
+
+                    LOG.debug("RangerScriptConditionEvaluator.getCompiledScript(): script={{}}, isCompiled={}", script, compiledScript != null);
+                }
+            }
+        }
+
+        return compiledScript;
+    }
+
     protected String getScript() {
         String       ret    = null;
         List<String> values = condition.getValues();
@@ -29,15 +29,12 @@
 import org.apache.ranger.plugin.util.DownloaderTask;
 import org.apache.ranger.plugin.util.JsonUtilsV2;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerCacheFileUtil;
 import org.apache.ranger.plugin.util.ServiceGdsInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.Timer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -79,7 +76,7 @@ public void init() {
 
         if (gdsInfoRetriever != null) {
             String cacheDir      = getConfig(propertyPrefix + ".policy.cache.dir", null);
-            String cacheFilename = String.format("%s_%s_gds.json", appId, serviceName);
+            String cacheFilename = String.format("%s_%s_gds%s", appId, serviceName, RangerCacheFileUtil.getFileExtension(RangerCacheFileUtil.isBinaryFormatEnabled(getPluginConfig())));
 
             cacheFilename = cacheFilename.replace(File.separatorChar, '_');
             cacheFilename = cacheFilename.replace(File.pathSeparatorChar, '_');
@@ -263,11 +260,11 @@ ServiceGdsInfo loadFromCache() {
             LOG.debug("==> RangerGdsInfoRefresher(serviceName={}).loadFromCache()", getServiceName());
 
             ServiceGdsInfo ret       = null;
-            File           cacheFile = org.apache.commons.lang.StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
+            File           cacheFile = org.apache.commons.lang.StringUtils.isEmpty(this.cacheFile) ? null : RangerCacheFileUtil.findCacheFile(new File(this.cacheFile));
 
             if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-                try (Reader reader = new FileReader(cacheFile)) {
-                    ret = JsonUtilsV2.readValue(reader, ServiceGdsInfo.class);
+                try {
+                    ret = RangerCacheFileUtil.readValue(cacheFile, ServiceGdsInfo.class, JsonUtilsV2.getMapper());
                 } catch (Exception excp) {
                     LOG.error("failed to load gdsInfo from cache file {}", cacheFile.getAbsolutePath(), excp);
                 }
@@ -287,8 +284,8 @@ void saveToCache(ServiceGdsInfo gdsInfo) {
                 File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
 
                 if (cacheFile != null) {
-                    try (Writer writer = new FileWriter(cacheFile)) {
-                        JsonUtilsV2.writeValue(writer, gdsInfo);
+                    try {
+                        RangerCacheFileUtil.writeValue(cacheFile, gdsInfo, JsonUtilsV2.getMapper(), RangerCacheFileUtil.isBinaryFormatEnabled(getPluginConfig()));
                     } catch (Exception excp) {
                         LOG.error("failed to save gdsInfo to cache file '{}'", cacheFile.getAbsolutePath(), excp);
                     }
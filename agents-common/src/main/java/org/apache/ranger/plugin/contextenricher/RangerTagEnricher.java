@@ -44,6 +44,7 @@
 import org.apache.ranger.plugin.util.DownloadTrigger;
 import org.apache.ranger.plugin.util.DownloaderTask;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerCacheFileUtil;
 import org.apache.ranger.plugin.util.RangerCommonConstants;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerReadWriteLock;
@@ -54,10 +55,6 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -175,7 +172,7 @@ public void init() {
                 disableCacheIfServiceNotFound = getBooleanConfig(propertyPrefix + ".disable.cache.if.servicenotfound", true);
 
                 String cacheDir      = getConfig(propertyPrefix + ".policy.cache.dir", null);
-                String cacheFilename = String.format("%s_%s_tag.json", appId, serviceName);
+                String cacheFilename = String.format("%s_%s_tag%s", appId, serviceName, RangerCacheFileUtil.getFileExtension(RangerCacheFileUtil.isBinaryFormatEnabled(getPluginConfig())));
 
                 cacheFilename = cacheFilename.replace(File.separatorChar, '_');
                 cacheFilename = cacheFilename.replace(File.pathSeparatorChar, '_');
@@ -465,7 +462,7 @@ private EnrichedServiceTags processServiceTags(ServiceTags serviceTags) {
                 serviceResourceTrie = new HashMap<>();
 
                 for (RangerResourceDef resourceDef : serviceDef.getResources()) {
-                    serviceResourceTrie.put(resourceDef.getName(), new RangerResourceTrie(resourceDef, resourceMatchers, getPolicyEngineOptions().optimizeTagTrieForRetrieval, getPolicyEngineOptions().optimizeTagTrieForSpace, null));
+                    serviceResourceTrie.put(resourceDef.getName(), new RangerResourceTrie(resourceDef, resourceMatchers, getPolicyEngineOptions().optimizeTagTrieForRetrieval, getPolicyEngineOptions().optimizeTagTrieForSpace, getPolicyEngineOptions().compactTagTrie, null));
                 }
             }
 
@@ -509,7 +506,7 @@ private EnrichedServiceTags processServiceTagDeltas(ServiceTags deltas, ServiceT
                             } else {
                                 LOG.debug("Trying to add resource-matcher to new trie for {}", resourceDef.getName());
 
-                                trie = new RangerResourceTrie<>(resourceDef, Collections.singletonList(resourceMatcher), getPolicyEngineOptions().optimizeTagTrieForRetrieval, getPolicyEngineOptions().optimizeTagTrieForSpace, null);
+                                trie = new RangerResourceTrie<>(resourceDef, Collections.singletonList(resourceMatcher), getPolicyEngineOptions().optimizeTagTrieForRetrieval, getPolicyEngineOptions().optimizeTagTrieForSpace, getPolicyEngineOptions().compactTagTrie, null);
 
                                 serviceResourceTrie.put(resourceDef.getName(), trie);
                             }
@@ -842,6 +839,7 @@ static class RangerTagRefresher extends Thread {
         private final RangerTagEnricher              tagEnricher;
         private final BlockingQueue<DownloadTrigger> tagDownloadQueue;
         private final String                         cacheFile;
+        private final long                           longPollTimeoutMs;
         private       long                           lastKnownVersion;
         private       long                           lastActivationTimeInMillis;
         private       boolean                        hasProvidedTagsToReceiver;
@@ -853,6 +851,10 @@ static class RangerTagRefresher extends Thread {
             this.tagDownloadQueue = tagDownloadQueue;
             this.cacheFile        = cacheFile;
 
+            RangerPluginConfig pluginConfig = tagEnricher.getPluginConfig();
+
+            this.longPollTimeoutMs = pluginConfig != null ? pluginConfig.getLong(pluginConfig.getPropertyPrefix() + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS_DEFAULT) : 0;
+
             setName("RangerTagRefresher(serviceName=" + tagRetriever.getServiceName() + ")-" + getId());
         }
 
@@ -868,6 +870,8 @@ public void setLastActivationTimeInMillis(long lastActivationTimeInMillis) {
         public void run() {
             LOG.debug("==> RangerTagRefresher().run()");
 
+            boolean isPollAgain = longPollTimeoutMs > 0;
+
             while (true) {
                 DownloadTrigger trigger = null;
 
@@ -878,10 +882,19 @@ public void run() {
                         perf = RangerPerfTracer.getPerfTracer(PERF_CONTEXTENRICHER_INIT_LOG, "RangerTagRefresher(" + getName() + ").populateTags(lastKnownVersion=" + lastKnownVersion + ")");
                     }
 
-                    trigger = tagDownloadQueue.take();
+                    // in long-poll mode Ranger Admin holds the download request until tags change, so there is no need to wait for the timer
+                    trigger = (isPollAgain && !isInterrupted()) ? tagDownloadQueue.poll() : tagDownloadQueue.take();
+
+                    long startTimeMs = System.currentTimeMillis();
+                    long prevVersion = lastKnownVersion;
 
                     populateTags();
 
+                    if (longPollTimeoutMs > 0) {
+                        // poll again right away if the admin held the request or reported a change; else, the admin doesn't support or has no capacity for long-poll
+                        isPollAgain = (System.currentTimeMillis() - startTimeMs) >= (longPollTimeoutMs / 2) || lastKnownVersion != prevVersion;
+                    }
+
                     RangerPerfTracer.log(perf);
                 } catch (InterruptedException excp) {
                     LOG.info("RangerTagRefresher({}).run(): Interrupted! Exiting thread", getName(), excp);
@@ -917,15 +930,11 @@ final ServiceTags loadFromCache() {
 
             LOG.debug("==> RangerTagRetriever(serviceName={}).loadFromCache()", tagEnricher.getServiceName());
 
-            File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
+            File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : RangerCacheFileUtil.findCacheFile(new File(this.cacheFile));
 
             if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-                Reader reader = null;
-
                 try {
-                    reader = new FileReader(cacheFile);
-
-                    serviceTags = JsonUtils.jsonToObject(reader, ServiceTags.class);
+                    serviceTags = RangerCacheFileUtil.readValue(cacheFile, ServiceTags.class, JsonUtils.getMapper());
 
                     if (serviceTags != null && !StringUtils.equals(tagEnricher.getServiceName(), serviceTags.getServiceName())) {
                         LOG.warn("ignoring unexpected serviceName '{}' in cache file '{}'", serviceTags.getServiceName(), cacheFile.getAbsolutePath());
@@ -934,14 +943,6 @@ final ServiceTags loadFromCache() {
                     }
                 } catch (Exception excp) {
                     LOG.error("failed to load service-tags from cache file {}", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (reader != null) {
-                        try {
-                            reader.close();
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
             } else {
                 LOG.warn("cache file does not exist or not readable '{}'", (cacheFile == null ? null : cacheFile.getAbsolutePath()));
@@ -959,22 +960,10 @@ final void saveToCache(ServiceTags serviceTags) {
                 File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
 
                 if (cacheFile != null) {
-                    Writer writer = null;
-
                     try {
-                        writer = new FileWriter(cacheFile);
-
-                        JsonUtils.objectToWriter(writer, serviceTags);
+                        RangerCacheFileUtil.writeValue(cacheFile, serviceTags, JsonUtils.getMapper(), RangerCacheFileUtil.isBinaryFormatEnabled(tagEnricher.getPluginConfig()));
                     } catch (Exception excp) {
                         LOG.error("failed to save service-tags to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                    } finally {
-                        if (writer != null) {
-                            try {
-                                writer.close();
-                            } catch (Exception excp) {
-                                LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                            }
-                        }
                     }
                 }
             } else {
@@ -987,7 +976,7 @@ final void saveToCache(ServiceTags serviceTags) {
         final void disableCache() {
             LOG.debug("==> RangerTagRetriever.disableCache(serviceName={})", tagEnricher.getServiceName());
 
-            File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
+            File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : RangerCacheFileUtil.findCacheFile(new File(this.cacheFile));
 
             if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
                 LOG.warn("Cleaning up local tags cache");
@@ -25,6 +25,7 @@
 import org.apache.ranger.plugin.util.DownloadTrigger;
 import org.apache.ranger.plugin.util.DownloaderTask;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.RangerCacheFileUtil;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerUserStore;
 import org.slf4j.Logger;
@@ -82,7 +83,7 @@ public void init() {
                 disableCacheIfServiceNotFound = getBooleanConfig(propertyPrefix + ".disable.cache.if.servicenotfound", true);
 
                 String cacheDir      = getConfig(propertyPrefix + ".policy.cache.dir", null);
-                String cacheFilename = String.format("%s_%s_userstore.json", appId, serviceName);
+                String cacheFilename = String.format("%s_%s_userstore%s", appId, serviceName, RangerCacheFileUtil.getFileExtension(RangerCacheFileUtil.isBinaryFormatEnabled(getPluginConfig())));
 
                 cacheFilename = cacheFilename.replace(File.separatorChar, '_');
                 cacheFilename = cacheFilename.replace(File.pathSeparatorChar, '_');
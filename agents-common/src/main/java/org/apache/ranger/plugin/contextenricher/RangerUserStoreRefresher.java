@@ -26,6 +26,7 @@
 import org.apache.ranger.authorization.utils.JsonUtils;
 import org.apache.ranger.plugin.util.DownloadTrigger;
 import org.apache.ranger.plugin.util.JsonUtilsV2;
+import org.apache.ranger.plugin.util.RangerCacheFileUtil;
 import org.apache.ranger.plugin.util.RangerPerfTracer;
 import org.apache.ranger.plugin.util.RangerRESTClient;
 import org.apache.ranger.plugin.util.RangerRESTUtils;
@@ -37,10 +38,6 @@
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.nio.channels.ClosedByInterruptException;
 import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
@@ -245,22 +242,10 @@ public void saveToCache(RangerUserStore rangerUserStore) {
             File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
 
             if (cacheFile != null) {
-                Writer writer = null;
-
                 try {
-                    writer = new FileWriter(cacheFile);
-
-                    JsonUtils.objectToWriter(writer, rangerUserStore);
+                    RangerCacheFileUtil.writeValue(cacheFile, rangerUserStore, JsonUtils.getMapper(), RangerCacheFileUtil.isBinaryFormatEnabled(userStoreEnricher != null ? userStoreEnricher.getPluginConfig() : null));
                 } catch (Exception excp) {
                     LOG.error("failed to save userstore information to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (writer != null) {
-                        try {
-                            writer.close();
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
             }
         } else {
@@ -275,25 +260,13 @@ private RangerUserStore loadFromCache() {
 
         LOG.debug("==> RangerUserStoreRefreher.loadFromCache()");
 
-        File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
+        File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : RangerCacheFileUtil.findCacheFile(new File(this.cacheFile));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-            Reader reader = null;
-
             try {
-                reader = new FileReader(cacheFile);
-
-                rangerUserStore = JsonUtils.jsonToObject(reader, RangerUserStore.class);
+                rangerUserStore = RangerCacheFileUtil.readValue(cacheFile, RangerUserStore.class, JsonUtils.getMapper());
             } catch (Exception excp) {
                 LOG.error("failed to load userstore information from cache file {}", cacheFile.getAbsolutePath(), excp);
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (Exception excp) {
-                        LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                    }
-                }
             }
         } else {
             LOG.warn("cache file does not exist or not readable '{}'", (cacheFile == null ? null : cacheFile.getAbsolutePath()));
@@ -307,7 +280,7 @@ private RangerUserStore loadFromCache() {
     private void disableCache() {
         LOG.debug("==> RangerUserStoreRefreher.disableCache()");
 
-        File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : new File(this.cacheFile);
+        File cacheFile = StringUtils.isEmpty(this.cacheFile) ? null : RangerCacheFileUtil.findCacheFile(new File(this.cacheFile));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
             LOG.warn("Cleaning up local userstore cache");
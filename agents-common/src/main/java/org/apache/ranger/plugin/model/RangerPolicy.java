@@ -28,6 +28,7 @@
 import org.apache.ranger.authorization.utils.StringUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -557,6 +558,41 @@ public void dedupStrings(Map<String, String> strTbl) {
         }
     }
 
+    // replaces lists of strings with shared unmodifiable lists; updates via add/remove methods copy the list before update
+    public void dedupLists(Map<List<String>, List<String>> listTbl) {
+        policyLabels = StringUtil.dedupList(policyLabels, listTbl);
+
+        if (MapUtils.isNotEmpty(resources)) {
+            for (RangerPolicyResource resource : resources.values()) {
+                resource.dedupLists(listTbl);
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(additionalResources)) {
+            for (Map<String, RangerPolicyResource> additionalResource : additionalResources) {
+                if (MapUtils.isNotEmpty(additionalResource)) {
+                    for (RangerPolicyResource resource : additionalResource.values()) {
+                        resource.dedupLists(listTbl);
+                    }
+                }
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(conditions)) {
+            for (RangerPolicyItemCondition condition : conditions) {
+                condition.dedupLists(listTbl);
+            }
+        }
+
+        for (List<? extends RangerPolicyItem> items : Arrays.asList(policyItems, denyPolicyItems, allowExceptions, denyExceptions, dataMaskPolicyItems, rowFilterPolicyItems)) {
+            if (CollectionUtils.isNotEmpty(items)) {
+                for (RangerPolicyItem policyItem : items) {
+                    policyItem.dedupLists(listTbl);
+                }
+            }
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -826,6 +862,10 @@ public void dedupStrings(Map<String, String> strTbl) {
             values = StringUtil.dedupStringsList(values, strTbl);
         }
 
+        public void dedupLists(Map<List<String>, List<String>> listTbl) {
+            values = StringUtil.dedupList(values, listTbl);
+        }
+
         public StringBuilder toString(StringBuilder sb) {
             sb.append("RangerPolicyResource={");
             sb.append("values={");
@@ -986,7 +1026,13 @@ public boolean addUsers(Collection<String> users) {
         }
 
         public boolean removeUser(String user) {
-            return CollectionUtils.isNotEmpty(users) && users.remove(user);
+            if (CollectionUtils.isEmpty(users)) {
+                return false;
+            }
+
+            this.users = getUpdatableList(this.users);
+
+            return users.remove(user);
         }
 
         /**
@@ -1016,7 +1062,13 @@ public boolean addGroups(Collection<String> groups) {
         }
 
         public boolean removeGroup(String group) {
-            return CollectionUtils.isNotEmpty(groups) && groups.remove(group);
+            if (CollectionUtils.isEmpty(groups)) {
+                return false;
+            }
+
+            this.groups = getUpdatableList(this.groups);
+
+            return groups.remove(group);
         }
 
         /**
@@ -1046,7 +1098,13 @@ public boolean addRoles(Collection<String> roles) {
         }
 
         public boolean removeRole(String role) {
-            return CollectionUtils.isNotEmpty(roles) && roles.remove(role);
+            if (CollectionUtils.isEmpty(roles)) {
+                return false;
+            }
+
+            this.roles = getUpdatableList(this.roles);
+
+            return roles.remove(role);
         }
 
         /**
@@ -1107,6 +1165,18 @@ public void dedupStrings(Map<String, String> strTbl) {
             }
         }
 
+        public void dedupLists(Map<List<String>, List<String>> listTbl) {
+            users  = StringUtil.dedupList(users, listTbl);
+            groups = StringUtil.dedupList(groups, listTbl);
+            roles  = StringUtil.dedupList(roles, listTbl);
+
+            if (conditions != null) {
+                for (RangerPolicyItemCondition condition : conditions) {
+                    condition.dedupLists(listTbl);
+                }
+            }
+        }
+
         public StringBuilder toString(StringBuilder sb) {
             sb.append("RangerPolicyItem={");
 
@@ -1595,9 +1665,7 @@ public void setValues(List<String> values) {
         }
 
         public boolean addValue(String value) {
-            if (CollectionUtils.isEmpty(values)) {
-                values = new ArrayList<>();
-            }
+            values = getUpdatableList(values);
 
             return values.add(value);
         }
@@ -1607,6 +1675,10 @@ public void dedupStrings(Map<String, String> strTbl) {
             values = StringUtil.dedupStringsList(values, strTbl);
         }
 
+        public void dedupLists(Map<List<String>, List<String>> listTbl) {
+            values = StringUtil.dedupList(values, listTbl);
+        }
+
         public StringBuilder toString(StringBuilder sb) {
             sb.append("RangerPolicyCondition={");
             sb.append("type={").append(type).append("} ");
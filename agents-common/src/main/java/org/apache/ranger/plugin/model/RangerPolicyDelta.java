@@ -25,6 +25,7 @@
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.List;
 import java.util.Map;
 
 @JsonAutoDetect(fieldVisibility = Visibility.ANY)
@@ -118,6 +119,12 @@ public void dedupStrings(Map<String, String> strTbl) {
         }
     }
 
+    public void dedupLists(Map<List<String>, List<String>> listTbl) {
+        if (policy != null) {
+            policy.dedupLists(listTbl);
+        }
+    }
+
     @Override
     public String toString() {
         return "id:" + id
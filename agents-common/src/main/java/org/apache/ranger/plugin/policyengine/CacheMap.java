@@ -21,6 +21,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -39,6 +40,15 @@ public CacheMap(int initialCapacity) {
         this.initialCapacity = initialCapacity;
     }
 
+    /*
+     * Returns a thread-safe, size-bounded cache. With useConcurrentCache=false this is the historic
+     * synchronized access-ordered map, where every read takes the one monitor; otherwise a
+     * ConcurrentCacheMap, with lock-free reads and approximate-LRU eviction, is returned.
+     */
+    public static <K, V> Map<K, V> createThreadSafeCache(int capacity, boolean useConcurrentCache) {
+        return useConcurrentCache ? new ConcurrentCacheMap<>(capacity) : Collections.synchronizedMap(new CacheMap<>(capacity));
+    }
+
     @Override
     protected boolean removeEldestEntry(Map.Entry eldest) {
         boolean result = size() > initialCapacity;
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.ranger.plugin.policyengine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, concurrent replacement for Collections.synchronizedMap(new CacheMap<>(size)).
+ *
+ * Reads are lock-free: a hit only marks the entry as recently referenced. Eviction uses the
+ * CLOCK (second-chance) approximation of LRU - entries are queued in insertion order and an
+ * entry referenced since it was last examined is given another pass instead of being evicted.
+ * Queue nodes of removed entries are purged lazily, once they outnumber the capacity.
+ */
+public class ConcurrentCacheMap<K, V> extends AbstractMap<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrentCacheMap.class);
+
+    private final int                               capacity;
+    private final ConcurrentHashMap<K, Node<K, V>>  map;
+    private final ConcurrentLinkedQueue<Node<K, V>> clock         = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger                     clockSize     = new AtomicInteger(); // ConcurrentLinkedQueue.size() is O(n)
+    private final AtomicBoolean                     isPurging     = new AtomicBoolean();
+    private final LongAdder                         hitCount      = new LongAdder();
+    private final LongAdder                         missCount     = new LongAdder();
+    private final LongAdder                         evictionCount = new LongAdder();
+
+    public ConcurrentCacheMap(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        this.map      = new ConcurrentHashMap<>(Math.min(this.capacity, 64 * 1024));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = key != null ? map.get(key) : null;
+
+        if (node != null) {
+            hitCount.increment();
+
+            if (!node.referenced) { // avoid writing to the shared cache-line on every hit
+                node.referenced = true;
+            }
+
+            return node.value;
+        }
+
+        missCount.increment();
+
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && map.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Node<K, V> node     = new Node<>(key, value);
+        Node<K, V> existing = map.putIfAbsent(key, node);
+        final V    ret;
+
+        if (existing != null) {
+            ret = existing.value;
+
+            existing.value      = value;
+            existing.referenced = true;
+        } else {
+            ret = null;
+
+            enqueue(node);
+
+            if (map.size() > capacity) {
+                evict();
+            }
+
+            purgeIfNeeded();
+        }
+
+        return ret;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = key != null ? map.remove(key) : null;
+
+        if (node != null) {
+            purgeIfNeeded();
+        }
+
+        return node != null ? node.value : null;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+
+        while (dequeue() != null) {
+            // drain the queue, keeping clockSize in sync
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<Entry<K, Node<K, V>>> iter = map.entrySet().iterator();
+
+                return new Iterator<Entry<K, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iter.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        Entry<K, Node<K, V>> entry = iter.next();
+
+                        return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value);
+                    }
+
+                    @Override
+                    public void remove() {
+                        iter.remove();
+
+                        purgeIfNeeded();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentCacheMap={capacity=" + capacity + ", size=" + map.size() + ", hitCount=" + getHitCount() + ", missCount=" + getMissCount() + ", evictionCount=" + getEvictionCount() + "}";
+    }
+
+    int getClockSize() {
+        return clockSize.get();
+    }
+
+    private void evict() {
+        // bound the scan so that concurrent readers re-marking entries can't keep a writer spinning
+        int maxScan = 2 * capacity;
+
+        while (map.size() > capacity) {
+            Node<K, V> node = dequeue();
+
+            if (node == null) {
+                break;
+            }
+
+            if (map.get(node.key) != node) { // removed or replaced since it was queued
+                continue;
+            }
+
+            if (node.referenced && maxScan-- > 0) {
+                node.referenced = false;
+
+                enqueue(node);
+            } else if (map.remove(node.key, node)) {
+                evictionCount.increment();
+
+                LOG.debug("ConcurrentCacheMap.evict(): evicted key={}", node.key);
+            }
+        }
+    }
+
+    // removed entries leave their nodes in the queue; drop these once they outnumber the capacity, so that remove/put churn doesn't grow the queue
+    private void purgeIfNeeded() {
+        if (clockSize.get() > map.size() + capacity && isPurging.compareAndSet(false, true)) {
+            try {
+                for (int i = clockSize.get(); i > 0; i--) {
+                    Node<K, V> node = dequeue();
+
+                    if (node == null) {
+                        break;
+                    }
+
+                    if (map.get(node.key) == node) {
+                        enqueue(node);
+                    }
+                }
+            } finally {
+                isPurging.set(false);
+            }
+        }
+    }
+
+    private void enqueue(Node<K, V> node) {
+        clock.offer(node);
+        clockSize.incrementAndGet();
+    }
+
+    private Node<K, V> dequeue() {
+        Node<K, V> ret = clock.poll();
+
+        if (ret != null) {
+            clockSize.decrementAndGet();
+        }
+
+        return ret;
+    }
+
+    private static final class Node<K, V> {
+        final    K       key;
+        volatile V       value;
+        volatile boolean referenced;
+
+        Node(K key, V value) {
+            this.key   = key;
+            this.value = value;
+        }
+    }
+}
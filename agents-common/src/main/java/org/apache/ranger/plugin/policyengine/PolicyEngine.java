@@ -46,9 +46,15 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
 
 public class PolicyEngine {
     private static final Logger LOG = LoggerFactory.getLogger(PolicyEngine.class);
@@ -56,6 +62,10 @@ public class PolicyEngine {
     private static final Logger PERF_POLICYENGINE_INIT_LOG      = RangerPerfTracer.getPerfLogger("policyengine.init");
     private static final Logger PERF_POLICYENGINE_REBALANCE_LOG = RangerPerfTracer.getPerfLogger("policyengine.rebalance");
 
+    private static final String BUILD_PHASE_RESOURCE_REPOSITORY    = "resourceRepository";
+    private static final String BUILD_PHASE_TAG_REPOSITORY         = "tagRepository";
+    private static final String BUILD_PHASE_ZONE_REPOSITORY_PREFIX = "zoneRepository:";
+
     private final RangerServiceDefHelper              serviceDefHelper;
     private final RangerPolicyRepository              policyRepository;
     private final RangerPolicyRepository              tagPolicyRepository;
@@ -67,6 +77,7 @@ public class PolicyEngine {
     private final RangerReadWriteLock                 lock;
     private       boolean                             useForwardedIPAddress;
     private       String[]                            trustedProxyAddresses;
+    private       Map<String, Object>                 buildMetrics           = Collections.emptyMap();
 
     public PolicyEngine(ServicePolicies servicePolicies, RangerPluginContext pluginContext, RangerRoles roles, boolean isUseReadWriteLock) {
         LOG.debug("==> PolicyEngine({}, {})", servicePolicies, pluginContext);
@@ -111,21 +122,49 @@ public PolicyEngine(ServicePolicies servicePolicies, RangerPluginContext pluginC
             options.evaluatorType = RangerPolicyEvaluator.EVALUATOR_TYPE_OPTIMIZED;
         }
 
-        policyRepository = new RangerPolicyRepository(servicePolicies, this.pluginContext);
-        serviceDefHelper = new RangerServiceDefHelper(policyRepository.getServiceDef(), false);
+        ServicePolicies.TagPolicies                       tagPolicies         = servicePolicies.getTagPolicies();
+        Map<String, SecurityZoneInfo>                     securityZones       = servicePolicies.getSecurityZones();
+        boolean                                           hasTagPolicies      = !options.disableTagPolicyEvaluation && tagPolicies != null && !StringUtils.isEmpty(tagPolicies.getServiceName()) && tagPolicies.getServiceDef() != null;
+        int                                               builderTaskCount    = (hasTagPolicies ? 1 : 0) + (securityZones != null ? securityZones.size() : 0);
+        int                                               builderThreadCount  = Math.min(options.policyEngineBuilderThreadCount, builderTaskCount);
+        ForkJoinPool                                      builderPool         = builderThreadCount > 1 ? createBuilderPool(builderThreadCount) : null;
+        Map<String, Long>                                 buildTimes          = new ConcurrentHashMap<>();
+        ForkJoinTask<RangerPolicyRepository>              tagRepositoryTask   = null;
+        Map<String, ForkJoinTask<RangerPolicyRepository>> zoneRepositoryTasks = new HashMap<>();
+        long                                              startTimeMs         = System.currentTimeMillis();
 
-        ServicePolicies.TagPolicies tagPolicies = servicePolicies.getTagPolicies();
+        // repositories for tag policies and security zones are built by builderPool threads, when configured, while this thread builds the resource repository
+        try {
+            if (hasTagPolicies) {
+                LOG.debug("PolicyEngine : Building tag-policy-repository for tag-service {}", tagPolicies.getServiceName());
 
-        if (!options.disableTagPolicyEvaluation && tagPolicies != null && !StringUtils.isEmpty(tagPolicies.getServiceName()) && tagPolicies.getServiceDef() != null) {
-            LOG.debug("PolicyEngine : Building tag-policy-repository for tag-service {}", tagPolicies.getServiceName());
+                tagRepositoryTask = buildRepository(builderPool, BUILD_PHASE_TAG_REPOSITORY, () -> new RangerPolicyRepository(tagPolicies, pluginContext, servicePolicies.getServiceDef(), servicePolicies.getServiceName()), buildTimes);
+            } else {
+                LOG.debug("PolicyEngine : No tag-policy-repository for service {}", servicePolicies.getServiceName());
+            }
 
-            tagPolicyRepository = new RangerPolicyRepository(tagPolicies, this.pluginContext, servicePolicies.getServiceDef(), servicePolicies.getServiceName());
-        } else {
-            LOG.debug("PolicyEngine : No tag-policy-repository for service {}", servicePolicies.getServiceName());
+            if (MapUtils.isNotEmpty(securityZones)) {
+                for (String zoneName : securityZones.keySet()) {
+                    zoneRepositoryTasks.put(zoneName, buildRepository(builderPool, BUILD_PHASE_ZONE_REPOSITORY_PREFIX + zoneName, () -> new RangerPolicyRepository(servicePolicies, pluginContext, zoneName), buildTimes));
+                }
+            }
+
+            policyRepository = buildRepository(null, BUILD_PHASE_RESOURCE_REPOSITORY, () -> new RangerPolicyRepository(servicePolicies, pluginContext), buildTimes).join();
+
+            tagPolicyRepository = tagRepositoryTask != null ? tagRepositoryTask.join() : null;
 
-            tagPolicyRepository = null;
+            for (Map.Entry<String, ForkJoinTask<RangerPolicyRepository>> entry : zoneRepositoryTasks.entrySet()) {
+                zonePolicyRepositories.put(entry.getKey(), entry.getValue().join());
+            }
+        } finally {
+            if (builderPool != null) {
+                builderPool.shutdown();
+            }
         }
 
+        serviceDefHelper = new RangerServiceDefHelper(policyRepository.getServiceDef(), false);
+        buildMetrics     = toBuildMetrics(buildTimes, System.currentTimeMillis() - startTimeMs, Math.max(builderThreadCount, 1));
+
         List<RangerContextEnricher> tmpList;
         List<RangerContextEnricher> tagContextEnrichers      = tagPolicyRepository == null ? null : tagPolicyRepository.getContextEnrichers();
         List<RangerContextEnricher> resourceContextEnrichers = policyRepository.getContextEnrichers();
@@ -142,14 +181,6 @@ public PolicyEngine(ServicePolicies servicePolicies, RangerPluginContext pluginC
 
         this.allContextEnrichers = tmpList;
 
-        if (MapUtils.isNotEmpty(servicePolicies.getSecurityZones())) {
-            for (Map.Entry<String, SecurityZoneInfo> zone : servicePolicies.getSecurityZones().entrySet()) {
-                RangerPolicyRepository policyRepository = new RangerPolicyRepository(servicePolicies, this.pluginContext, zone.getKey());
-
-                zonePolicyRepositories.put(zone.getKey(), policyRepository);
-            }
-        }
-
         for (RangerServiceDef.RangerResourceDef resourceDef : getServiceDef().getResources()) {
             Map<String, String> matchOptions = resourceDef.getMatcherOptions();
 
@@ -183,6 +214,7 @@ private PolicyEngine(final PolicyEngine other, ServicePolicies servicePolicies)
         this.serviceDefHelper      = other.serviceDefHelper;
         this.pluginContext         = other.pluginContext;
         this.lock                  = other.lock;
+        this.buildMetrics          = other.buildMetrics;
         this.zoneMatcher           = new RangerSecurityZoneMatcher(servicePolicies.getSecurityZones(), servicePolicies.getServiceDef(), pluginContext);
 
         long                    policyVersion                   = servicePolicies.getPolicyVersion() != null ? servicePolicies.getPolicyVersion() : -1L;
@@ -329,6 +361,11 @@ public RangerPluginContext getPluginContext() {
         return pluginContext;
     }
 
+    // time taken to build repositories, in the last full build of the engine
+    public Map<String, Object> getBuildMetrics() {
+        return buildMetrics;
+    }
+
     public StringTokenReplacer getStringTokenReplacer(String resourceName) {
         return tokenReplacers.get(resourceName);
     }
@@ -562,6 +599,75 @@ void updatePolicyEngine(ServicePolicies servicePolicies) {
         reorderPolicyEvaluators();
     }
 
+    /*
+     * builder threads use the context class loader of the calling thread, as condition evaluators created while building
+     * repositories load script engines from it (see GraalScriptEngineCreator, JavaScriptEngineCreator). Worker threads of a
+     * ForkJoinPool otherwise get the system class loader, which doesn't have the classes of the plugin
+     */
+    static ForkJoinPool createBuilderPool(int threadCount) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        return new ForkJoinPool(threadCount, pool -> {
+            ForkJoinWorkerThread ret = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+
+            ret.setContextClassLoader(contextClassLoader);
+
+            return ret;
+        }, null, false);
+    }
+
+    private static ForkJoinTask<RangerPolicyRepository> buildRepository(ForkJoinPool pool, String phase, Supplier<RangerPolicyRepository> builder, Map<String, Long> buildTimes) {
+        ForkJoinTask<RangerPolicyRepository> ret = ForkJoinTask.adapt(() -> {
+            RangerPerfTracer perf = null;
+
+            if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
+                perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerPolicyEngine.init.build(" + phase + ")");
+            }
+
+            long                   startTimeMs = System.currentTimeMillis();
+            RangerPolicyRepository repository  = builder.get();
+
+            buildTimes.put(phase, System.currentTimeMillis() - startTimeMs);
+
+            RangerPerfTracer.log(perf);
+
+            return repository;
+        });
+
+        if (pool != null) {
+            pool.execute(ret);
+        } else {
+            ret.invoke(); // build in the calling thread
+        }
+
+        return ret;
+    }
+
+    private static Map<String, Object> toBuildMetrics(Map<String, Long> buildTimes, long totalTimeMs, int builderThreadCount) {
+        Map<String, Object> ret           = new LinkedHashMap<>();
+        int                 zoneCount     = 0;
+        long                zonesTimeMs   = 0;
+        long                maxZoneTimeMs = 0;
+
+        for (Map.Entry<String, Long> entry : buildTimes.entrySet()) {
+            if (entry.getKey().startsWith(BUILD_PHASE_ZONE_REPOSITORY_PREFIX)) {
+                zoneCount++;
+                zonesTimeMs  += entry.getValue();
+                maxZoneTimeMs = Math.max(maxZoneTimeMs, entry.getValue());
+            }
+        }
+
+        ret.put("builderThreadCount", builderThreadCount);
+        ret.put("totalTimeMs", totalTimeMs);
+        ret.put("resourceRepositoryTimeMs", buildTimes.getOrDefault(BUILD_PHASE_RESOURCE_REPOSITORY, 0L));
+        ret.put("tagRepositoryTimeMs", buildTimes.getOrDefault(BUILD_PHASE_TAG_REPOSITORY, 0L));
+        ret.put("zoneRepositoryCount", zoneCount);
+        ret.put("zoneRepositoriesTimeMs", zonesTimeMs);
+        ret.put("maxZoneRepositoryTimeMs", maxZoneTimeMs);
+
+        return ret;
+    }
+
     private void normalizeServiceDefs(ServicePolicies servicePolicies) {
         RangerServiceDef serviceDef = servicePolicies.getServiceDef();
 
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with char keys, kept in a sorted char[] with values in a parallel array; lookup is a binary search.
+ *
+ * Used for children of compact RangerResourceTrie nodes: unlike HashMap, there are no per-entry objects and no
+ * unused table slots, and an empty map has no arrays. Arrays grow one entry at a time, which suits trie nodes as most
+ * have one or few children. Like HashMap, this class is not thread-safe.
+ */
+class RangerCharArrayMap<V> extends AbstractMap<Character, V> {
+    private static final char[]   EMPTY_KEYS   = new char[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private char[]   keys   = EMPTY_KEYS;
+    private Object[] values = EMPTY_VALUES;
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Character && indexOf((Character) key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Character ? get(((Character) key).charValue()) : null;
+    }
+
+    public V get(char key) {
+        int idx = indexOf(key);
+
+        return idx >= 0 ? valueAt(idx) : null;
+    }
+
+    @Override
+    public V put(Character key, V value) {
+        return put(key.charValue(), value);
+    }
+
+    public V put(char key, V value) {
+        final V   ret;
+        final int idx = indexOf(key);
+
+        if (idx >= 0) {
+            ret = valueAt(idx);
+
+            values[idx] = value;
+        } else {
+            final int      insIdx    = -(idx + 1);
+            final int      len       = keys.length;
+            final char[]   newKeys   = new char[len + 1];
+            final Object[] newValues = new Object[len + 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, insIdx);
+            System.arraycopy(values, 0, newValues, 0, insIdx);
+
+            newKeys[insIdx]   = key;
+            newValues[insIdx] = value;
+
+            System.arraycopy(keys, insIdx, newKeys, insIdx + 1, len - insIdx);
+            System.arraycopy(values, insIdx, newValues, insIdx + 1, len - insIdx);
+
+            keys   = newKeys;
+            values = newValues;
+            ret    = null;
+        }
+
+        return ret;
+    }
+
+    @Override
+    public V remove(Object key) {
+        final V   ret;
+        final int idx = key instanceof Character ? indexOf((Character) key) : -1;
+
+        if (idx >= 0) {
+            ret = valueAt(idx);
+
+            removeAt(idx);
+        } else {
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        keys   = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+    }
+
+    @Override
+    public Set<Map.Entry<Character, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Character, V>>() {
+            @Override
+            public Iterator<Map.Entry<Character, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                final Iterator<Map.Entry<Character, V>> iter = new EntryIterator();
+
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iter.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return iter.next().getValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        iter.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int idx) {
+        return (V) values[idx];
+    }
+
+    private void removeAt(int idx) {
+        final int len = keys.length;
+
+        if (len == 1) {
+            clear();
+        } else {
+            final char[]   newKeys   = new char[len - 1];
+            final Object[] newValues = new Object[len - 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(values, 0, newValues, 0, idx);
+            System.arraycopy(keys, idx + 1, newKeys, idx, len - idx - 1);
+            System.arraycopy(values, idx + 1, newValues, idx, len - idx - 1);
+
+            keys   = newKeys;
+            values = newValues;
+        }
+    }
+
+    private class EntryIterator implements Iterator<Map.Entry<Character, V>> {
+        private char[]   iterKeys   = keys;
+        private Object[] iterValues = values;
+        private int      nextIdx;
+        private int      lastIdx    = -1;
+
+        @Override
+        public boolean hasNext() {
+            return nextIdx < iterKeys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<Character, V> next() {
+            if (nextIdx >= iterKeys.length) {
+                throw new NoSuchElementException();
+            }
+
+            lastIdx = nextIdx++;
+
+            return new SimpleImmutableEntry<>(iterKeys[lastIdx], (V) iterValues[lastIdx]);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIdx < 0 || keys != iterKeys) {
+                throw new IllegalStateException();
+            }
+
+            removeAt(lastIdx);
+
+            iterKeys   = keys;
+            iterValues = values;
+            nextIdx    = lastIdx;
+            lastIdx    = -1;
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.ranger.plugin.conditionevaluator.RangerAccessedFromClusterCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerAccessedFromClusterTypeCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerAccessedNotFromClusterCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerAccessedNotFromClusterTypeCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerAnyOfExpectedTagsPresentConditionEvaluator;
+import org.apache.ranger.plugin.conditionevaluator.RangerContextAttributeValueInCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerContextAttributeValueNotInCondition;
+import org.apache.ranger.plugin.conditionevaluator.RangerIpMatcher;
+import org.apache.ranger.plugin.conditionevaluator.RangerNoneOfExpectedTagsPresentConditionEvaluator;
+import org.apache.ranger.plugin.conditionevaluator.RangerTagsAllPresentConditionEvaluator;
+import org.apache.ranger.plugin.contextenricher.RangerContextEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerGdsEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
+import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
+import org.apache.ranger.plugin.contextenricher.RangerUserStoreEnricher;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemCondition;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.model.RangerServiceDef.RangerPolicyConditionDef;
+import org.apache.ranger.plugin.model.RangerTag;
+import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
+import org.apache.ranger.plugin.util.ServiceTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of access decisions made by a plugin, keyed on a normalized signature of the request.
+ *
+ * Cached decisions are discarded atomically whenever the plugin installs new policies, tags, roles or
+ * userstore (see RangerPluginContext.notifyAuthContextChanged()). Only decisions that depend solely on
+ * the request signature and these versions are cached: a policy-engine having policies with validity
+ * schedules, tags with validity periods, script/time-based or custom conditions, or context enrichers
+ * other than tag and userstore enrichers is not cached at all. Likewise, requests having context entries
+ * not known to the cache are always evaluated.
+ */
+public class RangerDecisionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerDecisionCache.class);
+
+    public static final String PROP_SUFFIX_DECISION_CACHE_ENABLED = ".decision.cache.enabled";
+    public static final String PROP_SUFFIX_DECISION_CACHE_SIZE    = ".decision.cache.size";
+    public static final int    DEFAULT_DECISION_CACHE_SIZE        = 100000;
+
+    // context entries that influence the decision; these, and tokens, are made part of the key
+    private static final Set<String> KEY_CONTEXT_ENTRIES = new HashSet<>(Arrays.asList(RangerAccessRequestUtil.KEY_CONTEXT_IS_ANY_ACCESS,
+            RangerAccessRequestUtil.KEY_CONTEXT_ALL_ACCESSTYPES,
+            RangerAccessRequestUtil.KEY_CONTEXT_ALL_ACCESSTYPE_GROUPS,
+            RangerAccessRequestUtil.KEY_CONTEXT_IGNORE_IF_NOT_DENIED_ACCESSTYPES));
+
+    // context entries that are derived from the request during its evaluation, or are read only by conditions not supported by the cache; these can be ignored
+    private static final Set<String> IGNORED_CONTEXT_ENTRIES = new HashSet<>(Arrays.asList(RangerAccessRequestUtil.KEY_CONTEXT_TAGS,
+            RangerAccessRequestUtil.KEY_CONTEXT_TAG_OBJECT,
+            RangerAccessRequestUtil.KEY_CONTEXT_RESOURCE,
+            RangerAccessRequestUtil.KEY_CONTEXT_REQUESTED_RESOURCES,
+            RangerAccessRequestUtil.KEY_CONTEXT_USERSTORE,
+            RangerAccessRequestUtil.KEY_USER,
+            RangerAccessRequestUtil.KEY_OWNER,
+            RangerAccessRequestUtil.KEY_ROLES,
+            RangerAccessRequestUtil.KEY_CONTEXT_REQUEST,
+            RangerAccessRequestUtil.KEY_CONTEXT_RESOURCE_ZONE_NAMES,
+            RangerAccessRequestUtil.KEY_CONTEXT_ALL_ACCESS_TYPE_RESULTS,
+            RangerAccessRequestUtil.KEY_CONTEXT_ALL_ACCESS_TYPE_ACL_RESULTS));
+
+    // condition evaluators whose result depends only on the request signature and the tags of the resource
+    private static final Set<String> DETERMINISTIC_CONDITION_EVALUATORS = new HashSet<>(Arrays.asList(RangerIpMatcher.class.getName(),
+            RangerAccessedFromClusterCondition.class.getName(),
+            RangerAccessedNotFromClusterCondition.class.getName(),
+            RangerAccessedFromClusterTypeCondition.class.getName(),
+            RangerAccessedNotFromClusterTypeCondition.class.getName(),
+            RangerAnyOfExpectedTagsPresentConditionEvaluator.class.getName(),
+            RangerNoneOfExpectedTagsPresentConditionEvaluator.class.getName(),
+            RangerTagsAllPresentConditionEvaluator.class.getName(),
+            RangerContextAttributeValueInCondition.class.getName(),
+            RangerContextAttributeValueNotInCondition.class.getName()));
+
+    private final ConcurrentCacheMap<RequestKey, CachedDecision> cache;
+    private final AtomicLong                                     generation        = new AtomicLong();
+    private final LongAdder                                      hitCount          = new LongAdder();
+    private final LongAdder                                      missCount         = new LongAdder();
+    private final LongAdder                                      uncacheableCount  = new LongAdder();
+    private final LongAdder                                      invalidationCount = new LongAdder();
+    private final LongAdder                                      hitTimeNanos      = new LongAdder();
+    private final LongAdder                                      missTimeNanos     = new LongAdder();
+    private volatile EngineState                                 engineState;
+
+    public RangerDecisionCache(int capacity) {
+        this.cache = new ConcurrentCacheMap<>(capacity);
+
+        LOG.info("RangerDecisionCache(capacity={}) created", cache.getCapacity());
+    }
+
+    /*
+     * returns the cached decision for the request, if one is available for the current policy-engine; otherwise
+     * evaluates the request with the given evaluator and caches the result, if the request and engine allow it
+     */
+    public RangerAccessResult isAccessAllowed(RangerAccessRequest request, Supplier<RangerPolicyEngine> policyEngineSupplier, BiFunction<RangerAccessRequest, RangerPolicyEngine, RangerAccessResult> evaluator) {
+        long               startTimeNanos = System.nanoTime();
+        long               generation     = this.generation.get(); // read before the policy-engine, so that a result evaluated with an engine replaced in the meantime is not cached
+        RangerPolicyEngine policyEngine   = policyEngineSupplier.get();
+        RequestKey         key            = isCacheable(policyEngine, generation) ? RequestKey.create(request) : null;
+        RangerAccessResult ret;
+
+        if (key != null) {
+            CachedDecision cached = cache.get(key);
+
+            if (cached != null && cached.generation == generation) {
+                ret = cached.toResult(request, policyEngine);
+
+                hitCount.increment();
+                hitTimeNanos.add(System.nanoTime() - startTimeNanos);
+            } else {
+                ret = evaluator.apply(request, policyEngine);
+
+                if (ret != null && this.generation.get() == generation) {
+                    cache.put(key, new CachedDecision(ret, generation));
+                }
+
+                missCount.increment();
+                missTimeNanos.add(System.nanoTime() - startTimeNanos);
+            }
+        } else {
+            ret = evaluator.apply(request, policyEngine);
+
+            uncacheableCount.increment();
+        }
+
+        return ret;
+    }
+
+    /*
+     * bulk variant of isAccessAllowed(): returns cached decisions for the requests that have one, and evaluates the rest
+     * together, in a single call to the given evaluator. Results are returned in the order of the requests.
+     */
+    public List<RangerAccessResult> isAccessAllowed(Collection<RangerAccessRequest> requests, Supplier<RangerPolicyEngine> policyEngineSupplier, BiFunction<List<RangerAccessRequest>, RangerPolicyEngine, Collection<RangerAccessResult>> evaluator) {
+        long                      startTimeNanos = System.nanoTime();
+        long                      generation     = this.generation.get(); // read before the policy-engine, as in isAccessAllowed(request)
+        RangerPolicyEngine        policyEngine   = policyEngineSupplier.get();
+        boolean                   isCacheable    = isCacheable(policyEngine, generation);
+        List<RangerAccessResult>  ret            = new ArrayList<>(requests.size());
+        List<RangerAccessRequest> toEvaluate     = new ArrayList<>();
+        List<RequestKey>          toEvaluateKeys = new ArrayList<>();
+        List<Integer>             toEvaluateIdx  = new ArrayList<>();
+        int                       hits           = 0;
+        int                       misses         = 0;
+
+        for (RangerAccessRequest request : requests) {
+            RequestKey     key    = isCacheable ? RequestKey.create(request) : null;
+            CachedDecision cached = key != null ? cache.get(key) : null;
+
+            if (cached != null && cached.generation == generation) {
+                ret.add(cached.toResult(request, policyEngine));
+
+                hits++;
+            } else {
+                toEvaluateIdx.add(ret.size());
+                toEvaluateKeys.add(key);
+                toEvaluate.add(request);
+
+                ret.add(null);
+
+                if (key != null) {
+                    misses++;
+                }
+            }
+        }
+
+        if (hits > 0) {
+            hitCount.add(hits);
+            hitTimeNanos.add(System.nanoTime() - startTimeNanos);
+        }
+
+        if (!toEvaluate.isEmpty()) {
+            long                           evalStartTimeNanos = System.nanoTime();
+            Collection<RangerAccessResult> results            = evaluator.apply(toEvaluate, policyEngine);
+            boolean                        isCurrent          = this.generation.get() == generation;
+
+            if (results != null) {
+                int i = 0;
+
+                for (RangerAccessResult result : results) {
+                    RequestKey key = toEvaluateKeys.get(i);
+
+                    ret.set(toEvaluateIdx.get(i), result);
+
+                    if (key != null && result != null && isCurrent) {
+                        cache.put(key, new CachedDecision(result, generation));
+                    }
+
+                    i++;
+                }
+            }
+
+            if (misses > 0) {
+                missCount.add(misses);
+                missTimeNanos.add(System.nanoTime() - evalStartTimeNanos);
+            }
+
+            uncacheableCount.add(toEvaluate.size() - misses);
+        }
+
+        return ret;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+        invalidationCount.increment();
+
+        LOG.debug("RangerDecisionCache.invalidate(): generation={}", generation);
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public RangerMetrics getMetrics() {
+        long                hits    = hitCount.sum();
+        long                misses  = missCount.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+
+        metrics.put("capacity", cache.getCapacity());
+        metrics.put("size", cache.size());
+        metrics.put("generation", generation.get());
+        metrics.put("hitCount", hits);
+        metrics.put("missCount", misses);
+        metrics.put("uncacheableCount", uncacheableCount.sum());
+        metrics.put("evictionCount", cache.getEvictionCount());
+        metrics.put("invalidationCount", invalidationCount.sum());
+        metrics.put("hitRatio", (hits + misses) > 0 ? (double) hits / (hits + misses) : 0d);
+        metrics.put("avgHitLatencyNanos", hits > 0 ? hitTimeNanos.sum() / hits : 0L);
+        metrics.put("avgMissLatencyNanos", misses > 0 ? missTimeNanos.sum() / misses : 0L);
+
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("decisionCache", metrics);
+
+        return new RangerMetrics(data);
+    }
+
+    @Override
+    public String toString() {
+        return "RangerDecisionCache={generation=" + generation.get() + ", hitCount=" + hitCount.sum() + ", missCount=" + missCount.sum() + ", uncacheableCount=" + uncacheableCount.sum() + ", cache=" + cache + "}";
+    }
+
+    private boolean isCacheable(RangerPolicyEngine policyEngine, long generation) {
+        EngineState state = this.engineState;
+
+        if (state == null || state.policyEngine != policyEngine || state.generation != generation) {
+            state = new EngineState(policyEngine, generation, isCacheable(policyEngine));
+
+            this.engineState = state;
+        }
+
+        return state.isCacheable;
+    }
+
+    private static boolean isCacheable(RangerPolicyEngine policyEngine) {
+        boolean ret = policyEngine instanceof RangerPolicyEngineImpl;
+
+        if (ret) {
+            PolicyEngine engine = ((RangerPolicyEngineImpl) policyEngine).getPolicyEngine();
+
+            ret = engine != null && isCacheable(engine.getAllContextEnrichers()) && isCacheable(engine.getPolicyRepository()) && isCacheable(engine.getTagPolicyRepository());
+
+            if (ret && MapUtils.isNotEmpty(engine.getZonePolicyRepositories())) {
+                for (RangerPolicyRepository zoneRepository : engine.getZonePolicyRepositories().values()) {
+                    if (!isCacheable(zoneRepository)) {
+                        ret = false;
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        LOG.info("RangerDecisionCache.isCacheable(policyVersion={}): {}", policyEngine != null ? policyEngine.getPolicyVersion() : null, ret);
+
+        return ret;
+    }
+
+    private static boolean isCacheable(List<RangerContextEnricher> enrichers) {
+        if (enrichers != null) {
+            for (RangerContextEnricher enricher : enrichers) {
+                if (enricher instanceof RangerTagEnricher) {
+                    RangerTagEnricher.EnrichedServiceTags enrichedServiceTags = ((RangerTagEnricher) enricher).getEnrichedServiceTags();
+                    ServiceTags                           serviceTags         = enrichedServiceTags != null ? enrichedServiceTags.getServiceTags() : null;
+
+                    if (serviceTags != null && MapUtils.isNotEmpty(serviceTags.getTags())) {
+                        for (RangerTag tag : serviceTags.getTags().values()) {
+                            if (tag != null && CollectionUtils.isNotEmpty(tag.getValidityPeriods())) {
+                                LOG.debug("RangerDecisionCache.isCacheable(): tag {} has validity periods", tag.getId());
+
+                                return false;
+                            }
+                        }
+                    }
+                } else if (enricher instanceof RangerGdsEnricher) {
+                    // dataset evaluation results are recorded in the request context for audit; only the no-op enricher is supported
+                    if (((RangerGdsEnricher) enricher).getGdsPolicyEngine() != null) {
+                        LOG.debug("RangerDecisionCache.isCacheable(): GDS policies are not supported");
+
+                        return false;
+                    }
+                } else if (!(enricher instanceof RangerUserStoreEnricher)) {
+                    LOG.debug("RangerDecisionCache.isCacheable(): context enricher {} is not supported", enricher.getName());
+
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isCacheable(RangerPolicyRepository repository) {
+        if (repository != null && repository.getPolicies() != null) {
+            Map<String, String> conditionEvaluators = new HashMap<>();
+            RangerServiceDef    serviceDef          = repository.getServiceDef();
+
+            if (serviceDef != null && serviceDef.getPolicyConditions() != null) {
+                for (RangerPolicyConditionDef conditionDef : serviceDef.getPolicyConditions()) {
+                    conditionEvaluators.put(conditionDef.getName(), conditionDef.getEvaluator());
+                }
+            }
+
+            for (RangerPolicy policy : repository.getPolicies()) {
+                if (CollectionUtils.isNotEmpty(policy.getValiditySchedules())) {
+                    LOG.debug("RangerDecisionCache.isCacheable(): policy {} has validity schedules", policy.getId());
+
+                    return false;
+                }
+
+                if (!isCacheable(policy.getConditions(), conditionEvaluators) || !isCacheable(policy.getPolicyItems(), conditionEvaluators) ||
+                        !isCacheable(policy.getDenyPolicyItems(), conditionEvaluators) || !isCacheable(policy.getAllowExceptions(), conditionEvaluators) ||
+                        !isCacheable(policy.getDenyExceptions(), conditionEvaluators)) {
+                    LOG.debug("RangerDecisionCache.isCacheable(): policy {} has conditions that are not supported", policy.getId());
+
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isCacheable(Collection<? extends RangerPolicyItem> policyItems, Map<String, String> conditionEvaluators) {
+        if (policyItems != null) {
+            for (RangerPolicyItem policyItem : policyItems) {
+                if (!isCacheable(policyItem.getConditions(), conditionEvaluators)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isCacheable(List<RangerPolicyItemCondition> conditions, Map<String, String> conditionEvaluators) {
+        if (conditions != null) {
+            for (RangerPolicyItemCondition condition : conditions) {
+                if (!DETERMINISTIC_CONDITION_EVALUATORS.contains(conditionEvaluators.get(condition.getType()))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static final class EngineState {
+        final RangerPolicyEngine policyEngine;
+        final long               generation;
+        final boolean            isCacheable;
+
+        EngineState(RangerPolicyEngine policyEngine, long generation, boolean isCacheable) {
+            this.policyEngine = policyEngine;
+            this.generation   = generation;
+            this.isCacheable  = isCacheable;
+        }
+    }
+
+    private static final class CachedDecision {
+        final RangerAccessResult    result;
+        final Set<RangerTagForEval> tags;
+        final long                  generation;
+
+        CachedDecision(RangerAccessResult result, long generation) {
+            this.result     = new RangerAccessResult(result.getPolicyType(), result.getServiceName(), result.getServiceDef(), null);
+            this.tags       = result.getAccessRequest() != null ? RangerAccessRequestUtil.getRequestTagsFromContext(result.getAccessRequest().getContext()) : null;
+            this.generation = generation;
+
+            this.result.setAccessResultFrom(result);
+            this.result.setAuditResultFrom(result);
+        }
+
+        RangerAccessResult toResult(RangerAccessRequest request, RangerPolicyEngine policyEngine) {
+            RangerAccessResult ret = new RangerAccessResult(result.getPolicyType(), result.getServiceName(), result.getServiceDef(), request);
+
+            ret.setAccessResultFrom(result);
+            ret.setAuditResultFrom(result);
+
+            // replay the updates made to the request during evaluation that are used in audit logs
+            if (request instanceof RangerAccessRequestImpl) {
+                RangerAccessRequestImpl reqImpl = (RangerAccessRequestImpl) request;
+
+                if (reqImpl.getClientIPAddress() == null && policyEngine instanceof RangerPolicyEngineImpl) {
+                    PolicyEngine engine = ((RangerPolicyEngineImpl) policyEngine).getPolicyEngine();
+
+                    reqImpl.extractAndSetClientIPAddress(engine.getUseForwardedIPAddress(), engine.getTrustedProxyAddresses());
+                }
+            }
+
+            if (tags != null && request.getContext() != null) {
+                RangerAccessRequestUtil.setRequestTagsInContext(request.getContext(), tags);
+            }
+
+            return ret;
+        }
+    }
+
+    private static final class RequestKey {
+        private final String                                    user;
+        private final Set<String>                               userGroups;
+        private final Set<String>                               userRoles;
+        private final Map<String, Object>                       resource;
+        private final String                                    resourceOwner;
+        private final String                                    accessType;
+        private final String                                    action;
+        private final boolean                                   isAccessTypeAny;
+        private final boolean                                   isAccessTypeDelegatedAdmin;
+        private final boolean                                   ignoreDescendantDeny;
+        private final RangerAccessRequest.ResourceMatchingScope resourceMatchingScope;
+        private final Map<String, ?>                            resourceElementMatchingScopes;
+        private final String                                    clientIPAddress;
+        private final String                                    remoteIPAddress;
+        private final List<String>                              forwardedAddresses;
+        private final String                                    clusterName;
+        private final String                                    clusterType;
+        private final Map<String, Object>                       contextEntries;
+        private final int                                       hashCode;
+
+        private RequestKey(RangerAccessRequest request, Map<String, Object> contextEntries) {
+            RangerAccessResource resource = request.getResource();
+
+            this.user                          = request.getUser();
+            this.userGroups                    = request.getUserGroups() != null ? new HashSet<>(request.getUserGroups()) : null;
+            this.userRoles                     = request.getUserRoles() != null ? new HashSet<>(request.getUserRoles()) : null;
+            this.resource                      = resource != null && resource.getAsMap() != null ? new HashMap<>(resource.getAsMap()) : null;
+            this.resourceOwner                 = resource != null ? resource.getOwnerUser() : null;
+            this.accessType                    = request.getAccessType();
+            this.action                        = request.getAction();
+            this.isAccessTypeAny               = request.isAccessTypeAny();
+            this.isAccessTypeDelegatedAdmin    = request.isAccessTypeDelegatedAdmin();
+            this.ignoreDescendantDeny          = request.ignoreDescendantDeny();
+            this.resourceMatchingScope         = request.getResourceMatchingScope();
+            this.resourceElementMatchingScopes = request.getResourceElementMatchingScopes() != null ? new HashMap<>(request.getResourceElementMatchingScopes()) : null;
+            this.clientIPAddress               = request.getClientIPAddress();
+            this.remoteIPAddress               = request.getRemoteIPAddress();
+            this.forwardedAddresses            = request.getForwardedAddresses() != null ? new ArrayList<>(request.getForwardedAddresses()) : null;
+            this.clusterName                   = request.getClusterName();
+            this.clusterType                   = request.getClusterType();
+            this.contextEntries                = contextEntries;
+            this.hashCode                      = Objects.hash(user, userGroups, userRoles, this.resource, resourceOwner, accessType, action, isAccessTypeAny, isAccessTypeDelegatedAdmin,
+                                                              ignoreDescendantDeny, resourceMatchingScope, resourceElementMatchingScopes, clientIPAddress, remoteIPAddress,
+                                                              forwardedAddresses, clusterName, clusterType, contextEntries);
+        }
+
+        // returns null if the request has context entries that could influence the decision in ways not captured by the key
+        static RequestKey create(RangerAccessRequest request) {
+            Map<String, Object> context        = request.getContext();
+            Map<String, Object> contextEntries = null;
+
+            if (context != null) {
+                for (Map.Entry<String, Object> entry : context.entrySet()) {
+                    String name = entry.getKey();
+
+                    if (KEY_CONTEXT_ENTRIES.contains(name) || name.startsWith(RangerAccessRequestUtil.KEY_TOKEN_NAMESPACE)) {
+                        if (contextEntries == null) {
+                            contextEntries = new HashMap<>();
+                        }
+
+                        Object value = entry.getValue();
+
+                        contextEntries.put(name, value instanceof Set ? new HashSet<>((Set<?>) value) : value);
+                    } else if (RangerAccessRequestUtil.KEY_CONTEXT_IS_REQUEST_PREPROCESSED.equals(name)) {
+                        // a request preprocessed by the caller might carry tags/roles not derived from the key
+                        if (Boolean.TRUE.equals(entry.getValue())) {
+                            LOG.debug("RangerDecisionCache.RequestKey.create(): preprocessed request is not cacheable");
+
+                            return null;
+                        }
+                    } else if (!IGNORED_CONTEXT_ENTRIES.contains(name)) {
+                        LOG.debug("RangerDecisionCache.RequestKey.create(): request with context entry {} is not cacheable", name);
+
+                        return null;
+                    }
+                }
+            }
+
+            return new RequestKey(request, contextEntries);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof RequestKey)) {
+                return false;
+            }
+
+            RequestKey other = (RequestKey) obj;
+
+            return hashCode == other.hashCode &&
+                    isAccessTypeAny == other.isAccessTypeAny &&
+                    isAccessTypeDelegatedAdmin == other.isAccessTypeDelegatedAdmin &&
+                    ignoreDescendantDeny == other.ignoreDescendantDeny &&
+                    resourceMatchingScope == other.resourceMatchingScope &&
+                    Objects.equals(user, other.user) &&
+                    Objects.equals(accessType, other.accessType) &&
+                    Objects.equals(action, other.action) &&
+                    Objects.equals(resource, other.resource) &&
+                    Objects.equals(resourceOwner, other.resourceOwner) &&
+                    Objects.equals(userGroups, other.userGroups) &&
+                    Objects.equals(userRoles, other.userRoles) &&
+                    Objects.equals(resourceElementMatchingScopes, other.resourceElementMatchingScopes) &&
+                    Objects.equals(clientIPAddress, other.clientIPAddress) &&
+                    Objects.equals(remoteIPAddress, other.remoteIPAddress) &&
+                    Objects.equals(forwardedAddresses, other.forwardedAddresses) &&
+                    Objects.equals(clusterName, other.clusterName) &&
+                    Objects.equals(clusterType, other.clusterType) &&
+                    Objects.equals(contextEntries, other.contextEntries);
+        }
+    }
+}
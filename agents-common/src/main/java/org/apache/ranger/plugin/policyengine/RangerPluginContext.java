@@ -43,6 +43,8 @@ public class RangerPluginContext {
     private       RangerAuthContext                                                          authContext;
     private       RangerAuthContextListener                                                  authContextListener;
     private       RangerAdminClient                                                          adminClient;
+    private       RangerDecisionCache                                                        decisionCache;
+    private       RangerPolicyEvaluatorProfile                                               evaluatorProfile;
 
     public RangerPluginContext(RangerPluginConfig config) {
         this.config = config;
@@ -111,9 +113,30 @@ public void setAuthContextListener(RangerAuthContextListener authContextListener
         this.authContextListener = authContextListener;
     }
 
+    public RangerDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public void setDecisionCache(RangerDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    public RangerPolicyEvaluatorProfile getEvaluatorProfile() {
+        return evaluatorProfile;
+    }
+
+    public void setEvaluatorProfile(RangerPolicyEvaluatorProfile evaluatorProfile) {
+        this.evaluatorProfile = evaluatorProfile;
+    }
+
     public void notifyAuthContextChanged() {
+        RangerDecisionCache       decisionCache       = this.decisionCache;
         RangerAuthContextListener authContextListener = this.authContextListener;
 
+        if (decisionCache != null) {
+            decisionCache.invalidate();
+        }
+
         if (authContextListener != null) {
             authContextListener.contextChanged();
         }
@@ -69,6 +69,24 @@ public interface RangerPolicyEngine {
 
     Collection<RangerAccessResult> evaluatePolicies(Collection<RangerAccessRequest> requests, int policyType, RangerAccessResultProcessor resultProcessor);
 
+    /**
+     * Evaluates access policies for requests on children of a resource - like tables of a database. Results are same as
+     * evaluatePolicies(childRequests, ...); however, when the policies that apply under the parent resource lead to the
+     * same decision for every child, that decision is reused instead of evaluating policies for each child.
+     *
+     * @param parentRequest     request for the parent resource; only its resource, user, groups, roles and access-type are used
+     * @param childResourceName name of the resource element that differs between childRequests
+     * @param childRequests     requests for the children; resource of each must be that of parentRequest plus childResourceName
+     */
+    Collection<RangerAccessResult> evaluateChildPolicies(RangerAccessRequest parentRequest, String childResourceName, Collection<RangerAccessRequest> childRequests, RangerAccessResultProcessor resultProcessor);
+
+    /**
+     * Returns true if the access requested is allowed for the resource in the request and for all its descendants, like files and
+     * directories under a directory. Returns false when this can't be determined without evaluating each descendant - for example
+     * when a deny policy or a tag policy might apply to one of the descendants.
+     */
+    boolean isAccessAllowedForAllDescendants(RangerAccessRequest request);
+
     void evaluateAuditPolicies(RangerAccessResult result);
 
     RangerResourceACLs getResourceACLs(RangerAccessRequest request);
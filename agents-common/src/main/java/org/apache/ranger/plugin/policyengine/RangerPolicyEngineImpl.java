@@ -27,11 +27,13 @@
 import org.apache.ranger.authorization.utils.StringUtil;
 import org.apache.ranger.plugin.contextenricher.RangerTagForEval;
 import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.model.validation.RangerServiceDefHelper;
 import org.apache.ranger.plugin.policyengine.gds.GdsAccessResult;
 import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
 import org.apache.ranger.plugin.policyresourcematcher.RangerPolicyResourceMatcher.MatchType;
+import org.apache.ranger.plugin.resourcematcher.RangerAbstractResourceMatcher;
 import org.apache.ranger.plugin.service.RangerDefaultRequestProcessor;
 import org.apache.ranger.plugin.util.GrantRevokeRequest;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
@@ -51,6 +53,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -272,6 +275,134 @@ public Collection<RangerAccessResult> evaluatePolicies(Collection<RangerAccessRe
         return ret;
     }
 
+    @Override
+    public Collection<RangerAccessResult> evaluateChildPolicies(RangerAccessRequest parentRequest, String childResourceName, Collection<RangerAccessRequest> childRequests, RangerAccessResultProcessor resultProcessor) {
+        LOG.debug("==> RangerPolicyEngineImpl.evaluateChildPolicies({}, childResourceName={}, childCount={})", parentRequest, childResourceName, childRequests == null ? 0 : childRequests.size());
+
+        RangerPerfTracer perf = null;
+
+        if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_REQUEST_LOG)) {
+            perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_REQUEST_LOG, "RangerPolicyEngine.evaluateChildPolicies(resource=" + parentRequest.getResource().getAsString() + ", childResourceName=" + childResourceName + ", childCount=" + (childRequests == null ? 0 : childRequests.size()) + ")");
+        }
+
+        Collection<RangerAccessResult> ret         = new ArrayList<>();
+        int                            reusedCount = 0;
+
+        try (RangerReadWriteLock.RangerLock readLock = policyEngine.getReadLock()) {
+            if (readLock.isLockingEnabled()) {
+                LOG.debug("Acquired lock - {}", readLock);
+            }
+
+            if (childRequests != null) {
+                List<RangerPolicyEvaluator> parentEvaluators      = null;
+                RangerAccessResult          commonResult          = null;
+                String                      commonResultOwner     = null;
+                boolean                     isCommonResultChecked = false;
+
+                for (RangerAccessRequest request : childRequests) {
+                    requestProcessor.preProcess(request);
+
+                    final RangerAccessResult result;
+                    final boolean            isCommonDecisionApplicable = isCommonChildDecisionApplicable(request);
+
+                    if (commonResult != null && isCommonDecisionApplicable && Objects.equals(commonResultOwner, request.getResource().getOwnerUser())) { // {OWNER} policies make the decision owner specific
+                        result = createAccessResult(request, RangerPolicy.POLICY_TYPE_ACCESS);
+
+                        result.setAccessResultFrom(commonResult);
+                        result.setAuditResultFrom(commonResult);
+
+                        reusedCount++;
+                    } else {
+                        result = zoneAwareAccessEvaluationWithNoAudit(request, RangerPolicy.POLICY_TYPE_ACCESS);
+
+                        if (!isCommonResultChecked && isCommonDecisionApplicable) {
+                            isCommonResultChecked = true;
+
+                            if (parentEvaluators == null) {
+                                parentEvaluators = getApplicableEvaluators(parentRequest, request.getAccessTime());
+                            }
+
+                            if (isCommonChildResult(result, childResourceName, parentRequest, parentEvaluators)) {
+                                commonResult      = result;
+                                commonResultOwner = request.getResource().getOwnerUser();
+                            }
+                        }
+                    }
+
+                    ret.add(result);
+                }
+            }
+
+            if (resultProcessor != null) {
+                resultProcessor.processResults(ret);
+            }
+        }
+
+        RangerPerfTracer.log(perf);
+
+        LOG.debug("<== RangerPolicyEngineImpl.evaluateChildPolicies({}, childResourceName={}): resultCount={}, reusedCount={}", parentRequest, childResourceName, ret.size(), reusedCount);
+
+        return ret;
+    }
+
+    @Override
+    public boolean isAccessAllowedForAllDescendants(RangerAccessRequest request) {
+        LOG.debug("==> RangerPolicyEngineImpl.isAccessAllowedForAllDescendants({})", request);
+
+        RangerPerfTracer perf = null;
+
+        if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_REQUEST_LOG)) {
+            perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_REQUEST_LOG, "RangerPolicyEngine.isAccessAllowedForAllDescendants(resource=" + request.getResource().getAsString() + ")");
+        }
+
+        boolean ret = false;
+
+        try (RangerReadWriteLock.RangerLock readLock = policyEngine.getReadLock()) {
+            if (readLock.isLockingEnabled()) {
+                LOG.debug("Acquired lock - {}", readLock);
+            }
+
+            // tags and security-zones can be associated with any descendant; such descendants can't be decided here
+            if (policyEngine.getTagPolicyRepository() == null && CollectionUtils.isEmpty(policyEngine.getMatchedZonesForResourceAndChildren(request.getResource()))) {
+                List<RangerPolicyEvaluator> evaluators = getApplicableEvaluators(request, request.getAccessTime());
+                boolean                     hasDeny    = false;
+
+                for (RangerPolicyEvaluator evaluator : evaluators) {
+                    if (evaluator.hasDeny()) {
+                        hasDeny = true;
+
+                        break;
+                    }
+                }
+
+                if (!hasDeny) {
+                    Set<String> accessTypes = RangerAccessRequestUtil.getAllRequestedAccessTypes(request);
+                    Set<String> ignoreTypes = RangerAccessRequestUtil.getIgnoreIfNotDeniedAccessTypes(request);
+
+                    ret = CollectionUtils.isNotEmpty(accessTypes);
+
+                    for (String accessType : accessTypes) {
+                        if (ignoreTypes != null && ignoreTypes.contains(accessType)) { // no deny policy applies to any descendant
+                            continue;
+                        }
+
+                        if (!isAllowedForAllDescendants(request, accessType, evaluators)) {
+                            ret = false;
+
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        RangerPerfTracer.log(perf);
+
+        LOG.debug("<== RangerPolicyEngineImpl.isAccessAllowedForAllDescendants({}): ret={}", request, ret);
+
+        return ret;
+    }
+
     @Override
     public void evaluateAuditPolicies(RangerAccessResult result) {
         LOG.debug("==> RangerPolicyEngineImpl.evaluateAuditPolicies(result={})", result);
@@ -749,6 +880,12 @@ private RangerAccessResult evaluatePoliciesForOneAccessTypeNoAudit(RangerAccessR
             }
         }
 
+        RangerPolicyEvaluatorProfile evaluatorProfile = policyEngine.getPluginContext().getEvaluatorProfile();
+
+        if (evaluatorProfile != null && ret.getIsAccessDetermined()) {
+            evaluatorProfile.recordDecision(ret.getPolicyId());
+        }
+
         LOG.debug("<== RangerPolicyEngineImpl.evaluatePoliciesForOneAccessTypeNoAudit({}, policyType={}, zoneName={}): {}", request, policyType, zoneName, ret);
 
         return ret;
@@ -828,6 +965,177 @@ private void evaluateTagPolicies(final RangerAccessRequest request, int policyTy
         LOG.debug("<== RangerPolicyEngineImpl.evaluateTagPolicies({}, policyType={}, zoneName={}, {})", request, policyType, zoneName, result);
     }
 
+    /*
+     * A decision can be shared by children that are evaluated only by resource policies of the default zone i.e. that
+     * are not in a security-zone, have no tags and have no GDS result
+     */
+    private boolean isCommonChildDecisionApplicable(RangerAccessRequest request) {
+        Map<String, Object> context = request.getContext();
+
+        return CollectionUtils.isEmpty(RangerAccessRequestUtil.getResourceZoneNamesFromContext(context)) &&
+                CollectionUtils.isEmpty(RangerAccessRequestUtil.getRequestTagsFromContext(context)) &&
+                RangerAccessRequestUtil.getGdsResultFromContext(context) == null;
+    }
+
+    /*
+     * Returns access policies that might apply to the parent resource or to any of its descendants. Resource tries look
+     * up descendants only by the scope of each resource element, hence SELF_OR_PREFIX for every element in the parent:
+     * policies for /a/b/c are found for parent /a. Policies for siblings like /ab are included as well; that only makes
+     * the callers more conservative.
+     */
+    private List<RangerPolicyEvaluator> getApplicableEvaluators(RangerAccessRequest parentRequest, Date accessTime) {
+        RangerPolicyRepository      policyRepository = policyEngine.getRepositoryForZone(null);
+        List<RangerPolicyEvaluator> ret              = new ArrayList<>();
+
+        if (policyEngine.hasResourcePolicies(policyRepository)) {
+            RangerAccessRequestImpl                                       request       = new RangerAccessRequestImpl(parentRequest);
+            Map<String, RangerAccessRequest.ResourceElementMatchingScope> elementScopes = new HashMap<>();
+
+            if (parentRequest.getResource().getKeys() != null) {
+                for (String resourceName : parentRequest.getResource().getKeys()) {
+                    elementScopes.put(resourceName, RangerAccessRequest.ResourceElementMatchingScope.SELF_OR_PREFIX);
+                }
+            }
+
+            request.setResourceMatchingScope(RangerAccessRequest.ResourceMatchingScope.SELF_OR_DESCENDANTS);
+            request.setResourceElementMatchingScopes(elementScopes);
+
+            for (RangerPolicyEvaluator evaluator : policyRepository.getLikelyMatchPolicyEvaluators(request, RangerPolicy.POLICY_TYPE_ACCESS)) {
+                if (evaluator.isApplicable(accessTime != null ? accessTime : new Date())) {
+                    ret.add(evaluator);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * Checks whether the result of a child applies to all children of the parent:
+     *  - denied, with no policy applicable to the parent or its descendants
+     *  - allowed by a policy that covers all children ('*' for the child and lower levels) for the user irrespective of
+     *    the resource (no conditions, no {OWNER}), with no deny policy applicable to the parent or its descendants and
+     *    with audit determined by this policy alone
+     */
+    private boolean isCommonChildResult(RangerAccessResult result, String childResourceName, RangerAccessRequest parentRequest, List<RangerPolicyEvaluator> parentEvaluators) {
+        final boolean ret;
+
+        if (!result.getIsAllowed()) {
+            ret = parentEvaluators.isEmpty();
+        } else {
+            RangerPolicyEvaluator allowingEvaluator = null;
+            boolean               hasDeny           = false;
+            boolean               hasAuditEnabled   = false;
+
+            for (RangerPolicyEvaluator evaluator : parentEvaluators) {
+                if (evaluator.getPolicyId() == result.getPolicyId()) {
+                    allowingEvaluator = evaluator;
+                }
+
+                hasDeny         = hasDeny || evaluator.hasDeny();
+                hasAuditEnabled = hasAuditEnabled || evaluator.isAuditEnabled();
+            }
+
+            ret = allowingEvaluator != null && !hasDeny &&
+                    (allowingEvaluator.isAuditEnabled() || !hasAuditEnabled) &&
+                    allowingEvaluator.getPolicyConditionsCount() == 0 &&
+                    !allowingEvaluator.hasContextSensitiveSpecification() &&
+                    isForAllChildren(allowingEvaluator.getPolicy(), childResourceName, parentRequest.getResource());
+        }
+
+        LOG.debug("isCommonChildResult(result={}, childResourceName={}): ret={}", result, childResourceName, ret);
+
+        return ret;
+    }
+
+    /*
+     * Returns true if one of the given evaluators allows the access for the request resource and all of its descendants.
+     * Only policies without conditions and exclusions, whose resources are recursive where supported, are considered; and
+     * the resource owner is not set in the request, since descendants can have different owners. The caller ensures that
+     * none of the evaluators has deny items, hence an allow by a single evaluator decides the access.
+     */
+    private boolean isAllowedForAllDescendants(RangerAccessRequest request, String accessType, List<RangerPolicyEvaluator> evaluators) {
+        boolean                  ret           = false;
+        long                     policyId      = -1;
+        RangerAccessResourceImpl resource      = new RangerAccessResourceImpl(new HashMap<>(request.getResource().getAsMap()));
+        RangerAccessRequestImpl  accessRequest = new RangerAccessRequestImpl(request);
+
+        accessRequest.setResource(resource);
+        accessRequest.setAccessType(accessType);
+        accessRequest.setContext(new HashMap<>());
+
+        requestProcessor.preProcess(accessRequest);
+
+        for (RangerPolicyEvaluator evaluator : evaluators) {
+            if (evaluator.getPolicyConditionsCount() > 0 || evaluator.hasContextSensitiveSpecification() || !isRecursiveWithoutExcludes(evaluator.getPolicy(), evaluator.getServiceDef())) {
+                continue;
+            }
+
+            if (evaluator.isMatch(resource, accessRequest.getContext())) {
+                RangerAccessResult result = createAccessResult(accessRequest, RangerPolicy.POLICY_TYPE_ACCESS);
+
+                evaluator.evaluate(accessRequest, result);
+
+                if (result.getIsAllowed()) { // evaluator.evaluate() doesn't set isAccessDetermined; the engine does
+                    ret      = true;
+                    policyId = result.getPolicyId();
+
+                    break;
+                }
+            }
+        }
+
+        LOG.debug("isAllowedForAllDescendants(resource={}, accessType={}): ret={}, policyId={}", resource, accessType, ret, policyId);
+
+        return ret;
+    }
+
+    private boolean isRecursiveWithoutExcludes(RangerPolicy policy, RangerServiceDef serviceDef) {
+        boolean ret = CollectionUtils.isEmpty(policy.getAdditionalResources()) && MapUtils.isNotEmpty(policy.getResources());
+
+        if (ret) {
+            for (RangerServiceDef.RangerResourceDef resourceDef : serviceDef.getResources()) {
+                RangerPolicyResource policyResource = policy.getResources().get(resourceDef.getName());
+
+                if (policyResource == null) {
+                    continue;
+                }
+
+                ret = !Boolean.TRUE.equals(policyResource.getIsExcludes()) && (!Boolean.TRUE.equals(resourceDef.getRecursiveSupported()) || Boolean.TRUE.equals(policyResource.getIsRecursive()));
+
+                if (!ret) {
+                    break;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private boolean isForAllChildren(RangerPolicy policy, String childResourceName, RangerAccessResource parentResource) {
+        boolean ret = CollectionUtils.isEmpty(policy.getAdditionalResources()) && policy.getResources() != null;
+
+        if (ret) {
+            for (Map.Entry<String, RangerPolicyResource> entry : policy.getResources().entrySet()) {
+                RangerPolicyResource policyResource = entry.getValue();
+
+                if (parentResource.exists(entry.getKey())) {
+                    continue; // same for all children, and already matched for the evaluated child
+                }
+
+                ret = policyResource != null && !Boolean.TRUE.equals(policyResource.getIsExcludes()) && policyResource.getValues() != null && policyResource.getValues().contains(RangerAbstractResourceMatcher.WILDCARD_ASTERISK);
+
+                if (!ret) {
+                    break;
+                }
+            }
+
+            ret = ret && policy.getResources().containsKey(childResourceName);
+        }
+
+        return ret;
+    }
+
     private RangerAccessResult createAccessResult(RangerAccessRequest request, int policyType) {
         RangerPolicyRepository repository = policyEngine.getPolicyRepository();
         RangerAccessResult     ret        = new RangerAccessResult(policyType, repository.getServiceName(), repository.getServiceDef(), request);
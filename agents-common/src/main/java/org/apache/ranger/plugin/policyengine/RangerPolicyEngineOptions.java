@@ -45,6 +45,10 @@ public class RangerPolicyEngineOptions {
     public boolean optimizeTrieForSpace;
     public boolean optimizeTagTrieForRetrieval;
     public boolean optimizeTagTrieForSpace;
+    public boolean compactTrie;
+    public boolean compactTagTrie;
+    public boolean useConcurrentAuditResultCache;
+    public int     policyEngineBuilderThreadCount              = 1;
 
     private RangerServiceDefHelper serviceDefHelper;
 
@@ -71,6 +75,10 @@ public RangerPolicyEngineOptions(final RangerPolicyEngineOptions other) {
         this.optimizeTrieForSpace                      = other.optimizeTrieForSpace;
         this.optimizeTagTrieForRetrieval               = other.optimizeTagTrieForRetrieval;
         this.optimizeTagTrieForSpace                   = other.optimizeTagTrieForSpace;
+        this.compactTrie                               = other.compactTrie;
+        this.compactTagTrie                            = other.compactTagTrie;
+        this.useConcurrentAuditResultCache             = other.useConcurrentAuditResultCache;
+        this.policyEngineBuilderThreadCount            = other.policyEngineBuilderThreadCount;
     }
 
     public RangerPolicyEngineOptions(final RangerPolicyEngineOptions other, RangerServiceDefHelper serviceDefHelper) {
@@ -103,6 +111,10 @@ public void configureForPlugin(Configuration conf, String propertyPrefix) {
         optimizeTrieForSpace                      = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.trie.for.space", false);
         optimizeTagTrieForRetrieval               = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.retrieval", false);
         optimizeTagTrieForSpace                   = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.space", false);
+        compactTrie                               = conf.getBoolean(propertyPrefix + ".policyengine.option.compact.trie", false);
+        compactTagTrie                            = conf.getBoolean(propertyPrefix + ".policyengine.option.compact.tag.trie", false);
+        useConcurrentAuditResultCache             = conf.getBoolean(propertyPrefix + ".policyengine.option.use.concurrent.audit.result.cache", false);
+        policyEngineBuilderThreadCount            = conf.getInt(propertyPrefix + ".policyengine.option.builder.thread.count", 1);
     }
 
     public void configureDefaultRangerAdmin(Configuration conf, String propertyPrefix) {
@@ -161,6 +173,8 @@ public void configureRangerAdminForPolicySearch(Configuration conf, String prope
         optimizeTrieForSpace        = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.trie.for.space", false);
         optimizeTagTrieForRetrieval = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.retrieval", false);
         optimizeTagTrieForSpace     = conf.getBoolean(propertyPrefix + ".policyengine.option.optimize.tag.trie.for.space", true);
+        compactTrie                 = conf.getBoolean(propertyPrefix + ".policyengine.option.compact.trie", false);
+        compactTagTrie              = conf.getBoolean(propertyPrefix + ".policyengine.option.compact.tag.trie", false);
         enableResourceMatcherReuse  = conf.getBoolean(propertyPrefix + ".policyengine.option.enable.resourcematcher.reuse", true);
     }
 
@@ -214,8 +228,15 @@ public int hashCode() {
         ret *= 2;
         ret += optimizeTagTrieForSpace ? 1 : 0;
         ret *= 2;
+        ret += compactTrie ? 1 : 0;
+        ret *= 2;
+        ret += compactTagTrie ? 1 : 0;
+        ret *= 2;
         ret += enableResourceMatcherReuse ? 1 : 0;
         ret *= 2;
+        ret += useConcurrentAuditResultCache ? 1 : 0;
+        ret *= 2;
+        ret += policyEngineBuilderThreadCount;
         return ret;
     }
 
@@ -241,7 +262,11 @@ public boolean equals(Object other) {
                     && this.optimizeTrieForSpace == that.optimizeTrieForSpace
                     && this.optimizeTagTrieForRetrieval == that.optimizeTagTrieForRetrieval
                     && this.optimizeTagTrieForSpace == that.optimizeTagTrieForSpace
-                    && this.enableResourceMatcherReuse == that.enableResourceMatcherReuse;
+                    && this.compactTrie == that.compactTrie
+                    && this.compactTagTrie == that.compactTagTrie
+                    && this.enableResourceMatcherReuse == that.enableResourceMatcherReuse
+                    && this.useConcurrentAuditResultCache == that.useConcurrentAuditResultCache
+                    && this.policyEngineBuilderThreadCount == that.policyEngineBuilderThreadCount;
         }
         return ret;
     }
@@ -267,7 +292,11 @@ public String toString() {
                 ", optimizeTrieForSpace: " + optimizeTrieForSpace +
                 ", optimizeTagTrieForRetrieval: " + optimizeTagTrieForRetrieval +
                 ", optimizeTagTrieForSpace: " + optimizeTagTrieForSpace +
+                ", compactTrie: " + compactTrie +
+                ", compactTagTrie: " + compactTagTrie +
                 ", enableResourceMatcherReuse: " + enableResourceMatcherReuse +
+                ", useConcurrentAuditResultCache: " + useConcurrentAuditResultCache +
+                ", policyEngineBuilderThreadCount: " + policyEngineBuilderThreadCount +
                 " }";
     }
 }
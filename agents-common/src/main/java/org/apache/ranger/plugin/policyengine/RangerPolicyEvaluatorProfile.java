@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.commons.collections.MapUtils;
+import org.apache.ranger.authorization.utils.JsonUtils;
+import org.apache.ranger.plugin.model.RangerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Profile of the policies that decide access requests in a plugin, used to evaluate frequently deciding policies earlier.
+ *
+ * Decisions are sampled into per-policy striped counters. When policy evaluators are built, the eval-order computed by
+ * RangerOptimizedPolicyEvaluator is discounted in proportion to the share of decisions made by the policy, as of the last
+ * rebalance(). As the discount only lowers eval-order, evaluators continue to be ordered first by policy priority and
+ * deny-before-allow (see RangerPolicyEvaluator.PolicyEvalOrderComparator); only the order within these groups changes.
+ * The eval-order of an evaluator doesn't change once built, as it is read by comparators on concurrent request threads.
+ */
+public class RangerPolicyEvaluatorProfile {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerPolicyEvaluatorProfile.class);
+
+    public static final String PROP_SUFFIX_EVALUATOR_PROFILE_ENABLED      = ".policyengine.evaluator.profile.enabled";
+    public static final String PROP_SUFFIX_EVALUATOR_PROFILE_SAMPLE_RATE  = ".policyengine.evaluator.profile.sample.rate";
+    public static final String PROP_SUFFIX_EVALUATOR_PROFILE_MIN_SAMPLES  = ".policyengine.evaluator.profile.min.samples";
+    public static final String PROP_SUFFIX_EVALUATOR_PROFILE_MAX_DISCOUNT = ".policyengine.evaluator.profile.max.discount";
+    public static final int    DEFAULT_SAMPLE_RATE                        = 16;   // sample 1 in 16 decisions
+    public static final long   DEFAULT_MIN_SAMPLES                        = 1000; // samples needed before eval-order is changed
+    public static final int    DEFAULT_MAX_DISCOUNT                       = 200;  // higher than the range of eval-order computed by RangerOptimizedPolicyEvaluator
+
+    private static final TypeReference<Map<Long, Long>> TYPE_DECISION_COUNTS = new TypeReference<Map<Long, Long>>() {};
+
+    private final    Map<Long, LongAdder> decisionCounts = new ConcurrentHashMap<>();
+    private final    int                  sampleRate;
+    private final    long                 minSamples;
+    private final    int                  maxDiscount;
+    private volatile Map<Long, Integer>   discounts      = Collections.emptyMap();
+    private volatile long                 rebalanceCount;
+
+    public RangerPolicyEvaluatorProfile(int sampleRate, long minSamples, int maxDiscount) {
+        this.sampleRate  = Math.max(sampleRate, 1);
+        this.minSamples  = Math.max(minSamples, 1);
+        this.maxDiscount = Math.max(maxDiscount, 0);
+
+        LOG.info("RangerPolicyEvaluatorProfile(sampleRate={}, minSamples={}, maxDiscount={}) created", this.sampleRate, this.minSamples, this.maxDiscount);
+    }
+
+    public void recordDecision(long policyId) {
+        if (policyId >= 0 && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0)) {
+            decisionCounts.computeIfAbsent(policyId, k -> new LongAdder()).increment();
+        }
+    }
+
+    // discount to apply to eval-order of the given policy's evaluator, as of the last rebalance()
+    public int getEvalOrderDiscount(Long policyId) {
+        Integer ret = policyId != null ? discounts.get(policyId) : null;
+
+        return ret != null ? ret : 0;
+    }
+
+    /*
+     * computes discounts from the decisions sampled so far, to be used by evaluators built hereafter. Counts are then
+     * halved, so that the profile follows changes in traffic over successive rebalances
+     */
+    public synchronized void rebalance() {
+        Map<Long, Long> counts = getDecisionCounts();
+        long            total  = 0;
+        long            max    = 0;
+
+        for (Long count : counts.values()) {
+            total += count;
+            max    = Math.max(max, count);
+        }
+
+        Map<Long, Integer> discounts = new HashMap<>();
+
+        if (total >= minSamples && max > 0) {
+            for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+                int discount = (int) ((maxDiscount * entry.getValue()) / max);
+
+                if (discount > 0) {
+                    discounts.put(entry.getKey(), discount);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, LongAdder> entry : decisionCounts.entrySet()) {
+            LongAdder counter = entry.getValue();
+            long      count   = counter.sumThenReset();
+
+            if (count > 1) {
+                counter.add(count / 2);
+            } else {
+                decisionCounts.remove(entry.getKey(), counter);
+            }
+        }
+
+        this.discounts = Collections.unmodifiableMap(discounts);
+        this.rebalanceCount++;
+
+        LOG.debug("RangerPolicyEvaluatorProfile.rebalance(): totalSamples={}, discountedPolicies={}", total, discounts.size());
+    }
+
+    public Map<Long, Long> getDecisionCounts() {
+        Map<Long, Long> ret = new HashMap<>();
+
+        for (Map.Entry<Long, LongAdder> entry : decisionCounts.entrySet()) {
+            long count = entry.getValue().sum();
+
+            if (count > 0) {
+                ret.put(entry.getKey(), count);
+            }
+        }
+
+        return ret;
+    }
+
+    public void setDecisionCounts(Map<Long, Long> counts) {
+        decisionCounts.clear();
+
+        if (MapUtils.isNotEmpty(counts)) {
+            for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null && entry.getValue() > 0) {
+                    decisionCounts.computeIfAbsent(entry.getKey(), k -> new LongAdder()).add(entry.getValue());
+                }
+            }
+        }
+    }
+
+    public void saveToFile(File file) {
+        LOG.debug("==> RangerPolicyEvaluatorProfile.saveToFile({})", file);
+
+        File tmpFile = new File(file.getPath() + ".tmp");
+
+        try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonUtils.getMapper().writeValue(writer, getDecisionCounts());
+        } catch (Exception excp) {
+            LOG.error("failed to save evaluator profile to file '{}'", tmpFile.getAbsolutePath(), excp);
+
+            return;
+        }
+
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception excp) {
+            LOG.error("failed to save evaluator profile to file '{}'", file.getAbsolutePath(), excp);
+        }
+
+        LOG.debug("<== RangerPolicyEvaluatorProfile.saveToFile({})", file);
+    }
+
+    public void loadFromFile(File file) {
+        LOG.debug("==> RangerPolicyEvaluatorProfile.loadFromFile({})", file);
+
+        if (file.isFile()) {
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                setDecisionCounts(JsonUtils.getMapper().readValue(reader, TYPE_DECISION_COUNTS));
+
+                rebalance();
+
+                LOG.info("loaded evaluator profile from file '{}': policyCount={}", file.getAbsolutePath(), discounts.size());
+            } catch (Exception excp) {
+                LOG.error("failed to load evaluator profile from file '{}'. Ignored", file.getAbsolutePath(), excp);
+            }
+        }
+
+        LOG.debug("<== RangerPolicyEvaluatorProfile.loadFromFile({})", file);
+    }
+
+    public RangerMetrics getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        long                samples = 0;
+
+        for (LongAdder counter : decisionCounts.values()) {
+            samples += counter.sum();
+        }
+
+        metrics.put("sampleRate", sampleRate);
+        metrics.put("sampleCount", samples);
+        metrics.put("profiledPolicyCount", decisionCounts.size());
+        metrics.put("discountedPolicyCount", discounts.size());
+        metrics.put("rebalanceCount", rebalanceCount);
+
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("evaluatorProfile", metrics);
+
+        return new RangerMetrics(data);
+    }
+
+    @Override
+    public String toString() {
+        return "RangerPolicyEvaluatorProfile={sampleRate=" + sampleRate + ", minSamples=" + minSamples + ", maxDiscount=" + maxDiscount + ", profiledPolicyCount=" + decisionCounts.size() + ", discountedPolicyCount=" + discounts.size() + "}";
+    }
+}
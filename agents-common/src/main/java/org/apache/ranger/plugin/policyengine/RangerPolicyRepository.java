@@ -158,9 +158,9 @@ public class RangerPolicyRepository {
         }
 
         if (other.accessAuditCache != null) {
-            int auditResultCacheSize = other.accessAuditCache.size();
+            int auditResultCacheSize = other.accessAuditCache instanceof ConcurrentCacheMap ? ((ConcurrentCacheMap<String, AuditInfo>) other.accessAuditCache).getCapacity() : other.accessAuditCache.size();
 
-            this.accessAuditCache = Collections.synchronizedMap(new CacheMap<>(auditResultCacheSize));
+            this.accessAuditCache = CacheMap.createThreadSafeCache(auditResultCacheSize, options.useConcurrentAuditResultCache);
         } else {
             this.accessAuditCache = null;
         }
@@ -220,7 +220,7 @@ public RangerPolicyRepository(ServicePolicies servicePolicies, RangerPluginConte
             if (options.cacheAuditResults) {
                 int auditResultCacheSize = pluginContext.getConfig().getInt(propertyName, RANGER_POLICYENGINE_AUDITRESULT_CACHE_SIZE);
 
-                accessAuditCache = Collections.synchronizedMap(new CacheMap<>(auditResultCacheSize));
+                accessAuditCache = CacheMap.createThreadSafeCache(auditResultCacheSize, options.useConcurrentAuditResultCache);
             } else {
                 accessAuditCache = null;
             }
@@ -493,6 +493,10 @@ void cleanup() {
             }
         }
 
+        if (accessAuditCache instanceof ConcurrentCacheMap) {
+            LOG.info("audit-result cache stats for service={}, zone={}: {}", serviceName, zoneName, accessAuditCache);
+        }
+
         LOG.debug("<== cleanup()");
     }
 
@@ -1212,7 +1216,7 @@ private Map<String, RangerResourceTrie<RangerPolicyResourceEvaluator>> createRes
             ret = new HashMap<>();
 
             for (RangerServiceDef.RangerResourceDef resourceDef : serviceDef.getResources()) {
-                ret.put(resourceDef.getName(), new RangerResourceTrie(resourceDef, evaluators, optimizeTrieForRetrieval, optimizeTrieForSpace, pluginContext));
+                ret.put(resourceDef.getName(), new RangerResourceTrie(resourceDef, evaluators, optimizeTrieForRetrieval, optimizeTrieForSpace, options.compactTrie, pluginContext));
             }
         } else {
             ret = null;
@@ -1234,7 +1238,7 @@ private void updateTrie(Map<String, RangerResourceTrie<RangerPolicyResourceEvalu
                     LOG.warn("policyDeltaType is not for POLICY_CREATE and trie for resourceDef:[{}] was null! Should not have happened!!", resourceDefName);
                 }
 
-                trie = new RangerResourceTrie<>(resourceDef, new ArrayList<>(), options.optimizeTrieForRetrieval, options.optimizeTrieForSpace, pluginContext);
+                trie = new RangerResourceTrie<>(resourceDef, new ArrayList<>(), options.optimizeTrieForRetrieval, options.optimizeTrieForSpace, options.compactTrie, pluginContext);
 
                 trieMap.put(resourceDefName, trie);
             }
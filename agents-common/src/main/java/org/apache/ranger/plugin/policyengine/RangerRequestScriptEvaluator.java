@@ -35,6 +35,8 @@
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
@@ -153,6 +155,7 @@ public final class RangerRequestScriptEvaluator {
 
     private static final Logger  PERF_POLICY_CONDITION_SCRIPT_TOJSON          = RangerPerfTracer.getPerfLogger("policy.condition.script.tojson");
     private static final Logger  PERF_POLICY_CONDITION_SCRIPT_EVAL            = RangerPerfTracer.getPerfLogger("policy.condition.script.eval");
+    private static final Logger  PERF_POLICY_CONDITION_SCRIPT_COMPILE         = RangerPerfTracer.getPerfLogger("policy.condition.script.compile");
     private static final String  TAG_ATTR_DATE_FORMAT_PROP                    = "ranger.plugin.tag.attr.additional.date.formats";
     private static final String  TAG_ATTR_DATE_FORMAT_SEPARATOR               = "||";
     private static final String  TAG_ATTR_DATE_FORMAT_SEPARATOR_REGEX         = "\\|\\|";
@@ -325,26 +328,70 @@ public static void init(Configuration config) {
         RangerRequestScriptEvaluator.dateFormatStrings = formatStrings;
     }
 
+    /*
+     * compiles the given script, after the same pre-processing done by evaluateScript(String), so that it can be
+     * evaluated repeatedly with evaluateScript(CompiledScript) without being parsed for every request.
+     * Returns null if the script engine doesn't support compilation or the script fails to compile; callers
+     * should then fall back to evaluateScript(String).
+     */
+    public static CompiledScript compileScript(ScriptEngine scriptEngine, String script) {
+        CompiledScript   ret  = null;
+        RangerPerfTracer perf = null;
+
+        if (scriptEngine instanceof Compilable && script != null) {
+            try {
+                if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICY_CONDITION_SCRIPT_COMPILE)) {
+                    perf = RangerPerfTracer.getPerfTracer(PERF_POLICY_CONDITION_SCRIPT_COMPILE, "RangerRequestScriptEvaluator.compileScript(scriptLength=" + script.length() + ")");
+                }
+
+                ret = ((Compilable) scriptEngine).compile(preProcessScript(expandMacros(script)));
+            } catch (Throwable t) {
+                LOG.error("RangerRequestScriptEvaluator.compileScript(): failed to compile script {}", script, t);
+            } finally {
+                RangerPerfTracer.log(perf);
+            }
+        }
+
+        return ret;
+    }
+
     public Object evaluateScript(String script) {
         script = expandMacros(script);
 
         return evaluateScriptImpl(script);
     }
 
-    public Object evaluateConditionScript(String script) {
-        Object ret = evaluateScript(script);
+    public Object evaluateScript(CompiledScript compiledScript) {
+        Object           ret  = null;
+        RangerPerfTracer perf = null;
 
-        if (ret == null) {
-            ret = getResult();
-        }
+        try {
+            if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICY_CONDITION_SCRIPT_EVAL)) {
+                perf = RangerPerfTracer.getPerfTracer(PERF_POLICY_CONDITION_SCRIPT_EVAL, "RangerRequestScriptEvaluator.evaluateScript(requestHash=" + accessRequest.hashCode() + ", compiled=true)");
+            }
 
-        if (ret instanceof Boolean) {
-            result = (Boolean) ret;
+            ret = compiledScript.eval(bindings);
+        } catch (NullPointerException nullp) {
+            LOG.error("RangerRequestScriptEvaluator.evaluateScript(): eval called with NULL argument(s)", nullp);
+        } catch (ScriptException excp) {
+            LOG.error("RangerRequestScriptEvaluator.evaluateScript(): failed to evaluate script", excp);
+        } catch (Throwable t) {
+            LOG.error("RangerRequestScriptEvaluator.evaluateScript(): failed to evaluate script", t);
+        } finally {
+            RangerPerfTracer.log(perf);
         }
 
         return ret;
     }
 
+    public Object evaluateConditionScript(String script) {
+        return setResult(evaluateScript(script));
+    }
+
+    public Object evaluateConditionScript(CompiledScript compiledScript) {
+        return setResult(evaluateScript(compiledScript));
+    }
+
     public String getResource() {
         String               ret = null;
         RangerAccessResource val = RangerAccessRequestUtil.getCurrentResourceFromContext(getRequestContext());
@@ -959,21 +1006,7 @@ private Object evaluateScriptImpl(String script) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_POLICY_CONDITION_SCRIPT_EVAL, "RangerRequestScriptEvaluator.evaluateScript(requestHash=" + accessRequest.hashCode() + ")");
             }
 
-            String preExec = SCRIPT_SAFE_PREEXEC;
-
-            if (script.contains(".includes(")) {
-                preExec += SCRIPT_POLYFILL_INCLUDES;
-            }
-
-            if (script.contains(".intersects(")) {
-                preExec += SCRIPT_POLYFILL_INTERSECTS;
-            }
-
-            if (JavaScriptEdits.hasDoubleBrackets(script)) {
-                script = JavaScriptEdits.replaceDoubleBrackets(script);
-            }
-
-            ret = scriptEngine.eval(preExec + script, bindings);
+            ret = scriptEngine.eval(preProcessScript(script), bindings);
         } catch (NullPointerException nullp) {
             LOG.error("RangerRequestScriptEvaluator.evaluateScript(): eval called with NULL argument(s)", nullp);
         } catch (ScriptException excp) {
@@ -987,6 +1020,36 @@ private Object evaluateScriptImpl(String script) {
         return ret;
     }
 
+    private static String preProcessScript(String script) {
+        String preExec = SCRIPT_SAFE_PREEXEC;
+
+        if (script.contains(".includes(")) {
+            preExec += SCRIPT_POLYFILL_INCLUDES;
+        }
+
+        if (script.contains(".intersects(")) {
+            preExec += SCRIPT_POLYFILL_INTERSECTS;
+        }
+
+        if (JavaScriptEdits.hasDoubleBrackets(script)) {
+            script = JavaScriptEdits.replaceDoubleBrackets(script);
+        }
+
+        return preExec + script;
+    }
+
+    private Object setResult(Object ret) {
+        if (ret == null) {
+            ret = getResult();
+        }
+
+        if (ret instanceof Boolean) {
+            result = (Boolean) ret;
+        }
+
+        return ret;
+    }
+
     private String toJson() {
         RangerPerfTracer perf = null;
 
@@ -66,6 +66,7 @@
     private final String            wildcardChars;
     private final boolean           isOptimizedForRetrieval;
     private final boolean           isOptimizedForSpace;
+    private final boolean           isCompact;
     private final Character         separatorChar;
     private final TrieNode<T>       root;
     private       Set<T>            inheritedEvaluators;
@@ -87,9 +88,13 @@ public RangerResourceTrie(RangerResourceTrie<T> other) {
         this.wildcardChars           = other.wildcardChars;
         this.isOptimizedForSpace     = other.isOptimizedForSpace;
         this.isOptimizedForRetrieval = other.isOptimizedForRetrieval;
+        this.isCompact               = other.isCompact;
         this.separatorChar           = other.separatorChar;
         this.inheritedEvaluators     = other.inheritedEvaluators != null ? new HashSet<>(other.inheritedEvaluators) : null;
-        this.root                    = copyTrieSubtree(other.root, null);
+
+        // nodes of a trie optimized for retrieval are all setup, hence can be shared with the other trie until updated - see TrieNode.getChildForUpdate();
+        // otherwise nodes are setup lazily during retrieval, hence are not shared
+        this.root                    = isOptimizedForRetrieval ? copyNode(other.root, null) : copyTrieSubtree(other.root, null);
 
         wrapUpUpdate();
 
@@ -115,7 +120,15 @@ public RangerResourceTrie(RangerResourceDef resourceDef, List<T> evaluators, boo
     }
 
     public <E> RangerResourceTrie(RangerResourceDef resourceDef, List<E> evaluators, boolean isOptimizedForRetrieval, boolean isOptimizedForSpace, RangerPluginContext pluginContext) {
-        LOG.debug("==> RangerResourceTrie({}, evaluatorCount={}, isOptimizedForRetrieval={}, isOptimizedForSpace={})", resourceDef.getName(), evaluators.size(), isOptimizedForRetrieval, isOptimizedForSpace);
+        this(resourceDef, evaluators, isOptimizedForRetrieval, isOptimizedForSpace, false, pluginContext);
+    }
+
+    /**
+     * @param isCompact when true, children of each node are kept in sorted char arrays instead of a HashMap, and
+     *                  evaluator sets having same evaluators are shared across nodes as immutable sets - see compact()
+     */
+    public <E> RangerResourceTrie(RangerResourceDef resourceDef, List<E> evaluators, boolean isOptimizedForRetrieval, boolean isOptimizedForSpace, boolean isCompact, RangerPluginContext pluginContext) {
+        LOG.debug("==> RangerResourceTrie({}, evaluatorCount={}, isOptimizedForRetrieval={}, isOptimizedForSpace={}, isCompact={})", resourceDef.getName(), evaluators.size(), isOptimizedForRetrieval, isOptimizedForSpace, isCompact);
 
         RangerPerfTracer perf = null;
 
@@ -159,6 +172,7 @@ public <E> RangerResourceTrie(RangerResourceDef resourceDef, List<E> evaluators,
         this.wildcardChars           = optWildcard ? DEFAULT_WILDCARD_CHARS + tokenReplaceSpecialChars : tokenReplaceSpecialChars;
         this.isOptimizedForSpace     = isOptimizedForSpace;
         this.isOptimizedForRetrieval = !isOptimizedForSpace && isOptimizedForRetrieval;  // isOptimizedForSpace takes precedence
+        this.isCompact               = isCompact;
         this.separatorChar           = ServiceDefUtil.getCharOption(matcherOptions, OPTION_PATH_SEPARATOR, DEFAULT_PATH_SEPARATOR_CHAR);
 
         final TrieNode<T> tmpRoot = buildTrie(resourceDef, evaluators, builderThreadCount);
@@ -181,7 +195,7 @@ public <E> RangerResourceTrie(RangerResourceDef resourceDef, List<E> evaluators,
             TRACE_LOG.trace("Trie Dump from RangerResourceTrie.init(name={}):\n[{}]", resourceDef.getName(), dumpTrie());
         }
 
-        LOG.debug("<== RangerResourceTrie({}, evaluatorCount={}, isOptimizedForRetrieval={}, isOptimizedForSpace={}): {}", resourceDef.getName(), evaluators.size(), this.isOptimizedForRetrieval, this.isOptimizedForSpace, this);
+        LOG.debug("<== RangerResourceTrie({}, evaluatorCount={}, isOptimizedForRetrieval={}, isOptimizedForSpace={}, isCompact={}): {}", resourceDef.getName(), evaluators.size(), this.isOptimizedForRetrieval, this.isOptimizedForSpace, this.isCompact, this);
     }
 
     public Set<T> getEvaluatorsForResource(Object resource) {
@@ -288,6 +302,10 @@ public void wrapUpUpdate() {
         if (root != null) {
             root.wrapUpUpdate();
 
+            if (isCompact) {
+                compact();
+            }
+
             if (TRACE_LOG.isTraceEnabled()) {
                 TRACE_LOG.trace("Trie Dump from RangerResourceTrie.wrapUpUpdate(name={}):\n[{}]", resourceDef.getName(), dumpTrie());
             }
@@ -425,6 +443,7 @@ public String toString() {
         sb.append("; optIgnoreCase=").append(optIgnoreCase);
         sb.append("; optWildcard=").append(optWildcard);
         sb.append("; wildcardChars=").append(wildcardChars);
+        sb.append("; isCompact=").append(isCompact);
         sb.append("; nodeCount=").append(trieData.nodeCount);
         sb.append("; leafNodeCount=").append(trieData.leafNodeCount);
         sb.append("; singleChildNodeCount=").append(trieData.singleChildNodeCount);
@@ -441,6 +460,26 @@ TrieNode<T> getRoot() {
         return root;
     }
 
+    /*
+     * Replaces evaluator sets in the trie with immutable sets, such that nodes having the same evaluators share one
+     * set instance; a set with a single evaluator is replaced by a singleton set. Nodes copy the set before updating it.
+     */
+    private void compact() {
+        RangerPerfTracer perf = null;
+
+        if (RangerPerfTracer.isPerfTraceEnabled(PERF_TRIE_INIT_LOG)) {
+            perf = RangerPerfTracer.getPerfTracer(PERF_TRIE_INIT_LOG, "RangerResourceTrie.compact(name=" + resourceDef.getName() + ")");
+        }
+
+        Map<Set<T>, Set<T>> internedSets = new HashMap<>();
+
+        root.compact(internedSets);
+
+        RangerPerfTracer.logAlways(perf);
+
+        LOG.debug("RangerResourceTrie.compact(name={}): internedSetCount={}", resourceDef.getName(), internedSets.size());
+    }
+
     private void addInheritedEvaluator(T evaluator) {
         if (inheritedEvaluators == null) {
             inheritedEvaluators = new HashSet<>();
@@ -522,6 +561,43 @@ private TrieNode<T> copyTrieSubtree(final TrieNode<T> source, final TrieNode<T>
         return dest;
     }
 
+    /*
+     * Returns a copy of the source node owned by this trie. Children of the source node are not copied, they are shared
+     * with the copy; a child is copied when it needs to be updated in this trie - see TrieNode.getChildForUpdate()
+     */
+    private <U extends T> TrieNode<U> copyNode(final TrieNode<U> source, final TrieNode<U> parent) {
+        TrieNode<U> dest = new TrieNode<>(source.str);
+
+        synchronized (source.children) {
+            dest.isSetup                           = source.isSetup;
+            dest.isSharingParentWildcardEvaluators = source.isSharingParentWildcardEvaluators;
+
+            if (source.isSharingParentWildcardEvaluators) {
+                dest.wildcardEvaluators = parent != null ? parent.getWildcardEvaluators() : null;
+            } else {
+                dest.wildcardEvaluators = source.wildcardEvaluators != null ? new HashSet<>(source.wildcardEvaluators) : null;
+            }
+
+            if (source.evaluators != null && source.evaluators == source.wildcardEvaluators) {
+                dest.evaluators = dest.wildcardEvaluators;
+            } else {
+                dest.evaluators = source.evaluators != null ? new HashSet<>(source.evaluators) : null;
+            }
+
+            dest.children.putAll(source.children);
+        }
+
+        if (parent != null) {
+            parent.addChild(dest);
+        }
+
+        if (TRACE_LOG.isTraceEnabled()) {
+            TRACE_LOG.trace("copyNode({}): {}", source, dest);
+        }
+
+        return dest;
+    }
+
     private <E> TrieNode<T> buildTrie(RangerResourceDef resourceDef, List<E> evaluators, int builderThreadCount) {
         LOG.debug("==> buildTrie({}, evaluatorCount={}, isMultiThreaded={})", resourceDef.getName(), evaluators.size(), (builderThreadCount > 1));
 
@@ -718,6 +794,10 @@ private void insert(TrieNode<T> currentRoot, String resource, boolean isRecursiv
             curr = curr.getOrCreateChild(prefix);
         }
 
+        if (isWildcard || isRecursive || curr.isEvaluatorsSharedWithWildcard()) {
+            curr.prepareForWildcardUpdate();
+        }
+
         if (isWildcard || isRecursive) {
             curr.addWildcardEvaluator(evaluator);
         } else {
@@ -771,7 +851,7 @@ private TrieNode<T> getNodeForResource(String resource) {
                 break;
             }
 
-            curr = child;
+            curr = curr.getChildForUpdate(getLookupChar(resource, i)); // returned node is updated by the caller
             i += childStr.length();
         }
 
@@ -991,7 +1071,7 @@ public String toString() {
     }
 
     class TrieNode<U extends T> {
-        private final    Map<Character, TrieNode<U>> children = new HashMap<>();
+        private final    Map<Character, TrieNode<U>> children = isCompact ? new RangerCharArrayMap<>() : new HashMap<>();
         private          String                      str;
         private          TrieNode<U>                 parent;
         private volatile Set<U>                      evaluators;
@@ -1042,6 +1122,45 @@ TrieNode<U> getChild(Character ch) {
             return children.get(ch);
         }
 
+        /*
+         * Returns the child to be updated. A child shared with other tries is replaced by a copy owned by this node's trie,
+         * so that updates along a path copy only the nodes in the path and the other tries continue to see their nodes as is.
+         */
+        TrieNode<U> getChildForUpdate(Character ch) {
+            TrieNode<U> child = children.get(ch);
+
+            if (child != null && child.getTrie() != getTrie()) {
+                child = copyNode(child, this);
+            }
+
+            return child;
+        }
+
+        boolean isEvaluatorsSharedWithWildcard() {
+            return evaluators != null && evaluators == wildcardEvaluators;
+        }
+
+        /*
+         * Wildcard evaluators of a node that is setup are included in evaluators of its descendants. Before updating them,
+         * copy descendants shared with other tries and undo their setup; setup is redone in wrapUpUpdate() or on access.
+         */
+        void prepareForWildcardUpdate() {
+            if (isSetup) {
+                copySharedDescendants();
+                undoSetup();
+            }
+        }
+
+        private void copySharedDescendants() {
+            for (Character ch : new ArrayList<>(children.keySet())) {
+                getChildForUpdate(ch).copySharedDescendants();
+            }
+        }
+
+        private RangerResourceTrie<T> getTrie() {
+            return RangerResourceTrie.this;
+        }
+
         void populateTrieData(RangerResourceTrie.TrieData trieData) {
             trieData.nodeCount++;
 
@@ -1094,7 +1213,7 @@ int getMaxDepth() {
 
         TrieNode<U> getOrCreateChild(String str) {
             int         len   = str.length();
-            TrieNode<U> child = children.get(getLookupChar(str, 0));
+            TrieNode<U> child = getChildForUpdate(getLookupChar(str, 0));
 
             if (child == null) {
                 child = new TrieNode<>(str);
@@ -1121,6 +1240,8 @@ TrieNode<U> getOrCreateChild(String str) {
                             // Existing node has longer string, need to break up this node
                             TrieNode<U> newChild = new TrieNode<>(str);
 
+                            child.prepareForWildcardUpdate(); // setup of the child depends on its parent, which is being replaced
+
                             this.addChild(newChild);
                             child.setStr(childStr.substring(index));
                             newChild.addChild(child);
@@ -1135,6 +1256,8 @@ TrieNode<U> getOrCreateChild(String str) {
                         String      matchedPart = str.substring(0, index);
                         TrieNode<U> newChild    = new TrieNode<>(matchedPart);
 
+                        child.prepareForWildcardUpdate(); // setup of the child depends on its parent, which is being replaced
+
                         this.addChild(newChild);
                         child.setStr(childStr.substring(index));
                         newChild.addChild(child);
@@ -1152,7 +1275,7 @@ void addEvaluator(U evaluator) {
                 evaluators = new HashSet<>();
             }
 
-            evaluators.add(evaluator);
+            getEvaluatorsForUpdate().add(evaluator);
         }
 
         void addWildcardEvaluator(U evaluator) {
@@ -1160,12 +1283,12 @@ void addWildcardEvaluator(U evaluator) {
                 wildcardEvaluators = new HashSet<>();
             }
 
-            wildcardEvaluators.add(evaluator);
+            getWildcardEvaluatorsForUpdate().add(evaluator);
         }
 
         void removeEvaluator(U evaluator) {
             if (CollectionUtils.isNotEmpty(evaluators)) {
-                evaluators.remove(evaluator);
+                getEvaluatorsForUpdate().remove(evaluator);
 
                 if (CollectionUtils.isEmpty(evaluators)) {
                     evaluators = null;
@@ -1175,7 +1298,7 @@ void removeEvaluator(U evaluator) {
 
         void removeWildcardEvaluator(U evaluator) {
             if (CollectionUtils.isNotEmpty(wildcardEvaluators)) {
-                wildcardEvaluators.remove(evaluator);
+                getWildcardEvaluatorsForUpdate().remove(evaluator);
 
                 if (CollectionUtils.isEmpty(wildcardEvaluators)) {
                     wildcardEvaluators = null;
@@ -1194,7 +1317,7 @@ void undoSetup() {
                         evaluators = null;
                     } else {
                         if (wildcardEvaluators != null) {
-                            evaluators.removeAll(wildcardEvaluators);
+                            getEvaluatorsForUpdate().removeAll(wildcardEvaluators);
 
                             if (CollectionUtils.isEmpty(evaluators)) {
                                 evaluators = null;
@@ -1210,7 +1333,7 @@ void undoSetup() {
                         Set<U> parentWildcardEvaluators = getParent() == null ? null : getParent().getWildcardEvaluators();
 
                         if (parentWildcardEvaluators != null) {
-                            wildcardEvaluators.removeAll(parentWildcardEvaluators);
+                            getWildcardEvaluatorsForUpdate().removeAll(parentWildcardEvaluators);
 
                             if (CollectionUtils.isEmpty(wildcardEvaluators)) {
                                 wildcardEvaluators = null;
@@ -1260,7 +1383,9 @@ void postSetup(Set<U> parentWildcardEvaluators) {
             for (Map.Entry<Character, TrieNode<U>> entry : children.entrySet()) {
                 TrieNode<U> child = entry.getValue();
 
-                child.postSetup(wildcardEvaluators);
+                if (child.getTrie() == getTrie()) { // children shared with other tries are already setup
+                    child.postSetup(wildcardEvaluators);
+                }
             }
         }
 
@@ -1410,6 +1535,97 @@ void toString(String prefix, StringBuilder sb) {
             }
         }
 
+        void compact(Map<Set<U>, Set<U>> internedSets) {
+            final Set<U> oldWildcardEvaluators = wildcardEvaluators;
+            final Set<U> newWildcardEvaluators;
+
+            if (isSharingParentWildcardEvaluators && parent != null) { // parent is compacted before its children
+                newWildcardEvaluators = parent.wildcardEvaluators;
+            } else {
+                newWildcardEvaluators = intern(oldWildcardEvaluators, internedSets);
+            }
+
+            if (evaluators == oldWildcardEvaluators) {
+                evaluators = newWildcardEvaluators;
+            } else {
+                Set<U> newEvaluators = intern(evaluators, internedSets);
+
+                if (newEvaluators != null && newEvaluators == newWildcardEvaluators) { // don't introduce sharing between evaluators and wildcardEvaluators of this node
+                    newEvaluators = Collections.unmodifiableSet(new HashSet<>(newEvaluators));
+                }
+
+                evaluators = newEvaluators;
+            }
+
+            wildcardEvaluators = newWildcardEvaluators;
+
+            for (TrieNode<U> child : children.values()) {
+                if (child.getTrie() == getTrie()) { // children shared with other tries are not updated
+                    child.compact(internedSets);
+                }
+            }
+        }
+
+        private Set<U> intern(Set<U> set, Map<Set<U>, Set<U>> internedSets) {
+            Set<U> ret = null;
+
+            if (set != null && !set.isEmpty()) {
+                ret = internedSets.get(set);
+
+                if (ret == null) {
+                    if (set.size() == 1) {
+                        ret = Collections.singleton(set.iterator().next());
+                    } else {
+                        ret = set instanceof HashSet ? Collections.unmodifiableSet(set) : set;
+                    }
+
+                    internedSets.put(ret, ret);
+                }
+            }
+
+            return ret;
+        }
+
+        /*
+         * Sets of a compacted trie are immutable and can be shared with other nodes. Before updating such a set, replace
+         * it with a copy - in this node and in nodes that share the set i.e. evaluators of this node and wildcard
+         * evaluators of children that share this node's wildcard evaluators. Sets of a trie that is not compacted are
+         * always HashSet instances, which are updated in place.
+         */
+        private Set<U> getEvaluatorsForUpdate() {
+            if (evaluators != null && !(evaluators instanceof HashSet)) {
+                if (evaluators == wildcardEvaluators) {
+                    getWildcardEvaluatorsForUpdate();
+                } else {
+                    evaluators = new HashSet<>(evaluators);
+                }
+            }
+
+            return evaluators;
+        }
+
+        private Set<U> getWildcardEvaluatorsForUpdate() {
+            if (wildcardEvaluators != null && !(wildcardEvaluators instanceof HashSet)) {
+                replaceWildcardEvaluators(wildcardEvaluators, new HashSet<>(wildcardEvaluators));
+            }
+
+            return wildcardEvaluators;
+        }
+
+        private void replaceWildcardEvaluators(Set<U> oldSet, Set<U> newSet) {
+            if (evaluators == oldSet) {
+                evaluators = newSet;
+            }
+
+            wildcardEvaluators = newSet;
+
+            for (TrieNode<U> child : children.values()) {
+                if (child.isSharingParentWildcardEvaluators && child.wildcardEvaluators == oldSet) {
+                    child.replaceWildcardEvaluators(oldSet, newSet);
+                }
+            }
+        }
+
         private void addChild(TrieNode<U> child) {
             children.put(getLookupChar(child.getStr(), 0), child);
             child.setParent(this);
@@ -1437,6 +1653,10 @@ private void collectChildEvaluators(TraverseMatchHandler<U> childEvaluators) {
         private void removeEvaluatorFromSubtree(U evaluator) {
             LOG.debug("==> removeEvaluatorFromSubtree({})", evaluator.getId());
 
+            if ((wildcardEvaluators != null && wildcardEvaluators.contains(evaluator)) || isEvaluatorsSharedWithWildcard()) {
+                prepareForWildcardUpdate();
+            }
+
             if (CollectionUtils.isNotEmpty(wildcardEvaluators) && wildcardEvaluators.contains(evaluator)) {
                 removeWildcardEvaluator(evaluator);
             } else {
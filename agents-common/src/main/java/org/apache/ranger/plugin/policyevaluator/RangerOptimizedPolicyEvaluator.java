@@ -28,6 +28,7 @@
 import org.apache.ranger.plugin.policyengine.RangerAccessResource;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEvaluatorProfile;
 import org.apache.ranger.plugin.util.RangerAccessRequestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -207,6 +208,12 @@ public int computeEvalOrder() {
             evalOrder -= customConditionsDiscount;
         }
 
+        RangerPolicyEvaluatorProfile evaluatorProfile = pluginContext != null ? pluginContext.getEvaluatorProfile() : null;
+
+        if (evaluatorProfile != null) { // policies that decided more requests recently are evaluated earlier
+            evalOrder -= evaluatorProfile.getEvalOrderDiscount(policy.getId());
+        }
+
         LOG.debug("<== RangerOptimizedPolicyEvaluator.computeEvalOrder(), policyName:{}, priority:{}", policy.getName(), evalOrder);
 
         return evalOrder;
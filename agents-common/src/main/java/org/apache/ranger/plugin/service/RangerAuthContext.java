@@ -19,18 +19,13 @@
 
 package org.apache.ranger.plugin.service;
 
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.collections.MapUtils;
-import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.plugin.contextenricher.RangerContextEnricher;
-import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerSecurityZoneMatcher;
 import org.apache.ranger.plugin.util.RangerRoles;
 import org.apache.ranger.plugin.util.RangerRolesUtil;
 import org.apache.ranger.plugin.util.RangerUserStore;
 import org.apache.ranger.plugin.util.RangerUserStoreUtil;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -76,38 +71,7 @@ public void setRoles(RangerRoles roles) {
     }
 
     public Set<String> getRolesForUserAndGroups(String user, Set<String> groups) {
-        RangerRolesUtil          rolesUtil        = this.rolesUtil;
-        Map<String, Set<String>> userRoleMapping  = rolesUtil.getUserRoleMapping();
-        Map<String, Set<String>> groupRoleMapping = rolesUtil.getGroupRoleMapping();
-        Set<String>              allRoles         = new HashSet<>();
-
-        if (MapUtils.isNotEmpty(userRoleMapping) && StringUtils.isNotEmpty(user)) {
-            Set<String> userRoles = userRoleMapping.get(user);
-
-            if (CollectionUtils.isNotEmpty(userRoles)) {
-                allRoles.addAll(userRoles);
-            }
-        }
-
-        if (MapUtils.isNotEmpty(groupRoleMapping)) {
-            if (CollectionUtils.isNotEmpty(groups)) {
-                for (String group : groups) {
-                    Set<String> groupRoles = groupRoleMapping.get(group);
-
-                    if (CollectionUtils.isNotEmpty(groupRoles)) {
-                        allRoles.addAll(groupRoles);
-                    }
-                }
-            }
-
-            Set<String> publicGroupRoles = groupRoleMapping.get(RangerPolicyEngine.GROUP_PUBLIC);
-
-            if (CollectionUtils.isNotEmpty(publicGroupRoles)) {
-                allRoles.addAll(publicGroupRoles);
-            }
-        }
-
-        return allRoles;
+        return rolesUtil.getRolesForUserAndGroups(user, groups);
     }
 
     public long getRoleVersion() {
@@ -39,6 +39,7 @@
 import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
 import org.apache.ranger.plugin.contextenricher.RangerUserStoreEnricher;
 import org.apache.ranger.plugin.model.RangerBaseModelObject;
+import org.apache.ranger.plugin.model.RangerMetrics;
 import org.apache.ranger.plugin.model.RangerPolicy;
 import org.apache.ranger.plugin.model.RangerRole;
 import org.apache.ranger.plugin.model.RangerServiceDef;
@@ -47,9 +48,11 @@
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResult;
 import org.apache.ranger.plugin.policyengine.RangerAccessResultProcessor;
+import org.apache.ranger.plugin.policyengine.RangerDecisionCache;
 import org.apache.ranger.plugin.policyengine.RangerPluginContext;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngineImpl;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEvaluatorProfile;
 import org.apache.ranger.plugin.policyengine.RangerRequestScriptEvaluator;
 import org.apache.ranger.plugin.policyengine.RangerResourceACLs;
 import org.apache.ranger.plugin.policyengine.RangerResourceAccessInfo;
@@ -72,6 +75,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -95,6 +99,8 @@ public class RangerBasePlugin {
     private final DownloadTrigger             accessTrigger  = new DownloadTrigger();
     private final List<RangerChainedPlugin>   chainedPlugins;
     private final boolean                     dedupStrings;
+    private final boolean                     dedupStringsShared;
+    private final boolean                     dedupLists;
     private       PolicyRefresher             refresher;
     private       RangerPolicyEngine          policyEngine;
     private       RangerAuthContext           currentAuthContext;
@@ -192,8 +198,31 @@ public RangerBasePlugin(RangerPluginConfig pluginConfig) {
 
         RangerRequestScriptEvaluator.init(pluginConfig);
 
-        this.dedupStrings   = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".dedup.strings", true);
-        this.chainedPlugins = initChainedPlugins();
+        this.dedupStrings       = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".dedup.strings", true);
+        this.dedupStringsShared = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".dedup.strings.shared", true);
+        this.dedupLists         = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".dedup.lists", true);
+        this.chainedPlugins     = initChainedPlugins();
+
+        if (pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + RangerDecisionCache.PROP_SUFFIX_DECISION_CACHE_ENABLED, false)) {
+            if (chainedPlugins.isEmpty()) {
+                pluginContext.setDecisionCache(new RangerDecisionCache(pluginConfig.getInt(pluginConfig.getPropertyPrefix() + RangerDecisionCache.PROP_SUFFIX_DECISION_CACHE_SIZE, RangerDecisionCache.DEFAULT_DECISION_CACHE_SIZE)));
+            } else {
+                LOG.warn("{}{}: decision cache is not supported with chained plugins; ignored", pluginConfig.getPropertyPrefix(), RangerDecisionCache.PROP_SUFFIX_DECISION_CACHE_ENABLED);
+            }
+        }
+
+        if (pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + RangerPolicyEvaluatorProfile.PROP_SUFFIX_EVALUATOR_PROFILE_ENABLED, false)) {
+            RangerPolicyEvaluatorProfile evaluatorProfile = new RangerPolicyEvaluatorProfile(pluginConfig.getInt(pluginConfig.getPropertyPrefix() + RangerPolicyEvaluatorProfile.PROP_SUFFIX_EVALUATOR_PROFILE_SAMPLE_RATE, RangerPolicyEvaluatorProfile.DEFAULT_SAMPLE_RATE),
+                    pluginConfig.getLong(pluginConfig.getPropertyPrefix() + RangerPolicyEvaluatorProfile.PROP_SUFFIX_EVALUATOR_PROFILE_MIN_SAMPLES, RangerPolicyEvaluatorProfile.DEFAULT_MIN_SAMPLES),
+                    pluginConfig.getInt(pluginConfig.getPropertyPrefix() + RangerPolicyEvaluatorProfile.PROP_SUFFIX_EVALUATOR_PROFILE_MAX_DISCOUNT, RangerPolicyEvaluatorProfile.DEFAULT_MAX_DISCOUNT));
+            File                         profileFile      = getEvaluatorProfileFile();
+
+            if (profileFile != null) {
+                evaluatorProfile.loadFromFile(profileFile);
+            }
+
+            pluginContext.setEvaluatorProfile(evaluatorProfile);
+        }
     }
 
     public RangerBasePlugin(RangerPluginConfig pluginConfig, ServicePolicies policies, ServiceTags tags, RangerRoles roles) {
@@ -349,18 +378,26 @@ public void setRoles(RangerRoles roles) {
 
     public void setAuditExcludedUsersGroupsRoles(Set<String> users, Set<String> groups, Set<String> roles) {
         pluginConfig.setAuditExcludedUsersGroupsRoles(users, groups, roles);
+
+        invalidateDecisionCache();
     }
 
     public void setSuperUsersAndGroups(Set<String> users, Set<String> groups) {
         pluginConfig.setSuperUsersGroups(users, groups);
+
+        invalidateDecisionCache();
     }
 
     public void setIsFallbackSupported(boolean isFallbackSupported) {
         pluginConfig.setIsFallbackSupported(isFallbackSupported);
+
+        invalidateDecisionCache();
     }
 
     public void setServiceAdmins(Set<String> users) {
         pluginConfig.setServiceAdmins(users);
+
+        invalidateDecisionCache();
     }
 
     public RangerServiceDef getServiceDef() {
@@ -482,7 +519,15 @@ public void setPolicies(ServicePolicies policies) {
                 }
             } else {
                 if (dedupStrings) {
-                    policies.dedupStrings();
+                    if (dedupStringsShared) { // share strings with policies of other services in this process
+                        policies.dedupStrings(StringUtil.getSharedStringTable());
+                    } else {
+                        policies.dedupStrings();
+                    }
+                }
+
+                if (dedupLists) {
+                    policies.dedupLists();
                 }
 
                 Boolean hasPolicyDeltas = RangerPolicyDeltaUtil.hasPolicyDeltas(policies);
@@ -539,8 +584,13 @@ public void setPolicies(ServicePolicies policies) {
             }
 
             if (isNewEngineNeeded) {
-                RangerPolicyEngine newPolicyEngine      = null;
-                boolean            isPolicyEngineShared = false;
+                RangerPolicyEngine           newPolicyEngine      = null;
+                boolean                      isPolicyEngineShared = false;
+                RangerPolicyEvaluatorProfile evaluatorProfile     = pluginContext.getEvaluatorProfile();
+
+                if (evaluatorProfile != null) { // evaluators built for the new engine will be ordered per decisions sampled so far
+                    evaluatorProfile.rebalance();
+                }
 
                 if (!usePolicyDeltas) {
                     LOG.debug("Creating engine from policies");
@@ -586,6 +636,11 @@ public void setPolicies(ServicePolicies policies) {
                     LOG.info("Switching policy engine from [{}]", getPolicyVersion());
                     this.policyEngine = newPolicyEngine;
                     LOG.info("Switched policy engine to [{}]", getPolicyVersion());
+
+                    if (!isPolicyEngineShared) {
+                        LOG.info("Policy engine build metrics: {}", ((RangerPolicyEngineImpl) newPolicyEngine).getPolicyEngine().getBuildMetrics());
+                    }
+
                     this.currentAuthContext = pluginContext.getAuthContext();
 
                     pluginContext.notifyAuthContextChanged();
@@ -594,6 +649,8 @@ public void setPolicies(ServicePolicies policies) {
                         ((RangerPolicyEngineImpl) oldPolicyEngine).releaseResources(!isPolicyEngineShared);
                     }
 
+                    saveEvaluatorProfile();
+
                     if (this.refresher != null) {
                         boolean doPreserveDeltas = pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + ".preserve.deltas", false);
                         if (!doPreserveDeltas) {
@@ -633,7 +690,49 @@ public void cleanup() {
 
         if (policyEngine != null) {
             ((RangerPolicyEngineImpl) policyEngine).releaseResources(true);
+
+            saveEvaluatorProfile();
+        }
+    }
+
+    public RangerMetrics getDecisionCacheMetrics() {
+        RangerDecisionCache decisionCache = pluginContext.getDecisionCache();
+
+        return decisionCache != null ? decisionCache.getMetrics() : null;
+    }
+
+    public RangerMetrics getEvaluatorProfileMetrics() {
+        RangerPolicyEvaluatorProfile evaluatorProfile = pluginContext.getEvaluatorProfile();
+
+        return evaluatorProfile != null ? evaluatorProfile.getMetrics() : null;
+    }
+
+    public RangerMetrics getPolicyEngineBuildMetrics() {
+        RangerPolicyEngine policyEngine = this.policyEngine;
+        RangerMetrics      ret          = null;
+
+        if (policyEngine instanceof RangerPolicyEngineImpl) {
+            Map<String, Object> data = new HashMap<>();
+
+            data.put("policyEngineBuild", ((RangerPolicyEngineImpl) policyEngine).getPolicyEngine().getBuildMetrics());
+
+            ret = new RangerMetrics(data);
+        }
+
+        return ret;
+    }
+
+    // metrics of the policy engine build, decision cache and evaluator profile, for those enabled in this plugin
+    public RangerMetrics getPluginMetrics() {
+        Map<String, Object> data = new HashMap<>();
+
+        for (RangerMetrics metrics : Arrays.asList(getPolicyEngineBuildMetrics(), getDecisionCacheMetrics(), getEvaluatorProfileMetrics())) {
+            if (metrics != null && metrics.getData() != null) {
+                data.putAll(metrics.getData());
+            }
         }
+
+        return new RangerMetrics(data);
     }
 
     public RangerAccessResultProcessor getResultProcessor() {
@@ -653,43 +752,19 @@ public Collection<RangerAccessResult> isAccessAllowed(Collection<RangerAccessReq
     }
 
     public RangerAccessResult isAccessAllowed(RangerAccessRequest request, RangerAccessResultProcessor resultProcessor) {
-        RangerAccessResult ret          = null;
-        RangerPolicyEngine policyEngine = this.policyEngine;
-
-        if (policyEngine != null) {
-            ret = policyEngine.evaluatePolicies(request, RangerPolicy.POLICY_TYPE_ACCESS, null);
-        }
-
-        if (ret != null) {
-            for (RangerChainedPlugin chainedPlugin : chainedPlugins) {
-                LOG.debug("BasePlugin.isAccessAllowed result=[{}]", ret);
-                LOG.debug("Calling chainedPlugin.isAccessAllowed for service:[{}]", chainedPlugin.plugin.pluginConfig.getServiceName());
-
-                RangerAccessResult chainedResult;
-
-                if (ret.getIsAccessDetermined() && chainedPlugin.skipAccessCheckIfAlreadyDetermined) {
-                    chainedResult = null;
-                } else {
-                    chainedResult = chainedPlugin.isAccessAllowed(request);
-                }
-
-                if (chainedResult != null) {
-                    LOG.debug("chainedPlugin.isAccessAllowed for service:[{}] returned result=[{}]", chainedPlugin.plugin.pluginConfig.getServiceName(), chainedResult);
-
-                    updateResultFromChainedResult(ret, chainedResult);
+        RangerDecisionCache decisionCache = pluginContext.getDecisionCache();
+        RangerAccessResult  ret;
 
-                    LOG.debug("After updating result from chainedPlugin.isAccessAllowed for service:[{}], result={}]", chainedPlugin.plugin.pluginConfig.getServiceName(), ret);
-                }
-            }
-        }
-
-        if (policyEngine != null) {
-            policyEngine.evaluateAuditPolicies(ret);
+        if (decisionCache != null) {
+            ret = decisionCache.isAccessAllowed(request, () -> this.policyEngine, this::evaluateAccess);
+        } else {
+            ret = evaluateAccess(request, this.policyEngine);
         }
 
         if (resultProcessor != null) {
             resultProcessor.processResult(ret);
         }
+
         return ret;
     }
 
@@ -734,6 +809,93 @@ public Collection<RangerAccessResult> isAccessAllowed(Collection<RangerAccessReq
         return ret;
     }
 
+    /**
+     * Filters children of a resource - like tables of a database - to those the user has access to. Policies that apply
+     * under the parent resource are looked up once; when they lead to the same decision for every child, for example
+     * when no policy applies under the parent or when a policy allows access to all children and no deny policy applies,
+     * the decision is reused for the rest of the children instead of evaluating policies for each child. When the decision
+     * cache is enabled, cached decisions are returned for children that have one and only the rest are evaluated.
+     *
+     * @param parentRequest     request for the parent resource
+     * @param childResourceName name of the resource element that identifies the children, like "table"
+     * @param childRequests     requests for the children, each having resource of parentRequest plus childResourceName
+     * @return results of childRequests, in the same order
+     */
+    public Collection<RangerAccessResult> isAccessAllowedForChildren(RangerAccessRequest parentRequest, String childResourceName, Collection<RangerAccessRequest> childRequests, RangerAccessResultProcessor resultProcessor) {
+        Collection<RangerAccessResult> ret;
+        RangerPolicyEngine             policyEngine = this.policyEngine;
+
+        if (policyEngine == null || !chainedPlugins.isEmpty()) { // chained plugins evaluate each request
+            ret = isAccessAllowed(childRequests, resultProcessor);
+        } else {
+            RangerDecisionCache decisionCache = pluginContext.getDecisionCache();
+
+            if (decisionCache != null) {
+                ret = decisionCache.isAccessAllowed(childRequests, () -> this.policyEngine, (requests, engine) -> evaluateChildAccess(parentRequest, childResourceName, requests, engine));
+            } else {
+                ret = evaluateChildAccess(parentRequest, childResourceName, childRequests, policyEngine);
+            }
+
+            if (resultProcessor != null) {
+                resultProcessor.processResults(ret);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Returns true if the access is allowed for the resource in the request and for all of its descendants, as determined by
+     * policies that apply to the resource and its descendants; no audit is generated. A return value of false means that
+     * the access has to be checked for each descendant.
+     */
+    public boolean isAccessAllowedForAllDescendants(RangerAccessRequest request) {
+        RangerPolicyEngine policyEngine = this.policyEngine;
+
+        return policyEngine != null && chainedPlugins.isEmpty() && policyEngine.isAccessAllowedForAllDescendants(request);
+    }
+
+    /**
+     * Returns names of children of the parent resource the user has access to, using isAccessAllowedForChildren().
+     * Requests for children are created by copying parentRequest, with childResourceName added to its resource; as owners
+     * of children are not known, policies for {OWNER} do not apply to them.
+     */
+    public List<String> getAllowedChildren(RangerAccessRequest parentRequest, String childResourceName, Collection<String> childNames, RangerAccessResultProcessor resultProcessor) {
+        List<String> ret = new ArrayList<>();
+
+        if (CollectionUtils.isNotEmpty(childNames)) {
+            List<RangerAccessRequest> childRequests = new ArrayList<>(childNames.size());
+
+            for (String childName : childNames) {
+                RangerAccessResourceImpl childResource = new RangerAccessResourceImpl(new HashMap<>(parentRequest.getResource().getAsMap()));
+                RangerAccessRequestImpl  childRequest  = new RangerAccessRequestImpl(parentRequest);
+
+                childResource.setValue(childResourceName, childName);
+
+                childRequest.setResource(childResource);
+                childRequest.setContext(new HashMap<>()); // context of parentRequest might have been updated by its evaluation
+
+                childRequests.add(childRequest);
+            }
+
+            Collection<RangerAccessResult> results = isAccessAllowedForChildren(parentRequest, childResourceName, childRequests, resultProcessor);
+
+            if (results != null) {
+                Iterator<String> iterNames = childNames.iterator();
+
+                for (RangerAccessResult result : results) {
+                    String childName = iterNames.next();
+
+                    if (result != null && result.getIsAllowed()) {
+                        ret.add(childName);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
     public RangerAccessResult evalDataMaskPolicies(RangerAccessRequest request, RangerAccessResultProcessor resultProcessor) {
         RangerPolicyEngine policyEngine = this.policyEngine;
         RangerAccessResult ret          = null;
@@ -1203,6 +1365,91 @@ protected RangerPolicyEngine getPolicyEngine() {
         return policyEngine;
     }
 
+    private Collection<RangerAccessResult> evaluateChildAccess(RangerAccessRequest parentRequest, String childResourceName, Collection<RangerAccessRequest> childRequests, RangerPolicyEngine policyEngine) {
+        Collection<RangerAccessResult> ret = null;
+
+        if (policyEngine != null) {
+            ret = policyEngine.evaluateChildPolicies(parentRequest, childResourceName, childRequests, null);
+
+            for (RangerAccessResult result : ret) {
+                policyEngine.evaluateAuditPolicies(result);
+            }
+        }
+
+        return ret;
+    }
+
+    private RangerAccessResult evaluateAccess(RangerAccessRequest request, RangerPolicyEngine policyEngine) {
+        RangerAccessResult ret = null;
+
+        if (policyEngine != null) {
+            ret = policyEngine.evaluatePolicies(request, RangerPolicy.POLICY_TYPE_ACCESS, null);
+        }
+
+        if (ret != null) {
+            for (RangerChainedPlugin chainedPlugin : chainedPlugins) {
+                LOG.debug("BasePlugin.isAccessAllowed result=[{}]", ret);
+                LOG.debug("Calling chainedPlugin.isAccessAllowed for service:[{}]", chainedPlugin.plugin.pluginConfig.getServiceName());
+
+                RangerAccessResult chainedResult;
+
+                if (ret.getIsAccessDetermined() && chainedPlugin.skipAccessCheckIfAlreadyDetermined) {
+                    chainedResult = null;
+                } else {
+                    chainedResult = chainedPlugin.isAccessAllowed(request);
+                }
+
+                if (chainedResult != null) {
+                    LOG.debug("chainedPlugin.isAccessAllowed for service:[{}] returned result=[{}]", chainedPlugin.plugin.pluginConfig.getServiceName(), chainedResult);
+
+                    updateResultFromChainedResult(ret, chainedResult);
+
+                    LOG.debug("After updating result from chainedPlugin.isAccessAllowed for service:[{}], result={}]", chainedPlugin.plugin.pluginConfig.getServiceName(), ret);
+                }
+            }
+        }
+
+        if (policyEngine != null) {
+            policyEngine.evaluateAuditPolicies(ret);
+        }
+
+        return ret;
+    }
+
+    private File getEvaluatorProfileFile() {
+        String cacheDir = pluginConfig.get(pluginConfig.getPropertyPrefix() + ".policy.cache.dir");
+        File   ret      = null;
+
+        if (StringUtils.isNotBlank(cacheDir) && StringUtils.isNotBlank(getServiceName())) {
+            String appId    = StringUtils.isEmpty(getAppId()) ? getServiceType() : getAppId();
+            String fileName = String.format("%s_%s_evaluator_profile.json", appId, getServiceName());
+
+            fileName = fileName.replace(File.separatorChar, '_');
+            fileName = fileName.replace(File.pathSeparatorChar, '_');
+
+            ret = new File(cacheDir, fileName);
+        }
+
+        return ret;
+    }
+
+    private void saveEvaluatorProfile() {
+        RangerPolicyEvaluatorProfile evaluatorProfile = pluginContext.getEvaluatorProfile();
+        File                         profileFile      = evaluatorProfile != null ? getEvaluatorProfileFile() : null;
+
+        if (profileFile != null && profileFile.getParentFile().isDirectory()) {
+            evaluatorProfile.saveToFile(profileFile);
+        }
+    }
+
+    private void invalidateDecisionCache() {
+        RangerDecisionCache decisionCache = pluginContext.getDecisionCache();
+
+        if (decisionCache != null) {
+            decisionCache.invalidate();
+        }
+    }
+
     private void auditGrantRevoke(GrantRevokeRequest request, String action, boolean isSuccess, RangerAccessResultProcessor resultProcessor) {
         if (request != null && resultProcessor != null) {
             RangerAccessRequestImpl accessRequest = new RangerAccessRequestImpl();
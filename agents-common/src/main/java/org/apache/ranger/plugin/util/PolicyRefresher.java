@@ -31,10 +31,6 @@
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Timer;
@@ -51,8 +47,10 @@ public class PolicyRefresher extends Thread {
     private final RangerAdminClient              rangerAdmin;
     private final RangerRolesProvider            rolesProvider;
     private final long                           pollingIntervalMs;
+    private final long                           longPollTimeoutMs;
     private final String                         cacheFileName;
     private final String                         cacheDir;
+    private final boolean                        useBinaryCacheFormat;
     private final BlockingQueue<DownloadTrigger> policyDownloadQueue = new LinkedBlockingQueue<>();
     private       Timer                          policyDownloadTimer;
     private       long                           lastKnownVersion    = -1L;
@@ -66,13 +64,14 @@ public PolicyRefresher(RangerBasePlugin plugIn) {
         RangerPluginConfig pluginConfig   = plugIn.getConfig();
         String             propertyPrefix = pluginConfig.getPropertyPrefix();
 
-        this.plugIn      = plugIn;
-        this.serviceType = plugIn.getServiceType();
-        this.serviceName = plugIn.getServiceName();
-        this.cacheDir    = pluginConfig.get(propertyPrefix + ".policy.cache.dir");
+        this.plugIn               = plugIn;
+        this.serviceType          = plugIn.getServiceType();
+        this.serviceName          = plugIn.getServiceName();
+        this.cacheDir             = pluginConfig.get(propertyPrefix + ".policy.cache.dir");
+        this.useBinaryCacheFormat = RangerCacheFileUtil.isBinaryFormatEnabled(pluginConfig);
 
         String appId         = StringUtils.isEmpty(plugIn.getAppId()) ? serviceType : plugIn.getAppId();
-        String cacheFilename = String.format("%s_%s.json", appId, serviceName);
+        String cacheFilename = String.format("%s_%s%s", appId, serviceName, RangerCacheFileUtil.getFileExtension(useBinaryCacheFormat));
 
         cacheFilename = cacheFilename.replace(File.separatorChar, '_');
         cacheFilename = cacheFilename.replace(File.pathSeparatorChar, '_');
@@ -85,6 +84,7 @@ public PolicyRefresher(RangerBasePlugin plugIn) {
         this.rangerAdmin       = (adminClient != null) ? adminClient : pluginContext.createAdminClient(pluginConfig);
         this.rolesProvider     = new RangerRolesProvider(getServiceType(), appId, getServiceName(), rangerAdmin, cacheDir, pluginConfig);
         this.pollingIntervalMs = pluginConfig.getLong(propertyPrefix + ".policy.pollIntervalMs", 30 * 1000L);
+        this.longPollTimeoutMs = pluginConfig.getLong(propertyPrefix + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS_DEFAULT);
 
         setName("PolicyRefresher(serviceName=" + serviceName + ")-" + getId());
 
@@ -182,13 +182,21 @@ public void stopRefresher() {
     public void run() {
         LOG.debug("==> PolicyRefresher(serviceName={}).run()", serviceName);
 
+        boolean isPollAgain = longPollTimeoutMs > 0;
+
         while (true) {
             DownloadTrigger trigger = null;
             try {
-                trigger = policyDownloadQueue.take();
+                // in long-poll mode Ranger Admin holds the download request until policies change, so there is no need to wait for the timer
+                trigger = (isPollAgain && !isInterrupted()) ? policyDownloadQueue.poll() : policyDownloadQueue.take();
 
                 loadRoles();
-                loadPolicy();
+
+                if (longPollTimeoutMs > 0) {
+                    isPollAgain = loadPolicyWithLongPoll();
+                } else {
+                    loadPolicy();
+                }
             } catch (InterruptedException excp) {
                 LOG.info("PolicyRefresher(serviceName={}).run(): interrupted! Exiting thread", serviceName, excp);
 
@@ -249,22 +257,15 @@ public void saveToCache(ServicePolicies policies) {
                     perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.saveToCache(serviceName=" + serviceName + ")");
                 }
 
-                Writer writer = null;
-
                 try {
-                    writer = new FileWriter(cacheFile);
-
-                    JsonUtils.objectToWriter(writer, policies);
+                    RangerCacheFileUtil.writeValue(cacheFile, policies, JsonUtils.getMapper(), useBinaryCacheFormat);
                 } catch (Exception excp) {
                     LOG.error("failed to save policies to cache file '{}'", cacheFile.getAbsolutePath(), excp);
                 } finally {
-                    if (writer != null) {
-                        try {
-                            writer.close();
-                            deleteOldestVersionCacheFileInCacheDirectory(cacheFile.getParentFile());
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                        }
+                    try {
+                        deleteOldestVersionCacheFileInCacheDirectory(cacheFile.getParentFile());
+                    } catch (Exception excp) {
+                        LOG.error("error while deleting old versions of cache file '{}'", cacheFile.getAbsolutePath(), excp);
                     }
                 }
 
@@ -279,8 +280,8 @@ public void saveToCache(ServicePolicies policies) {
                         perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.saveToCache(serviceName=" + serviceName + ")");
                     }
 
-                    try (Writer writer = new FileWriter(backupCacheFile)) {
-                        JsonUtils.objectToWriter(writer, policies);
+                    try {
+                        RangerCacheFileUtil.writeValue(backupCacheFile, policies, JsonUtils.getMapper(), useBinaryCacheFormat);
                     } catch (Exception excp) {
                         LOG.error("failed to save policies to cache file '{}'", backupCacheFile.getAbsolutePath(), excp);
                     }
@@ -362,6 +363,32 @@ private void loadPolicy() {
         LOG.debug("<== PolicyRefresher(serviceName={}).loadPolicy()", serviceName);
     }
 
+    /*
+     * returns true if the download should be repeated right away, i.e. when Ranger Admin held the request or reported a change;
+     * false, when the admin responded without waiting - like an admin that doesn't support long-poll, or one that has no more capacity for waiters
+     */
+    private boolean loadPolicyWithLongPoll() {
+        long startTimeMs       = System.currentTimeMillis();
+        long prevPolicyVersion = lastKnownVersion;
+        long prevRoleVersion   = rolesProvider.getLastKnownRoleVersion();
+
+        loadPolicy();
+
+        boolean isHeld          = (System.currentTimeMillis() - startTimeMs) >= (longPollTimeoutMs / 2);
+        boolean isPolicyUpdated = lastKnownVersion != prevPolicyVersion;
+
+        if (!isHeld && !isPolicyUpdated) {
+            // Ranger Admin ends the wait on role changes as well
+            loadRoles();
+        }
+
+        boolean ret = isHeld || isPolicyUpdated || rolesProvider.getLastKnownRoleVersion() != prevRoleVersion;
+
+        LOG.debug("PolicyRefresher(serviceName={}).loadPolicyWithLongPoll(): isHeld={}, isPolicyUpdated={}, ret={}", serviceName, isHeld, isPolicyUpdated, ret);
+
+        return ret;
+    }
+
     private ServicePolicies loadPolicyfromPolicyAdmin() throws RangerServiceNotFoundException {
         LOG.debug("==> PolicyRefresher(serviceName={}).loadPolicyfromPolicyAdmin()", serviceName);
 
@@ -413,19 +440,17 @@ private ServicePolicies loadFromCache() {
 
         LOG.debug("==> PolicyRefresher(serviceName={}).loadFromCache()", serviceName);
 
-        File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
+        File cacheFile = cacheDir == null ? null : RangerCacheFileUtil.findCacheFile(new File(cacheDir + File.separator + cacheFileName));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-            Reader           reader = null;
-            RangerPerfTracer perf   = null;
+            RangerPerfTracer perf = null;
 
             if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "PolicyRefresher.loadFromCache(serviceName=" + serviceName + ")");
             }
 
             try {
-                reader   = new FileReader(cacheFile);
-                policies = JsonUtils.jsonToObject(reader, ServicePolicies.class);
+                policies = RangerCacheFileUtil.readValue(cacheFile, ServicePolicies.class, JsonUtils.getMapper());
 
                 if (policies != null) {
                     if (!StringUtils.equals(serviceName, policies.getServiceName())) {
@@ -440,14 +465,6 @@ private ServicePolicies loadFromCache() {
                 LOG.error("failed to load policies from cache file {}", cacheFile.getAbsolutePath(), excp);
             } finally {
                 RangerPerfTracer.log(perf);
-
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (Exception excp) {
-                        LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                    }
-                }
             }
         } else {
             LOG.warn("cache file does not exist or not readable '{}'", cacheFile == null ? null : cacheFile.getAbsolutePath());
@@ -460,21 +477,22 @@ private ServicePolicies loadFromCache() {
 
     private void deleteOldestVersionCacheFileInCacheDirectory(File cacheDirectory) {
         int        maxVersionsToPreserve = plugIn.getConfig().getInt(plugIn.getConfig().getPropertyPrefix() + "max.versions.to.preserve", 1);
-        FileFilter logFileFilter         = (file) -> file.getName().matches(".+json_.+");
+        String     versionSeparator      = RangerCacheFileUtil.getFileExtension(useBinaryCacheFormat).substring(1) + "_";
+        FileFilter logFileFilter         = (file) -> file.getName().matches(".+" + versionSeparator + ".+");
         File[]     filesInParent         = cacheDirectory.listFiles(logFileFilter);
         List<Long> policyVersions        = new ArrayList<>();
 
         if (filesInParent != null && filesInParent.length > 0) {
             for (File f : filesInParent) {
                 String fileName         = f.getName();
-                int    policyVersionIdx = fileName.lastIndexOf("json_"); // Extract the part after json_
-                String policyVersionStr = fileName.substring(policyVersionIdx + 5);
+                int    policyVersionIdx = fileName.lastIndexOf(versionSeparator); // Extract the part after json_ or smile_
+                String policyVersionStr = fileName.substring(policyVersionIdx + versionSeparator.length());
                 Long   policyVersion    = Long.valueOf(policyVersionStr);
 
                 policyVersions.add(policyVersion);
             }
         } else {
-            LOG.info("No files matching '.+json_*' found");
+            LOG.info("No files matching '.+{}*' found", versionSeparator);
         }
 
         if (!policyVersions.isEmpty()) {
@@ -505,7 +523,7 @@ private void deleteOldestVersionCacheFileInCacheDirectory(File cacheDirectory) {
     private void disableCache() {
         LOG.debug("==> PolicyRefresher.disableCache(serviceName={})", serviceName);
 
-        File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
+        File cacheFile = cacheDir == null ? null : RangerCacheFileUtil.findCacheFile(new File(cacheDir + File.separator + cacheFileName));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
             LOG.warn("Cleaning up local cache");
@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.apache.commons.collections.MapUtils;
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.util.ServicePolicies.SecurityZoneInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Reads and writes policy/tag/role/userstore/gds cache files.
+ *
+ * Cache files are written either as plain JSON, as before, or in a binary format: a header having magic bytes and
+ * format version, followed by the Smile (binary JSON) encoding of the object, by a copy of the same Jackson mapper
+ * used for JSON. ServicePolicies are written in sections: the service policies without security zones, followed by
+ * one section per zone, so that no single Smile document holds all the zones. On read, all sections are decoded
+ * and the zones are set back in ServicePolicies.
+ *
+ * Binary cache files are named with extension .smile instead of .json. Readers detect the format from the header and
+ * fall back to the file in the other format when the configured one doesn't exist, hence existing cache files are
+ * still read after the setting is changed. Writing a cache file removes the file in the other format, so that a stale
+ * copy is not read after the setting is changed back.
+ */
+public final class RangerCacheFileUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerCacheFileUtil.class);
+
+    public static final String JSON_FILE_EXTENSION   = ".json";
+    public static final String BINARY_FILE_EXTENSION = ".smile";
+    public static final int    BINARY_FORMAT_VERSION = 2; // version 1, gzip compressed JSON, is no longer supported
+
+    private static final byte[]  BINARY_FORMAT_MAGIC        = new byte[] {'R', 'N', 'G', 'R', 'C', 'F'};
+    private static final int     HEADER_LENGTH              = BINARY_FORMAT_MAGIC.length + 1;
+    private static final int     BUFFER_SIZE                = 64 * 1024;
+    private static final boolean IS_BINARY_FORMAT_SUPPORTED = isBinaryFormatSupported();
+
+    // binary mappers created from each JSON mapper; JSON mappers are per-thread, hence weak keys
+    private static final Map<ObjectMapper, BinaryMappers> BINARY_MAPPERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private RangerCacheFileUtil() {
+        // to block instantiation
+    }
+
+    public static boolean isBinaryFormatEnabled(RangerPluginConfig pluginConfig) {
+        boolean ret = pluginConfig != null && pluginConfig.getBoolean(pluginConfig.getPropertyPrefix() + RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_CACHE_BINARY_FORMAT, RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_CACHE_BINARY_FORMAT_DEFAULT);
+
+        if (ret && !IS_BINARY_FORMAT_SUPPORTED) {
+            LOG.warn("{}{}=true: jackson-dataformat-smile is not available, cache files will be written in JSON", pluginConfig.getPropertyPrefix(), RangerCommonConstants.PLUGIN_CONFIG_SUFFIX_CACHE_BINARY_FORMAT);
+
+            ret = false;
+        }
+
+        return ret;
+    }
+
+    public static String getFileExtension(boolean useBinaryFormat) {
+        return useBinaryFormat ? BINARY_FILE_EXTENSION : JSON_FILE_EXTENSION;
+    }
+
+    /*
+     * returns the given cache file if it exists; otherwise the file of the same name in the other format, if that exists
+     */
+    public static File findCacheFile(File cacheFile) {
+        File ret = cacheFile;
+
+        if (cacheFile != null && !cacheFile.isFile()) {
+            File otherFile = getFileInOtherFormat(cacheFile);
+
+            if (otherFile != null && otherFile.isFile()) {
+                LOG.info("cache file {} not found, using {}", cacheFile.getAbsolutePath(), otherFile.getAbsolutePath());
+
+                ret = otherFile;
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * returns null if the file is empty
+     */
+    public static <T> T readValue(File cacheFile, Class<T> valueType, ObjectMapper mapper) throws IOException {
+        final T ret;
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(cacheFile), BUFFER_SIZE)) {
+            byte[] header = new byte[HEADER_LENGTH];
+            int    len    = readFully(in, header);
+
+            if (len == HEADER_LENGTH && Arrays.equals(Arrays.copyOf(header, BINARY_FORMAT_MAGIC.length), BINARY_FORMAT_MAGIC)) {
+                int formatVersion = header[BINARY_FORMAT_MAGIC.length];
+
+                if (formatVersion != BINARY_FORMAT_VERSION) {
+                    throw new IOException("unsupported cache file format version " + formatVersion + " in " + cacheFile.getAbsolutePath());
+                }
+
+                ret = readBinary(in, valueType, mapper);
+            } else if (len == 0) {
+                ret = null;
+            } else { // plain JSON, written with FileWriter i.e. in default charset
+                try (Reader reader = new FileReader(cacheFile)) {
+                    ret = mapper.readValue(reader, valueType);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public static void writeValue(File cacheFile, Object value, ObjectMapper mapper, boolean useBinaryFormat) throws IOException {
+        if (useBinaryFormat) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(cacheFile), BUFFER_SIZE)) {
+                out.write(BINARY_FORMAT_MAGIC);
+                out.write(BINARY_FORMAT_VERSION);
+
+                writeBinary(out, value, mapper);
+            }
+        } else {
+            try (Writer writer = new FileWriter(cacheFile)) {
+                mapper.writeValue(writer, value);
+            }
+        }
+
+        File otherFile = getFileInOtherFormat(cacheFile);
+
+        if (otherFile != null && otherFile.isFile()) {
+            if (otherFile.delete()) {
+                LOG.info("deleted cache file {}, replaced by {}", otherFile.getAbsolutePath(), cacheFile.getAbsolutePath());
+            } else {
+                LOG.warn("failed to delete cache file {}, replaced by {}", otherFile.getAbsolutePath(), cacheFile.getAbsolutePath());
+            }
+        }
+    }
+
+    private static <T> T readBinary(InputStream in, Class<T> valueType, ObjectMapper mapper) throws IOException {
+        ObjectMapper binaryMapper = getBinaryMappers(mapper).mapper;
+
+        try (JsonParser parser = binaryMapper.getFactory().createParser(in)) {
+            T ret = binaryMapper.readValue(parser, valueType);
+
+            if (ret instanceof ServicePolicies) {
+                Map<String, SecurityZoneInfo> securityZones = new HashMap<>();
+
+                while (parser.nextToken() != null) {
+                    ZoneSection section = binaryMapper.readValue(parser, ZoneSection.class);
+
+                    securityZones.put(section.zoneName, section.zone);
+                }
+
+                if (!securityZones.isEmpty()) {
+                    ((ServicePolicies) ret).setSecurityZones(securityZones);
+                }
+            }
+
+            return ret;
+        }
+    }
+
+    private static void writeBinary(OutputStream out, Object value, ObjectMapper mapper) throws IOException {
+        BinaryMappers binaryMappers = getBinaryMappers(mapper);
+        ObjectMapper  binaryMapper  = binaryMappers.mapper;
+
+        try (JsonGenerator generator = binaryMapper.getFactory().createGenerator(out)) {
+            Map<String, SecurityZoneInfo> securityZones = value instanceof ServicePolicies ? ((ServicePolicies) value).getSecurityZones() : null;
+
+            if (MapUtils.isEmpty(securityZones)) {
+                binaryMapper.writeValue(generator, value);
+            } else {
+                binaryMappers.withoutSecurityZonesMapper.writeValue(generator, value);
+
+                for (Map.Entry<String, SecurityZoneInfo> entry : securityZones.entrySet()) {
+                    binaryMapper.writeValue(generator, new ZoneSection(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+    }
+
+    private static BinaryMappers getBinaryMappers(ObjectMapper mapper) {
+        return BINARY_MAPPERS.computeIfAbsent(mapper, BinaryMappers::new);
+    }
+
+    private static File getFileInOtherFormat(File cacheFile) {
+        String name = cacheFile.getName();
+        String ret  = null;
+
+        if (name.endsWith(JSON_FILE_EXTENSION)) {
+            ret = name.substring(0, name.length() - JSON_FILE_EXTENSION.length()) + BINARY_FILE_EXTENSION;
+        } else if (name.endsWith(BINARY_FILE_EXTENSION)) {
+            ret = name.substring(0, name.length() - BINARY_FILE_EXTENSION.length()) + JSON_FILE_EXTENSION;
+        }
+
+        return ret != null ? new File(cacheFile.getParentFile(), ret) : null;
+    }
+
+    private static int readFully(InputStream in, byte[] buf) throws IOException {
+        int ret = 0;
+
+        while (ret < buf.length) {
+            int len = in.read(buf, ret, buf.length - ret);
+
+            if (len < 0) {
+                break;
+            }
+
+            ret += len;
+        }
+
+        return ret;
+    }
+
+    private static boolean isBinaryFormatSupported() {
+        boolean ret;
+
+        try {
+            Class.forName("com.fasterxml.jackson.dataformat.smile.SmileFactory");
+
+            ret = true;
+        } catch (Throwable excp) { // plugins that use jackson of the host service might not have jackson-dataformat-smile
+            ret = false;
+        }
+
+        return ret;
+    }
+
+    /*
+     * references to Smile classes are kept in this class, so that RangerCacheFileUtil loads even without jackson-dataformat-smile
+     */
+    private static final class SmileMapperFactory {
+        private SmileMapperFactory() {
+        }
+
+        static ObjectMapper create(ObjectMapper mapper) {
+            SmileFactory factory = new SmileFactory();
+
+            factory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true); // resource values, users, access-types repeat across policies
+
+            return mapper.copyWith(factory);
+        }
+    }
+
+    private static final class BinaryMappers {
+        final ObjectMapper mapper;
+        final ObjectMapper withoutSecurityZonesMapper;
+
+        BinaryMappers(ObjectMapper jsonMapper) {
+            this.mapper                     = SmileMapperFactory.create(jsonMapper);
+            this.withoutSecurityZonesMapper = mapper.copy().addMixIn(ServicePolicies.class, WithoutSecurityZones.class);
+        }
+    }
+
+    @JsonIgnoreProperties(value = "securityZones", ignoreUnknown = true)
+    abstract static class WithoutSecurityZones {
+    }
+
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+    static class ZoneSection {
+        String           zoneName;
+        SecurityZoneInfo zone;
+
+        ZoneSection() {
+        }
+
+        ZoneSection(String zoneName, SecurityZoneInfo zone) {
+            this.zoneName = zoneName;
+            this.zone     = zone;
+        }
+    }
+}
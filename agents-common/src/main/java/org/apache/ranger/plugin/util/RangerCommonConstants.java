@@ -31,6 +31,8 @@ public class RangerCommonConstants {
     public static final String  RANGER_ADMIN_SUFFIX_IN_PLACE_TAG_UPDATES             = ".supports.in.place.tag.updates";
     public static final String  PLUGIN_CONFIG_SUFFIX_IN_PLACE_TAG_UPDATES            = ".supports.in.place.tag.updates";
     public static final String  RANGER_SUPPORTS_TAGS_DEDUP                           = ".supports.tags.dedup";
+    public static final String  PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS            = ".policy.rest.client.long.poll.timeoutMs";
+    public static final String  PLUGIN_CONFIG_SUFFIX_CACHE_BINARY_FORMAT             = ".policy.cache.binary.format";
     public static final boolean RANGER_ADMIN_SUFFIX_POLICY_DELTA_DEFAULT             = false;
     public static final boolean PLUGIN_CONFIG_SUFFIX_POLICY_DELTA_DEFAULT            = false;
     public static final boolean RANGER_ADMIN_SUFFIX_TAG_DELTA_DEFAULT                = false;
@@ -39,8 +41,10 @@ public class RangerCommonConstants {
     public static final boolean PLUGIN_CONFIG_SUFFIX_IN_PLACE_POLICY_UPDATES_DEFAULT = false;
     public static final boolean RANGER_ADMIN_SUFFIX_IN_PLACE_TAG_UPDATES_DEFAULT     = false;
     public static final boolean PLUGIN_CONFIG_SUFFIX_IN_PLACE_TAG_UPDATES_DEFAULT    = false;
+    public static final boolean PLUGIN_CONFIG_SUFFIX_CACHE_BINARY_FORMAT_DEFAULT     = false;
     public static final boolean RANGER_SUPPORTS_TAGS_DEDUP_DEFAULT                   = true;
     public static final boolean POLICY_REST_CLIENT_SESSION_COOKIE_ENABLED            = true;
+    public static final long    PLUGIN_CONFIG_SUFFIX_LONG_POLL_TIMEOUT_MS_DEFAULT    = 0;
     public static final String  SCRIPT_OPTION_ENABLE_JSON_CTX                        = "enableJsonCtx";
     public static final String  SCRIPT_VAR_ctx                                       = "ctx";
     public static final String  SCRIPT_VAR_tag                                       = "tag";
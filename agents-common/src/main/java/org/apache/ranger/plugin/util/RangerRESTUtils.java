@@ -70,6 +70,7 @@ public class RangerRESTUtils {
     public static final  String REST_PARAM_ZONE_NAME                              = "zoneName";
     public static final  String REST_PARAM_EXEC_USER                              = "execUser";
     public static final  String REST_PARAM_CAPABILITIES                           = "pluginCapabilities";
+    public static final  String REST_PARAM_LONG_POLL_TIMEOUT_MS                   = "longPollTimeoutMs";
     private static final Logger LOG                                               = LoggerFactory.getLogger(RangerRESTUtils.class);
     private static final int    MAX_PLUGIN_ID_LEN                                 = 255;
 
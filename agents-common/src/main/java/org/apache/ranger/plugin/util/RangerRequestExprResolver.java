@@ -24,11 +24,15 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -41,6 +45,8 @@ public class RangerRequestExprResolver {
     private final        String  serviceType;
     private final        boolean hasTokens;
 
+    private final Queue<CompiledExprs> compiledExprsPool = new ConcurrentLinkedQueue<>();
+
     public RangerRequestExprResolver(String str, String serviceType) {
         this.str         = str;
         this.serviceType = serviceType;
@@ -212,26 +218,73 @@ public String resolveExpressions(RangerAccessRequest request) {
         String ret = str;
 
         if (hasTokens) {
-            ScriptEngine                 scriptEngine    = ScriptEngineUtil.createScriptEngine(serviceType);
-            RangerRequestScriptEvaluator scriptEvaluator = new RangerRequestScriptEvaluator(request, scriptEngine, RangerRequestScriptEvaluator.needsJsonCtxEnabled(str));
-            StringBuffer                 sb              = new StringBuffer();
-            Matcher                      matcher         = PATTERN.matcher(str);
+            CompiledExprs compiledExprs = borrowCompiledExprs();
 
-            while (matcher.find()) {
-                String expr = matcher.group(REGEX_GROUP_EXPR);
-                Object oVal = scriptEvaluator.evaluateScript(expr);
-                String val  = oVal == null ? "" : Objects.toString(oVal);
+            try {
+                ScriptEngine                 scriptEngine    = compiledExprs.scriptEngine != null ? compiledExprs.scriptEngine : ScriptEngineUtil.createScriptEngine(serviceType);
+                RangerRequestScriptEvaluator scriptEvaluator = new RangerRequestScriptEvaluator(request, scriptEngine, RangerRequestScriptEvaluator.needsJsonCtxEnabled(str));
+                StringBuffer                 sb              = new StringBuffer();
+                Matcher                      matcher         = PATTERN.matcher(str);
 
-                matcher.appendReplacement(sb, val);
-            }
+                while (matcher.find()) {
+                    String         expr     = matcher.group(REGEX_GROUP_EXPR);
+                    CompiledScript compiled = compiledExprs.scripts.get(expr);
+                    Object         oVal     = compiled != null ? scriptEvaluator.evaluateScript(compiled) : scriptEvaluator.evaluateScript(expr);
+                    String         val      = oVal == null ? "" : Objects.toString(oVal);
 
-            matcher.appendTail(sb);
+                    matcher.appendReplacement(sb, val);
+                }
 
-            ret = sb.toString();
+                matcher.appendTail(sb);
+
+                ret = sb.toString();
+            } finally {
+                compiledExprsPool.offer(compiledExprs);
+            }
 
             LOG.debug("RangerRequestExprResolver.processExpressions({}): ret={}", str, ret);
         }
 
         return ret;
     }
+
+    /*
+     * a script engine, with the expressions compiled by it, is used by one request at a time, as script engines aren't
+     * guaranteed to be thread-safe; only the bindings, created by RangerRequestScriptEvaluator, are specific to each
+     * request. Engines are returned to the pool after use, hence the pool grows only up to the number of requests
+     * resolved concurrently by this instance
+     */
+    private CompiledExprs borrowCompiledExprs() {
+        CompiledExprs ret = compiledExprsPool.poll();
+
+        if (ret == null) {
+            ret = new CompiledExprs(ScriptEngineUtil.createScriptEngine(serviceType));
+
+            LOG.debug("RangerRequestExprResolver.borrowCompiledExprs({}): compiledExprCount={}", str, ret.scripts.size());
+        }
+
+        return ret;
+    }
+
+    private class CompiledExprs {
+        final ScriptEngine                scriptEngine;
+        final Map<String, CompiledScript> scripts = new HashMap<>();
+
+        CompiledExprs(ScriptEngine scriptEngine) {
+            this.scriptEngine = scriptEngine;
+
+            if (scriptEngine != null) {
+                Matcher matcher = PATTERN.matcher(str);
+
+                while (matcher.find()) {
+                    String         expr   = matcher.group(REGEX_GROUP_EXPR);
+                    CompiledScript script = scripts.containsKey(expr) ? null : RangerRequestScriptEvaluator.compileScript(scriptEngine, expr);
+
+                    if (script != null) {
+                        scripts.put(expr, script);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -28,10 +28,6 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.Reader;
-import java.io.Writer;
 import java.util.Date;
 import java.util.HashSet;
 
@@ -46,6 +42,7 @@ public class RangerRolesProvider {
     private final String            cacheFileNamePrefix;
     private final String            cacheDir;
     private final boolean           disableCacheIfServiceNotFound;
+    private final boolean           useBinaryCacheFormat;
     private       long              lastActivationTimeInMillis;
     private       long              lastKnownRoleVersion = -1L;
     private       boolean           rangerUserGroupRolesSetInPlugin;
@@ -54,9 +51,10 @@ public class RangerRolesProvider {
     public RangerRolesProvider(String serviceType, String appId, String serviceName, RangerAdminClient rangerAdmin, String cacheDir, RangerPluginConfig config) {
         LOG.debug("==> RangerRolesProvider(serviceName={}).RangerRolesProvider()", serviceName);
 
-        this.serviceType = serviceType;
-        this.serviceName = serviceName;
-        this.rangerAdmin = rangerAdmin;
+        this.serviceType          = serviceType;
+        this.serviceName          = serviceName;
+        this.rangerAdmin          = rangerAdmin;
+        this.useBinaryCacheFormat = RangerCacheFileUtil.isBinaryFormatEnabled(config);
 
         if (StringUtils.isEmpty(appId)) {
             appId = serviceType;
@@ -64,7 +62,7 @@ public RangerRolesProvider(String serviceType, String appId, String serviceName,
 
         cacheFileNamePrefix = "roles";
 
-        String cacheFilename = String.format("%s_%s_%s.json", appId, serviceName, cacheFileNamePrefix);
+        String cacheFilename = String.format("%s_%s_%s%s", appId, serviceName, cacheFileNamePrefix, RangerCacheFileUtil.getFileExtension(useBinaryCacheFormat));
 
         cacheFilename = cacheFilename.replace(File.separatorChar, '_');
         cacheFilename = cacheFilename.replace(File.pathSeparatorChar, '_');
@@ -79,6 +77,10 @@ public RangerRolesProvider(String serviceType, String appId, String serviceName,
         LOG.debug("<== RangerRolesProvider(serviceName={}).RangerRolesProvider()", serviceName);
     }
 
+    public long getLastKnownRoleVersion() {
+        return lastKnownRoleVersion;
+    }
+
     public long getLastActivationTimeInMillis() {
         return lastActivationTimeInMillis;
     }
@@ -183,22 +185,10 @@ public void saveToCache(RangerRoles roles) {
                     perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerRolesProvider.saveToCache(serviceName=" + serviceName + ")");
                 }
 
-                Writer writer = null;
-
                 try {
-                    writer = new FileWriter(cacheFile);
-
-                    JsonUtils.objectToWriter(writer, roles);
+                    RangerCacheFileUtil.writeValue(cacheFile, roles, JsonUtils.getMapper(), useBinaryCacheFormat);
                 } catch (Exception excp) {
                     LOG.error("failed to save roles to cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                } finally {
-                    if (writer != null) {
-                        try {
-                            writer.close();
-                        } catch (Exception excp) {
-                            LOG.error("error while closing opened cache file '{}'", cacheFile.getAbsolutePath(), excp);
-                        }
-                    }
                 }
 
                 RangerPerfTracer.log(perf);
@@ -257,19 +247,17 @@ private RangerRoles loadUserGroupRolesFromCache() {
 
         LOG.debug("==> RangerRolesProvider(serviceName={}).loadUserGroupRolesFromCache()", serviceName);
 
-        File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
+        File cacheFile = cacheDir == null ? null : RangerCacheFileUtil.findCacheFile(new File(cacheDir + File.separator + cacheFileName));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
-            Reader           reader = null;
-            RangerPerfTracer perf   = null;
+            RangerPerfTracer perf = null;
 
             if (RangerPerfTracer.isPerfTraceEnabled(PERF_POLICYENGINE_INIT_LOG)) {
                 perf = RangerPerfTracer.getPerfTracer(PERF_POLICYENGINE_INIT_LOG, "RangerRolesProvider.loadUserGroupRolesFromCache(serviceName=" + serviceName + ")");
             }
 
             try {
-                reader = new FileReader(cacheFile);
-                roles  = JsonUtils.jsonToObject(reader, RangerRoles.class);
+                roles = RangerCacheFileUtil.readValue(cacheFile, RangerRoles.class, JsonUtils.getMapper());
 
                 if (roles != null) {
                     if (!StringUtils.equals(serviceName, roles.getServiceName())) {
@@ -284,14 +272,6 @@ private RangerRoles loadUserGroupRolesFromCache() {
                 LOG.error("failed to load userGroupRoles from cache file {}", cacheFile.getAbsolutePath(), excp);
             } finally {
                 RangerPerfTracer.log(perf);
-
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (Exception excp) {
-                        LOG.error("error while closing opened cache file {}", cacheFile.getAbsolutePath(), excp);
-                    }
-                }
             }
         } else {
             roles = new RangerRoles();
@@ -312,7 +292,7 @@ private RangerRoles loadUserGroupRolesFromCache() {
     private void disableCache() {
         LOG.debug("==> RangerRolesProvider.disableCache(serviceName={})", serviceName);
 
-        File cacheFile = cacheDir == null ? null : new File(cacheDir + File.separator + cacheFileName);
+        File cacheFile = cacheDir == null ? null : RangerCacheFileUtil.findCacheFile(new File(cacheDir + File.separator + cacheFileName));
 
         if (cacheFile != null && cacheFile.isFile() && cacheFile.canRead()) {
             LOG.warn("Cleaning up local RangerRoles cache");
@@ -22,7 +22,12 @@
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.plugin.model.RangerRole;
+import org.apache.ranger.plugin.policyengine.ConcurrentCacheMap;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +35,9 @@
 import java.util.Set;
 
 public class RangerRolesUtil {
+    private static final int   GROUPS_ROLES_CACHE_SIZE = 10000;
+    private static final int[] NO_ROLE_IDS             = new int[0];
+
     private final long                     roleVersion;
     private final Map<String, Set<String>> userRoleMapping  = new HashMap<>();
     private final Map<String, Set<String>> groupRoleMapping = new HashMap<>();
@@ -38,6 +46,13 @@ public class RangerRolesUtil {
     private final Map<String, Set<String>> roleToUserMapping  = new HashMap<>();
     private final Map<String, Set<String>> roleToGroupMapping = new HashMap<>();
 
+    // index to resolve roles of a set of groups: roles are numbered, and roles of each group are kept as an array of role numbers
+    private final List<String>                               roleNames        = new ArrayList<>();
+    private final Map<String, int[]>                         groupRoleIds     = new HashMap<>();
+    private final ConcurrentCacheMap<GroupsKey, Set<String>> groupsRolesCache = new ConcurrentCacheMap<>(GROUPS_ROLES_CACHE_SIZE);
+    private       int[]                                      publicRoleIds    = NO_ROLE_IDS;
+    private       Set<String>                                publicRoles      = Collections.emptySet();
+
     private RangerRoles roles;
 
     public RangerRolesUtil(RangerRoles roles) {
@@ -46,8 +61,14 @@ public RangerRolesUtil(RangerRoles roles) {
             roleVersion = roles.getRoleVersion() != null ? roles.getRoleVersion() : -1;
 
             if (CollectionUtils.isNotEmpty(roles.getRangerRoles())) {
+                Map<String, RangerRole> rolesByName = new HashMap<>();
+
                 for (RangerRole role : roles.getRangerRoles()) {
-                    Set<RangerRole> containedRoles = getAllContainedRoles(roles.getRangerRoles(), role);
+                    rolesByName.putIfAbsent(role.getName(), role);
+                }
+
+                for (RangerRole role : roles.getRangerRoles()) {
+                    Set<RangerRole> containedRoles = getAllContainedRoles(rolesByName, role);
 
                     buildMap(userRoleMapping, role, containedRoles, ROLES_FOR.USER);
                     buildMap(groupRoleMapping, role, containedRoles, ROLES_FOR.GROUP);
@@ -67,6 +88,8 @@ public RangerRolesUtil(RangerRoles roles) {
                     roleToUserMapping.put(role.getName(), roleUsers);
                     roleToGroupMapping.put(role.getName(), roleGroups);
                 }
+
+                buildGroupRoleIds();
             }
         } else {
             roleVersion = -1L;
@@ -101,7 +124,96 @@ public Map<String, Set<String>> getRoleToGroupMapping() {
         return this.roleToGroupMapping;
     }
 
-    private Set<RangerRole> getAllContainedRoles(Set<RangerRole> roles, RangerRole role) {
+    public Set<String> getRolesForUserAndGroups(String user, Set<String> groups) {
+        Set<String> userRoles  = StringUtils.isNotEmpty(user) ? userRoleMapping.get(user) : null;
+        Set<String> groupRoles = getRolesForGroups(groups);
+        Set<String> ret        = new HashSet<>(groupRoles);
+
+        if (userRoles != null) {
+            ret.addAll(userRoles);
+        }
+
+        return ret;
+    }
+
+    /*
+     * returns roles of the given groups, including roles of public group. Results are memoized per set of groups, as
+     * requests from a user usually carry the same set of groups
+     */
+    public Set<String> getRolesForGroups(Set<String> groups) {
+        final Set<String> ret;
+
+        if (groupRoleIds.isEmpty()) {
+            ret = Collections.emptySet();
+        } else if (CollectionUtils.isEmpty(groups)) {
+            ret = publicRoles;
+        } else {
+            GroupsKey   key    = new GroupsKey(groups);
+            Set<String> cached = groupsRolesCache.get(key);
+
+            if (cached == null) {
+                BitSet roleIds = new BitSet(roleNames.size());
+
+                for (String group : groups) {
+                    int[] ids = groupRoleIds.get(group);
+
+                    if (ids != null) {
+                        for (int id : ids) {
+                            roleIds.set(id);
+                        }
+                    }
+                }
+
+                cached = toRoleNames(publicRoleIds, roleIds);
+
+                groupsRolesCache.put(new GroupsKey(new HashSet<>(groups)), cached);
+            }
+
+            ret = cached;
+        }
+
+        return ret;
+    }
+
+    private void buildGroupRoleIds() {
+        Map<String, Integer> roleIds = new HashMap<>();
+
+        for (Map.Entry<String, Set<String>> entry : groupRoleMapping.entrySet()) {
+            int[] ids = new int[entry.getValue().size()];
+            int   idx = 0;
+
+            for (String roleName : entry.getValue()) {
+                ids[idx++] = roleIds.computeIfAbsent(roleName, k -> {
+                    roleNames.add(k);
+
+                    return roleNames.size() - 1;
+                });
+            }
+
+            groupRoleIds.put(entry.getKey(), ids);
+        }
+
+        publicRoleIds = groupRoleIds.getOrDefault(RangerPolicyEngine.GROUP_PUBLIC, NO_ROLE_IDS);
+        publicRoles   = toRoleNames(publicRoleIds, null);
+    }
+
+    private Set<String> toRoleNames(int[] publicRoleIds, BitSet roleIds) {
+        Set<String> ret = new HashSet<>();
+
+        for (int id : publicRoleIds) {
+            ret.add(roleNames.get(id));
+        }
+
+        if (roleIds != null) {
+            for (int id = roleIds.nextSetBit(0); id >= 0; id = roleIds.nextSetBit(id + 1)) {
+                ret.add(roleNames.get(id));
+            }
+        }
+
+        return Collections.unmodifiableSet(ret);
+    }
+
+    private Set<RangerRole> getAllContainedRoles(Map<String, RangerRole> roles, RangerRole role) {
         Set<RangerRole> allRoles = new HashSet<>();
 
         allRoles.add(role);
@@ -110,11 +222,11 @@ private Set<RangerRole> getAllContainedRoles(Set<RangerRole> roles, RangerRole r
         return allRoles;
     }
 
-    private void addContainedRoles(Set<RangerRole> allRoles, Set<RangerRole> roles, RangerRole role) {
+    private void addContainedRoles(Set<RangerRole> allRoles, Map<String, RangerRole> roles, RangerRole role) {
         List<RangerRole.RoleMember> roleMembers = role.getRoles();
 
         for (RangerRole.RoleMember roleMember : roleMembers) {
-            RangerRole containedRole = getContainedRole(roles, roleMember.getName());
+            RangerRole containedRole = roles.get(roleMember.getName());
 
             if (containedRole != null && !allRoles.contains(containedRole)) {
                 allRoles.add(containedRole);
@@ -160,10 +272,6 @@ private void getRoleMap(Map<String, Set<String>> map, String roleName, List<Rang
         }
     }
 
-    private RangerRole getContainedRole(Set<RangerRole> roles, String role) {
-        return (roles.stream().filter(containedRole -> role.equals(containedRole.getName())).findAny().orElse(null));
-    }
-
     private void addMemberNames(List<RangerRole.RoleMember> members, Set<String> names) {
         for (RangerRole.RoleMember member : members) {
             names.add(member.getName());
@@ -171,4 +279,32 @@ private void addMemberNames(List<RangerRole.RoleMember> members, Set<String> nam
     }
 
     public enum ROLES_FOR { USER, GROUP, ROLE }
+
+    private static final class GroupsKey {
+        private final Set<String> groups;
+        private final int         hashCode;
+
+        GroupsKey(Set<String> groups) {
+            this.groups   = groups;
+            this.hashCode = groups.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof GroupsKey)) {
+                return false;
+            }
+
+            GroupsKey other = (GroupsKey) obj;
+
+            return hashCode == other.hashCode && groups.equals(other.groups);
+        }
+    }
 }
@@ -126,8 +126,12 @@ public static RangerDataMaskTypeDef getDataMaskType(RangerServiceDef serviceDef,
     }
 
     public static RangerServiceDef normalize(RangerServiceDef serviceDef) {
-        normalizeDataMaskDef(serviceDef);
-        normalizeRowFilterDef(serviceDef);
+        if (serviceDef != null) {
+            synchronized (serviceDef) { // policy repositories sharing the serviceDef can be built concurrently
+                normalizeDataMaskDef(serviceDef);
+                normalizeRowFilterDef(serviceDef);
+            }
+        }
 
         return serviceDef;
     }
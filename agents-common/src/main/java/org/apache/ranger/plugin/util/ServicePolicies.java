@@ -282,8 +282,10 @@ public void setSecurityZones(Map<String, SecurityZoneInfo> securityZones) {
     }
 
     public void dedupStrings() {
-        Map<String, String> strTbl = new HashMap<>();
+        dedupStrings(new HashMap<>());
+    }
 
+    public void dedupStrings(Map<String, String> strTbl) {
         serviceName   = StringUtil.dedupString(serviceName, strTbl);
         auditMode     = StringUtil.dedupString(auditMode, strTbl);
         serviceConfig = StringUtil.dedupStringsMap(serviceConfig, strTbl);
@@ -315,6 +317,32 @@ public void dedupStrings() {
         }
     }
 
+    public void dedupLists() {
+        Map<List<String>, List<String>> listTbl = new HashMap<>();
+
+        if (policies != null) {
+            for (RangerPolicy policy : policies) {
+                policy.dedupLists(listTbl);
+            }
+        }
+
+        if (tagPolicies != null) {
+            tagPolicies.dedupLists(listTbl);
+        }
+
+        if (securityZones != null) {
+            for (SecurityZoneInfo securityZoneInfo : securityZones.values()) {
+                securityZoneInfo.dedupLists(listTbl);
+            }
+        }
+
+        if (policyDeltas != null) {
+            for (RangerPolicyDelta policyDelta : policyDeltas) {
+                policyDelta.dedupLists(listTbl);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "serviceName=" + serviceName + ", "
@@ -468,6 +496,14 @@ public void dedupStrings(Map<String, String> strTbl) {
             }
         }
 
+        public void dedupLists(Map<List<String>, List<String>> listTbl) {
+            if (policies != null) {
+                for (RangerPolicy policy : policies) {
+                    policy.dedupLists(listTbl);
+                }
+            }
+        }
+
         @Override
         public String toString() {
             return "serviceName=" + serviceName + ", "
@@ -560,6 +596,20 @@ public void dedupStrings(Map<String, String> strTbl) {
             }
         }
 
+        public void dedupLists(Map<List<String>, List<String>> listTbl) {
+            if (policies != null) {
+                for (RangerPolicy policy : policies) {
+                    policy.dedupLists(listTbl);
+                }
+            }
+
+            if (policyDeltas != null) {
+                for (RangerPolicyDelta policyDelta : policyDeltas) {
+                    policyDelta.dedupLists(listTbl);
+                }
+            }
+        }
+
         @Override
         public String toString() {
             return "zoneName=" + zoneName + ", "
@@ -20,6 +20,7 @@
 package org.apache.ranger.authorization.utils;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
 import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
 import org.apache.ranger.plugin.model.RangerSecurityZone;
 import org.apache.ranger.plugin.model.RangerSecurityZone.RangerSecurityZoneService;
@@ -239,6 +240,60 @@ public void testDedupMapOfPolicyResource() {
         }
     }
 
+    @Test
+    public void testDedupList() {
+        Map<List<String>, List<String>> listTbl = new HashMap<>();
+        List<String>                    l1      = null;
+
+        Assert.assertSame("null list - dedupList() should return the same list", l1, StringUtil.dedupList(l1, listTbl));
+
+        l1 = new ArrayList<>();
+        Assert.assertSame("empty list - dedupList() should return the same list", l1, StringUtil.dedupList(l1, listTbl));
+
+        l1 = StringUtil.dedupList(new ArrayList<>(Arrays.asList("user1", "user2")), listTbl);
+
+        List<String> l2 = StringUtil.dedupList(new ArrayList<>(Arrays.asList("user1", "user2")), listTbl);
+        List<String> l3 = StringUtil.dedupList(new ArrayList<>(Arrays.asList("user2", "user1")), listTbl);
+
+        Assert.assertSame("equal lists - dedupList() should return the same list", l1, l2);
+        Assert.assertNotSame("different lists - dedupList() should return different lists", l1, l3);
+
+        try {
+            l1.add("user3");
+
+            Assert.fail("dedupList() should return an unmodifiable list");
+        } catch (UnsupportedOperationException excp) {
+            // expected
+        }
+
+        RangerPolicyItem item1 = new RangerPolicyItem();
+        RangerPolicyItem item2 = new RangerPolicyItem();
+
+        item1.setUsers(Arrays.asList("user1", "user2"));
+        item2.setUsers(Arrays.asList("user1", "user2"));
+        item1.dedupLists(listTbl);
+        item2.dedupLists(listTbl);
+
+        Assert.assertSame(item1.getUsers(), item2.getUsers());
+        Assert.assertTrue(item1.removeUser("user1"));
+        Assert.assertTrue(item2.addUser("user3"));
+        Assert.assertEquals(Collections.singletonList("user2"), item1.getUsers());
+        Assert.assertEquals(Arrays.asList("user1", "user2", "user3"), item2.getUsers());
+        Assert.assertEquals(Arrays.asList("user1", "user2"), l1);
+    }
+
+    @Test
+    public void testSharedStringTable() {
+        Map<String, String> strTbl = StringUtil.getSharedStringTable();
+        String              str1   = getString("sharedString");
+        String              str2   = getString("sharedString");
+
+        Assert.assertNotSame(str1, str2);
+        Assert.assertSame(str1, StringUtil.dedupString(str1, strTbl));
+        Assert.assertSame(str1, StringUtil.dedupString(str2, strTbl));
+        Assert.assertSame(str1, strTbl.get(str2));
+    }
+
     @Test
     public void testJsonCompression() throws IOException {
         int[] sizeFactors = new int[] {1, 10, 50, 100, 250, 300, 400, 500};
@@ -33,6 +33,7 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 
 import java.util.Arrays;
@@ -434,6 +435,40 @@ public void testBlockJavaClassReferences() {
         Assert.assertNull("test: java.lang.Runtime.getRuntime().exec(\"bash\");", evaluator.evaluateScript("java.lang.Runtime.getRuntime().exec(\"bash\");"));
     }
 
+    @Test
+    public void testCompiledScript() {
+        CompiledScript hasTagPII  = RangerRequestScriptEvaluator.compileScript(scriptEngine, "HAS_TAG('PII')");
+        CompiledScript isInGroup1 = RangerRequestScriptEvaluator.compileScript(scriptEngine, "IS_IN_GROUP('test-group1')");
+        CompiledScript deptEngg   = RangerRequestScriptEvaluator.compileScript(scriptEngine, "TAGS.DEPTS.names.split(',').includes(USER.dept)");
+        CompiledScript javaClass  = RangerRequestScriptEvaluator.compileScript(scriptEngine, "java.lang.System.out.println(\"test\");");
+
+        Assert.assertNotNull("compile: HAS_TAG('PII')", hasTagPII);
+        Assert.assertNotNull("compile: IS_IN_GROUP('test-group1')", isInGroup1);
+        Assert.assertNotNull("compile: TAGS.DEPTS.names.split(',').includes(USER.dept)", deptEngg);
+
+        RangerTag                    tagPII    = new RangerTag("PII", Collections.singletonMap("attr1", "PII_value"));
+        RangerTag                    tagDepts  = new RangerTag("DEPTS", Collections.singletonMap("names", "ENGG,SALES"));
+        RangerAccessRequest          request   = createRequest("test-user2", Collections.singleton("test-group1"), Collections.emptySet(), Arrays.asList(tagPII, tagDepts));
+        RangerRequestScriptEvaluator evaluator = new RangerRequestScriptEvaluator(request, scriptEngine);
+
+        Assert.assertTrue("test: HAS_TAG('PII')", (Boolean) evaluator.evaluateScript(hasTagPII));
+        Assert.assertTrue("test: IS_IN_GROUP('test-group1')", (Boolean) evaluator.evaluateScript(isInGroup1));
+        Assert.assertTrue("test: TAGS.DEPTS.names.split(',').includes(USER.dept)", (Boolean) evaluator.evaluateScript(deptEngg));
+        Assert.assertNull("test: java.lang.System.out.println(\"test\");", javaClass != null ? evaluator.evaluateScript(javaClass) : null);
+
+        // the same compiled scripts, evaluated in the context of another request
+        request   = createRequest("test-user3", Collections.singleton("test-group3"), Collections.emptySet(), Collections.singletonList(tagDepts));
+        evaluator = new RangerRequestScriptEvaluator(request, scriptEngine);
+
+        Assert.assertFalse("test: HAS_TAG('PII')", (Boolean) evaluator.evaluateScript(hasTagPII));
+        Assert.assertFalse("test: IS_IN_GROUP('test-group1')", (Boolean) evaluator.evaluateScript(isInGroup1));
+        Assert.assertFalse("test: TAGS.DEPTS.names.split(',').includes(USER.dept)", (Boolean) evaluator.evaluateScript(deptEngg));
+
+        evaluator.evaluateConditionScript(hasTagPII);
+
+        Assert.assertFalse("test: getResult() after HAS_TAG('PII')", evaluator.getResult());
+    }
+
     @Test
     public void testIsTimeMacros() {
         RangerAccessRequest          request   = createRequest("test-user", Collections.emptySet(), Collections.emptySet(), Collections.emptyList());
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestConcurrentCacheMap {
+    private static final int CAPACITY = 16;
+
+    @Test
+    public void testBoundedWithSecondChance() {
+        ConcurrentCacheMap<String, String> cache = new ConcurrentCacheMap<>(CAPACITY);
+
+        for (int i = 0; i < CAPACITY; i++) {
+            cache.put(String.valueOf(i), String.valueOf(i));
+        }
+
+        // reference the first half; these should survive the next batch of inserts
+        for (int i = 0; i < CAPACITY / 2; i++) {
+            assertEquals(String.valueOf(i), cache.get(String.valueOf(i)));
+        }
+
+        for (int i = CAPACITY; i < CAPACITY + CAPACITY / 2; i++) {
+            cache.put(String.valueOf(i), String.valueOf(i));
+        }
+
+        assertEquals(CAPACITY, cache.size());
+
+        for (int i = 0; i < CAPACITY / 2; i++) {
+            assertNotNull("recently read key was evicted: " + i, cache.get(String.valueOf(i)));
+        }
+
+        for (int i = CAPACITY / 2; i < CAPACITY; i++) {
+            assertNull("unreferenced key was not evicted: " + i, cache.get(String.valueOf(i)));
+        }
+
+        assertEquals(CAPACITY / 2, cache.getEvictionCount());
+        assertEquals(CAPACITY, cache.getHitCount());
+        assertEquals(CAPACITY / 2, cache.getMissCount());
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        ConcurrentCacheMap<String, String> cache = new ConcurrentCacheMap<>(CAPACITY);
+
+        assertNull(cache.put("k", "v1"));
+        assertEquals("v1", cache.put("k", "v2"));
+        assertEquals("v2", cache.get("k"));
+        assertEquals("v2", cache.remove("k"));
+        assertNull(cache.get("k"));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void testRemoveChurnKeepsQueueBounded() {
+        ConcurrentCacheMap<String, String> cache = new ConcurrentCacheMap<>(CAPACITY);
+
+        for (int i = 0; i < CAPACITY * 100; i++) {
+            String key = String.valueOf(i);
+
+            cache.put(key, key);
+            cache.remove(key);
+
+            assertTrue("clock queue grew to " + cache.getClockSize(), cache.getClockSize() <= 2 * CAPACITY + 1);
+        }
+
+        assertTrue(cache.isEmpty());
+
+        cache.put("k", "v");
+        cache.clear();
+
+        assertEquals(0, cache.getClockSize());
+    }
+
+    @Test
+    public void testConcurrentAccessStaysBounded() throws Exception {
+        final ConcurrentCacheMap<Integer, Integer> cache   = new ConcurrentCacheMap<>(CAPACITY);
+        final List<Thread>                         threads = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            final int offset = t * 1000;
+
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    cache.put(offset + i, i);
+                    cache.get(offset + (i / 2));
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("cache grew beyond capacity: " + cache.size(), cache.size() <= CAPACITY + threads.size());
+        assertEquals(8 * 1000, cache.getHitCount() + cache.getMissCount());
+    }
+}
@@ -29,6 +29,7 @@
 import org.apache.ranger.plugin.resourcematcher.RangerResourceMatcher;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -37,6 +38,9 @@
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TestPathResourceTrie {
     private static final RangerResourceDef       PATH_RESOURCE_DEF = getPathResourceDef();
@@ -66,7 +70,8 @@ public class TestPathResourceTrie {
             EVAL_TMPdTXT,
             EVAL_TMPA_B);
 
-    private final RangerResourceTrie<RangerResourceEvaluator> trie = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS);
+    private final RangerResourceTrie<RangerResourceEvaluator> trie        = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS);
+    private final RangerResourceTrie<RangerResourceEvaluator> compactTrie = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, true, false, true, null);
 
     @Test
     public void testChildrenScope() {
@@ -113,11 +118,106 @@ public void testSelfScope() {
         verifyEvaluators("invalid: does-not-begin-with-sep", scope);
     }
 
+    @Test
+    public void testCompactTrieUpdates() {
+        for (boolean isOptimizedForRetrieval : new boolean[] {true, false}) {
+            RangerResourceTrie<RangerResourceEvaluator> trie        = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, isOptimizedForRetrieval, false, false, null);
+            RangerResourceTrie<RangerResourceEvaluator> compactTrie = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, isOptimizedForRetrieval, false, true, null);
+            RangerResourceEvaluator                     evalTmpA    = getEvaluator("/tmp/a");
+            RangerResourceEvaluator                     evalHomeX   = getEvaluator("/home/x*");
+
+            for (RangerResourceTrie<RangerResourceEvaluator> t : Arrays.asList(trie, compactTrie)) {
+                t.add(evalTmpA.getPolicyResource().get("path"), evalTmpA);
+                t.add(evalHomeX.getPolicyResource().get("path"), evalHomeX);
+                t.delete(EVAL_TMP_AB.getPolicyResource().get("path"), EVAL_TMP_AB);
+                t.wrapUpUpdate();
+            }
+
+            for (String resource : Arrays.asList("/", "/tmp", "/tmp/", "/tmp/a", "/tmp/ab", "/tmp/a/b", "/home", "/home/x", "/home/xyz/1", "/tmpa/b", "/unmatched")) {
+                for (ResourceElementMatchingScope scope : ResourceElementMatchingScope.values()) {
+                    assertEquals("incorrect evaluators for resource " + resource + ", scope " + scope, trie.getEvaluatorsForResource(resource, scope), compactTrie.getEvaluatorsForResource(resource, scope));
+                }
+            }
+
+            RangerResourceTrie<RangerResourceEvaluator> copy = new RangerResourceTrie<>(compactTrie);
+
+            assertEquals(trie.getEvaluatorsForResource("/home/xyz/1"), copy.getEvaluatorsForResource("/home/xyz/1"));
+            assertEquals(trie.getEvaluatorsForResource("/tmp/a"), copy.getEvaluatorsForResource("/tmp/a"));
+        }
+    }
+
+    @Test
+    public void testCopyOnWriteUpdates() {
+        RangerResourceEvaluator       evalTmpX      = getEvaluator("/tmp/x*");
+        RangerResourceEvaluator       evalTmp       = getEvaluator("/tmp");
+        RangerResourceEvaluator       evalTmpAbCd   = getEvaluator("/tmp/ab/cd", false, false);
+        List<RangerResourceEvaluator> newEvaluators = new ArrayList<>(EVALUATORS);
+        List<String>                  resources     = Arrays.asList("/", "/tmp", "/tmp/", "/tmp/a", "/tmp/ab", "/tmp/ab/cd", "/tmp/a/b", "/tmp/xyz", "/home", "/home/x", "/tmpa/b", "/unmatched");
+
+        newEvaluators.add(evalTmpX);
+        newEvaluators.add(evalTmp);
+        newEvaluators.add(evalTmpAbCd);
+        newEvaluators.remove(EVAL_TMP_AB);
+
+        for (boolean isOptimizedForRetrieval : new boolean[] {true, false}) {
+            for (boolean isCompact : new boolean[] {true, false}) {
+                RangerResourceTrie<RangerResourceEvaluator> orig     = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, isOptimizedForRetrieval, false, isCompact, null);
+                RangerResourceTrie<RangerResourceEvaluator> expected = new RangerResourceTrie<>(PATH_RESOURCE_DEF, newEvaluators, isOptimizedForRetrieval, false, isCompact, null);
+                RangerResourceTrie<RangerResourceEvaluator> before   = new RangerResourceTrie<>(PATH_RESOURCE_DEF, EVALUATORS, isOptimizedForRetrieval, false, isCompact, null);
+                RangerResourceTrie<RangerResourceEvaluator> copy     = new RangerResourceTrie<>(orig);
+
+                for (RangerResourceEvaluator evaluator : Arrays.asList(evalTmpX, evalTmp, evalTmpAbCd)) {
+                    copy.add(evaluator.getPolicyResource().get("path"), evaluator);
+                }
+
+                copy.delete(EVAL_TMP_AB.getPolicyResource().get("path"), EVAL_TMP_AB);
+                copy.wrapUpUpdate();
+
+                for (String resource : resources) {
+                    for (ResourceElementMatchingScope scope : ResourceElementMatchingScope.values()) {
+                        assertEquals("incorrect evaluators in copy for resource " + resource + ", scope " + scope, expected.getEvaluatorsForResource(resource, scope), copy.getEvaluatorsForResource(resource, scope));
+                        assertEquals("original updated for resource " + resource + ", scope " + scope, before.getEvaluatorsForResource(resource, scope), orig.getEvaluatorsForResource(resource, scope));
+                    }
+                }
+
+                if (isOptimizedForRetrieval) { // nodes of subtrees that are not updated are shared with the original trie
+                    assertSame(orig.getRoot().getChild('/').getChild('h'), copy.getRoot().getChild('/').getChild('h'));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCharArrayMap() {
+        Map<Character, String> map = new RangerCharArrayMap<>();
+
+        for (char ch : "zmaqb".toCharArray()) {
+            assertNull(map.put(ch, String.valueOf(ch)));
+        }
+
+        assertEquals(5, map.size());
+        assertEquals("a", map.get('a'));
+        assertEquals("q", map.put('q', "Q"));
+        assertEquals("Q", map.get('q'));
+        assertNull(map.get('c'));
+        assertEquals(Arrays.asList('a', 'b', 'm', 'q', 'z'), new ArrayList<>(map.keySet()));
+
+        map.values().removeIf("m"::equals);
+
+        assertEquals("a", map.remove('a'));
+        assertNull(map.remove('a'));
+        assertEquals(Arrays.asList("b", "Q", "z"), new ArrayList<>(map.values()));
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+    }
+
     private void verifyEvaluators(String resource, ResourceElementMatchingScope scope, RangerResourceEvaluator... evaluators) {
         Set<RangerResourceEvaluator> expected = evaluators.length == 0 ? null : new HashSet<>(Arrays.asList(evaluators));
-        Set<RangerResourceEvaluator> result   = trie.getEvaluatorsForResource(resource, scope);
 
-        assertEquals("incorrect evaluators for resource " + resource, expected, result);
+        assertEquals("incorrect evaluators for resource " + resource, expected, trie.getEvaluatorsForResource(resource, scope));
+        assertEquals("incorrect evaluators for resource " + resource + " in compact trie", expected, compactTrie.getEvaluatorsForResource(resource, scope));
     }
 
     private static RangerResourceDef getPathResourceDef() {
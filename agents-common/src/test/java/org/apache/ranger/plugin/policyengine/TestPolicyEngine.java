@@ -66,6 +66,8 @@
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -78,9 +80,11 @@
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -365,6 +369,41 @@ public void testPolicyEngine_hdfsForZones() {
         runTestsFromResourceFiles(hdfsTestResourceFiles);
     }
 
+    @Test
+    public void testPolicyEngine_hdfsForZones_parallelBuild() {
+        String[]                  hdfsTestResourceFiles = {"/policyengine/test_policyengine_hdfs_zones.json", "/policyengine/test_policyengine_tag_hdfs.json"};
+        RangerPolicyEngineOptions options               = pluginContext.getConfig().getPolicyEngineOptions();
+        int                       builderThreadCount    = options.policyEngineBuilderThreadCount;
+
+        try {
+            options.policyEngineBuilderThreadCount = 4;
+
+            runTestsFromResourceFiles(hdfsTestResourceFiles);
+        } finally {
+            options.policyEngineBuilderThreadCount = builderThreadCount;
+        }
+    }
+
+    @Test
+    public void testBuilderPoolUsesCallerContextClassLoader() throws Exception {
+        Thread      currentThread   = Thread.currentThread();
+        ClassLoader prevClassLoader = currentThread.getContextClassLoader();
+
+        try (URLClassLoader pluginClassLoader = new URLClassLoader(new URL[0], prevClassLoader)) {
+            currentThread.setContextClassLoader(pluginClassLoader);
+
+            ForkJoinPool builderPool = PolicyEngine.createBuilderPool(2);
+
+            try {
+                assertSame(pluginClassLoader, builderPool.submit(() -> Thread.currentThread().getContextClassLoader()).get());
+            } finally {
+                builderPool.shutdown();
+            }
+        } finally {
+            currentThread.setContextClassLoader(prevClassLoader);
+        }
+    }
+
     @Test
     public void testPolicyEngine_hive_with_partial_resource_policies() {
         String[] hiveTestResourceFiles = {"/policyengine/test_policyengine_hive_with_partial_resource_policies.json"};
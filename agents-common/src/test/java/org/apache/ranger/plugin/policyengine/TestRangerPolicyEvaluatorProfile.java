@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.policyengine;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestRangerPolicyEvaluatorProfile {
+    @Test
+    public void testDiscountsFollowDecisionShare() {
+        RangerPolicyEvaluatorProfile profile = new RangerPolicyEvaluatorProfile(1, 10, 200);
+
+        record(profile, 1L, 8);
+        record(profile, 2L, 2);
+        profile.recordDecision(-1); // decisions not made by a policy are ignored
+
+        assertEquals(0, profile.getEvalOrderDiscount(1L)); // no discount until rebalance()
+
+        profile.rebalance();
+
+        assertEquals(200, profile.getEvalOrderDiscount(1L));
+        assertEquals(50, profile.getEvalOrderDiscount(2L));
+        assertEquals(0, profile.getEvalOrderDiscount(3L));
+        assertEquals(0, profile.getEvalOrderDiscount(null));
+
+        // counts are halved after rebalance, so that the profile follows changes in traffic
+        assertEquals(Long.valueOf(4), profile.getDecisionCounts().get(1L));
+        assertEquals(Long.valueOf(1), profile.getDecisionCounts().get(2L));
+    }
+
+    @Test
+    public void testNoDiscountsBelowMinSamples() {
+        RangerPolicyEvaluatorProfile profile = new RangerPolicyEvaluatorProfile(1, 100, 200);
+
+        record(profile, 1L, 99);
+
+        profile.rebalance();
+
+        assertEquals(0, profile.getEvalOrderDiscount(1L));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        RangerPolicyEvaluatorProfile profile = new RangerPolicyEvaluatorProfile(1, 10, 100);
+        File                         file    = File.createTempFile("evaluator_profile", ".json");
+
+        try {
+            record(profile, 5L, 20);
+            record(profile, 6L, 10);
+
+            profile.saveToFile(file);
+
+            RangerPolicyEvaluatorProfile loaded = new RangerPolicyEvaluatorProfile(1, 10, 100);
+
+            loaded.loadFromFile(file);
+
+            Map<Long, Long> counts = loaded.getDecisionCounts();
+
+            assertEquals(100, loaded.getEvalOrderDiscount(5L)); // loadFromFile() rebalances, to be effective for the first policy-engine
+            assertEquals(50, loaded.getEvalOrderDiscount(6L));
+            assertEquals(Long.valueOf(10), counts.get(5L));
+            assertEquals(Long.valueOf(5), counts.get(6L));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void record(RangerPolicyEvaluatorProfile profile, long policyId, int count) {
+        for (int i = 0; i < count; i++) {
+            profile.recordDecision(policyId);
+        }
+    }
+}
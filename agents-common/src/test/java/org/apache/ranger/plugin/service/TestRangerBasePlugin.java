@@ -27,12 +27,21 @@
 import com.google.gson.JsonParseException;
 import org.apache.commons.lang.StringUtils;
 import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerDataMaskPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemDataMaskInfo;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemRowFilterInfo;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerRowFilterPolicyItem;
 import org.apache.ranger.plugin.model.RangerServiceDef;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
 import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResource;
 import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
 import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.apache.ranger.plugin.policyengine.RangerDecisionCache;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
 import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
 import org.apache.ranger.plugin.policyengine.RangerResourceACLs;
@@ -51,16 +60,25 @@
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class TestRangerBasePlugin {
     static Gson                      gsonBuilder;
@@ -87,6 +105,237 @@ public void testBasePluginHive() throws Exception {
         runTestsFromResourceFile("/plugin/test_base_plugin_hive.json");
     }
 
+    @Test
+    public void testDecisionCacheHive() throws Exception {
+        String                   resourceFile = "/plugin/test_base_plugin_hive.json";
+        RangerBasePluginTestCase testCase     = readTestCase(new InputStreamReader(this.getClass().getResourceAsStream(resourceFile)));
+
+        assertNotNull("invalid input: " + resourceFile, testCase);
+
+        RangerPluginConfig cachedPluginConfig = new RangerPluginConfig(testCase.policies.getServiceDef().getName(), testCase.policies.getServiceName(), "hive", "cl1", "on-prem", peOptions);
+        RangerPluginConfig pluginConfig       = new RangerPluginConfig(testCase.policies.getServiceDef().getName(), testCase.policies.getServiceName(), "hive", "cl1", "on-prem", peOptions);
+
+        cachedPluginConfig.setBoolean(cachedPluginConfig.getPropertyPrefix() + RangerDecisionCache.PROP_SUFFIX_DECISION_CACHE_ENABLED, true);
+
+        // datasets are evaluated by a context enricher not supported by the decision cache; hence gdsInfo is not used here
+        RangerBasePlugin cachedPlugin = new RangerBasePlugin(cachedPluginConfig, testCase.policies, testCase.tags, testCase.roles, testCase.userStore, null);
+        RangerBasePlugin plugin       = new RangerBasePlugin(pluginConfig, testCase.policies, testCase.tags, testCase.roles, testCase.userStore, null);
+
+        assertNull("decision cache should be disabled by default", plugin.getDecisionCacheMetrics());
+
+        for (TestData test : testCase.tests) {
+            if (test.result == null) {
+                continue;
+            }
+
+            RangerAccessRequest[] requests = new RangerAccessRequest[] {copyOf(test.request), copyOf(test.request), copyOf(test.request)};
+            RangerAccessResult    expected = plugin.isAccessAllowed(requests[0]);
+
+            for (int i = 1; i < requests.length; i++) {
+                RangerAccessResult result = cachedPlugin.isAccessAllowed(requests[i]);
+
+                assertNotNull("result was null! - " + test.name, result);
+                assertSame("result has a different request! - " + test.name, requests[i], result.getAccessRequest());
+                assertEquals("isAllowed mismatched! - " + test.name, expected.getIsAllowed(), result.getIsAllowed());
+                assertEquals("isAccessDetermined mismatched! - " + test.name, expected.getIsAccessDetermined(), result.getIsAccessDetermined());
+                assertEquals("policyId mismatched! - " + test.name, expected.getPolicyId(), result.getPolicyId());
+                assertEquals("isAudited mismatched! - " + test.name, expected.getIsAudited(), result.getIsAudited());
+                assertEquals("isAuditedDetermined mismatched! - " + test.name, expected.getIsAuditedDetermined(), result.getIsAuditedDetermined());
+                assertEquals("tags mismatched! - " + test.name, RangerAccessRequestUtil.getRequestTagsFromContext(requests[0].getContext()), RangerAccessRequestUtil.getRequestTagsFromContext(requests[i].getContext()));
+            }
+        }
+
+        Map<String, Object> metrics = (Map<String, Object>) cachedPlugin.getDecisionCacheMetrics().getData().get("decisionCache");
+
+        assertTrue("expected decision cache hits: " + metrics, (Long) metrics.get("hitCount") > 0);
+        assertEquals("unexpected uncacheable requests: " + metrics, 0L, metrics.get("uncacheableCount"));
+
+        long generation = (Long) metrics.get("generation");
+
+        cachedPlugin.setRoles(testCase.roles);
+
+        metrics = (Map<String, Object>) cachedPlugin.getDecisionCacheMetrics().getData().get("decisionCache");
+
+        assertEquals("decision cache should be invalidated by setRoles(): " + metrics, generation + 1, metrics.get("generation"));
+        assertEquals("decision cache should be empty after setRoles(): " + metrics, 0, metrics.get("size"));
+
+        Map<String, Object> pluginMetrics = cachedPlugin.getPluginMetrics().getData();
+
+        assertTrue("plugin metrics should include the decision cache: " + pluginMetrics, pluginMetrics.containsKey("decisionCache"));
+        assertTrue("plugin metrics should include the policy engine build: " + pluginMetrics, pluginMetrics.containsKey("policyEngineBuild"));
+    }
+
+    @Test
+    public void testAccessAllowedForAllDescendantsHdfs() throws Exception {
+        RangerPolicy allowData = createHdfsPolicy(1L, "/data", true);
+
+        allowData.setPolicyItems(Collections.singletonList(createPolicyItem("user1", "read", "execute")));
+
+        RangerBasePlugin plugin = createHdfsPlugin(null, allowData);
+
+        assertTrue(plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "read")));
+        assertTrue(plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data/a", "read")));
+        assertFalse("write is not allowed", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "write")));
+        assertFalse("user2 is not allowed", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "read", "user2")));
+
+        // deny policy on a descendant
+        RangerPolicy denyDescendant = createHdfsPolicy(2L, "/data/a/b/c", false);
+
+        denyDescendant.setDenyPolicyItems(Collections.singletonList(createPolicyItem("user1", "read")));
+
+        plugin = createHdfsPlugin(null, allowData, denyDescendant);
+
+        assertFalse("deny on /data/a/b/c", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "read")));
+        assertFalse("deny on /data/a/b/c", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data/a", "read")));
+        assertFalse("deny on /data/a/b/c", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data/a/b/c", "read")));
+        assertFalse("denied for /data/a/b/c", plugin.isAccessAllowed(createHdfsRequest("/data/a/b/c", "read")).getIsAllowed());
+
+        // deny policy, with deny exceptions, on a descendant
+        RangerPolicy denyWithExceptions = createHdfsPolicy(3L, "/data/a/b", true);
+
+        denyWithExceptions.setDenyPolicyItems(Collections.singletonList(createPolicyItem("user1", "read")));
+        denyWithExceptions.setDenyExceptions(Collections.singletonList(createPolicyItem("user1", "read")));
+
+        plugin = createHdfsPlugin(null, allowData, denyWithExceptions);
+
+        assertFalse("deny with exceptions on /data/a/b", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "read")));
+
+        // deny policy for a tag, which can be associated with any descendant
+        RangerPolicy denyTag = new RangerPolicy();
+
+        denyTag.setId(100L);
+        denyTag.setName("tag: PII");
+        denyTag.setService("dev_tag");
+        denyTag.setResources(Collections.singletonMap("tag", new RangerPolicyResource("PII")));
+        denyTag.setDenyPolicyItems(Collections.singletonList(createPolicyItem("user1", "hdfs:read")));
+
+        plugin = createHdfsPlugin(denyTag, allowData);
+
+        assertFalse("deny for tag PII", plugin.isAccessAllowedForAllDescendants(createHdfsRequest("/data", "read")));
+    }
+
+    @Test
+    public void testAccessAllowedForChildrenHive() throws Exception {
+        String                   resourceFile = "/plugin/test_base_plugin_hive.json";
+        RangerBasePluginTestCase testCase     = readTestCase(new InputStreamReader(this.getClass().getResourceAsStream(resourceFile)));
+
+        assertNotNull("invalid input: " + resourceFile, testCase);
+
+        RangerServiceDef hiveServiceDef = EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef(EmbeddedServiceDefsUtil.EMBEDDED_SERVICEDEF_HIVE_NAME);
+
+        testCase.policies.getServiceDef().setRowFilterDef(hiveServiceDef.getRowFilterDef());
+        testCase.policies.getServiceDef().setDataMaskDef(hiveServiceDef.getDataMaskDef());
+
+        // allow for all tables of customers, except a deny for one table; customers.contact_info is tagged CUSTOMER, which is denied by a tag policy
+        RangerPolicy allowCustomers = createHivePolicy(150L, "customers", "*", "*");
+        RangerPolicy denyArchive    = createHivePolicy(151L, "customers", "orders_archive", "*");
+        RangerPolicy rowFilter      = createHivePolicy(152L, "customers", "contact_info", null);
+        RangerPolicy dataMask       = createHivePolicy(153L, "customers", "contact_info", "phone");
+
+        allowCustomers.setPolicyItems(Arrays.asList(createPolicyItem("analyst", "select"), createPolicyItem("res-user", "select")));
+        denyArchive.setDenyPolicyItems(Collections.singletonList(createPolicyItem("analyst", "select")));
+
+        rowFilter.setPolicyType(RangerPolicy.POLICY_TYPE_ROWFILTER);
+        rowFilter.setRowFilterPolicyItems(Collections.singletonList(new RangerRowFilterPolicyItem(new RangerPolicyItemRowFilterInfo("region = 'US'"), Collections.singletonList(new RangerPolicyItemAccess("select")), Collections.singletonList("analyst"), null, null, null, false)));
+
+        dataMask.setPolicyType(RangerPolicy.POLICY_TYPE_DATAMASK);
+        dataMask.setDataMaskPolicyItems(Collections.singletonList(new RangerDataMaskPolicyItem(Collections.singletonList(new RangerPolicyItemAccess("select")), new RangerPolicyItemDataMaskInfo("MASK", null, null), Collections.singletonList("analyst"), null, null, null, false)));
+
+        // allow, not audited, for all tables of operations; deny, with an exception, for operations.facilities
+        RangerPolicy allowOperations = createHivePolicy(160L, "operations", "*", "*");
+        RangerPolicy denyFacilities  = createHivePolicy(161L, "operations", "facilities", "*");
+
+        allowOperations.setIsAuditEnabled(false);
+        allowOperations.setPolicyItems(Collections.singletonList(createPolicyItem("analyst", "select")));
+        denyFacilities.setDenyPolicyItems(Arrays.asList(createPolicyItem("analyst", "select"), createPolicyItem("res-user", "select")));
+        denyFacilities.setDenyExceptions(Collections.singletonList(createPolicyItem("res-user", "select")));
+
+        // allow for all tables of marketing, with no other policy
+        RangerPolicy allowMarketing = createHivePolicy(170L, "marketing", "*", "*");
+
+        allowMarketing.setPolicyItems(Collections.singletonList(createPolicyItem("analyst", "select")));
+
+        RangerPolicy denyCustomerTag = new RangerPolicy();
+
+        denyCustomerTag.setId(205L);
+        denyCustomerTag.setName("tag: CUSTOMER - deny");
+        denyCustomerTag.setResources(Collections.singletonMap("tag", new RangerPolicyResource("CUSTOMER")));
+        denyCustomerTag.setDenyPolicyItems(Collections.singletonList(createPolicyItem("analyst", "select")));
+
+        testCase.policies.getPolicies().addAll(Arrays.asList(allowCustomers, denyArchive, rowFilter, dataMask, allowOperations, denyFacilities, allowMarketing));
+        testCase.policies.getTagPolicies().getPolicies().add(denyCustomerTag);
+
+        Map<String, List<String>> tables = new LinkedHashMap<>();
+
+        tables.put("customers", Arrays.asList("contact_info", "orders_archive", "profiles", "addresses"));
+        tables.put("operations", Arrays.asList("facilities", "vendors", "schedules"));
+        tables.put("marketing", Arrays.asList("campaigns", "leads", "segments"));
+        tables.put("hr", Arrays.asList("employees", "salaries"));
+        tables.put("sales", Arrays.asList("prospects", "orders", "forecasts")); // security zone
+
+        RangerPluginConfig cachedPluginConfig = new RangerPluginConfig(testCase.policies.getServiceDef().getName(), testCase.policies.getServiceName(), "hive", "cl1", "on-prem", peOptions);
+        RangerPluginConfig pluginConfig       = new RangerPluginConfig(testCase.policies.getServiceDef().getName(), testCase.policies.getServiceName(), "hive", "cl1", "on-prem", peOptions);
+
+        cachedPluginConfig.setBoolean(cachedPluginConfig.getPropertyPrefix() + RangerDecisionCache.PROP_SUFFIX_DECISION_CACHE_ENABLED, true);
+
+        RangerBasePlugin cachedPlugin = new RangerBasePlugin(cachedPluginConfig, testCase.policies, testCase.tags, testCase.roles, testCase.userStore, null);
+        RangerBasePlugin plugin       = new RangerBasePlugin(pluginConfig, testCase.policies, testCase.tags, testCase.roles, testCase.userStore, null);
+
+        for (int i = 0; i < 2; i++) { // second iteration: results of cachedPlugin are from the decision cache
+            for (Map.Entry<String, List<String>> entry : tables.entrySet()) {
+                String database = entry.getKey();
+
+                for (String user : Arrays.asList("analyst", "res-user", "tag-user", "other-user")) {
+                    for (String accessType : Arrays.asList("select", RangerPolicyEngine.ANY_ACCESS)) {
+                        String                   testName        = database + ", user: " + user + ", access: " + accessType;
+                        List<RangerAccessResult> expected        = new ArrayList<>();
+                        List<String>             expectedAllowed = new ArrayList<>();
+
+                        for (String table : entry.getValue()) {
+                            RangerAccessResult result = plugin.isAccessAllowed(createHiveRequest(database, table, accessType, user));
+
+                            expected.add(result);
+
+                            if (result.getIsAllowed()) {
+                                expectedAllowed.add(table);
+                            }
+                        }
+
+                        for (RangerBasePlugin testPlugin : Arrays.asList(plugin, cachedPlugin)) {
+                            List<RangerAccessRequest> childRequests = new ArrayList<>();
+
+                            for (String table : entry.getValue()) {
+                                childRequests.add(createHiveRequest(database, table, accessType, user));
+                            }
+
+                            List<RangerAccessResult> results = new ArrayList<>(testPlugin.isAccessAllowedForChildren(createHiveRequest(database, null, accessType, user), "table", childRequests, null));
+
+                            assertEquals("result count mismatched! - " + testName, expected.size(), results.size());
+
+                            for (int j = 0; j < expected.size(); j++) {
+                                String childTestName = testName + ", table: " + entry.getValue().get(j);
+
+                                assertResultEquals(childTestName, expected.get(j), results.get(j));
+                                assertSame("result has a different request! - " + childTestName, childRequests.get(j), results.get(j).getAccessRequest());
+                            }
+
+                            assertEquals("allowed children mismatched! - " + testName, expectedAllowed, testPlugin.getAllowedChildren(createHiveRequest(database, null, accessType, user), "table", entry.getValue(), null));
+                        }
+
+                        // decisions cached by isAccessAllowedForChildren() are used for single requests as well
+                        for (int j = 0; j < expected.size(); j++) {
+                            assertResultEquals(testName + ", table: " + entry.getValue().get(j), expected.get(j), cachedPlugin.isAccessAllowed(createHiveRequest(database, entry.getValue().get(j), accessType, user)));
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<String, Object> metrics = (Map<String, Object>) cachedPlugin.getDecisionCacheMetrics().getData().get("decisionCache");
+
+        assertTrue("expected decision cache hits: " + metrics, (Long) metrics.get("hitCount") > 0);
+    }
+
     private void runTestsFromResourceFile(String resourceFile) throws Exception {
         InputStream       inStream = this.getClass().getResourceAsStream(resourceFile);
         InputStreamReader reader   = new InputStreamReader(inStream);
@@ -131,6 +380,117 @@ private void runTests(Reader reader, String testName) throws Exception {
         }
     }
 
+    private RangerBasePlugin createHdfsPlugin(RangerPolicy tagPolicy, RangerPolicy... policies) throws Exception {
+        RangerServiceDef serviceDef  = EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef(EmbeddedServiceDefsUtil.EMBEDDED_SERVICEDEF_HDFS_NAME);
+        ServicePolicies  svcPolicies = new ServicePolicies();
+
+        svcPolicies.setServiceName("dev_hdfs");
+        svcPolicies.setServiceDef(serviceDef);
+        svcPolicies.setPolicyVersion(1L);
+        svcPolicies.setPolicies(new ArrayList<>(Arrays.asList(policies)));
+
+        if (tagPolicy != null) {
+            RangerServiceDef            tagServiceDef = EmbeddedServiceDefsUtil.instance().getEmbeddedServiceDef(EmbeddedServiceDefsUtil.EMBEDDED_SERVICEDEF_TAG_NAME);
+            ServicePolicies.TagPolicies tagPolicies   = new ServicePolicies.TagPolicies();
+
+            for (RangerServiceDef.RangerAccessTypeDef accessTypeDef : serviceDef.getAccessTypes()) {
+                tagServiceDef.getAccessTypes().add(new RangerServiceDef.RangerAccessTypeDef(accessTypeDef.getItemId(), serviceDef.getName() + ":" + accessTypeDef.getName(), accessTypeDef.getLabel(), null, null));
+            }
+
+            tagPolicies.setServiceName("dev_tag");
+            tagPolicies.setServiceDef(tagServiceDef);
+            tagPolicies.setPolicyVersion(1L);
+            tagPolicies.setPolicies(Collections.singletonList(tagPolicy));
+
+            svcPolicies.setTagPolicies(tagPolicies);
+        }
+
+        RangerPluginConfig pluginConfig = new RangerPluginConfig(serviceDef.getName(), svcPolicies.getServiceName(), "hdfs", "cl1", "on-prem", peOptions);
+
+        return new RangerBasePlugin(pluginConfig, svcPolicies, null, null, null, null);
+    }
+
+    private RangerPolicy createHdfsPolicy(Long id, String path, boolean isRecursive) {
+        RangerPolicy ret = new RangerPolicy();
+
+        ret.setId(id);
+        ret.setName("policy-" + id);
+        ret.setService("dev_hdfs");
+        ret.setResources(Collections.singletonMap("path", new RangerPolicyResource(path, false, isRecursive)));
+
+        return ret;
+    }
+
+    private RangerPolicyItem createPolicyItem(String user, String... accessTypes) {
+        List<RangerPolicyItemAccess> accesses = new ArrayList<>();
+
+        for (String accessType : accessTypes) {
+            accesses.add(new RangerPolicyItemAccess(accessType));
+        }
+
+        return new RangerPolicyItem(accesses, Collections.singletonList(user), null, null, null, false);
+    }
+
+    private RangerAccessRequest createHdfsRequest(String path, String accessType) {
+        return createHdfsRequest(path, accessType, "user1");
+    }
+
+    private RangerAccessRequest createHdfsRequest(String path, String accessType, String user) {
+        Map<String, Object> elements = new HashMap<>();
+
+        elements.put("path", path);
+
+        return new RangerAccessRequestImpl(new RangerAccessResourceImpl(elements), accessType, user, Collections.emptySet(), null);
+    }
+
+    private RangerPolicy createHivePolicy(Long id, String database, String table, String column) {
+        RangerPolicy                      ret       = new RangerPolicy();
+        Map<String, RangerPolicyResource> resources = new HashMap<>();
+
+        resources.put("database", new RangerPolicyResource(database));
+        resources.put("table", new RangerPolicyResource(table));
+
+        if (column != null) {
+            resources.put("column", new RangerPolicyResource(column));
+        }
+
+        ret.setId(id);
+        ret.setName("policy-" + id);
+        ret.setResources(resources);
+
+        return ret;
+    }
+
+    private RangerAccessRequest createHiveRequest(String database, String table, String accessType, String user) {
+        Map<String, Object> elements = new HashMap<>();
+
+        elements.put("database", database);
+
+        if (table != null) {
+            elements.put("table", table);
+        }
+
+        return new RangerAccessRequestImpl(new RangerAccessResourceImpl(elements), accessType, user, Collections.emptySet(), null);
+    }
+
+    private void assertResultEquals(String testName, RangerAccessResult expected, RangerAccessResult result) {
+        assertNotNull("result was null! - " + testName, result);
+        assertEquals("isAllowed mismatched! - " + testName, expected.getIsAllowed(), result.getIsAllowed());
+        assertEquals("isAccessDetermined mismatched! - " + testName, expected.getIsAccessDetermined(), result.getIsAccessDetermined());
+        assertEquals("policyId mismatched! - " + testName, expected.getPolicyId(), result.getPolicyId());
+        assertEquals("isAudited mismatched! - " + testName, expected.getIsAudited(), result.getIsAudited());
+        assertEquals("isAuditedDetermined mismatched! - " + testName, expected.getIsAuditedDetermined(), result.getIsAuditedDetermined());
+    }
+
+    private RangerAccessRequest copyOf(RangerAccessRequest request) {
+        RangerAccessRequestImpl ret = new RangerAccessRequestImpl(request);
+
+        ret.setContext(new HashMap<>(request.getContext()));
+        ret.setUserRoles(request.getUserRoles() != null ? new HashSet<>(request.getUserRoles()) : null);
+
+        return ret;
+    }
+
     private RangerBasePluginTestCase readTestCase(Reader reader) throws Exception {
         RangerBasePluginTestCase testCase = gsonBuilder.fromJson(reader, RangerBasePluginTestCase.class);
 
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.ranger.authorization.utils.JsonUtils;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.util.ServicePolicies.SecurityZoneInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RangerCacheFileUtilTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testBinaryFormat() throws Exception {
+        ServicePolicies policies   = createPolicies(500);
+        File            jsonFile   = new File(tempFolder.newFolder(), "hive_dev_hive" + RangerCacheFileUtil.getFileExtension(false));
+        File            binaryFile = new File(tempFolder.newFolder(), "hive_dev_hive" + RangerCacheFileUtil.getFileExtension(true));
+
+        assertTrue(binaryFile.getName().endsWith(".smile"));
+
+        RangerCacheFileUtil.writeValue(jsonFile, policies, JsonUtils.getMapper(), false);
+        RangerCacheFileUtil.writeValue(binaryFile, policies, JsonUtils.getMapper(), true);
+
+        assertTrue("binary file should be smaller: json=" + jsonFile.length() + ", binary=" + binaryFile.length(), binaryFile.length() < jsonFile.length());
+
+        for (File file : new File[] {jsonFile, binaryFile}) {
+            ServicePolicies loaded = RangerCacheFileUtil.readValue(file, ServicePolicies.class, JsonUtils.getMapper());
+
+            assertNotNull(loaded);
+            assertEquals(policies.getServiceName(), loaded.getServiceName());
+            assertEquals(policies.getPolicyVersion(), loaded.getPolicyVersion());
+            assertEquals(policies.getPolicies().size(), loaded.getPolicies().size());
+            assertEquals(policies.getPolicies().get(499).getResources(), loaded.getPolicies().get(499).getResources());
+        }
+    }
+
+    @Test
+    public void testBinaryFormatWithSecurityZones() throws Exception {
+        ServicePolicies               policies      = createPolicies(10);
+        Map<String, SecurityZoneInfo> securityZones = new HashMap<>();
+
+        for (int i = 0; i < 3; i++) {
+            SecurityZoneInfo zone = new SecurityZoneInfo();
+
+            zone.setZoneName("zone-" + i);
+            zone.setPolicies(createPolicies(20 + i).getPolicies());
+
+            securityZones.put(zone.getZoneName(), zone);
+        }
+
+        policies.setSecurityZones(securityZones);
+
+        File file = new File(tempFolder.getRoot(), "hive_dev_hive.smile");
+
+        RangerCacheFileUtil.writeValue(file, policies, JsonUtils.getMapper(), true);
+
+        ServicePolicies loaded = RangerCacheFileUtil.readValue(file, ServicePolicies.class, JsonUtils.getMapper());
+
+        assertNotNull(loaded);
+        assertEquals(policies.getPolicies().size(), loaded.getPolicies().size());
+        assertEquals(securityZones.keySet(), loaded.getSecurityZones().keySet());
+
+        for (int i = 0; i < 3; i++) {
+            SecurityZoneInfo zone = loaded.getSecurityZones().get("zone-" + i);
+
+            assertEquals("zone-" + i, zone.getZoneName());
+            assertEquals(20 + i, zone.getPolicies().size());
+        }
+    }
+
+    @Test
+    public void testFallbackToFileInOtherFormat() throws Exception {
+        ServicePolicies policies   = createPolicies(5);
+        File            jsonFile   = new File(tempFolder.getRoot(), "hive_dev_hive.json");
+        File            binaryFile = new File(tempFolder.getRoot(), "hive_dev_hive.smile");
+
+        RangerCacheFileUtil.writeValue(jsonFile, policies, JsonUtils.getMapper(), false);
+
+        // binary format enabled after the cache file was written in JSON
+        assertEquals(jsonFile, RangerCacheFileUtil.findCacheFile(binaryFile));
+        assertEquals(policies.getPolicyVersion(), RangerCacheFileUtil.readValue(RangerCacheFileUtil.findCacheFile(binaryFile), ServicePolicies.class, JsonUtils.getMapper()).getPolicyVersion());
+
+        // writing in binary format removes the JSON file, so that it isn't read after the setting is reverted
+        RangerCacheFileUtil.writeValue(binaryFile, policies, JsonUtils.getMapper(), true);
+
+        assertFalse(jsonFile.exists());
+        assertEquals(binaryFile, RangerCacheFileUtil.findCacheFile(jsonFile));
+        assertEquals(binaryFile, RangerCacheFileUtil.findCacheFile(binaryFile));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedFormatVersion() throws Exception {
+        File file = tempFolder.newFile("hive_dev_hive.smile");
+
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {'R', 'N', 'G', 'R', 'C', 'F', RangerCacheFileUtil.BINARY_FORMAT_VERSION + 1});
+        }
+
+        RangerCacheFileUtil.readValue(file, ServicePolicies.class, JsonUtils.getMapper());
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        File file = tempFolder.newFile("hive_dev_hive.json");
+
+        assertNull(RangerCacheFileUtil.readValue(file, ServicePolicies.class, JsonUtils.getMapper()));
+    }
+
+    private static ServicePolicies createPolicies(int count) {
+        ServicePolicies    ret      = new ServicePolicies();
+        List<RangerPolicy> policies = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            RangerPolicy policy = new RangerPolicy();
+
+            policy.setId((long) i);
+            policy.setName("policy-" + i);
+            policy.setService("dev_hive");
+            policy.setResources(Collections.singletonMap("database", new RangerPolicyResource("db_" + i)));
+
+            policies.add(policy);
+        }
+
+        ret.setServiceName("dev_hive");
+        ret.setPolicyVersion(42L);
+        ret.setPolicies(policies);
+
+        return ret;
+    }
+}
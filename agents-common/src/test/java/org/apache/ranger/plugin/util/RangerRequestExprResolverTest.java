@@ -29,6 +29,7 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -37,6 +38,9 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -113,6 +117,32 @@ public void testRequestAttributes() {
         }
     }
 
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        RangerRequestExprResolver resolver = new RangerRequestExprResolver("user == '${{USER._name}}' AND state == '${{USER.state}}'", null);
+        ExecutorService           executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+
+            for (int i = 0; i < 200; i++) {
+                RangerAccessRequestImpl request  = (RangerAccessRequestImpl) createRequest(null);
+                String                  userName = (i % 2 == 0) ? "test-user" : ("user" + i);
+                String                  expected = "user == '" + userName + "' AND state == '" + ("test-user".equals(userName) ? "CA" : "") + "'";
+
+                request.setUser(userName);
+
+                results.add(executor.submit(() -> expected.equals(resolver.resolveExpressions(request))));
+            }
+
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     RangerAccessRequest createRequest(List<String> resourceTags) {
         RangerAccessResource resource = mock(RangerAccessResource.class);
 
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.plugin.util;
+
+import org.apache.ranger.plugin.model.RangerRole;
+import org.apache.ranger.plugin.model.RangerRole.RoleMember;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngine;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RangerRolesUtilTest {
+    @Test
+    public void testRolesForUserAndGroups() {
+        RangerRolesUtil rolesUtil = new RangerRolesUtil(createRoles());
+
+        // nested roles: members of role 'engineers' are members of 'staff', which contains 'engineers'
+        assertEquals(toSet("staff", "engineers", "everyone"), rolesUtil.getRolesForUserAndGroups("user1", toSet("dev")));
+        assertEquals(toSet("staff", "admins", "everyone"), rolesUtil.getRolesForUserAndGroups("admin1", toSet("unknown")));
+        assertEquals(toSet("staff", "engineers", "testers", "everyone"), rolesUtil.getRolesForUserAndGroups(null, toSet("dev", "qa")));
+        assertEquals(toSet("everyone"), rolesUtil.getRolesForUserAndGroups("user2", null));
+        assertEquals(toSet("everyone"), rolesUtil.getRolesForUserAndGroups("", Collections.emptySet()));
+    }
+
+    @Test
+    public void testRolesForGroupsAreMemoized() {
+        RangerRolesUtil rolesUtil = new RangerRolesUtil(createRoles());
+        Set<String>     groups    = toSet("dev", "qa", "unknown");
+        Set<String>     roles     = rolesUtil.getRolesForGroups(groups);
+
+        assertSame(roles, rolesUtil.getRolesForGroups(toSet("qa", "unknown", "dev")));
+
+        groups.remove("qa"); // the memo must not be affected by changes to the set passed by the caller
+
+        assertEquals(toSet("staff", "engineers", "everyone"), rolesUtil.getRolesForGroups(groups));
+        assertEquals(toSet("staff", "engineers", "testers", "everyone"), rolesUtil.getRolesForGroups(toSet("dev", "qa", "unknown")));
+
+        Set<String> userRoles = rolesUtil.getRolesForUserAndGroups("admin1", toSet("dev", "qa", "unknown"));
+
+        userRoles.add("other"); // returned set is owned by the caller
+
+        assertTrue(!rolesUtil.getRolesForGroups(toSet("dev", "qa", "unknown")).contains("other"));
+    }
+
+    @Test
+    public void testNoRoles() {
+        RangerRolesUtil rolesUtil = new RangerRolesUtil(null);
+
+        assertEquals(-1L, rolesUtil.getRoleVersion());
+        assertTrue(rolesUtil.getRolesForUserAndGroups("user1", toSet("dev")).isEmpty());
+    }
+
+    private static RangerRoles createRoles() {
+        RangerRole  staff     = new RangerRole("staff", null, null, members("admin1"), null, members("engineers"));
+        RangerRole  engineers = new RangerRole("engineers", null, null, members("user1"), members("dev"), null);
+        RangerRole  testers   = new RangerRole("testers", null, null, null, members("qa"), null);
+        RangerRole  admins    = new RangerRole("admins", null, null, members("admin1"), null, null);
+        RangerRole  everyone  = new RangerRole("everyone", null, null, null, members(RangerPolicyEngine.GROUP_PUBLIC), null);
+        RangerRoles ret       = new RangerRoles();
+
+        ret.setRoleVersion(1L);
+        ret.setRangerRoles(new HashSet<>(Arrays.asList(staff, engineers, testers, admins, everyone)));
+
+        return ret;
+    }
+
+    private static List<RoleMember> members(String... names) {
+        RoleMember[] ret = new RoleMember[names.length];
+
+        for (int i = 0; i < names.length; i++) {
+            ret[i] = new RoleMember(names[i], false);
+        }
+
+        return Arrays.asList(ret);
+    }
+
+    private static Set<String> toSet(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
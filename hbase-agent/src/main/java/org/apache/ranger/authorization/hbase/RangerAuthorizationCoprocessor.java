@@ -161,9 +161,10 @@ public class RangerAuthorizationCoprocessor implements AccessControlService.Inte
     final HbaseUserUtils userUtils = factory.getUserUtils();
     final HbaseAuthUtils authUtils = factory.getAuthUtils();
 
-    private UserProvider                       userProvider;
-    private RegionCoprocessorEnvironment       regionEnv;
-    private final Map<InternalScanner, String> scannerOwners = new MapMaker().weakKeys().makeMap();
+    private UserProvider                                          userProvider;
+    private RegionCoprocessorEnvironment                          regionEnv;
+    private final Map<InternalScanner, String>                    scannerOwners  = new MapMaker().weakKeys().makeMap();
+    private final Map<InternalScanner, RangerAuthorizationFilter> scannerFilters = new MapMaker().weakKeys().makeMap();
 
     /**
      * if we should check EXEC permissions
@@ -485,6 +486,15 @@ public void preGetOp(final ObserverContext<RegionCoprocessorEnvironment> rEnv, f
         }
     }
 
+    @Override
+    public void postGetOp(final ObserverContext<RegionCoprocessorEnvironment> rEnv, final Get get, final List<Cell> result) {
+        RangerAuthorizationFilter filter = getAuthorizationFilter(get.getFilter());
+
+        if (filter != null) {
+            filter.flushAudits();
+        }
+    }
+
     @Override
     public boolean preExists(ObserverContext<RegionCoprocessorEnvironment> c, Get get, boolean exists) throws IOException {
         requirePermission(c, "exists", TablePermission.Action.READ, c.getEnvironment(), get.familySet());
@@ -577,6 +587,12 @@ public RegionScanner postScannerOpen(ObserverContext<RegionCoprocessorEnvironmen
             scannerOwners.put(s, user.getShortName());
         }
 
+        RangerAuthorizationFilter filter = getAuthorizationFilter(scan.getFilter());
+
+        if (filter != null) { // audits are aggregated by the filter until the scanner is closed
+            scannerFilters.put(s, filter);
+        }
+
         return s;
     }
 
@@ -595,6 +611,12 @@ public void preScannerClose(ObserverContext<RegionCoprocessorEnvironment> c, Int
     @Override
     public void postScannerClose(ObserverContext<RegionCoprocessorEnvironment> c, InternalScanner s) {
         scannerOwners.remove(s);
+
+        RangerAuthorizationFilter filter = scannerFilters.remove(s);
+
+        if (filter != null) {
+            filter.flushAudits();
+        }
     }
 
     @Override
@@ -1322,6 +1344,24 @@ Filter combineFilters(Filter filter, Filter existingFilter) {
         return combinedFilter;
     }
 
+    RangerAuthorizationFilter getAuthorizationFilter(Filter filter) {
+        RangerAuthorizationFilter ret = null;
+
+        if (filter instanceof RangerAuthorizationFilter) {
+            ret = (RangerAuthorizationFilter) filter;
+        } else if (filter instanceof FilterList) { // see combineFilters()
+            for (Filter f : ((FilterList) filter).getFilters()) {
+                if (f instanceof RangerAuthorizationFilter) {
+                    ret = (RangerAuthorizationFilter) f;
+
+                    break;
+                }
+            }
+        }
+
+        return ret;
+    }
+
     void requirePermission(final ObserverContext<?> ctx, final String operation, final Action action, final RegionCoprocessorEnvironment regionServerEnv, final Map<byte[], ? extends Collection<?>> familyMap) throws AccessDeniedException {
         RangerPerfTracer perf = null;
 
@@ -28,13 +28,19 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class RangerAuthorizationFilter extends FilterBase {
     private static final Logger LOG = LoggerFactory.getLogger(RangerAuthorizationFilter.class.getName());
 
+    static final int MAX_COLUMN_DECISIONS = 10000;
+
     final Set<String>              familiesAccessAllowed;
     final Set<String>              familiesAccessDenied;
     final Set<String>              familiesAccessIndeterminate;
@@ -43,6 +49,9 @@ public class RangerAuthorizationFilter extends FilterBase {
     final AuthorizationSession     session;
     final HbaseAuditHandler        auditHandler = HbaseFactory.getInstance().getAuditHandler();
 
+    private final Map<ColumnKey, ColumnDecision> columnDecisions = new LinkedHashMap<>();
+    private final ColumnKey                      lookupKey       = new ColumnKey();
+
     public RangerAuthorizationFilter(AuthorizationSession session, Set<String> familiesAccessAllowed, Set<String> familiesAccessDenied, Set<String> familiesAccessIndeterminate, Map<String, Set<String>> columnsAccessAllowed, Set<String> familiesFullyAuthorized) {
         // the class assumes that all of these can be empty but none of these can be null
         this.familiesAccessAllowed       = familiesAccessAllowed;
@@ -62,6 +71,62 @@ public RangerAuthorizationFilter(AuthorizationSession session, Set<String> famil
     public ReturnCode filterKeyValue(Cell kv) {
         LOG.debug("==> filterKeyValue");
 
+        // decision for a family/column doesn't change during the scan; lookup using the bytes in the cell, without copying them
+        lookupKey.set(kv);
+
+        ColumnDecision decision = columnDecisions.get(lookupKey);
+        ReturnCode     result;
+
+        if (decision != null) {
+            result = decision.returnCode;
+
+            if (decision.auditEvent != null) {
+                decision.accessCount++;
+            }
+        } else {
+            decision = evaluate(kv);
+            result   = decision.returnCode;
+
+            if (columnDecisions.size() < MAX_COLUMN_DECISIONS) {
+                columnDecisions.put(lookupKey.copy(), decision);
+            } else if (decision.auditEvent != null) { // too many distinct columns in this scan; audit right away instead of aggregating
+                auditHandler.logAuthzAudits(Collections.singletonList(decision.auditEvent));
+            }
+        }
+
+        LOG.debug("filterKeyValue: {}", result);
+
+        return result;
+    }
+
+    /**
+     * Logs one audit event for each family/column accessed since the last call, with the number of times it was accessed.
+     * To be called when the scan, or the get, using this filter completes.
+     */
+    public void flushAudits() {
+        LOG.debug("==> flushAudits(): columnCount={}", columnDecisions.size());
+
+        List<AuthzAuditEvent> auditEvents = new ArrayList<>();
+
+        for (ColumnDecision decision : columnDecisions.values()) {
+            if (decision.auditEvent != null && decision.accessCount > 0) {
+                decision.auditEvent.setEventCount(decision.accessCount);
+
+                auditEvents.add(decision.auditEvent);
+
+                decision.auditEvent  = null; // rest of the accesses will not be audited, since this decision is no longer evaluated
+                decision.accessCount = 0;
+            }
+        }
+
+        if (!auditEvents.isEmpty()) {
+            auditHandler.logAuthzAudits(auditEvents);
+        }
+
+        LOG.debug("<== flushAudits(): auditEventCount={}", auditEvents.size());
+    }
+
+    private ColumnDecision evaluate(Cell kv) {
         String family      = null;
         byte[] familyBytes = CellUtil.cloneFamily(kv);
 
@@ -82,8 +147,9 @@ public ReturnCode filterKeyValue(Cell kv) {
             LOG.warn("filterKeyValue: empty/null column set! Unexpected!");
         }
 
-        ReturnCode result          = ReturnCode.NEXT_COL;
-        boolean    authCheckNeeded = false;
+        ReturnCode      result          = ReturnCode.NEXT_COL;
+        AuthzAuditEvent allowedEvent    = null;
+        boolean         authCheckNeeded = false;
 
         if (family == null) {
             LOG.warn("filterKeyValue: Unexpected - null/empty family! Access denied!");
@@ -134,7 +200,7 @@ public ReturnCode filterKeyValue(Cell kv) {
                 if (auditEvent != null) {
                     LOG.debug("filterKeyValue: access is audited.");
 
-                    auditHandler.logAuthzAudits(Collections.singletonList(auditEvent));
+                    allowedEvent = auditEvent;
                 } else {
                     LOG.debug("filterKeyValue: no audit event returned.  Access not audited.");
                 }
@@ -143,9 +209,7 @@ public ReturnCode filterKeyValue(Cell kv) {
             }
         }
 
-        LOG.debug("filterKeyValue: {}", result);
-
-        return result;
+        return new ColumnDecision(result, allowedEvent);
     }
 
     @Override
@@ -157,4 +221,71 @@ public String toString() {
                 .add("columnsAccessAllowed", columnsAccessAllowed)
                 .toString();
     }
+
+    private static class ColumnDecision {
+        final ReturnCode returnCode;
+        AuthzAuditEvent  auditEvent;
+        long             accessCount;
+
+        ColumnDecision(ReturnCode returnCode, AuthzAuditEvent auditEvent) {
+            this.returnCode  = returnCode;
+            this.auditEvent  = auditEvent;
+            this.accessCount = auditEvent != null ? 1 : 0;
+        }
+    }
+
+    /*
+     * family/column of a cell, as a range of bytes in the cell's arrays; copy() returns a key that owns its bytes
+     */
+    private static class ColumnKey {
+        private byte[] family;
+        private int    familyOffset;
+        private int    familyLength;
+        private byte[] qualifier;
+        private int    qualifierOffset;
+        private int    qualifierLength;
+        private int    hashCode;
+
+        void set(Cell cell) {
+            set(cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength());
+        }
+
+        ColumnKey copy() {
+            ColumnKey ret = new ColumnKey();
+
+            ret.set(Arrays.copyOfRange(family, familyOffset, familyOffset + familyLength), 0, familyLength, Arrays.copyOfRange(qualifier, qualifierOffset, qualifierOffset + qualifierLength), 0, qualifierLength);
+
+            return ret;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (!(obj instanceof ColumnKey)) {
+                return false;
+            }
+
+            ColumnKey other = (ColumnKey) obj;
+
+            return hashCode == other.hashCode &&
+                    Bytes.equals(family, familyOffset, familyLength, other.family, other.familyOffset, other.familyLength) &&
+                    Bytes.equals(qualifier, qualifierOffset, qualifierLength, other.qualifier, other.qualifierOffset, other.qualifierLength);
+        }
+
+        private void set(byte[] family, int familyOffset, int familyLength, byte[] qualifier, int qualifierOffset, int qualifierLength) {
+            this.family          = family;
+            this.familyOffset    = familyOffset;
+            this.familyLength    = familyLength;
+            this.qualifier       = qualifier;
+            this.qualifierOffset = qualifierOffset;
+            this.qualifierLength = qualifierLength;
+            this.hashCode        = 31 * Bytes.hashCode(family, familyOffset, familyLength) + Bytes.hashCode(qualifier, qualifierOffset, qualifierLength);
+        }
+    }
 }
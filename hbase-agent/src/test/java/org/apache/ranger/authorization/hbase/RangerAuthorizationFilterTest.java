@@ -32,6 +32,8 @@
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RangerAuthorizationFilterTest {
@@ -97,6 +99,32 @@ public void testFilterKeyValueCell_happyPath() throws IOException {
         }
     }
 
+    @Test
+    public void testFilterKeyValueCell_decisionIsMemoized() {
+        Set<String>               familiesAccessAllowed = ImmutableSet.of("family1");
+        AuthorizationSession      session               = createSessionMock();
+        RangerAuthorizationFilter filter                = new RangerAuthorizationFilter(session, familiesAccessAllowed, new HashSet<>(), new HashSet<>(), new HashMap<>(), new HashSet<>());
+        Cell                      aCell                 = mock(Cell.class);
+
+        when(session.isAuthorized()).thenReturn(true);
+
+        for (int i = 0; i < 5; i++) {
+            // family/column bytes at different offsets in the cell's arrays must be treated as same column
+            setFamilyArray(aCell, ("xx".substring(0, i % 2) + "family1").getBytes(), i % 2);
+            setQualifierArray(aCell, "column1".getBytes());
+            assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(aCell));
+        }
+
+        verify(session, times(1)).authorize();
+
+        setQualifierArray(aCell, "column2".getBytes());
+        assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(aCell));
+
+        verify(session, times(2)).authorize();
+
+        filter.flushAudits();
+    }
+
     AuthorizationSession createSessionMock() {
         AuthorizationSession session = mock(AuthorizationSession.class);
         when(session.column(anyString())).thenReturn(session);
@@ -113,9 +141,13 @@ AuthorizationSession createSessionMock() {
     }
 
     private void setFamilyArray(Cell aCell, byte[] familyArray) {
+        setFamilyArray(aCell, familyArray, 0);
+    }
+
+    private void setFamilyArray(Cell aCell, byte[] familyArray, int offset) {
         when(aCell.getFamilyArray()).thenReturn(familyArray);
-        when(aCell.getFamilyLength()).thenReturn((byte) familyArray.length);
-        when(aCell.getFamilyOffset()).thenReturn(0);
+        when(aCell.getFamilyLength()).thenReturn((byte) (familyArray.length - offset));
+        when(aCell.getFamilyOffset()).thenReturn(offset);
     }
 
     private void setQualifierArray(Cell aCell, byte[] qualifierArray) {
@@ -395,7 +395,11 @@ private void checkRangerPermission(String fsOwner, String superGroup, UserGroupI
                             AuthzStatus subDirAuthStatus             = AuthzStatus.NOT_DETERMINED;
                             boolean     optimizeSubAccessAuthEnabled = plugin.isOptimizeSubAccessAuthEnabled();
 
-                            if (optimizeSubAccessAuthEnabled) {
+                            if (plugin.isSubtreeSubAccessAuthEnabled()) {
+                                subDirAuthStatus = isAccessAllowedForSubtree(data.resourcePath, subAccess, context);
+                            }
+
+                            if (subDirAuthStatus != AuthzStatus.ALLOW && optimizeSubAccessAuthEnabled) {
                                 subDirAuthStatus = isAccessAllowedForHierarchy(data.dir, dirAttribs, data.resourcePath, subAccess, context);
                             }
 
@@ -760,6 +764,41 @@ private AuthzStatus isAccessAllowedForHierarchy(INode inode, INodeAttributes ino
         return ret;
     }
 
+    /*
+     * Returns ALLOW if policies allow the access for every file and directory under the given path, without having to check each of them
+     */
+    private AuthzStatus isAccessAllowedForSubtree(String path, FsAction access, AuthzContext context) {
+        AuthzStatus ret = AuthzStatus.NOT_DETERMINED;
+
+        if (RangerHadoopConstants.HDFS_ROOT_FOLDER_PATH_ALT.equals(path)) {
+            path = HDFS_ROOT_FOLDER_PATH;
+        }
+
+        LOG.debug("==> RangerAccessControlEnforcer.isAccessAllowedForSubtree({}, {}, {})", path, access, context.user);
+
+        Set<String> accessTypes = ACCESS_TO_ACTIONS.get(access);
+
+        if (path != null && accessTypes != null && !accessTypes.isEmpty()) {
+            RangerHdfsAccessRequest request = new RangerHdfsAccessRequest(null, path, null, access, accessTypes.iterator().next(), context.operationName, context.user, context.userGroups);
+
+            if (accessTypes.size() > 1) {
+                RangerAccessRequestUtil.setAllRequestedAccessTypes(request.getContext(), accessTypes);
+
+                if (accessTypes.contains(EXECUTE_ACCCESS_TYPE)) {
+                    RangerAccessRequestUtil.setIgnoreIfNotDeniedAccessTypes(request.getContext(), ACCESS_TO_ACTIONS.get(FsAction.EXECUTE));
+                }
+            }
+
+            if (plugin.isAccessAllowedForAllDescendants(request)) {
+                ret = AuthzStatus.ALLOW;
+            }
+        }
+
+        LOG.debug("<== RangerAccessControlEnforcer.isAccessAllowedForSubtree({}, {}, {}): {}", path, access, context.user, ret);
+
+        return ret;
+    }
+
     public enum AuthzStatus { ALLOW, DENY, NOT_DETERMINED }
 
     /*
@@ -43,6 +43,7 @@ public class RangerHdfsPlugin extends RangerBasePlugin {
     private final String      hadoopModuleName;
     private final Set<String> excludeUsers = new HashSet<>();
     private final boolean     useLegacySubAccessAuthorization;
+    private final boolean     subtreeSubAccessAuthEnabled;
 
     public RangerHdfsPlugin(Path addlConfigFile) {
         super("hdfs", "hdfs");
@@ -69,6 +70,7 @@ public RangerHdfsPlugin(Path addlConfigFile) {
         String excludeUserList = config.get(RangerHadoopConstants.AUDITLOG_HDFS_EXCLUDE_LIST_PROP, RangerHadoopConstants.AUDITLOG_EMPTY_STRING);
 
         this.useLegacySubAccessAuthorization = config.getBoolean(RangerHadoopConstants.RANGER_USE_LEGACY_SUBACCESS_AUTHORIZATION_PROP, RangerHadoopConstants.RANGER_USE_LEGACY_SUBACCESS_AUTHORIZATION_DEFAULT);
+        this.subtreeSubAccessAuthEnabled     = config.getBoolean(RangerHadoopConstants.RANGER_SUBTREE_SUBACCESS_AUTHORIZATION_PROP, RangerHadoopConstants.RANGER_SUBTREE_SUBACCESS_AUTHORIZATION_DEFAULT);
 
         if (excludeUserList != null && !excludeUserList.trim().isEmpty()) {
             for (String excludeUser : excludeUserList.trim().split(",")) {
@@ -99,6 +101,10 @@ public boolean isOptimizeSubAccessAuthEnabled() {
         return optimizeSubAccessAuthEnabled;
     }
 
+    public boolean isSubtreeSubAccessAuthEnabled() {
+        return subtreeSubAccessAuthEnabled;
+    }
+
     public String getRandomizedWildcardPathName() {
         return randomizedWildcardPathName;
     }
@@ -87,6 +87,9 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -1115,6 +1118,12 @@ public List<HivePrivilegeObject> filterListCmdObjects(List<HivePrivilegeObject>
                 ret = new ArrayList<>(objs.size());
             }
 
+            // objects are evaluated in groups of same parent - like tables of a database - so that policies under the parent are looked up once
+            Map<String, List<HivePrivilegeObject>> objsByParent     = new LinkedHashMap<>();
+            Map<String, List<RangerAccessRequest>> requestsByParent = new HashMap<>();
+            Map<String, RangerHiveAccessRequest>   parentRequests   = new HashMap<>();
+            Set<HivePrivilegeObject>               allowedObjs      = Collections.newSetFromMap(new IdentityHashMap<>());
+
             for (HivePrivilegeObject privilegeObject : objs) {
                 if (LOG.isDebugEnabled()) {
                     HivePrivObjectActionType actionType    = privilegeObject.getActionType();
@@ -1134,24 +1143,67 @@ public List<HivePrivilegeObject> filterListCmdObjects(List<HivePrivilegeObject>
                 if (resource == null) {
                     LOG.error("filterListCmdObjects: RangerHiveResource returned by createHiveResource is null");
                 } else {
-                    RangerHiveAccessRequest request = new RangerHiveAccessRequest(resource, user, groups, roles, context, sessionContext);
-                    RangerAccessResult      result  = hivePlugin.isAccessAllowed(request, auditHandler);
+                    RangerHiveAccessRequest request           = new RangerHiveAccessRequest(resource, user, groups, roles, context, sessionContext);
+                    String                  childResourceName = getChildResourceNameForFiltering(resource.getObjectType());
+                    String                  parentKey         = childResourceName == null ? null : (childResourceName + ":" + (childResourceName.equals(RangerHiveResource.KEY_DATABASE) ? "" : privilegeObject.getDbname()));
+
+                    if (parentKey == null) { // not a listing of children of a database; evaluate by itself
+                        parentKey = "#" + objsByParent.size();
+                    } else if (!parentRequests.containsKey(parentKey)) {
+                        String             dbName         = childResourceName.equals(RangerHiveResource.KEY_DATABASE) ? null : privilegeObject.getDbname();
+                        RangerHiveResource parentResource = new RangerHiveResource(HiveObjectType.DATABASE, dbName);
+
+                        parentRequests.put(parentKey, new RangerHiveAccessRequest(parentResource, user, groups, roles, context, sessionContext));
+                    }
+
+                    objsByParent.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(privilegeObject);
+                    requestsByParent.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(request);
+                }
+            }
+
+            for (Map.Entry<String, List<HivePrivilegeObject>> entry : objsByParent.entrySet()) {
+                String                         parentKey        = entry.getKey();
+                List<HivePrivilegeObject>      privilegeObjects = entry.getValue();
+                List<RangerAccessRequest>      requests         = requestsByParent.get(parentKey);
+                RangerHiveAccessRequest        parentRequest    = parentRequests.get(parentKey);
+                Collection<RangerAccessResult> results;
+
+                if (parentRequest != null) {
+                    String childResourceName = parentKey.substring(0, parentKey.indexOf(':'));
+
+                    results = hivePlugin.isAccessAllowedForChildren(parentRequest, childResourceName, requests, auditHandler);
+                } else {
+                    results = hivePlugin.isAccessAllowed(requests, auditHandler);
+                }
+
+                Iterator<RangerAccessResult> iterResults = results != null ? results.iterator() : Collections.emptyIterator();
+
+                for (int i = 0; i < privilegeObjects.size() && iterResults.hasNext(); i++) {
+                    HivePrivilegeObject privilegeObject = privilegeObjects.get(i);
+                    RangerAccessRequest request         = requests.get(i);
+                    RangerAccessResult  result          = iterResults.next();
 
                     if (result == null) {
                         LOG.error("filterListCmdObjects: Internal error: null RangerAccessResult object received back from isAccessAllowed()!");
                     } else if (!result.getIsAllowed()) {
                         if (LOG.isDebugEnabled()) {
-                            String path = resource.getAsString();
+                            String path = request.getResource().getAsString();
 
-                            LOG.debug("filterListCmdObjects: Permission denied: user [{}] does not have [{}] privilege on [{}]. resource[{}], request[{}], result[{}]", user, request.getHiveAccessType().name(), path, resource, request, result);
+                            LOG.debug("filterListCmdObjects: Permission denied: user [{}] does not have [{}] privilege on [{}]. resource[{}], request[{}], result[{}]", user, ((RangerHiveAccessRequest) request).getHiveAccessType().name(), path, request.getResource(), request, result);
                         }
                     } else {
-                        LOG.debug("filterListCmdObjects: access allowed. resource[{}], request[{}], result[{}]", resource, request, result);
+                        LOG.debug("filterListCmdObjects: access allowed. resource[{}], request[{}], result[{}]", request.getResource(), request, result);
 
-                        ret.add(privilegeObject);
+                        allowedObjs.add(privilegeObject);
                     }
                 }
             }
+
+            for (HivePrivilegeObject privilegeObject : objs) { // retain the order of objects
+                if (allowedObjs.contains(privilegeObject)) {
+                    ret.add(privilegeObject);
+                }
+            }
         }
 
         auditHandler.flushAudit();
@@ -1626,6 +1678,20 @@ private boolean addCellValueTransformerAndCheckIfTransformed(HiveAuthzContext co
         return ret;
     }
 
+    private String getChildResourceNameForFiltering(HiveObjectType objectType) {
+        switch (objectType) {
+            case DATABASE:
+                return RangerHiveResource.KEY_DATABASE;
+
+            case TABLE:
+            case VIEW:
+                return RangerHiveResource.KEY_TABLE;
+
+            default:
+                return null;
+        }
+    }
+
     private RangerHiveResource createHiveResourceForFiltering(HivePrivilegeObject privilegeObject, Map<String, String> objOwners) {
         RangerHiveResource      resource   = null;
         HivePrivilegeObjectType objectType = privilegeObject.getType();
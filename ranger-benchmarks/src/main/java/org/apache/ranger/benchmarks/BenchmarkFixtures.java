@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.ranger.authorization.hadoop.config.RangerPluginConfig;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItemAccess;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.model.RangerPolicyDelta;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.model.RangerServiceResource;
+import org.apache.ranger.plugin.model.RangerTag;
+import org.apache.ranger.plugin.model.RangerTagDef;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequestImpl;
+import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.apache.ranger.plugin.util.ServicePolicies.SecurityZoneInfo;
+import org.apache.ranger.plugin.util.ServiceTags;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds synthetic, but deterministic, policy/tag/request sets for the benchmarks.
+ *
+ * The hive service-def and policy shape come from the ranger-tools fixtures (copied into testdata/ at build time);
+ * only the number of policies, the share of wildcard resources, zones and tags vary with the benchmark parameters.
+ */
+public final class BenchmarkFixtures {
+    public static final String SERVICE_NAME        = "cl1_hive";
+    public static final String SERVICE_TYPE        = "hive";
+    public static final int    DATABASE_COUNT      = 100;
+    public static final int    TABLES_PER_DATABASE = 50;
+    public static final int    USER_COUNT          = 1000;
+    public static final int    GROUP_COUNT         = 100;
+
+    private static final String   SERVICE_POLICIES_FIXTURE = "/testdata/test_servicepolicies_hive.json";
+    private static final String[] ACCESS_TYPES             = {"select", "update", "create", "drop", "alter"};
+    private static final long     SEED                     = 0x5EEDL;
+
+    private BenchmarkFixtures() {
+        // to block instantiation
+    }
+
+    public static RangerServiceDef loadServiceDef() {
+        return loadServicePolicies().getServiceDef();
+    }
+
+    public static RangerPolicyEngineOptions createPolicyEngineOptions() {
+        RangerPolicyEngineOptions ret = new RangerPolicyEngineOptions();
+
+        ret.evaluatorType     = RangerPolicyEvaluator.EVALUATOR_TYPE_OPTIMIZED;
+        ret.cacheAuditResults = false;
+
+        return ret;
+    }
+
+    public static RangerPluginContext createPluginContext(RangerPolicyEngineOptions options) {
+        return new RangerPluginContext(new RangerPluginConfig(SERVICE_TYPE, SERVICE_NAME, "ranger-benchmarks", null, null, options));
+    }
+
+    /**
+     * @param policyCount     number of access policies to generate
+     * @param wildcardDensity fraction [0..1] of policies with wildcard database/table values
+     * @param zoneCount       number of security zones; databases are spread round-robin over the zones and the unzoned service
+     */
+    public static ServicePolicies createServicePolicies(int policyCount, double wildcardDensity, int zoneCount) {
+        ServicePolicies ret    = loadServicePolicies();
+        Random          random = new Random(SEED);
+
+        List<RangerPolicy>            servicePolicies = new ArrayList<>();
+        Map<String, SecurityZoneInfo> zones           = new HashMap<>();
+
+        for (int z = 0; z < zoneCount; z++) {
+            SecurityZoneInfo                    zone      = new SecurityZoneInfo();
+            HashMap<String, List<String>>       resource  = new HashMap<>();
+            List<HashMap<String, List<String>>> resources = new ArrayList<>();
+            List<String>                        databases = new ArrayList<>();
+
+            for (int db = 0; db < DATABASE_COUNT; db++) {
+                if (getZoneIndex(db, zoneCount) == z) {
+                    databases.add(getDatabaseName(db));
+                }
+            }
+
+            resource.put("database", databases);
+            resources.add(resource);
+
+            zone.setZoneName(getZoneName(z));
+            zone.setResources(resources);
+            zone.setPolicies(new ArrayList<>());
+            zone.setContainsAssociatedTagService(false);
+
+            zones.put(zone.getZoneName(), zone);
+        }
+
+        for (int i = 0; i < policyCount; i++) {
+            int          db     = random.nextInt(DATABASE_COUNT);
+            boolean      isWild = random.nextDouble() < wildcardDensity;
+            int          zone   = getZoneIndex(db, zoneCount);
+            RangerPolicy policy = createPolicy(i, db, isWild, random);
+
+            if (zone >= 0) {
+                policy.setZoneName(getZoneName(zone));
+
+                zones.get(policy.getZoneName()).getPolicies().add(policy);
+            } else {
+                servicePolicies.add(policy);
+            }
+        }
+
+        ret.setPolicies(servicePolicies);
+        ret.setSecurityZones(zones.isEmpty() ? null : zones);
+        ret.setPolicyVersion(1L);
+
+        return ret;
+    }
+
+    /**
+     * Returns policy-deltas updating deltaCount existing (unzoned) policies, with the given version.
+     */
+    public static ServicePolicies createPolicyDeltas(ServicePolicies base, int deltaCount, long policyVersion) {
+        ServicePolicies         ret      = new ServicePolicies();
+        List<RangerPolicyDelta> deltas   = new ArrayList<>();
+        List<RangerPolicy>      policies = base.getPolicies();
+        Random                  random   = new Random(SEED + policyVersion);
+
+        for (int i = 0; i < deltaCount && !policies.isEmpty(); i++) {
+            RangerPolicy existing = policies.get(random.nextInt(policies.size()));
+            RangerPolicy updated  = createPolicy(existing.getId(), random.nextInt(DATABASE_COUNT), false, random);
+
+            updated.setVersion(policyVersion);
+
+            deltas.add(new RangerPolicyDelta(policyVersion * deltaCount + i, RangerPolicyDelta.CHANGE_TYPE_POLICY_UPDATE, policyVersion, updated));
+        }
+
+        ret.setServiceName(base.getServiceName());
+        ret.setServiceDef(base.getServiceDef());
+        ret.setPolicyVersion(policyVersion);
+        ret.setPolicyDeltas(deltas);
+
+        return ret;
+    }
+
+    /**
+     * @param tagCount number of distinct tags; each tag is associated with one table
+     */
+    public static ServiceTags createServiceTags(int tagCount) {
+        ServiceTags                 ret              = new ServiceTags();
+        Map<Long, RangerTagDef>     tagDefs          = new HashMap<>();
+        Map<Long, RangerTag>        tags             = new HashMap<>();
+        List<RangerServiceResource> resources        = new ArrayList<>();
+        Map<Long, List<Long>>       resourceToTagIds = new HashMap<>();
+        Random                      random           = new Random(SEED);
+
+        for (long i = 0; i < 10; i++) {
+            RangerTagDef tagDef = new RangerTagDef("TAG_TYPE_" + i, "Internal");
+
+            tagDef.setId(i);
+            tagDefs.put(i, tagDef);
+        }
+
+        for (long i = 0; i < tagCount; i++) {
+            RangerTag                         tag      = new RangerTag("TAG_TYPE_" + (i % tagDefs.size()), Collections.emptyMap());
+            Map<String, RangerPolicyResource> elements = new HashMap<>();
+            int                               db       = random.nextInt(DATABASE_COUNT);
+
+            tag.setId(i);
+
+            elements.put("database", new RangerPolicyResource(getDatabaseName(db)));
+            elements.put("table", new RangerPolicyResource(getTableName(random.nextInt(TABLES_PER_DATABASE))));
+
+            RangerServiceResource resource = new RangerServiceResource("guid-" + i, SERVICE_NAME, elements);
+
+            resource.setId(i);
+
+            tags.put(i, tag);
+            resources.add(resource);
+            resourceToTagIds.put(i, Collections.singletonList(i));
+        }
+
+        ret.setOp(ServiceTags.OP_ADD_OR_UPDATE);
+        ret.setServiceName(SERVICE_NAME);
+        ret.setTagVersion(1L);
+        ret.setTagDefinitions(tagDefs);
+        ret.setTags(tags);
+        ret.setServiceResources(resources);
+        ret.setResourceToTagIds(resourceToTagIds);
+
+        return ret;
+    }
+
+    public static List<RangerAccessRequest> createAccessRequests(int count) {
+        List<RangerAccessRequest> ret    = new ArrayList<>(count);
+        Random                    random = new Random(SEED);
+
+        for (int i = 0; i < count; i++) {
+            RangerAccessResourceImpl resource = createAccessResource(random);
+            String                   user     = getUserName(random.nextInt(USER_COUNT));
+            Set<String>              groups   = new HashSet<>();
+
+            groups.add(getGroupName(random.nextInt(GROUP_COUNT)));
+            groups.add(getGroupName(random.nextInt(GROUP_COUNT)));
+
+            ret.add(new RangerAccessRequestImpl(resource, ACCESS_TYPES[random.nextInt(ACCESS_TYPES.length)], user, groups, null));
+        }
+
+        return ret;
+    }
+
+    public static RangerAccessResourceImpl createAccessResource(Random random) {
+        Map<String, Object> elements = new HashMap<>();
+
+        elements.put("database", getDatabaseName(random.nextInt(DATABASE_COUNT)));
+        elements.put("table", getTableName(random.nextInt(TABLES_PER_DATABASE)));
+        elements.put("column", "col_" + random.nextInt(20));
+
+        return new RangerAccessResourceImpl(elements);
+    }
+
+    public static String getDatabaseName(int index) {
+        return "db_" + index;
+    }
+
+    public static String getTableName(int index) {
+        return "tbl_" + index;
+    }
+
+    private static RangerPolicy createPolicy(long id, int db, boolean isWildcard, Random random) {
+        RangerPolicy                      ret       = new RangerPolicy();
+        Map<String, RangerPolicyResource> resources = new HashMap<>();
+        RangerPolicyItem                  item      = new RangerPolicyItem();
+        List<RangerPolicyItemAccess>      accesses  = new ArrayList<>();
+
+        if (isWildcard) {
+            resources.put("database", new RangerPolicyResource(getDatabaseName(db / 10) + "*"));
+            resources.put("table", new RangerPolicyResource("tbl_*"));
+        } else {
+            resources.put("database", new RangerPolicyResource(getDatabaseName(db)));
+            resources.put("table", new RangerPolicyResource(getTableName(random.nextInt(TABLES_PER_DATABASE))));
+        }
+
+        resources.put("column", new RangerPolicyResource("*"));
+
+        for (int i = 0; i < 2; i++) {
+            accesses.add(new RangerPolicyItemAccess(ACCESS_TYPES[random.nextInt(ACCESS_TYPES.length)], true));
+        }
+
+        item.setAccesses(accesses);
+        item.setUsers(new ArrayList<>(Collections.singletonList(getUserName(random.nextInt(USER_COUNT)))));
+        item.setGroups(new ArrayList<>(Collections.singletonList(getGroupName(random.nextInt(GROUP_COUNT)))));
+
+        ret.setId(id);
+        ret.setName("generated-policy-" + id);
+        ret.setService(SERVICE_NAME);
+        ret.setServiceType(SERVICE_TYPE);
+        ret.setPolicyType(RangerPolicy.POLICY_TYPE_ACCESS);
+        ret.setIsEnabled(true);
+        ret.setIsAuditEnabled(true);
+        ret.setVersion(1L);
+        ret.setResources(resources);
+        ret.setPolicyItems(new ArrayList<>(Collections.singletonList(item)));
+
+        return ret;
+    }
+
+    private static int getZoneIndex(int db, int zoneCount) {
+        // every (zoneCount + 1)th database stays outside of all zones
+        return zoneCount > 0 ? (db % (zoneCount + 1)) - 1 : -1;
+    }
+
+    private static String getZoneName(int index) {
+        return "zone_" + index;
+    }
+
+    private static String getUserName(int index) {
+        return "user_" + index;
+    }
+
+    private static String getGroupName(int index) {
+        return "group_" + index;
+    }
+
+    private static ServicePolicies loadServicePolicies() {
+        Gson gson = new GsonBuilder().setDateFormat("yyyyMMdd-HH:mm:ss.SSS-Z").create();
+
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(SERVICE_POLICIES_FIXTURE)) {
+            if (in == null) {
+                throw new IllegalStateException(SERVICE_POLICIES_FIXTURE + ": fixture not found in classpath");
+            }
+
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                ServicePolicies ret = gson.fromJson(reader, ServicePolicies.class);
+
+                ret.setServiceName(SERVICE_NAME);
+                ret.setTagPolicies(null);
+
+                return ret;
+            }
+        } catch (IOException excp) {
+            throw new UncheckedIOException(excp);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessResult;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineImpl;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RangerPolicyEngineImpl.evaluatePolicies() for access policies, across service and zone policies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PolicyEngineBenchmark {
+    private static final int REQUEST_COUNT = 1024; // power of 2, see RequestCursor
+
+    @Param({"100", "1000", "10000"})
+    public int policyCount;
+
+    @Param({"0.0", "0.1", "0.5"})
+    public double wildcardDensity;
+
+    @Param({"0", "10"})
+    public int zoneCount;
+
+    private RangerPolicyEngineImpl    policyEngine;
+    private List<RangerAccessRequest> requests;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        RangerPolicyEngineOptions options         = BenchmarkFixtures.createPolicyEngineOptions();
+        ServicePolicies           servicePolicies = BenchmarkFixtures.createServicePolicies(policyCount, wildcardDensity, zoneCount);
+
+        policyEngine = new RangerPolicyEngineImpl(servicePolicies, BenchmarkFixtures.createPluginContext(options), null);
+        requests     = BenchmarkFixtures.createAccessRequests(REQUEST_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        policyEngine.releaseResources(true);
+    }
+
+    @Benchmark
+    public RangerAccessResult evaluatePolicies(RequestCursor cursor) {
+        return policyEngine.evaluatePolicies(requests.get(cursor.next()), RangerPolicy.POLICY_TYPE_ACCESS, null);
+    }
+
+    @State(Scope.Thread)
+    public static class RequestCursor {
+        private int index;
+
+        int next() {
+            return index++ & (REQUEST_COUNT - 1);
+        }
+    }
+}
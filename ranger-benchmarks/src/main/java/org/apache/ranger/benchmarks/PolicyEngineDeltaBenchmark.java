@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import org.apache.ranger.plugin.policyengine.PolicyEngine;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineImpl;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PolicyEngine.cloneWithDelta(): cost of applying a batch of policy updates to an existing engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PolicyEngineDeltaBenchmark {
+    @Param({"1000", "10000", "50000"})
+    public int policyCount;
+
+    @Param({"1", "10", "100"})
+    public int deltaCount;
+
+    @Param({"0", "10"})
+    public int zoneCount;
+
+    private RangerPolicyEngineImpl policyEngine;
+    private ServicePolicies        deltas;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        ServicePolicies servicePolicies = BenchmarkFixtures.createServicePolicies(policyCount, 0.1, zoneCount);
+
+        policyEngine = new RangerPolicyEngineImpl(servicePolicies, BenchmarkFixtures.createPluginContext(BenchmarkFixtures.createPolicyEngineOptions()), null);
+        deltas       = BenchmarkFixtures.createPolicyDeltas(servicePolicies, deltaCount, 2L);
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        policyEngine.releaseResources(true);
+    }
+
+    @Benchmark
+    public PolicyEngine cloneWithDelta() {
+        PolicyEngine ret = policyEngine.getPolicyEngine().cloneWithDelta(deltas);
+
+        if (ret == null) {
+            throw new IllegalStateException("cloneWithDelta() rejected the deltas");
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.policyengine.RangerAccessResource;
+import org.apache.ranger.plugin.policyresourcematcher.RangerDefaultPolicyResourceMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RangerDefaultPolicyResourceMatcher.isMatch() of one policy against a mix of matching and non-matching resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PolicyResourceMatcherBenchmark {
+    private static final int RESOURCE_COUNT = 1024;
+
+    @Param({"exact", "prefix", "any"})
+    public String resourceShape;
+
+    @Param({"1", "10", "100"})
+    public int valuesPerResource;
+
+    private RangerDefaultPolicyResourceMatcher matcher;
+    private RangerAccessResource[]             resources;
+    private Map<String, Object>                evalContext;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Map<String, RangerPolicyResource> policyResources = new HashMap<>();
+        List<String>                      databases       = new ArrayList<>();
+        List<String>                      tables          = new ArrayList<>();
+
+        for (int i = 0; i < valuesPerResource; i++) {
+            switch (resourceShape) {
+                case "prefix":
+                    databases.add(BenchmarkFixtures.getDatabaseName(i) + "*");
+                    tables.add("tbl_" + i + "*");
+                    break;
+                case "any":
+                    databases.add("*");
+                    tables.add("*");
+                    break;
+                default:
+                    databases.add(BenchmarkFixtures.getDatabaseName(i));
+                    tables.add(BenchmarkFixtures.getTableName(i));
+                    break;
+            }
+        }
+
+        policyResources.put("database", new RangerPolicyResource(databases, false, false));
+        policyResources.put("table", new RangerPolicyResource(tables, false, false));
+        policyResources.put("column", new RangerPolicyResource("*"));
+
+        matcher = new RangerDefaultPolicyResourceMatcher();
+
+        matcher.setServiceDef(BenchmarkFixtures.loadServiceDef());
+        matcher.setPolicyResources(policyResources);
+        matcher.init();
+
+        Random random = new Random(RESOURCE_COUNT);
+
+        resources   = new RangerAccessResource[RESOURCE_COUNT];
+        evalContext = Collections.emptyMap();
+
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            resources[i] = BenchmarkFixtures.createAccessResource(random);
+        }
+    }
+
+    @Benchmark
+    public boolean isMatch(ResourceCursor cursor) {
+        return matcher.isMatch(resources[cursor.next()], evalContext);
+    }
+
+    @State(Scope.Thread)
+    public static class ResourceCursor {
+        private int index;
+
+        int next() {
+            return index++ & (RESOURCE_COUNT - 1);
+        }
+    }
+}
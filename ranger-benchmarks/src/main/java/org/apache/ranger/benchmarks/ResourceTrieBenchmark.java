@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.model.RangerServiceDef.RangerResourceDef;
+import org.apache.ranger.plugin.policyengine.RangerPluginContext;
+import org.apache.ranger.plugin.policyengine.RangerPolicyEngineOptions;
+import org.apache.ranger.plugin.policyengine.RangerResourceTrie;
+import org.apache.ranger.plugin.policyevaluator.RangerOptimizedPolicyEvaluator;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator;
+import org.apache.ranger.plugin.policyevaluator.RangerPolicyEvaluator.RangerPolicyResourceEvaluator;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RangerResourceTrie.getEvaluatorsForResource() on the 'database' and 'table' tries, for each trie optimization mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ResourceTrieBenchmark {
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int policyCount;
+
+    @Param({"0.0", "0.1", "0.5"})
+    public double wildcardDensity;
+
+    @Param({"default", "retrieval", "space"})
+    public String trieMode;
+
+    private RangerResourceTrie<RangerPolicyResourceEvaluator> databaseTrie;
+    private RangerResourceTrie<RangerPolicyResourceEvaluator> tableTrie;
+    private String[]                                          databases;
+    private String[]                                          tables;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        RangerPolicyEngineOptions   options         = BenchmarkFixtures.createPolicyEngineOptions();
+        RangerPluginContext         pluginContext   = BenchmarkFixtures.createPluginContext(options);
+        ServicePolicies             servicePolicies = BenchmarkFixtures.createServicePolicies(policyCount, wildcardDensity, 0);
+        RangerServiceDef            serviceDef      = servicePolicies.getServiceDef();
+        List<RangerPolicyEvaluator> evaluators      = new ArrayList<>();
+        boolean                     forRetrieval    = "retrieval".equals(trieMode);
+        boolean                     forSpace        = "space".equals(trieMode);
+
+        for (RangerPolicy policy : servicePolicies.getPolicies()) {
+            RangerOptimizedPolicyEvaluator evaluator = new RangerOptimizedPolicyEvaluator();
+
+            evaluator.setPluginContext(pluginContext);
+            evaluator.init(policy, serviceDef, options);
+
+            evaluators.add(evaluator);
+        }
+
+        databaseTrie = new RangerResourceTrie<>(getResourceDef(serviceDef, "database"), evaluators, forRetrieval, forSpace, pluginContext);
+        tableTrie    = new RangerResourceTrie<>(getResourceDef(serviceDef, "table"), evaluators, forRetrieval, forSpace, pluginContext);
+        databases    = new String[LOOKUP_COUNT];
+        tables       = new String[LOOKUP_COUNT];
+
+        Random random = new Random(LOOKUP_COUNT);
+
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            databases[i] = BenchmarkFixtures.getDatabaseName(random.nextInt(BenchmarkFixtures.DATABASE_COUNT));
+            tables[i]    = BenchmarkFixtures.getTableName(random.nextInt(BenchmarkFixtures.TABLES_PER_DATABASE));
+        }
+    }
+
+    @Benchmark
+    public Set<RangerPolicyResourceEvaluator> getEvaluatorsForDatabase(LookupCursor cursor) {
+        return databaseTrie.getEvaluatorsForResource(databases[cursor.next()]);
+    }
+
+    @Benchmark
+    public Set<RangerPolicyResourceEvaluator> getEvaluatorsForTable(LookupCursor cursor) {
+        return tableTrie.getEvaluatorsForResource(tables[cursor.next()]);
+    }
+
+    private static RangerResourceDef getResourceDef(RangerServiceDef serviceDef, String name) {
+        for (RangerResourceDef resourceDef : serviceDef.getResources()) {
+            if (name.equals(resourceDef.getName())) {
+                return resourceDef;
+            }
+        }
+
+        throw new IllegalArgumentException(name + ": resource not found in service-def " + serviceDef.getName());
+    }
+
+    @State(Scope.Thread)
+    public static class LookupCursor {
+        private int index;
+
+        int next() {
+            return index++ & (LOOKUP_COUNT - 1);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.benchmarks;
+
+import org.apache.ranger.plugin.contextenricher.RangerTagEnricher;
+import org.apache.ranger.plugin.model.RangerServiceDef;
+import org.apache.ranger.plugin.policyengine.RangerAccessRequest;
+import org.apache.ranger.plugin.policyengine.RangerAccessResourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RangerTagEnricher.enrich(): lookup of the tags associated with the requested resource.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TagEnricherBenchmark {
+    private static final int REQUEST_COUNT = 1024;
+
+    @Param({"100", "10000", "100000"})
+    public int tagCount;
+
+    private RangerTagEnricher         tagEnricher;
+    private List<RangerAccessRequest> requests;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        RangerServiceDef serviceDef = BenchmarkFixtures.loadServiceDef();
+
+        tagEnricher = new RangerTagEnricher();
+
+        tagEnricher.setServiceName(BenchmarkFixtures.SERVICE_NAME);
+        tagEnricher.setServiceDef(serviceDef);
+        tagEnricher.init();
+        tagEnricher.setServiceTags(BenchmarkFixtures.createServiceTags(tagCount));
+
+        requests = BenchmarkFixtures.createAccessRequests(REQUEST_COUNT);
+
+        for (RangerAccessRequest request : requests) {
+            ((RangerAccessResourceImpl) request.getResource()).setServiceDef(serviceDef);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        tagEnricher.preCleanup();
+    }
+
+    @Benchmark
+    public RangerAccessRequest enrich(RequestCursor cursor) {
+        RangerAccessRequest request = requests.get(cursor.next());
+
+        tagEnricher.enrich(request);
+
+        return request;
+    }
+
+    @State(Scope.Thread)
+    public static class RequestCursor {
+        private int index;
+
+        int next() {
+            return index++ & (REQUEST_COUNT - 1);
+        }
+    }
+}
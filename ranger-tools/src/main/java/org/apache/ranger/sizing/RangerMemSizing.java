@@ -90,6 +90,7 @@ public class RangerMemSizing {
     private final String      gdsInfoFile;
     private final boolean     deDup;
     private final boolean     deDupStrings;
+    private final boolean     deDupLists;
     private final String      optimizationMode;
     private final boolean     reuseResourceMatchers;
     private final PrintStream out;
@@ -107,6 +108,7 @@ public RangerMemSizing(CommandLine cmdLine) {
         this.gdsInfoFile           = cmdLine.getOptionValue('g');
         this.deDup                 = Boolean.parseBoolean(cmdLine.getOptionValue("d", "true"));
         this.deDupStrings          = this.deDup;
+        this.deDupLists            = this.deDup;
         this.optimizationMode      = StringUtils.startsWithIgnoreCase(cmdLine.getOptionValue('o', "space"), "s") ? OPT_MODE_SPACE : OPT_MODEL_RETRIEVAL;
         this.reuseResourceMatchers = Boolean.parseBoolean(cmdLine.getOptionValue('m', "true"));
     }
@@ -217,6 +219,15 @@ private ServicePolicies loadPolicies(String fileName, PerfMemTimeTracker parent)
                 loadTracker.addChild(tracker);
             }
 
+            if (deDupLists) {
+                PerfMemTimeTracker tracker = new PerfMemTimeTracker("DeDupLists");
+
+                ret.dedupLists();
+
+                tracker.stop();
+                loadTracker.addChild(tracker);
+            }
+
             loadTracker.stop();
             parent.addChild(loadTracker);
 
@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.util.SearchFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * In-memory index of policies of a service, used to narrow down the policies to be evaluated by search filters.
+ *
+ * For each indexed attribute - users, groups, roles, labels, resource values, zone, policy type, policy name - the
+ * index keeps a posting list per distinct value: positions, in a policy array sorted by id, of policies having the
+ * value. A filter value is looked up by matching it against the distinct values of the attribute, using the same
+ * comparison as ServicePredicateUtil (exact, case-insensitive substring or wildcard), and combining posting lists of
+ * the matched values. Hence, the candidates returned include every policy that matches the filter; callers must still
+ * apply ServicePredicateUtil on the candidates, as a policy can match different filter values in different items.
+ *
+ * An index is immutable, and is built for a specific version of the service policies.
+ */
+public class RangerPolicySearchIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerPolicySearchIndex.class);
+
+    private final Long                            serviceId;
+    private final Long                            policyVersion;
+    private final RangerPolicy[]                  policies;
+    private final long[]                          policyIds;
+    private final Map<String, int[]>              users;
+    private final Map<String, int[]>              groups;
+    private final Map<String, int[]>              roles;
+    private final Map<String, int[]>              labels;
+    private final Map<String, int[]>              zones;
+    private final Map<String, int[]>              policyTypes;
+    private final Map<String, int[]>              policyNames;
+    private final Map<String, int[]>              resourceValues;
+    private final Map<String, Map<String, int[]>> resourceValuesByName;
+
+    public RangerPolicySearchIndex(Long serviceId, Long policyVersion, List<RangerPolicy> policies) {
+        this.serviceId     = serviceId;
+        this.policyVersion = policyVersion;
+        this.policies      = policies == null ? new RangerPolicy[0] : policies.toArray(new RangerPolicy[0]);
+        this.policyIds     = new long[this.policies.length];
+
+        Arrays.sort(this.policies, Comparator.comparing(RangerPolicy::getId));
+
+        Map<String, List<Integer>>              users                = new HashMap<>();
+        Map<String, List<Integer>>              groups               = new HashMap<>();
+        Map<String, List<Integer>>              roles                = new HashMap<>();
+        Map<String, List<Integer>>              labels               = new HashMap<>();
+        Map<String, List<Integer>>              zones                = new HashMap<>();
+        Map<String, List<Integer>>              policyTypes          = new HashMap<>();
+        Map<String, List<Integer>>              policyNames          = new HashMap<>();
+        Map<String, List<Integer>>              resourceValues       = new HashMap<>();
+        Map<String, Map<String, List<Integer>>> resourceValuesByName = new HashMap<>();
+
+        for (int i = 0; i < this.policies.length; i++) {
+            RangerPolicy policy = this.policies[i];
+
+            policyIds[i] = policy.getId();
+
+            for (List<? extends RangerPolicyItem> policyItems : getAllPolicyItems(policy)) {
+                if (policyItems != null) {
+                    for (RangerPolicyItem policyItem : policyItems) {
+                        addPostings(users, policyItem.getUsers(), i);
+                        addPostings(groups, policyItem.getGroups(), i);
+                        addPostings(roles, policyItem.getRoles(), i);
+                    }
+                }
+            }
+
+            addPostings(labels, policy.getPolicyLabels(), i);
+            addPosting(zones, policy.getZoneName(), i);
+            addPosting(policyTypes, policy.getPolicyType() == null ? null : policy.getPolicyType().toString(), i);
+            addPosting(policyNames, policy.getName(), i);
+
+            if (MapUtils.isNotEmpty(policy.getResources())) {
+                for (Map.Entry<String, RangerPolicyResource> entry : policy.getResources().entrySet()) {
+                    RangerPolicyResource policyResource = entry.getValue();
+
+                    if (policyResource != null) {
+                        addPostings(resourceValues, policyResource.getValues(), i);
+                        addPostings(resourceValuesByName.computeIfAbsent(entry.getKey(), k -> new HashMap<>()), policyResource.getValues(), i);
+                    }
+                }
+            }
+        }
+
+        this.users                = toPostingLists(users);
+        this.groups               = toPostingLists(groups);
+        this.roles                = toPostingLists(roles);
+        this.labels               = toPostingLists(labels);
+        this.zones                = toPostingLists(zones);
+        this.policyTypes          = toPostingLists(policyTypes);
+        this.policyNames          = toPostingLists(policyNames);
+        this.resourceValues       = toPostingLists(resourceValues);
+        this.resourceValuesByName = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, List<Integer>>> entry : resourceValuesByName.entrySet()) {
+            this.resourceValuesByName.put(entry.getKey(), toPostingLists(entry.getValue()));
+        }
+
+        LOG.debug("RangerPolicySearchIndex(serviceId={}, policyVersion={}): policyCount={}, userCount={}, groupCount={}, roleCount={}, resourceValueCount={}", serviceId, policyVersion, this.policies.length, this.users.size(), this.groups.size(), this.roles.size(), this.resourceValues.size());
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public Long getPolicyVersion() {
+        return policyVersion;
+    }
+
+    public int getPolicyCount() {
+        return policies.length;
+    }
+
+    /**
+     * @return policies, ordered by id, that may match the given filter. When the filter has no indexed parameter, all
+     * policies are returned. The returned list is owned by the caller.
+     */
+    public List<RangerPolicy> getCandidatePolicies(SearchFilter filter) {
+        BitSet candidates = null;
+
+        if (filter != null && !filter.isEmpty()) {
+            candidates = retain(candidates, users, filter.getParam(SearchFilter.USER), containsIgnoreCase(filter.getParam(SearchFilter.USER)));
+            candidates = retain(candidates, groups, filter.getParam(SearchFilter.GROUP), containsIgnoreCase(filter.getParam(SearchFilter.GROUP)));
+            candidates = retain(candidates, roles, filter.getParam(SearchFilter.ROLE), containsIgnoreCase(filter.getParam(SearchFilter.ROLE)));
+            candidates = retain(candidates, labels, filter.getParam(SearchFilter.POLICY_LABELS_PARTIAL), containsIgnoreCase(filter.getParam(SearchFilter.POLICY_LABELS_PARTIAL)));
+            candidates = retain(candidates, resourceValues, filter.getParam(SearchFilter.POL_RESOURCE), containsIgnoreCase(filter.getParam(SearchFilter.POL_RESOURCE)));
+            candidates = retain(candidates, policyNames, filter.getParam(SearchFilter.POLICY_NAME_PARTIAL), containsIgnoreCase(filter.getParam(SearchFilter.POLICY_NAME_PARTIAL)));
+
+            String policyName = filter.getParam(SearchFilter.POLICY_NAME);
+            String zoneName   = filter.getParam(SearchFilter.ZONE_NAME);
+            String policyType = filter.getParam(SearchFilter.POLICY_TYPE);
+            String policyId   = filter.getParam(SearchFilter.POLICY_ID);
+
+            candidates = retain(candidates, policyNames, policyName, name -> StringUtils.equals(policyName, name));
+            candidates = retain(candidates, zones, zoneName, name -> StringUtils.equals(zoneName, name));
+            candidates = retain(candidates, policyTypes, policyType, type -> type == null || StringUtils.equalsIgnoreCase(policyType, type)); // policies without type match any type
+
+            if (StringUtils.isNotEmpty(policyId)) {
+                candidates = retain(candidates, getPositionOfPolicyId(policyId));
+            }
+
+            Map<String, String> filterResources = filter.getParamsWithPrefix(SearchFilter.RESOURCE_PREFIX, true);
+
+            if (MapUtils.isNotEmpty(filterResources)) {
+                for (Map.Entry<String, String> entry : filterResources.entrySet()) {
+                    String             value    = entry.getValue();
+                    Map<String, int[]> postings = resourceValuesByName.get(entry.getKey());
+
+                    if (postings == null) { // no policy has this resource, hence none can match
+                        candidates = new BitSet();
+                    } else {
+                        candidates = retain(candidates, postings, value, resourceValue -> Objects.equals(value, resourceValue) || FilenameUtils.wildcardMatch(value, resourceValue));
+                    }
+                }
+            }
+        }
+
+        final List<RangerPolicy> ret;
+
+        if (candidates == null) {
+            ret = new ArrayList<>(Arrays.asList(policies));
+        } else {
+            ret = new ArrayList<>(candidates.cardinality());
+
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                ret.add(policies[i]);
+            }
+        }
+
+        LOG.debug("RangerPolicySearchIndex.getCandidatePolicies(serviceId={}, filter={}): policyCount={}, candidateCount={}", serviceId, filter, policies.length, ret.size());
+
+        return ret;
+    }
+
+    private static List<? extends RangerPolicyItem>[] getAllPolicyItems(RangerPolicy policy) {
+        @SuppressWarnings("unchecked")
+        List<? extends RangerPolicyItem>[] ret = new List[] {policy.getPolicyItems(),
+                policy.getDenyPolicyItems(),
+                policy.getAllowExceptions(),
+                policy.getDenyExceptions(),
+                policy.getDataMaskPolicyItems(),
+                policy.getRowFilterPolicyItems()
+        };
+
+        return ret;
+    }
+
+    private static void addPostings(Map<String, List<Integer>> postings, Collection<String> values, int position) {
+        if (CollectionUtils.isNotEmpty(values)) {
+            for (String value : values) {
+                addPosting(postings, value, position);
+            }
+        }
+    }
+
+    private static void addPosting(Map<String, List<Integer>> postings, String value, int position) {
+        List<Integer> positions = postings.computeIfAbsent(value, k -> new ArrayList<>(1));
+
+        // positions are added in increasing order; a value repeated within a policy is added once
+        if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+            positions.add(position);
+        }
+    }
+
+    private static Map<String, int[]> toPostingLists(Map<String, List<Integer>> postings) {
+        Map<String, int[]> ret = new HashMap<>(postings.size());
+
+        for (Map.Entry<String, List<Integer>> entry : postings.entrySet()) {
+            List<Integer> positions = entry.getValue();
+            int[]         list      = new int[positions.size()];
+
+            for (int i = 0; i < list.length; i++) {
+                list[i] = positions.get(i);
+            }
+
+            ret.put(entry.getKey(), list);
+        }
+
+        return ret;
+    }
+
+    private static Predicate<String> containsIgnoreCase(String filterValue) {
+        return value -> StringUtils.containsIgnoreCase(value, filterValue);
+    }
+
+    private static BitSet retain(BitSet candidates, Map<String, int[]> postings, String filterValue, Predicate<String> valueMatcher) {
+        if (StringUtils.isEmpty(filterValue)) {
+            return candidates;
+        }
+
+        BitSet matches = new BitSet();
+
+        for (Map.Entry<String, int[]> entry : postings.entrySet()) {
+            if (valueMatcher.test(entry.getKey())) {
+                for (int position : entry.getValue()) {
+                    matches.set(position);
+                }
+            }
+        }
+
+        return retain(candidates, matches);
+    }
+
+    private static BitSet retain(BitSet candidates, BitSet matches) {
+        if (candidates == null) {
+            return matches;
+        }
+
+        candidates.and(matches);
+
+        return candidates;
+    }
+
+    private BitSet getPositionOfPolicyId(String policyId) {
+        BitSet ret = new BitSet();
+
+        try {
+            int position = Arrays.binarySearch(policyIds, Long.parseLong(policyId));
+
+            if (position >= 0) {
+                ret.set(position);
+            }
+        } catch (NumberFormatException excp) {
+            // no policy can match an invalid id
+        }
+
+        return ret;
+    }
+}
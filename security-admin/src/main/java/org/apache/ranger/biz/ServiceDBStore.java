@@ -206,6 +206,7 @@
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -213,6 +214,7 @@
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -362,7 +364,10 @@ public class ServiceDBStore extends AbstractServiceStore {
     @Autowired
     GUIDUtil guidUtil;
 
+    private final Map<String, RangerPolicySearchIndex> policySearchIndexes = new ConcurrentHashMap<>();
+
     private boolean              populateExistingBaseFields;
+    private boolean              usePolicySearchIndex;
     private ServicePredicateUtil predicateUtil;
     private RangerAdminConfig    config;
 
@@ -1286,6 +1291,8 @@ public void deleteService(Long id) throws Exception {
             throw new Exception("no service exists with ID=" + id);
         }
 
+        policySearchIndexes.remove(service.getName());
+
         // Manage zone
         disassociateZonesForService(service); //RANGER-3016
 
@@ -1968,6 +1975,10 @@ public void initStore() {
 
         RangerBaseModelObject.setNullSafeSupplier(nullSafeSupplier);
 
+        usePolicySearchIndex = config.getBoolean("ranger.admin.policy.search.index.enabled", true);
+
+        LOG.info("ranger.admin.policy.search.index.enabled={}", usePolicySearchIndex);
+
         if (!legacyServiceDefsInitDone) {
             synchronized (ServiceDBStore.class) {
                 if (!legacyServiceDefsInitDone) {
@@ -3919,7 +3930,11 @@ private List<RangerPolicy> getServicePolicies(XXService service, SearchFilter fi
 
             LOG.debug("Using{}way of filtering service-policies", useLegacyResourceSearch ? " old " : " new ");
 
-            ret = new ArrayList<>(policies);
+            if (usePolicySearchIndex) {
+                ret = getPolicySearchIndex(service, servicePolicies).getCandidatePolicies(searchFilter);
+            } else {
+                ret = new ArrayList<>(policies);
+            }
 
             predicateUtil.applyFilter(ret, searchFilter);
 
@@ -3969,6 +3984,20 @@ private List<RangerPolicy> getServicePolicies(XXService service, SearchFilter fi
         return ret;
     }
 
+    private RangerPolicySearchIndex getPolicySearchIndex(XXService service, ServicePolicies servicePolicies) {
+        RangerPolicySearchIndex ret = policySearchIndexes.get(service.getName());
+
+        if (ret == null || !Objects.equals(ret.getServiceId(), service.getId()) || !Objects.equals(ret.getPolicyVersion(), servicePolicies.getPolicyVersion())) {
+            LOG.debug("Building policy search index for service={}, policyVersion={}", service.getName(), servicePolicies.getPolicyVersion());
+
+            ret = new RangerPolicySearchIndex(service.getId(), servicePolicies.getPolicyVersion(), servicePolicies.getPolicies());
+
+            policySearchIndexes.put(service.getName(), ret);
+        }
+
+        return ret;
+    }
+
     private List<RangerPolicy> getServicePoliciesFromDb(XXService service) {
         LOG.debug("==> ServiceDBStore.getServicePoliciesFromDb({})", service.getName());
 
@@ -4435,19 +4464,21 @@ private static void persistChangeLog(XXService service, VERSION_TYPE versionType
             ServiceTags.TagsChangeType tagChangeType = serviceVersionUpdater.tagChangeType;
 
             if (tagChangeType == ServiceTags.TagsChangeType.RANGER_ADMIN_START || TagDBStore.isSupportsTagDeltas()) {
-                // Build and save TagChangeLog
-                XXTagChangeLog tagChangeLog      = new XXTagChangeLog();
-                Long           serviceResourceId = serviceVersionUpdater.resourceId;
-                Long           tagId             = serviceVersionUpdater.tagId;
+                if (serviceVersionUpdater.tagChanges.isEmpty()) {
+                    // Build and save TagChangeLog
+                    XXTagChangeLog tagChangeLog = createTagChangeLog(service, version, now, tagChangeType, serviceVersionUpdater.resourceId, serviceVersionUpdater.tagId);
+
+                    serviceVersionUpdater.daoManager.getXXTagChangeLog().create(tagChangeLog);
+                } else {
+                    // changes made in a transaction are recorded with the same version
+                    List<XXTagChangeLog> tagChangeLogs = new ArrayList<>(serviceVersionUpdater.tagChanges.size());
 
-                tagChangeLog.setCreateTime(now);
-                tagChangeLog.setServiceId(service.getId());
-                tagChangeLog.setChangeType(tagChangeType.ordinal());
-                tagChangeLog.setServiceTagsVersion(version);
-                tagChangeLog.setServiceResourceId(serviceResourceId);
-                tagChangeLog.setTagId(tagId);
+                    for (TagChange tagChange : serviceVersionUpdater.tagChanges) {
+                        tagChangeLogs.add(createTagChangeLog(service, version, now, tagChange.tagChangeType, tagChange.resourceId, tagChange.tagId));
+                    }
 
-                serviceVersionUpdater.daoManager.getXXTagChangeLog().create(tagChangeLog);
+                    serviceVersionUpdater.daoManager.getXXTagChangeLog().batchCreate(tagChangeLogs);
+                }
             }
         } else {
             Integer policyDeltaChange = serviceVersionUpdater.policyDeltaChange;
@@ -4476,6 +4507,19 @@ private static void persistChangeLog(XXService service, VERSION_TYPE versionType
         }
     }
 
+    private static XXTagChangeLog createTagChangeLog(XXService service, Long version, Date createTime, ServiceTags.TagsChangeType tagChangeType, Long serviceResourceId, Long tagId) {
+        XXTagChangeLog ret = new XXTagChangeLog();
+
+        ret.setCreateTime(createTime);
+        ret.setServiceId(service.getId());
+        ret.setChangeType(tagChangeType.ordinal());
+        ret.setServiceTagsVersion(version);
+        ret.setServiceResourceId(serviceResourceId);
+        ret.setTagId(tagId);
+
+        return ret;
+    }
+
     private Boolean deleteExistingPolicyLabel(RangerPolicy policy) {
         if (policy == null) {
             return false;
@@ -6632,6 +6676,7 @@ public static class ServiceVersionUpdater implements Runnable {
         final ServiceTags.TagsChangeType tagChangeType;
         final Long                       resourceId;
         final Long                       tagId;
+        final Set<TagChange>             tagChanges = new LinkedHashSet<>();
 
         long version = -1;
 
@@ -6663,6 +6708,10 @@ public ServiceVersionUpdater(RangerDaoManager daoManager, Long serviceId, VERSIO
             this.tagId             = tagId;
         }
 
+        public void addTagChange(ServiceTags.TagsChangeType tagChangeType, Long resourceId, Long tagId) {
+            tagChanges.add(new TagChange(tagChangeType, resourceId, tagId));
+        }
+
         @Override
         public void run() {
             ServiceDBStore.persistVersionChange(this);
@@ -6680,10 +6729,41 @@ public String toString() {
                     ", tagChangeType=" + tagChangeType +
                     ", resourceId=" + resourceId +
                     ", tagId=" + tagId +
+                    ", tagChanges=" + tagChanges.size() +
                     " ]";
         }
     }
 
+    private static class TagChange {
+        final ServiceTags.TagsChangeType tagChangeType;
+        final Long                       resourceId;
+        final Long                       tagId;
+
+        TagChange(ServiceTags.TagsChangeType tagChangeType, Long resourceId, Long tagId) {
+            this.tagChangeType = tagChangeType;
+            this.resourceId    = resourceId;
+            this.tagId         = tagId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            TagChange other = (TagChange) obj;
+
+            return tagChangeType == other.tagChangeType && Objects.equals(resourceId, other.resourceId) && Objects.equals(tagId, other.tagId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tagChangeType, resourceId, tagId);
+        }
+    }
+
     private class AssociatePolicyLabel implements Runnable {
         private final String   policyLabel;
         private final XXPolicy xPolicy;
@@ -76,6 +76,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -87,6 +88,9 @@ public class TagDBStore extends AbstractTagStore {
 
     public static boolean SUPPORTS_IN_PLACE_TAG_UPDATES;
 
+    // ids of service-resources whose tags are to be refreshed at the end of the current bulk update, like tags import
+    private static final ThreadLocal<Set<Long>> RESOURCES_TO_REFRESH = new ThreadLocal<>();
+
     private static boolean SUPPORTS_TAG_DELTAS;
     private static boolean IS_SUPPORTS_TAG_DELTAS_INITIALIZED;
     private static boolean SUPPORTS_TAGS_DEDUP_INITIALIZED;
@@ -432,6 +436,13 @@ public List<RangerTag> getTagsForResourceId(Long resourceId) {
         List<RangerTag> ret = null;
 
         if (resourceId != null) {
+            Set<Long> resourcesToRefresh = RESOURCES_TO_REFRESH.get();
+
+            // tags are read from the resource, hence refresh the resource now if its refresh was deferred
+            if (resourcesToRefresh != null && resourcesToRefresh.remove(resourceId)) {
+                doRefreshServiceResource(resourceId);
+            }
+
             ret = rangerTagService.getTagsForResourceId(resourceId);
         }
 
@@ -528,19 +539,46 @@ public RangerServiceResource updateServiceResource(RangerServiceResource resourc
 
     @Override
     public void refreshServiceResource(Long resourceId) {
-        XXServiceResource serviceResourceEntity = daoManager.getXXServiceResource().getById(resourceId);
-        String            tagsText              = null;
+        Set<Long> resourcesToRefresh = RESOURCES_TO_REFRESH.get();
 
-        List<RangerTagResourceMap> tagResourceMaps = getTagResourceMapsForResourceId(resourceId);
-        if (tagResourceMaps != null) {
-            List<RangerTag> associatedTags = new ArrayList<>();
-            for (RangerTagResourceMap element : tagResourceMaps) {
-                associatedTags.add(getTag(element.getTagId()));
+        if (resourcesToRefresh != null) {
+            resourcesToRefresh.add(resourceId);
+        } else {
+            doRefreshServiceResource(resourceId);
+        }
+    }
+
+    /*
+     * tags of service-resources updated in this thread, until refreshDeferredServiceResources() is called, are refreshed
+     * once per resource - instead of on every change to tag-resource-maps of the resource.
+     * Returns false if refresh is already deferred, in which case the caller must not end it
+     */
+    public boolean deferServiceResourceRefresh() {
+        boolean ret = RESOURCES_TO_REFRESH.get() == null;
+
+        if (ret) {
+            RESOURCES_TO_REFRESH.set(new LinkedHashSet<>());
+        }
+
+        return ret;
+    }
+
+    public void refreshDeferredServiceResources() {
+        Set<Long> resourcesToRefresh = RESOURCES_TO_REFRESH.get();
+
+        RESOURCES_TO_REFRESH.remove();
+
+        if (resourcesToRefresh != null) {
+            LOG.debug("refreshDeferredServiceResources(): refreshing {} service-resources", resourcesToRefresh.size());
+
+            for (Long resourceId : resourcesToRefresh) {
+                doRefreshServiceResource(resourceId);
             }
-            tagsText = JsonUtils.listToJson(associatedTags);
         }
-        serviceResourceEntity.setTags(tagsText);
-        daoManager.getXXServiceResource().update(serviceResourceEntity);
+    }
+
+    public void cancelDeferredServiceResourceRefresh() {
+        RESOURCES_TO_REFRESH.remove();
     }
 
     @Override
@@ -1072,6 +1110,29 @@ private ServiceTags getServiceTagsDelta(Long serviceId, String serviceName, Long
         return ret;
     }
 
+    private void doRefreshServiceResource(Long resourceId) {
+        XXServiceResource serviceResourceEntity = daoManager.getXXServiceResource().getById(resourceId);
+
+        if (serviceResourceEntity == null) { // resource deleted after refresh was deferred
+            LOG.debug("doRefreshServiceResource({}): service-resource not found", resourceId);
+
+            return;
+        }
+
+        String tagsText = null;
+
+        List<RangerTagResourceMap> tagResourceMaps = getTagResourceMapsForResourceId(resourceId);
+        if (tagResourceMaps != null) {
+            List<RangerTag> associatedTags = new ArrayList<>();
+            for (RangerTagResourceMap element : tagResourceMaps) {
+                associatedTags.add(getTag(element.getTagId()));
+            }
+            tagsText = JsonUtils.listToJson(associatedTags);
+        }
+        serviceResourceEntity.setTags(tagsText);
+        daoManager.getXXServiceResource().update(serviceResourceEntity);
+    }
+
     private ServiceTags createServiceTagsDelta(List<XXTagChangeLog> changeLogs) {
         LOG.debug("==> TagDBStore.createServiceTagsDelta()");
 
@@ -144,10 +144,11 @@ public class XUserMgr extends XUserMgrBase {
     static final Set<String> roleAssignmentUpdatedUsers = new HashSet<>();
     static final String      MSG_DATA_ACCESS_DENY       = "Logged-In user is not allowed to access requested user data";
 
-    private static final String USER                       = "User";
-    private static final String GROUP                      = "Group";
-    private static final int    MAX_DB_TRANSACTION_RETRIES = 5;
-    private static final int    PASSWORD_LENGTH            = 16;
+    private static final String USER                          = "User";
+    private static final String GROUP                         = "Group";
+    private static final int    MAX_DB_TRANSACTION_RETRIES    = 5;
+    private static final int    PASSWORD_LENGTH               = 16;
+    private static final int    UGSYNC_TRANSACTION_BATCH_SIZE = Math.max(PropertiesUtil.getIntProperty("ranger.admin.ugsync.transaction.batch.size", 200), 1); // users created/updated per transaction
 
     @Autowired
     RangerBizUtil msBizUtil;
@@ -566,6 +567,8 @@ public VXGroup updateXGroup(VXGroup vXGroup) {
             updateXgroupUserForGroupUpdate(vXGroup);
 
             RangerServicePoliciesCache.sInstance = null;
+
+            updateUserStoreVersion("updateXGroup(" + vXGroup.getName() + ")");
         }
 
         return vXGroup;
@@ -782,6 +785,8 @@ public void deleteXGroup(Long id, boolean force) {
                 xGroupService.createTransactionLog(xGroupService.populateViewBean(xXGroup), null, OPERATION_DELETE_CONTEXT);
             }
         }
+
+        updateUserStoreVersion("deleteXGroup(" + vXGroup.getName() + ")");
     }
 
     @Override
@@ -1480,6 +1485,8 @@ public synchronized void deleteXUser(Long id, boolean force) {
                 xPortalUserService.createTransactionLog(xPortalUserService.populateViewBean(xXPortalUser), null, OPERATION_DELETE_CONTEXT);
             }
         }
+
+        updateUserStoreVersion("deleteXUser(" + vXUser.getName() + ")");
     }
 
     @Override
@@ -1648,6 +1655,8 @@ public VXGroupUser createXGroupUser(VXGroupUser vXGroupUser) {
 
         vXGroupUser = xGroupUserService.createXGroupUserWithOutLogin(vXGroupUser);
 
+        updateUserStoreVersion("createXGroupUser(" + vXGroupUser.getName() + ")");
+
         return vXGroupUser;
     }
 
@@ -1656,7 +1665,11 @@ public VXGroupUser updateXGroupUser(VXGroupUser vXGroupUser) {
 
         xaBizUtil.blockAuditorRoleUser();
 
-        return super.updateXGroupUser(vXGroupUser);
+        VXGroupUser ret = super.updateXGroupUser(vXGroupUser);
+
+        updateUserStoreVersion("updateXGroupUser(id=" + vXGroupUser.getId() + ")");
+
+        return ret;
     }
 
     public void deleteXGroupUser(Long id, boolean force) {
@@ -1665,6 +1678,8 @@ public void deleteXGroupUser(Long id, boolean force) {
         xaBizUtil.blockAuditorRoleUser();
 
         super.deleteXGroupUser(id, force);
+
+        updateUserStoreVersion("deleteXGroupUser(id=" + id + ")");
     }
 
     public void deleteXPermMap(Long id, boolean force) {
@@ -1832,6 +1847,8 @@ public void deleteXGroupAndXUser(String groupName, String userName) {
         for (VXGroupUser vxGroupUser : vxGroupUserList.getList()) {
             daoManager.getXXGroupUser().remove(vxGroupUser.getId());
         }
+
+        updateUserStoreVersion("deleteXGroupAndXUser(" + groupName + ", " + userName + ")");
     }
 
     public VXGroupList getXUserGroups(Long xUserId) {
@@ -1942,6 +1959,10 @@ public void modifyUserVisibility(HashMap<Long, Integer> visibilityMap) {
 
             xUserService.updateResource(vObj);
         }
+
+        if (!visibilityMap.isEmpty()) {
+            updateUserStoreVersion("modifyUserVisibility(usersCount=" + visibilityMap.size() + ")");
+        }
     }
 
     public void modifyGroupsVisibility(HashMap<Long, Integer> groupVisibilityMap) {
@@ -1959,6 +1980,10 @@ public void modifyGroupsVisibility(HashMap<Long, Integer> groupVisibilityMap) {
 
             xGroupService.updateResource(vObj);
         }
+
+        if (!groupVisibilityMap.isEmpty()) {
+            updateUserStoreVersion("modifyGroupsVisibility(groupsCount=" + groupVisibilityMap.size() + ")");
+        }
     }
 
     // Module permissions
@@ -2825,7 +2850,7 @@ public int createOrUpdateXUsers(VXUserList users) {
 
         xaBizUtil.blockAuditorRoleUser();
 
-        int ret = 0;
+        List<VXUser> validUsers = new ArrayList<>();
 
         for (VXUser vXUser : users.getList()) {
             final String userName  = vXUser == null ? null : vXUser.getName();
@@ -2845,32 +2870,40 @@ public int createOrUpdateXUsers(VXUserList users) {
 
             checkAccess(vXUser);
 
-            TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+            validUsers.add(vXUser);
+        }
 
-            txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-            try {
-                txTemplate.execute(status -> {
-                    VXPortalUser vXPortalUser = userMgr.getUserProfileByLoginId(userName);
+        int ret = 0;
 
-                    if (vXPortalUser == null) {
-                        logger.debug("create user {}", userName);
+        if (!validUsers.isEmpty()) {
+            for (int fromIndex = 0; fromIndex < validUsers.size(); fromIndex += UGSYNC_TRANSACTION_BATCH_SIZE) {
+                List<VXUser> batch = validUsers.subList(fromIndex, Math.min(fromIndex + UGSYNC_TRANSACTION_BATCH_SIZE, validUsers.size()));
 
-                        createXUser(vXUser, userName);
-                    } else {
-                        logger.debug("Update user {}", userName);
+                try {
+                    createOrUpdateXUsersInTransaction(batch);
+                } catch (Throwable excp) {
+                    if (batch.size() == 1) {
+                        logger.error("XUserMgr.createOrUpdateXUsers(): Failed to update DB for users: ", excp);
 
-                        updateXUser(vXUser, vXPortalUser);
+                        throw restErrorUtil.createRESTException("Failed to create or update users ", MessageEnums.ERROR_CREATING_OBJECT);
                     }
 
-                    return null;
-                });
-            } catch (Throwable ex) {
-                logger.error("XUserMgr.createOrUpdateXUsers(): Failed to update DB for users: ", ex);
+                    logger.warn("XUserMgr.createOrUpdateXUsers(): Failed to update DB for {} users in one transaction. Retrying with one transaction per user", batch.size(), excp);
 
-                throw restErrorUtil.createRESTException("Failed to create or update users ", MessageEnums.ERROR_CREATING_OBJECT);
-            }
+                    // to commit the users that can be, as when each user is updated in its own transaction
+                    for (VXUser vXUser : batch) {
+                        try {
+                            createOrUpdateXUsersInTransaction(Collections.singletonList(vXUser));
+                        } catch (Throwable ex) {
+                            logger.error("XUserMgr.createOrUpdateXUsers(): Failed to update DB for users: ", ex);
+
+                            throw restErrorUtil.createRESTException("Failed to create or update users ", MessageEnums.ERROR_CREATING_OBJECT);
+                        }
+                    }
+                }
 
-            ret++;
+                ret += batch.size();
+            }
         }
 
         if (ret == 0) {
@@ -2920,8 +2953,69 @@ public int createOrUpdateXUsers(VXUserList users) {
         return ret;
     }
 
+    /*
+     * existing users of the batch are read with one query for the login-ids in the batch, instead of a lookup for each user
+     */
+    private void createOrUpdateXUsersInTransaction(List<VXUser> vXUsers) {
+        TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+
+        txTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        txTemplate.execute(status -> {
+            Set<String>               loginIds     = new HashSet<>();
+            Map<String, XXPortalUser> users        = new HashMap<>();
+            Map<String, XXPortalUser> usersIgnCase = new HashMap<>();
+            Set<String>               createdUsers = new HashSet<>();
+
+            for (VXUser vXUser : vXUsers) {
+                loginIds.add(vXUser.getName());
+            }
+
+            // the database decides on case-sensitivity of login-ids; an exact match is preferred
+            for (XXPortalUser xXPortalUser : daoManager.getXXPortalUser().findByLoginIds(loginIds)) {
+                users.put(xXPortalUser.getLoginId(), xXPortalUser);
+                usersIgnCase.putIfAbsent(StringUtils.lowerCase(xXPortalUser.getLoginId()), xXPortalUser);
+            }
+
+            for (VXUser vXUser : vXUsers) {
+                String       userName     = vXUser.getName();
+                String       loginId      = StringUtils.lowerCase(userName);
+                XXPortalUser xXPortalUser = users.containsKey(userName) ? users.get(userName) : usersIgnCase.get(loginId);
+                VXPortalUser vXPortalUser;
+
+                if (xXPortalUser != null) {
+                    vXPortalUser = userMgr.mapXXPortalUserVXPortalUser(xXPortalUser);
+                } else if (createdUsers.contains(loginId)) { // created earlier in this batch
+                    vXPortalUser = userMgr.getUserProfileByLoginId(userName);
+                } else {
+                    vXPortalUser = null;
+                }
+
+                if (vXPortalUser == null) {
+                    logger.debug("create user {}", userName);
+
+                    createXUser(vXUser, userName);
+
+                    createdUsers.add(loginId);
+                } else {
+                    logger.debug("Update user {}", userName);
+
+                    updateXUser(vXUser, vXPortalUser);
+                }
+            }
+
+            return null;
+        });
+    }
+
     @Transactional(readOnly = false, propagation = Propagation.REQUIRED)
     public int createOrUpdateXGroups(VXGroupList groups) {
+        checkAdminAccess();
+
+        xaBizUtil.blockAuditorRoleUser();
+
+        List<VXGroup> validGroups = new ArrayList<>();
+
         for (VXGroup vXGroup : groups.getList()) {
             if (vXGroup == null || vXGroup.getName() == null || "null".equalsIgnoreCase(vXGroup.getName()) || vXGroup.getName().trim().isEmpty()) {
                 logger.warn("Ignoring invalid groupname {}", vXGroup == null ? null : vXGroup.getName());
@@ -2929,7 +3023,11 @@ public int createOrUpdateXGroups(VXGroupList groups) {
                 continue;
             }
 
-            createXGroupWithoutLogin(vXGroup);
+            validGroups.add(vXGroup);
+        }
+
+        if (!validGroups.isEmpty()) {
+            xGroupService.createOrUpdateXGroupsWithOutLogin(validGroups);
         }
 
         updateUserStoreVersion("createOrUpdateXGroups(groupsCount=" + groups.getListSize() + ")");
@@ -2966,6 +3064,8 @@ public int createOrDeleteXGroupUserList(List<GroupUserInfo> groupUserInfoList) {
                 }
 
                 updatedGroups = groupUserInfoList.size();
+
+                updateUserStoreVersion("createOrDeleteXGroupUserList(groupsCount=" + updatedGroups + ")");
             }
         }
 
@@ -3095,6 +3195,10 @@ public int updateDeletedUsers(Set<String> deletedUsers) {
             }
         }
 
+        if (!deletedUsers.isEmpty()) {
+            updateUserStoreVersion("updateDeletedUsers(usersCount=" + deletedUsers.size() + ")");
+        }
+
         return deletedUsers.size();
     }
 
@@ -3111,6 +3215,10 @@ public int updateDeletedGroups(Set<String> deletedGroups) {
             }
         }
 
+        if (!deletedGroups.isEmpty()) {
+            updateUserStoreVersion("updateDeletedGroups(groupsCount=" + deletedGroups.size() + ")");
+        }
+
         return deletedGroups.size();
     }
 
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
+import org.apache.ranger.plugin.util.JsonUtilsV2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized, gzip-compressed payloads of policies, tags, roles, userstore and GDS info downloaded by plugins.
+ *
+ * Plugins of a service poll for the same version of these objects; download APIs associate the request with the hash
+ * of the content to be returned (see setPayload()), and RangerDownloadPayloadWriter compresses the content once per
+ * hash and serves the cached bytes to subsequent requests. As the hash is computed from the serialized content, a
+ * payload is never served for different content of the same version, like after a cache reset or for a plugin of a
+ * disabled service. Payloads are evicted in LRU order once their total size exceeds the configured limit.
+ */
+public class RangerDownloadPayloadCache {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerDownloadPayloadCache.class);
+
+    static final String ATTR_CONTENT_HASH = RangerDownloadPayloadCache.class.getName() + ".contentHash";
+
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final int    BUFFER_SIZE            = 64 * 1024;
+    private static final int    DEFAULT_MAX_SIZE_IN_MB = 256;
+
+    private static volatile RangerDownloadPayloadCache sInstance;
+
+    private final boolean                   isEnabled;
+    private final long                      maxSizeInBytes;
+    private final Map<String, PayloadEntry> payloads = new LinkedHashMap<>(16, 0.75f, true); // access-order, for LRU eviction
+    private       long                      sizeInBytes;
+    private       long                      hitCount;
+    private       long                      missCount;
+
+    private RangerDownloadPayloadCache() {
+        RangerAdminConfig config = RangerAdminConfig.getInstance();
+
+        isEnabled      = config.getBoolean("ranger.admin.download.payload.cache.enabled", true);
+        maxSizeInBytes = config.getLong("ranger.admin.download.payload.cache.max.size.mb", DEFAULT_MAX_SIZE_IN_MB) * 1024L * 1024L;
+
+        LOG.info("RangerDownloadPayloadCache(isEnabled={}, maxSizeInBytes={})", isEnabled, maxSizeInBytes);
+    }
+
+    public static RangerDownloadPayloadCache getInstance() {
+        RangerDownloadPayloadCache me = sInstance;
+
+        if (me == null) {
+            synchronized (RangerDownloadPayloadCache.class) {
+                me = sInstance;
+
+                if (me == null) {
+                    me        = new RangerDownloadPayloadCache();
+                    sInstance = me;
+                }
+            }
+        }
+
+        return me;
+    }
+
+    /*
+     * hash of the content of the payload, computed by serializing it to a digest; payloads are neither buffered nor
+     * compressed here, which is done only for content not already in the cache
+     */
+    public static String getContentHash(Object payload) throws IOException {
+        final MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IOException(excp);
+        }
+
+        try (OutputStream out = new DigestOutputStream(NullOutputStream.INSTANCE, digest)) {
+            JsonUtilsV2.getMapper().writeValue(out, payload);
+        }
+
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    public static String getETag(String contentHash) {
+        return "\"" + contentHash + "\"";
+    }
+
+    /*
+     * associates the request with the hash of the payload, for the response to be served from this cache.
+     * Returns false if the client already has this payload, per If-None-Match request header
+     */
+    public boolean setPayload(HttpServletRequest request, Object payload) {
+        boolean ret = true;
+
+        if (isEnabled && request != null && payload != null) {
+            String contentHash = null;
+
+            try {
+                contentHash = getContentHash(payload);
+            } catch (IOException | RuntimeException excp) {
+                LOG.warn("setPayload(): failed to compute content hash. Payload will not be cached", excp);
+            }
+
+            if (contentHash != null) {
+                String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+                if (StringUtils.isNotEmpty(ifNoneMatch) && StringUtils.contains(ifNoneMatch, getETag(contentHash))) {
+                    LOG.debug("setPayload({}): client has the payload already", contentHash);
+
+                    ret = false;
+                } else {
+                    request.setAttribute(ATTR_CONTENT_HASH, contentHash);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public synchronized void clear() {
+        payloads.clear();
+
+        sizeInBytes = 0;
+    }
+
+    public synchronized String getStats() {
+        return "RangerDownloadPayloadCache={payloadCount=" + payloads.size() + ", sizeInBytes=" + sizeInBytes + ", hitCount=" + hitCount + ", missCount=" + missCount + "}";
+    }
+
+    String getContentHash(HttpServletRequest request) {
+        Object ret = request != null ? request.getAttribute(ATTR_CONTENT_HASH) : null;
+
+        return ret instanceof String ? (String) ret : null;
+    }
+
+    /*
+     * returns the gzip-compressed payload for the content hash; the first of concurrent requests for a hash serializes
+     * the payload, while others wait for it to complete
+     */
+    byte[] getPayload(String contentHash, PayloadSerializer serializer) throws IOException {
+        final PayloadEntry entry;
+
+        synchronized (this) {
+            entry = payloads.computeIfAbsent(contentHash, k -> new PayloadEntry());
+        }
+
+        byte[] ret;
+
+        synchronized (entry) {
+            ret = entry.gzPayload;
+
+            if (ret == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+
+                try (GZIPOutputStream gzOut = new GZIPOutputStream(out, BUFFER_SIZE)) {
+                    serializer.serialize(gzOut);
+                } catch (IOException | RuntimeException excp) {
+                    synchronized (this) {
+                        payloads.remove(contentHash, entry);
+                    }
+
+                    throw excp;
+                }
+
+                ret = out.toByteArray();
+
+                synchronized (this) {
+                    entry.gzPayload = ret;
+
+                    missCount++;
+
+                    if (payloads.get(contentHash) == entry) {
+                        sizeInBytes += ret.length;
+
+                        evictIfNeeded(entry);
+                    }
+                }
+
+                LOG.debug("getPayload({}): serialized payload, size={}", contentHash, ret.length);
+            } else {
+                synchronized (this) {
+                    hitCount++;
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private void evictIfNeeded(PayloadEntry current) {
+        for (Iterator<PayloadEntry> iter = payloads.values().iterator(); sizeInBytes > maxSizeInBytes && iter.hasNext(); ) {
+            PayloadEntry entry = iter.next();
+
+            if (entry != current && entry.gzPayload != null) {
+                sizeInBytes -= entry.gzPayload.length;
+
+                iter.remove();
+            }
+        }
+    }
+
+    interface PayloadSerializer {
+        void serialize(OutputStream out) throws IOException;
+    }
+
+    private static class PayloadEntry {
+        volatile byte[] gzPayload;
+    }
+}
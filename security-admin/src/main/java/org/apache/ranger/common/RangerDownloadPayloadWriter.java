@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.plugin.util.RangerRoles;
+import org.apache.ranger.plugin.util.RangerUserStore;
+import org.apache.ranger.plugin.util.ServiceGdsInfo;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.apache.ranger.plugin.util.ServiceTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes objects downloaded by plugins from RangerDownloadPayloadCache, when the download API has associated the
+ * request with the hash of the content; otherwise the object is serialized by RangerJsonProvider, as for other APIs.
+ * Cached payloads are sent gzip-compressed to clients that accept it, along with an ETag.
+ */
+public abstract class RangerDownloadPayloadWriter<T> implements MessageBodyWriter<T> {
+    private static final String CONTENT_ENCODING_GZIP = "gzip";
+    private static final int    BUFFER_SIZE           = 64 * 1024;
+
+    private final Class<T> entityClass;
+
+    @Autowired
+    RangerJsonProvider jsonProvider;
+
+    @Context
+    HttpServletRequest request;
+
+    protected RangerDownloadPayloadWriter(Class<T> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return entityClass.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(T entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(T entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream out) throws IOException {
+        RangerDownloadPayloadCache payloadCache = RangerDownloadPayloadCache.getInstance();
+        String                     contentHash  = payloadCache.getContentHash(request);
+
+        if (contentHash == null) {
+            jsonProvider.writeTo(entity, type, genericType, annotations, mediaType, httpHeaders, out);
+        } else {
+            byte[] gzPayload = payloadCache.getPayload(contentHash, payloadOut -> jsonProvider.writeTo(entity, type, genericType, annotations, mediaType, httpHeaders, payloadOut));
+
+            httpHeaders.putSingle(HttpHeaders.ETAG, RangerDownloadPayloadCache.getETag(contentHash));
+            httpHeaders.putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            if (isGzipAccepted()) {
+                httpHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, CONTENT_ENCODING_GZIP);
+                httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, gzPayload.length);
+
+                out.write(gzPayload);
+            } else {
+                try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzPayload), BUFFER_SIZE)) {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+
+                    for (int len = in.read(buffer); len != -1; len = in.read(buffer)) {
+                        out.write(buffer, 0, len);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isGzipAccepted() {
+        String acceptEncoding = request != null ? request.getHeader(HttpHeaders.ACCEPT_ENCODING) : null;
+
+        return StringUtils.containsIgnoreCase(acceptEncoding, CONTENT_ENCODING_GZIP);
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    @Component
+    public static class ServicePoliciesWriter extends RangerDownloadPayloadWriter<ServicePolicies> {
+        public ServicePoliciesWriter() {
+            super(ServicePolicies.class);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    @Component
+    public static class ServiceTagsWriter extends RangerDownloadPayloadWriter<ServiceTags> {
+        public ServiceTagsWriter() {
+            super(ServiceTags.class);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    @Component
+    public static class RolesWriter extends RangerDownloadPayloadWriter<RangerRoles> {
+        public RolesWriter() {
+            super(RangerRoles.class);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    @Component
+    public static class UserStoreWriter extends RangerDownloadPayloadWriter<RangerUserStore> {
+        public UserStoreWriter() {
+            super(RangerUserStore.class);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    @Component
+    public static class ServiceGdsInfoWriter extends RangerDownloadPayloadWriter<ServiceGdsInfo> {
+        public ServiceGdsInfoWriter() {
+            super(ServiceGdsInfo.class);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.authorization.hadoop.config.RangerAdminConfig;
+import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.db.RangerDaoManager;
+import org.apache.ranger.entity.XXServiceVersionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets policy/tag/role download requests wait for a change instead of returning "not modified" right away (long-poll).
+ *
+ * A single thread reads the versions of all services from x_service_version_info - the versions that
+ * RangerServicePoliciesCache, RangerServiceTagsCache and RangerRoleCache compare against - once every
+ * check interval, only while there are waiting requests. As the versions are read from the database,
+ * updates made through other Ranger Admin instances are seen as well.
+ */
+@Component
+@Scope("singleton")
+public class RangerServiceVersionWatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerServiceVersionWatcher.class);
+
+    public static final String PROP_LONG_POLL_ENABLED                   = "ranger.admin.long.poll.enabled";
+    public static final String PROP_LONG_POLL_MAX_TIMEOUT_MS            = "ranger.admin.long.poll.max.timeout.ms";
+    public static final String PROP_LONG_POLL_MAX_WAITERS               = "ranger.admin.long.poll.max.waiters";
+    public static final String PROP_LONG_POLL_VERSION_CHECK_INTERVAL_MS = "ranger.admin.long.poll.version.check.interval.ms";
+
+    private static volatile RangerServiceVersionWatcher sInstance;
+
+    @Autowired
+    RangerDaoManager daoMgr;
+
+    @Autowired
+    @Qualifier(value = "transactionManager")
+    PlatformTransactionManager txManager;
+
+    @Autowired
+    RangerBizUtil bizUtil;
+
+    @Autowired
+    ServiceUtil serviceUtil;
+
+    private final boolean                      isEnabled;
+    private final long                         maxTimeoutMs;
+    private final int                          maxWaiters;
+    private final long                         checkIntervalMs;
+    private final AtomicInteger                waiterCount     = new AtomicInteger();
+    private final Object                       lock            = new Object();
+    private       Map<String, ServiceVersions> serviceVersions = Collections.emptyMap();
+    private       long                         checkTimeMs     = -1;
+
+    public RangerServiceVersionWatcher() {
+        RangerAdminConfig config = RangerAdminConfig.getInstance();
+
+        isEnabled       = config.getBoolean(PROP_LONG_POLL_ENABLED, true);
+        maxTimeoutMs    = config.getLong(PROP_LONG_POLL_MAX_TIMEOUT_MS, 60 * 1000L);
+        maxWaiters      = config.getInt(PROP_LONG_POLL_MAX_WAITERS, 100);
+        checkIntervalMs = config.getLong(PROP_LONG_POLL_VERSION_CHECK_INTERVAL_MS, 1000L);
+    }
+
+    public static RangerServiceVersionWatcher getInstance() {
+        return sInstance;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled) {
+            Thread versionChecker = new Thread(this::checkVersions, "RangerServiceVersionWatcher");
+
+            versionChecker.setDaemon(true);
+            versionChecker.start();
+
+            LOG.info("RangerServiceVersionWatcher: maxTimeoutMs={}, maxWaiters={}, checkIntervalMs={}", maxTimeoutMs, maxWaiters, checkIntervalMs);
+        } else {
+            LOG.info("RangerServiceVersionWatcher: long-poll is disabled");
+        }
+
+        sInstance = this;
+    }
+
+    /**
+     * Waits until the given version of the service differs from lastKnownVersion, or the timeout expires. Waits for
+     * policies also end when the role version of the service changes, as plugins download roles along with policies.
+     *
+     * @return true if a change was detected; false if the wait timed out or was not attempted
+     */
+    public boolean waitForUpdate(VersionType versionType, String serviceName, long lastKnownVersion, long timeoutMs) throws InterruptedException {
+        LOG.debug("==> RangerServiceVersionWatcher.waitForUpdate({}, {}, {}, {})", versionType, serviceName, lastKnownVersion, timeoutMs);
+
+        boolean ret = false;
+
+        if (!isEnabled || timeoutMs <= 0 || lastKnownVersion < 0 || StringUtils.isBlank(serviceName)) {
+            LOG.debug("<== RangerServiceVersionWatcher.waitForUpdate({}, {}, {}, {}): not waiting", versionType, serviceName, lastKnownVersion, timeoutMs);
+
+            return ret;
+        }
+
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+
+            LOG.debug("<== RangerServiceVersionWatcher.waitForUpdate({}, {}, {}, {}): too many waiters ({})", versionType, serviceName, lastKnownVersion, timeoutMs, maxWaiters);
+
+            return ret;
+        }
+
+        try {
+            long startTimeMs      = System.currentTimeMillis();
+            long endTimeMs        = startTimeMs + Math.min(timeoutMs, maxTimeoutMs);
+            Long startRoleVersion = null;
+
+            synchronized (lock) {
+                lock.notifyAll(); // version checker might be idle
+
+                while (true) {
+                    // ignore versions read while there were no waiters, they are likely older than the client's
+                    if (checkTimeMs >= startTimeMs - checkIntervalMs) {
+                        ServiceVersions versions = serviceVersions.get(serviceName);
+
+                        if (versions == null) { // unknown service - let the caller handle it
+                            ret = true;
+
+                            break;
+                        } else if (!Objects.equals(versions.getVersion(versionType), lastKnownVersion)) {
+                            ret = true;
+
+                            break;
+                        } else if (versionType == VersionType.POLICY) {
+                            if (startRoleVersion == null) {
+                                startRoleVersion = versions.roleVersion != null ? versions.roleVersion : -1L;
+                            } else if (!Objects.equals(versions.roleVersion != null ? versions.roleVersion : -1L, startRoleVersion)) {
+                                ret = true;
+
+                                break;
+                            }
+                        }
+                    }
+
+                    long waitTimeMs = endTimeMs - System.currentTimeMillis();
+
+                    if (waitTimeMs <= 0) {
+                        break;
+                    }
+
+                    lock.wait(waitTimeMs);
+                }
+            }
+        } finally {
+            waiterCount.decrementAndGet();
+        }
+
+        LOG.debug("<== RangerServiceVersionWatcher.waitForUpdate({}, {}, {}, {}): ret={}", versionType, serviceName, lastKnownVersion, timeoutMs, ret);
+
+        return ret;
+    }
+
+    /**
+     * Checks the request with the authentication done by the download APIs, so that waiter slots are not taken up by
+     * requests that would be rejected anyway.
+     *
+     * @return true if the download API would accept the request; false otherwise
+     */
+    public boolean isDownloadAuthenticated(String serviceName, boolean isSecureDownload, HttpServletRequest request) {
+        LOG.debug("==> RangerServiceVersionWatcher.isDownloadAuthenticated({}, {})", serviceName, isSecureDownload);
+
+        boolean ret = false;
+
+        if (request != null && StringUtils.isNotBlank(serviceName)) {
+            TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+
+            txTemplate.setReadOnly(true);
+
+            try {
+                if (isSecureDownload) {
+                    ret = ContextUtil.getCurrentUserSession() != null && Boolean.TRUE.equals(txTemplate.execute(status -> serviceUtil.isValidService(serviceName, request)));
+                } else {
+                    bizUtil.failUnauthenticatedDownloadIfNotAllowed();
+
+                    ret = Boolean.TRUE.equals(txTemplate.execute(status -> serviceUtil.isValidateHttpsAuthentication(serviceName, request)));
+                }
+            } catch (Exception excp) {
+                LOG.debug("RangerServiceVersionWatcher.isDownloadAuthenticated({}, {}): authentication failed", serviceName, isSecureDownload, excp);
+            }
+        }
+
+        LOG.debug("<== RangerServiceVersionWatcher.isDownloadAuthenticated({}, {}): ret={}", serviceName, isSecureDownload, ret);
+
+        return ret;
+    }
+
+    public int getWaiterCount() {
+        return waiterCount.get();
+    }
+
+    private void checkVersions() {
+        TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+
+        txTemplate.setReadOnly(true);
+
+        while (true) {
+            try {
+                synchronized (lock) {
+                    while (waiterCount.get() == 0) {
+                        lock.wait();
+                    }
+                }
+
+                long                         startTimeMs = System.currentTimeMillis();
+                Map<String, ServiceVersions> versions    = txTemplate.execute(status -> loadServiceVersions());
+
+                synchronized (lock) {
+                    serviceVersions = versions != null ? versions : Collections.emptyMap();
+                    checkTimeMs     = startTimeMs;
+
+                    lock.notifyAll();
+                }
+
+                Thread.sleep(checkIntervalMs);
+            } catch (InterruptedException excp) {
+                LOG.info("RangerServiceVersionWatcher.checkVersions(): interrupted! Exiting thread", excp);
+
+                break;
+            } catch (Exception excp) {
+                LOG.error("RangerServiceVersionWatcher.checkVersions(): failed to retrieve service versions", excp);
+
+                try {
+                    Thread.sleep(checkIntervalMs);
+                } catch (InterruptedException interruptedExcp) {
+                    LOG.info("RangerServiceVersionWatcher.checkVersions(): interrupted! Exiting thread", interruptedExcp);
+
+                    break;
+                }
+            }
+        }
+    }
+
+    private Map<String, ServiceVersions> loadServiceVersions() {
+        Map<String, ServiceVersions> ret     = new HashMap<>();
+        List<Object[]>               objects = daoMgr.getXXServiceVersionInfo().getAllWithServiceNames();
+
+        if (objects != null) {
+            for (Object[] obj : objects) {
+                if (obj != null && obj.length == 2 && obj[0] instanceof XXServiceVersionInfo && obj[1] instanceof String) {
+                    ret.put((String) obj[1], new ServiceVersions((XXServiceVersionInfo) obj[0]));
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public enum VersionType { POLICY, TAG, ROLE }
+
+    private static final class ServiceVersions {
+        final Long policyVersion;
+        final Long tagVersion;
+        final Long roleVersion;
+
+        ServiceVersions(XXServiceVersionInfo versionInfo) {
+            this.policyVersion = versionInfo.getPolicyVersion();
+            this.tagVersion    = versionInfo.getTagVersion();
+            this.roleVersion   = versionInfo.getRoleVersion();
+        }
+
+        Long getVersion(VersionType versionType) {
+            switch (versionType) {
+                case POLICY:
+                    return policyVersion;
+                case TAG:
+                    return tagVersion;
+                default:
+                    return roleVersion;
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@
 import javax.persistence.NoResultException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -78,6 +79,20 @@ public XXGroup findByGroupName(String groupName) {
         }
     }
 
+    public List<XXGroup> findByGroupNames(Collection<String> groupNames) {
+        if (groupNames == null || groupNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return getEntityManager().createNamedQuery("XXGroup.findByGroupNames", tClass)
+                    .setParameter("names", groupNames)
+                    .getResultList();
+        } catch (NoResultException e) {
+            return new ArrayList<>();
+        }
+    }
+
     public Map<Long, String> getAllGroupIdNames() {
         Map<Long, String> groups = new HashMap<>();
 
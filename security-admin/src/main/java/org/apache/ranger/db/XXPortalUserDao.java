@@ -27,6 +27,7 @@
 
 import javax.persistence.NoResultException;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -116,6 +117,20 @@ public List<String> getNonUserRoleExternalUsers() {
         }
     }
 
+    public List<XXPortalUser> findByLoginIds(Collection<String> loginIds) {
+        if (loginIds == null || loginIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        try {
+            return getEntityManager().createNamedQuery("XXPortalUser.findByLoginIds", tClass)
+                    .setParameter("loginIds", loginIds)
+                    .getResultList();
+        } catch (NoResultException e) {
+            return Collections.emptyList();
+        }
+    }
+
     public List<XXPortalUser> findByUserSourceAndStatus(final int source, final int status) {
         try {
             return getEntityManager().createNamedQuery("XXPortalUser.findByUserSourceAndStatus", tClass)
@@ -20,15 +20,19 @@
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.common.db.BaseDao;
+import org.apache.ranger.common.db.RangerTransactionSynchronizationAdapter;
 import org.apache.ranger.entity.XXServiceVersionInfo;
 import org.apache.ranger.plugin.util.ServiceTags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.persistence.NoResultException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -37,6 +41,9 @@
 public class XXServiceVersionInfoDao extends BaseDao<XXServiceVersionInfo> {
     private static final Logger LOG = LoggerFactory.getLogger(XXServiceVersionInfoDao.class);
 
+    // tag-version updates of services, by serviceId, to be persisted when the current transaction commits
+    private static final ThreadLocal<Map<Long, ServiceDBStore.ServiceVersionUpdater>> TAG_VERSION_UPDATERS = new ThreadLocal<>();
+
     /**
      * Default Constructor
      */
@@ -160,14 +167,90 @@ private void updateTagVersionAndTagUpdateTime(List<XXServiceVersionInfo> service
                 }
 
                 for (XXServiceVersionInfo serviceVersionInfo : serviceVersionInfos) {
-                    final Long     serviceId             = serviceVersionInfo.getServiceId();
-                    final Runnable serviceVersionUpdater = new ServiceDBStore.ServiceVersionUpdater(daoManager, serviceId, versionType, tagChangeType, resourceId, tagId);
+                    final Long serviceId = serviceVersionInfo.getServiceId();
+
+                    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        getTagVersionUpdater(serviceId, tagChangeType, resourceId, tagId).addTagChange(tagChangeType, resourceId, tagId);
+                    } else {
+                        final Runnable serviceVersionUpdater = new ServiceDBStore.ServiceVersionUpdater(daoManager, serviceId, versionType, tagChangeType, resourceId, tagId);
 
-                    daoManager.getRangerTransactionSynchronizationAdapter().executeOnTransactionCommit(serviceVersionUpdater);
+                        daoManager.getRangerTransactionSynchronizationAdapter().executeOnTransactionCommit(serviceVersionUpdater);
+                    }
                 }
             }
         } else {
             LOG.warn("Both resourceId and tagId are null! Should not have come here!");
         }
     }
+
+    /*
+     * all tag changes of a service made in a transaction, like while importing tags from tagsync, result in a single
+     * update of the service's tag-version. Changes are recorded in the change-log with this version, once per change
+     */
+    private ServiceDBStore.ServiceVersionUpdater getTagVersionUpdater(Long serviceId, ServiceTags.TagsChangeType tagChangeType, Long resourceId, Long tagId) {
+        Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters = TAG_VERSION_UPDATERS.get();
+
+        if (updaters == null) {
+            RangerTransactionSynchronizationAdapter txAdapter = daoManager.getRangerTransactionSynchronizationAdapter();
+
+            updaters = new LinkedHashMap<>();
+
+            TAG_VERSION_UPDATERS.set(updaters);
+
+            txAdapter.executeOnTransactionCommit(new TagVersionUpdater(updaters));
+            txAdapter.executeOnTransactionCompletion(new TagVersionUpdaterCleaner(updaters));
+        }
+
+        ServiceDBStore.ServiceVersionUpdater ret = updaters.get(serviceId);
+
+        if (ret == null) {
+            ret = new ServiceDBStore.ServiceVersionUpdater(daoManager, serviceId, ServiceDBStore.VERSION_TYPE.TAG_VERSION, tagChangeType, resourceId, tagId);
+
+            updaters.put(serviceId, ret);
+        }
+
+        return ret;
+    }
+
+    private static void removeTagVersionUpdaters(Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters) {
+        if (TAG_VERSION_UPDATERS.get() == updaters) {
+            TAG_VERSION_UPDATERS.remove();
+        }
+    }
+
+    private static class TagVersionUpdater implements Runnable {
+        private final Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters;
+
+        TagVersionUpdater(Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters) {
+            this.updaters = updaters;
+        }
+
+        @Override
+        public void run() {
+            removeTagVersionUpdaters(updaters);
+
+            for (ServiceDBStore.ServiceVersionUpdater updater : updaters.values()) {
+                updater.run();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "TagVersionUpdater:[ " + updaters.values() + " ]";
+        }
+    }
+
+    // clears updaters of the transaction, when it completes without a commit
+    private static class TagVersionUpdaterCleaner implements Runnable {
+        private final Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters;
+
+        TagVersionUpdaterCleaner(Map<Long, ServiceDBStore.ServiceVersionUpdater> updaters) {
+            this.updaters = updaters;
+        }
+
+        @Override
+        public void run() {
+            removeTagVersionUpdaters(updaters);
+        }
+    }
 }
@@ -30,6 +30,7 @@
 import org.apache.ranger.biz.ServiceDBStore;
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.RESTErrorUtil;
+import org.apache.ranger.common.RangerDownloadPayloadCache;
 import org.apache.ranger.common.RangerSearchUtil;
 import org.apache.ranger.common.ServiceUtil;
 import org.apache.ranger.plugin.model.RangerGds;
@@ -1745,6 +1746,12 @@ public ServiceGdsInfo getServiceGdsInfoIfUpdated(@PathParam("serviceName") Strin
                     logMsg            = "No change since last update";
                 } else {
                     downloadedVersion = ret.getGdsVersion();
+
+                    if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                        ret      = null;
+                        httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg   = "No change since last update";
+                    }
                 }
             }
         } catch (WebApplicationException webException) {
@@ -1795,6 +1802,12 @@ public ServiceGdsInfo getSecureServiceGdsInfoIfUpdated(@PathParam("serviceName")
                     logMsg            = "No change since last update";
                 } else {
                     downloadedVersion = ret.getGdsVersion();
+
+                    if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                        ret      = null;
+                        httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg   = "No change since last update";
+                    }
                 }
             }
         } catch (WebApplicationException webException) {
@@ -37,6 +37,7 @@
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.PropertiesUtil;
 import org.apache.ranger.common.RESTErrorUtil;
+import org.apache.ranger.common.RangerDownloadPayloadCache;
 import org.apache.ranger.common.RangerSearchUtil;
 import org.apache.ranger.common.RangerValidatorFactory;
 import org.apache.ranger.common.ServiceUtil;
@@ -997,6 +998,12 @@ public RangerRoles getRangerRolesIfUpdated(@PathParam("serviceName") String serv
                     downloadedVersion = roles.getRoleVersion();
                     ret               = roles;
                     logMsg            = "Returning RangerRoles =>" + (ret);
+
+                    if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                        ret      = null;
+                        httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg   = "No change since last update";
+                    }
                 }
             } catch (Throwable excp) {
                 LOG.error("getRangerRolesIfUpdated({}, {}, {}) failed", serviceName, lastKnownRoleVersion, lastActivationTime, excp);
@@ -1084,6 +1091,12 @@ public RangerRoles getSecureRangerRolesIfUpdated(@PathParam("serviceName") Strin
                         downloadedVersion = roles.getRoleVersion();
                         ret               = roles;
                         logMsg            = "Returning RangerRoles =>" + (ret);
+
+                        if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                            ret      = null;
+                            httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                            logMsg   = "No change since last update";
+                        }
                     }
                 } else {
                     LOG.error("getSecureRangerRolesIfUpdated({}, {}) failed as User doesn't have permission to UserGroupRoles", serviceName, lastKnownRoleVersion);
@@ -50,6 +50,7 @@
 import org.apache.ranger.common.PropertiesUtil;
 import org.apache.ranger.common.RESTErrorUtil;
 import org.apache.ranger.common.RangerConstants;
+import org.apache.ranger.common.RangerDownloadPayloadCache;
 import org.apache.ranger.common.RangerSearchUtil;
 import org.apache.ranger.common.RangerValidatorFactory;
 import org.apache.ranger.common.ServiceUtil;
@@ -2544,6 +2545,12 @@ public ServicePolicies getServicePoliciesIfUpdated(@PathParam("serviceName") Str
                 } else {
                     downloadedVersion = ret.getPolicyVersion();
                     logMsg            = "Returning " + (ret.getPolicies() != null ? ret.getPolicies().size() : (ret.getPolicyDeltas() != null ? ret.getPolicyDeltas().size() : 0)) + " policies. Policy version=" + ret.getPolicyVersion();
+
+                    if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                        ret      = null;
+                        httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg   = "No change since last update";
+                    }
                 }
             } catch (Throwable excp) {
                 LOG.error("getServicePoliciesIfUpdated({}, {}, {}) failed", serviceName, lastKnownVersion, lastActivationTime, excp);
@@ -2646,6 +2653,12 @@ public ServicePolicies getSecureServicePoliciesIfUpdated(@PathParam("serviceName
                     } else {
                         downloadedVersion = ret.getPolicyVersion();
                         logMsg            = "Returning " + (ret.getPolicies() != null ? ret.getPolicies().size() : (ret.getPolicyDeltas() != null ? ret.getPolicyDeltas().size() : 0)) + " policies. Policy version=" + ret.getPolicyVersion();
+
+                        if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                            ret      = null;
+                            httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                            logMsg   = "No change since last update";
+                        }
                     }
                 } else {
                     LOG.error("getSecureServicePoliciesIfUpdated({}, {}) failed as User doesn't have permission to download Policy", serviceName, lastKnownVersion);
@@ -22,6 +22,7 @@
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.biz.TagDBStore;
 import org.apache.ranger.plugin.model.RangerServiceResource;
 import org.apache.ranger.plugin.model.RangerTag;
 import org.apache.ranger.plugin.model.RangerTagDef;
@@ -36,8 +37,10 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ServiceTagsProcessor {
     private static final Logger LOG                    = LoggerFactory.getLogger(ServiceTagsProcessor.class);
@@ -55,16 +58,28 @@ public void process(ServiceTags serviceTags) throws Exception {
         if (tagStore != null && serviceTags != null) {
             LOG.debug("serviceTags: op={}", serviceTags.getOp());
 
-            String op = serviceTags.getOp();
+            String     op                = serviceTags.getOp();
+            TagDBStore tagDBStore        = tagStore instanceof TagDBStore ? (TagDBStore) tagStore : null;
+            boolean    isRefreshDeferred = tagDBStore != null && tagDBStore.deferServiceResourceRefresh();
 
-            if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_ADD_OR_UPDATE)) {
-                addOrUpdate(serviceTags);
-            } else if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_DELETE)) {
-                delete(serviceTags);
-            } else if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_REPLACE)) {
-                replace(serviceTags);
-            } else {
-                LOG.error("Unknown op, op={}", op);
+            try {
+                if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_ADD_OR_UPDATE)) {
+                    addOrUpdate(serviceTags);
+                } else if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_DELETE)) {
+                    delete(serviceTags);
+                } else if (StringUtils.equalsIgnoreCase(op, ServiceTags.OP_REPLACE)) {
+                    replace(serviceTags);
+                } else {
+                    LOG.error("Unknown op, op={}", op);
+                }
+
+                if (isRefreshDeferred) {
+                    tagDBStore.refreshDeferredServiceResources();
+                }
+            } finally {
+                if (isRefreshDeferred) {
+                    tagDBStore.cancelDeferredServiceResourceRefresh();
+                }
             }
         } else {
             if (tagStore == null) {
@@ -86,8 +101,12 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
         RangerPerfTracer perfTotal = null;
         RangerPerfTracer perf      = null;
 
-        Map<Long, RangerTagDef>          tagDefsInStore   = new HashMap<>();
-        Map<Long, RangerServiceResource> resourcesInStore = new HashMap<>();
+        Map<Long, RangerTagDef>            tagDefsInStore       = new HashMap<>();
+        Map<Long, RangerServiceResource>   resourcesInStore     = new HashMap<>();
+        Map<String, RangerServiceResource> resourcesByGuid      = new HashMap<>(); // resources in store, processed in this call
+        Map<String, RangerServiceResource> resourcesBySignature = new HashMap<>();
+        Map<String, RangerTag>             tagsByGuid           = new HashMap<>(); // tags in store, looked up in this call
+        Set<Long>                          updatedSharedTagIds  = new HashSet<>();
 
         if (RangerPerfTracer.isPerfTraceEnabled(PERF_LOG_ADD_OR_UPDATE)) {
             perfTotal = RangerPerfTracer.getPerfTracer(PERF_LOG_ADD_OR_UPDATE, "tags.addOrUpdate()");
@@ -146,13 +165,17 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
                     Long                  resourceId = resource.getId();
 
                     if (StringUtils.isNotEmpty(resource.getGuid())) {
-                        if (RangerPerfTracer.isPerfTraceEnabled(PERF_LOG_ADD_OR_UPDATE)) {
-                            perf = RangerPerfTracer.getPerfTracer(PERF_LOG_ADD_OR_UPDATE, "tags.search_service_resource_by_guid(" + resourceId + ")");
-                        }
+                        existing = resourcesByGuid.get(resource.getGuid());
+
+                        if (existing == null) {
+                            if (RangerPerfTracer.isPerfTraceEnabled(PERF_LOG_ADD_OR_UPDATE)) {
+                                perf = RangerPerfTracer.getPerfTracer(PERF_LOG_ADD_OR_UPDATE, "tags.search_service_resource_by_guid(" + resourceId + ")");
+                            }
 
-                        existing = tagStore.getServiceResourceByGuid(resource.getGuid());
+                            existing = tagStore.getServiceResourceByGuid(resource.getGuid());
 
-                        RangerPerfTracer.logAlways(perf);
+                            RangerPerfTracer.logAlways(perf);
+                        }
                     }
 
                     if (existing == null) {
@@ -166,7 +189,11 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                             resource.setResourceSignature(resourceSignature);
 
-                            existing = tagStore.getServiceResourceByServiceAndResourceSignature(resource.getServiceName(), resourceSignature);
+                            existing = resourcesBySignature.get(resource.getServiceName() + "/" + resourceSignature);
+
+                            if (existing == null) {
+                                existing = tagStore.getServiceResourceByServiceAndResourceSignature(resource.getServiceName(), resourceSignature);
+                            }
 
                             RangerPerfTracer.logAlways(perf);
                         }
@@ -191,6 +218,16 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                     resourcesInStore.put(resourceId, resourceInStore);
 
+                    if (resourceInStore != null) {
+                        if (StringUtils.isNotEmpty(resourceInStore.getGuid())) {
+                            resourcesByGuid.put(resourceInStore.getGuid(), resourceInStore);
+                        }
+
+                        if (StringUtils.isNotEmpty(resourceInStore.getResourceSignature())) {
+                            resourcesBySignature.put(resourceInStore.getServiceName() + "/" + resourceInStore.getResourceSignature(), resourceInStore);
+                        }
+                    }
+
                     RangerPerfTracer.logAlways(perf);
                 }
             } catch (Exception exception) {
@@ -227,9 +264,18 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
                     RangerPerfTracer.logAlways(perf);
                 }
 
-                List<RangerTag> tagsToRetain    = new ArrayList<>();
-                boolean         isAnyTagUpdated = false;
-                List<Long>      tagIds          = entry.getValue();
+                if (associatedTags == null) {
+                    associatedTags = new ArrayList<>();
+                }
+
+                Set<Long>  associatedTagIds = new HashSet<>();
+                Set<Long>  tagIdsToRetain   = new HashSet<>();
+                boolean    isAnyTagUpdated  = false;
+                List<Long> tagIds           = entry.getValue();
+
+                for (RangerTag associatedTag : associatedTags) {
+                    associatedTagIds.add(associatedTag.getId());
+                }
 
                 try {
                     for (Long tagId : tagIds) {
@@ -240,7 +286,7 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
                             continue;
                         }
 
-                        RangerTag matchingTag = findMatchingTag(incomingTag, associatedTags);
+                        RangerTag matchingTag = findMatchingTag(incomingTag, associatedTags, tagsByGuid);
 
                         if (matchingTag == null) {
                             LOG.debug("Did not find matching tag for tagId={}", tagId);
@@ -267,8 +313,9 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                             RangerPerfTracer.logAlways(perf);
 
-                            associatedTags.add(newTag);
-                            tagsToRetain.add(newTag);
+                            addTag(newTag, associatedTags, associatedTagIds, tagsByGuid);
+
+                            tagIdsToRetain.add(newTag.getId());
                         } else {
                             LOG.debug("Found matching tag for tagId={}, matchingTag={}", tagId, matchingTag);
 
@@ -284,10 +331,11 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                                     tagResourceMap = tagStore.createTagResourceMap(tagResourceMap);
 
-                                    associatedTags.add(newTag);
-                                    tagsToRetain.add(newTag);
+                                    addTag(newTag, associatedTags, associatedTagIds, tagsByGuid);
+
+                                    tagIdsToRetain.add(newTag.getId());
                                 } else {
-                                    tagsToRetain.add(matchingTag);
+                                    tagIdsToRetain.add(matchingTag.getId());
 
                                     boolean isTagUpdateNeeded = false;
 
@@ -330,19 +378,22 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                                     tagResourceMap = tagStore.createTagResourceMap(tagResourceMap);
 
-                                    associatedTags.add(newTag);
-                                    tagsToRetain.add(newTag);
+                                    addTag(newTag, associatedTags, associatedTagIds, tagsByGuid);
+
+                                    tagIdsToRetain.add(newTag.getId());
                                 } else {
                                     // Keep this tag, but update it with attribute-values from incoming tag
-                                    tagsToRetain.add(matchingTag);
+                                    tagIdsToRetain.add(matchingTag.getId());
 
-                                    // Update shared tag with new values
-                                    incomingTag.setId(matchingTag.getId());
+                                    // Update shared tag with new values, once in this call
+                                    if (updatedSharedTagIds.add(matchingTag.getId())) {
+                                        incomingTag.setId(matchingTag.getId());
 
-                                    tagStore.updateTag(incomingTag);
+                                        tagStore.updateTag(incomingTag);
+                                    }
 
                                     // associate with service-resource if not already associated
-                                    if (findTagInList(matchingTag, associatedTags) == null) {
+                                    if (!associatedTagIds.contains(matchingTag.getId())) {
                                         RangerTagResourceMap tagResourceMap = new RangerTagResourceMap();
 
                                         tagResourceMap.setTagId(matchingTag.getId());
@@ -367,9 +418,13 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
 
                     try {
                         for (RangerTag associatedTag : associatedTags) {
-                            if (findTagInList(associatedTag, tagsToRetain) == null) {
+                            if (!tagIdsToRetain.contains(associatedTag.getId())) {
                                 tagId = associatedTag.getId();
 
+                                if (associatedTag.getGuid() != null) {
+                                    tagsByGuid.remove(associatedTag.getGuid()); // tag might be deleted along with the mapping
+                                }
+
                                 RangerTagResourceMap tagResourceMap = tagStore.getTagResourceMapForTagAndResourceId(tagId, resourceInStore.getId());
 
                                 if (tagResourceMap != null) {
@@ -398,6 +453,9 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
                     if (CollectionUtils.isEmpty(tagIds)) {
                         // No tags associated with the resource - delete the resource too
                         tagStore.deleteServiceResource(resourceInStore.getId());
+
+                        resourcesByGuid.values().remove(resourceInStore);
+                        resourcesBySignature.values().remove(resourceInStore);
                     }
                 }
             }
@@ -408,38 +466,32 @@ private void addOrUpdate(ServiceTags serviceTags) throws Exception {
         LOG.debug("<== ServiceTagsProcessor.createOrUpdate()");
     }
 
-    private RangerTag findTagInList(RangerTag object, List<RangerTag> list) {
-        LOG.debug("==> ServiceTagsProcessor.findTagInList(): object={}", (object == null ? null : object.getId()));
-        RangerTag ret = null;
-
-        if (object != null) {
-            for (RangerTag tag : list) {
-                LOG.debug("==> ServiceTagsProcessor.findTagInList(): tag={}", tag.getId());
+    private void addTag(RangerTag tag, List<RangerTag> tags, Set<Long> tagIds, Map<String, RangerTag> tagsByGuid) {
+        tags.add(tag);
+        tagIds.add(tag.getId());
 
-                if (tag.getId().equals(object.getId())) {
-                    ret = tag;
-
-                    LOG.debug("==> ServiceTagsProcessor.findTagInList(): found tag={}", tag.getId());
-
-                    break;
-                }
-            }
+        if (StringUtils.isNotEmpty(tag.getGuid())) {
+            tagsByGuid.put(tag.getGuid(), tag);
         }
-
-        LOG.debug("<== ServiceTagsProcessor.findTagInList(): ret={}", (ret == null ? null : ret.getId()));
-
-        return ret;
     }
 
     private boolean isResourcePrivateTag(RangerTag tag) {
         return tag.getOwner() == null || tag.getOwner() == RangerTag.OWNER_SERVICERESOURCE;
     }
 
-    private RangerTag findMatchingTag(RangerTag incomingTag, List<RangerTag> existingTags) throws Exception {
+    private RangerTag findMatchingTag(RangerTag incomingTag, List<RangerTag> existingTags, Map<String, RangerTag> tagsByGuid) throws Exception {
         RangerTag ret = null;
 
         if (StringUtils.isNotEmpty(incomingTag.getGuid())) {
-            ret = tagStore.getTagByGuid(incomingTag.getGuid());
+            ret = tagsByGuid.get(incomingTag.getGuid());
+
+            if (ret == null) {
+                ret = tagStore.getTagByGuid(incomingTag.getGuid());
+
+                if (ret != null) {
+                    tagsByGuid.put(ret.getGuid(), ret);
+                }
+            }
         }
 
         if (ret == null) {
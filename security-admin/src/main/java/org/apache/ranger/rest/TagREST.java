@@ -27,6 +27,7 @@
 import org.apache.ranger.biz.TagDBStore;
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.RESTErrorUtil;
+import org.apache.ranger.common.RangerDownloadPayloadCache;
 import org.apache.ranger.common.RangerSearchUtil;
 import org.apache.ranger.db.RangerDaoManager;
 import org.apache.ranger.entity.XXService;
@@ -1271,6 +1272,12 @@ public ServiceTags getServiceTagsIfUpdated(@PathParam("serviceName") String serv
             } else {
                 downloadedVersion = ret.getTagVersion();
                 logMsg            = "Returning " + (ret.getTags() != null ? ret.getTags().size() : 0) + " tags. Tag version=" + ret.getTagVersion();
+
+                if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                    ret      = null;
+                    httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                    logMsg   = "No change since last update";
+                }
             }
         } catch (WebApplicationException webException) {
             httpCode = webException.getResponse().getStatus();
@@ -1357,6 +1364,12 @@ public ServiceTags getSecureServiceTagsIfUpdated(@PathParam("serviceName") Strin
                 } else {
                     downloadedVersion = ret.getTagVersion();
                     logMsg            = "Returning " + (ret.getTags() != null ? ret.getTags().size() : 0) + " tags. Tag version=" + ret.getTagVersion();
+
+                    if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                        ret      = null;
+                        httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                        logMsg   = "No change since last update";
+                    }
                 }
             } else {
                 LOG.error("getSecureServiceTagsIfUpdated({}, {}, {}) failed as User doesn't have permission to download tags", serviceName, lastKnownVersion, lastActivationTime);
@@ -30,6 +30,7 @@
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.RESTErrorUtil;
 import org.apache.ranger.common.RangerConstants;
+import org.apache.ranger.common.RangerDownloadPayloadCache;
 import org.apache.ranger.common.SearchCriteria;
 import org.apache.ranger.common.SearchUtil;
 import org.apache.ranger.common.ServiceUtil;
@@ -1411,6 +1412,12 @@ public RangerUserStore getRangerUserStoreIfUpdated(@PathParam("serviceName") Str
                         downloadedVersion = rangerUserStore.getUserStoreVersion();
                         ret               = rangerUserStore;
                         logMsg            = "Returning RangerUserStore version " + downloadedVersion;
+
+                        if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                            ret      = null;
+                            httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                            logMsg   = "No change since last update";
+                        }
                     }
                 }
             } catch (Throwable excp) {
@@ -1495,6 +1502,12 @@ public RangerUserStore getSecureRangerUserStoreIfUpdated(@PathParam("serviceName
                         downloadedVersion = rangerUserStore.getUserStoreVersion();
                         ret               = rangerUserStore;
                         logMsg            = "Returning RangerUserStore =>" + (ret);
+
+                        if (!RangerDownloadPayloadCache.getInstance().setPayload(request, ret)) {
+                            ret      = null;
+                            httpCode = HttpServletResponse.SC_NOT_MODIFIED;
+                            logMsg   = "No change since last update";
+                        }
                     }
                 } else {
                     logger.error("getSecureRangerUserStoreIfUpdated({}, {}) failed as User doesn't have permission to download UsersAndGroups", serviceName, lastKnownUserStoreVersion);
@@ -1540,6 +1553,14 @@ public Map<String, Set<String>> getAllGroupUsers() {
         return rangerDaoManager.getXXGroupUser().findUsersByGroupIds();
     }
 
+    @GET
+    @Path("/ugsync/userstore/version")
+    @Produces("application/json")
+    @PreAuthorize("hasRole('ROLE_SYS_ADMIN')")
+    public Long getUserStoreVersion() {
+        return xUserMgr.getUserStoreVersion();
+    }
+
     @POST
     @Path("/ugsync/users")
     @Consumes("application/json")
@@ -19,6 +19,8 @@
 
 package org.apache.ranger.service;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.biz.RangerBizUtil;
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.PropertiesUtil;
 import org.apache.ranger.common.SearchField;
@@ -31,8 +33,10 @@
 import org.springframework.util.CollectionUtils;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Scope("singleton")
@@ -91,6 +95,57 @@ public VXGroup createXGroupWithOutLogin(VXGroup vxGroup) {
         return vxGroup;
     }
 
+    /*
+     * creates or updates the given groups in batches of RangerBizUtil.BATCH_PERSIST_SIZE. Existing groups of a batch are
+     * read with one query for the names in the batch, and statements are flushed once per batch, for the JDBC driver
+     * to send them in batches
+     */
+    public void createOrUpdateXGroupsWithOutLogin(List<VXGroup> vxGroups) {
+        boolean isCreatedByExists = daoManager.getXXPortalUser().getById(createdByUserId) != null;
+
+        for (int fromIndex = 0; fromIndex < vxGroups.size(); fromIndex += RangerBizUtil.BATCH_PERSIST_SIZE) {
+            List<VXGroup>        batch         = vxGroups.subList(fromIndex, Math.min(fromIndex + RangerBizUtil.BATCH_PERSIST_SIZE, vxGroups.size()));
+            Set<String>          groupNames    = new HashSet<>();
+            Map<String, XXGroup> groups        = new HashMap<>();
+            Map<String, XXGroup> groupsIgnCase = new HashMap<>();
+
+            for (VXGroup vxGroup : batch) {
+                groupNames.add(vxGroup.getName());
+            }
+
+            // the database decides on case-sensitivity of names; an exact match is preferred
+            for (XXGroup xxGroup : daoManager.getXXGroup().findByGroupNames(groupNames)) {
+                groups.put(xxGroup.getName(), xxGroup);
+                groupsIgnCase.putIfAbsent(StringUtils.lowerCase(xxGroup.getName()), xxGroup);
+            }
+
+            for (VXGroup vxGroup : batch) {
+                XXGroup xxGroup     = groups.containsKey(vxGroup.getName()) ? groups.get(vxGroup.getName()) : groupsIgnCase.get(StringUtils.lowerCase(vxGroup.getName()));
+                boolean groupExists = xxGroup != null;
+
+                xxGroup = mapViewToEntityBean(vxGroup, groupExists ? xxGroup : new XXGroup(), 0);
+
+                if (isCreatedByExists) {
+                    xxGroup.setAddedByUserId(createdByUserId);
+                    xxGroup.setUpdatedByUserId(createdByUserId);
+                }
+
+                if (groupExists) {
+                    getDao().update(xxGroup, false);
+                } else {
+                    getDao().create(xxGroup, false);
+
+                    // for a repeated name later in the batch to update the created group
+                    groups.put(vxGroup.getName(), xxGroup);
+                    groupsIgnCase.putIfAbsent(StringUtils.lowerCase(vxGroup.getName()), xxGroup);
+                }
+            }
+
+            getDao().flush();
+            getDao().clear();
+        }
+    }
+
     public VXGroup readResourceWithOutLogin(Long id) {
         XXGroup resource = getDao().getById(id);
 
@@ -20,6 +20,7 @@
 package org.apache.ranger.service;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.ranger.biz.RangerBizUtil;
 import org.apache.ranger.common.MessageEnums;
 import org.apache.ranger.common.PropertiesUtil;
 import org.apache.ranger.common.SearchField;
@@ -33,6 +34,9 @@
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -109,36 +113,25 @@ public void createOrDeleteXGroupUsers(GroupUserInfo groupUserInfo, Map<String, L
             return;
         }
 
-        /* findUsersByGroupName returns all the entries from x_group_users table for a given group name and corresponding usernames from x_user table.
-            Return Map has username as key and XXGroupUser object as value.
-         */
+        Map<String, Long> addUsers = getUserIds(groupUserInfo.getAddUsers(), usersFromDB);
+        Map<String, Long> delUsers = getUserIds(groupUserInfo.getDelUsers(), usersFromDB);
 
-        Map<String, XXGroupUser> groupUsers = daoManager.getXXGroupUser().findUsersByGroupName(groupName);
+        logger.debug("No. of new users in group {} : {}, No. of deleted users : {}", groupName, addUsers.size(), delUsers.size());
 
-        if (CollectionUtils.isNotEmpty(groupUserInfo.getAddUsers())) {
-            Set<String> addUsers = groupUserInfo.getAddUsers();
+        // update group user mappings after the transaction commits, in batches of RangerBizUtil.BATCH_PERSIST_SIZE mappings per transaction
+        List<Map.Entry<String, Long>> addUserList = new ArrayList<>(addUsers.entrySet());
+        List<Map.Entry<String, Long>> delUserList = new ArrayList<>(delUsers.entrySet());
 
-            logger.debug("No. of new users in group {} : {}", groupName, addUsers.size());
+        for (int fromIndex = 0; fromIndex < addUserList.size(); fromIndex += RangerBizUtil.BATCH_PERSIST_SIZE) {
+            List<Map.Entry<String, Long>> users = addUserList.subList(fromIndex, Math.min(fromIndex + RangerBizUtil.BATCH_PERSIST_SIZE, addUserList.size()));
 
-            for (String username : addUsers) {
-                if (usersFromDB.containsKey(username)) {
-                    // Add or update group user mapping only if the user exists in x_user table.
-                    transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), username, usersFromDB.get(username), groupUsers.get(username), false));
-                }
-            }
+            transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), users, false));
         }
 
-        if (CollectionUtils.isNotEmpty(groupUserInfo.getDelUsers())) {
-            Set<String> delUsers = groupUserInfo.getDelUsers();
+        for (int fromIndex = 0; fromIndex < delUserList.size(); fromIndex += RangerBizUtil.BATCH_PERSIST_SIZE) {
+            List<Map.Entry<String, Long>> users = delUserList.subList(fromIndex, Math.min(fromIndex + RangerBizUtil.BATCH_PERSIST_SIZE, delUserList.size()));
 
-            logger.debug("No. of deleted users in group {} : {}", groupName, delUsers.size());
-
-            for (String username : delUsers) {
-                if (usersFromDB.containsKey(username)) {
-                    // delete group user mapping only if the user exists in x_user table..
-                    transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), username, usersFromDB.get(username), groupUsers.get(username), true));
-                }
-            }
+            transactionSynchronizationAdapter.executeOnTransactionCommit(new GroupUserMappingUpdator(groupName, xxGroup.getId(), users, true));
         }
 
         if (logger.isDebugEnabled()) {
@@ -150,6 +143,23 @@ public void createOrDeleteXGroupUsers(GroupUserInfo groupUserInfo, Map<String, L
         }
     }
 
+    // mapping only the users that exist in x_user table
+    private static Map<String, Long> getUserIds(Set<String> userNames, Map<String, Long> usersFromDB) {
+        Map<String, Long> ret = new LinkedHashMap<>();
+
+        if (CollectionUtils.isNotEmpty(userNames)) {
+            for (String userName : userNames) {
+                Long userId = usersFromDB.get(userName);
+
+                if (userId != null) {
+                    ret.put(userName, userId);
+                }
+            }
+        }
+
+        return ret;
+    }
+
     public VXGroupUser readResourceWithOutLogin(Long id) {
         XXGroupUser resource = getDao().getById(id);
 
@@ -170,20 +180,16 @@ protected void validateForUpdate(VXGroupUser vObj, XXGroupUser mObj) {
     }
 
     private class GroupUserMappingUpdator implements Runnable {
-        private final String      groupName;
-        private final Long        groupId;
-        private final String      userName;
-        private final Long        userId;
-        private final boolean     isDelete;
-        private       XXGroupUser xxGroupUser;
-
-        GroupUserMappingUpdator(String groupName, Long groupId, String userName, Long userId, XXGroupUser xxGroupUser, boolean isDelete) {
-            this.groupName   = groupName;
-            this.groupId     = groupId;
-            this.userName    = userName;
-            this.userId      = userId;
-            this.xxGroupUser = xxGroupUser;
-            this.isDelete    = isDelete;
+        private final String                        groupName;
+        private final Long                          groupId;
+        private final List<Map.Entry<String, Long>> users;
+        private final boolean                       isDelete;
+
+        GroupUserMappingUpdator(String groupName, Long groupId, List<Map.Entry<String, Long>> users, boolean isDelete) {
+            this.groupName = groupName;
+            this.groupId   = groupId;
+            this.users     = users;
+            this.isDelete  = isDelete;
         }
 
         @Override
@@ -191,47 +197,60 @@ public void run() {
             updateGroupUserMappings();
         }
 
+        /*
+         * reads existing mappings of the group in this transaction, so that a retry after a failed commit starts afresh.
+         * Statements are flushed once, for the JDBC driver to send them in a batch
+         */
         private void updateGroupUserMappings() {
-            logger.debug("==> GroupUserMappingUpdater.updateGroupUserMappings({}, {})", groupName, userName);
+            logger.debug("==> GroupUserMappingUpdater.updateGroupUserMappings({}, userCount={}, isDelete={})", groupName, users.size(), isDelete);
+
+            Map<String, XXGroupUser> groupUsers = daoManager.getXXGroupUser().findUsersByGroupName(groupName);
 
             if (isDelete) {
-                if (xxGroupUser != null) {
-                    getDao().remove(xxGroupUser.getId());
+                for (Map.Entry<String, Long> user : users) {
+                    XXGroupUser xxGroupUser = groupUsers.get(user.getKey());
+
+                    if (xxGroupUser != null) {
+                        getDao().remove(xxGroupUser, false);
 
-                    logger.debug("createOrDeleteXGroupUsers(): deleted group user mapping with groupname =  {} username = {}", groupName, userName);
+                        logger.debug("createOrDeleteXGroupUsers(): deleted group user mapping with groupname =  {} username = {}", groupName, user.getKey());
+                    }
                 }
             } else {
-                boolean groupUserMappingExists = true;
+                boolean isCreatedByExists = daoManager.getXXPortalUser().getById(createdByUserId) != null;
 
-                if (xxGroupUser == null) {
-                    xxGroupUser            = new XXGroupUser();
-                    groupUserMappingExists = false;
-                }
+                for (Map.Entry<String, Long> user : users) {
+                    XXGroupUser xxGroupUser            = groupUsers.get(user.getKey());
+                    boolean     groupUserMappingExists = xxGroupUser != null;
 
-                XXPortalUser xXPortalUser = daoManager.getXXPortalUser().getById(createdByUserId);
+                    if (!groupUserMappingExists) {
+                        VXGroupUser vXGroupUser = new VXGroupUser();
 
-                if (xXPortalUser != null) {
-                    xxGroupUser.setAddedByUserId(createdByUserId);
-                    xxGroupUser.setUpdatedByUserId(createdByUserId);
-                }
+                        vXGroupUser.setUserId(user.getValue());
+                        vXGroupUser.setName(groupName);
+                        vXGroupUser.setParentGroupId(groupId);
 
-                if (groupUserMappingExists) {
-                    xxGroupUser = getDao().update(xxGroupUser);
-                } else {
-                    VXGroupUser vXGroupUser = new VXGroupUser();
+                        xxGroupUser = mapViewToEntityBean(vXGroupUser, new XXGroupUser(), 0);
+                    }
 
-                    vXGroupUser.setUserId(userId);
-                    vXGroupUser.setName(groupName);
-                    vXGroupUser.setParentGroupId(groupId);
+                    if (isCreatedByExists) {
+                        xxGroupUser.setAddedByUserId(createdByUserId);
+                        xxGroupUser.setUpdatedByUserId(createdByUserId);
+                    }
 
-                    xxGroupUser = mapViewToEntityBean(vXGroupUser, xxGroupUser, 0);
-                    xxGroupUser = getDao().create(xxGroupUser);
-                }
+                    if (groupUserMappingExists) {
+                        getDao().update(xxGroupUser, false);
+                    } else {
+                        getDao().create(xxGroupUser, false);
+                    }
 
-                logger.debug("createOrDeleteXGroupUsers(): Create or update group user mapping with groupname = {}, username = {}, userId = {}", groupName, userName, xxGroupUser.getUserId());
+                    logger.debug("createOrDeleteXGroupUsers(): Create or update group user mapping with groupname = {}, username = {}, userId = {}", groupName, user.getKey(), user.getValue());
+                }
             }
 
-            logger.debug("<== GroupUserMappingUpdater.updateGroupUserMappings({}, {})", groupName, userName);
+            getDao().flush();
+
+            logger.debug("<== GroupUserMappingUpdater.updateGroupUserMappings({}, userCount={}, isDelete={})", groupName, users.size(), isDelete);
         }
     }
 }
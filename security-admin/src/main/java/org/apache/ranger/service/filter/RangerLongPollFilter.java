@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.service.filter;
+
+import com.sun.jersey.spi.container.ContainerRequest;
+import com.sun.jersey.spi.container.ContainerRequestFilter;
+import org.apache.commons.lang.StringUtils;
+import org.apache.ranger.common.RangerServiceVersionWatcher;
+import org.apache.ranger.common.RangerServiceVersionWatcher.VersionType;
+import org.apache.ranger.plugin.util.RangerRESTUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MultivaluedMap;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Holds policy/tag/role download requests having longPollTimeoutMs parameter until the requested version changes.
+ *
+ * The wait is done in this filter, before the REST method is invoked, so that a waiting request doesn't hold on to a
+ * transaction and its database connection. Only requests that pass the authentication checks of the download API are held.
+ */
+public class RangerLongPollFilter implements ContainerRequestFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(RangerLongPollFilter.class);
+
+    private static final Pattern POLICY_DOWNLOAD_PATH = Pattern.compile("^/?plugins/(secure/)?policies/download/([^/]+)/?$");
+    private static final Pattern TAG_DOWNLOAD_PATH    = Pattern.compile("^/?tags/(secure/)?download/([^/]+)/?$");
+    private static final Pattern ROLE_DOWNLOAD_PATH   = Pattern.compile("^/?roles/(secure/)?download/([^/]+)/?$");
+
+    @Context
+    HttpServletRequest servletRequest;
+
+    @Override
+    public ContainerRequest filter(ContainerRequest request) {
+        MultivaluedMap<String, String> queryParams = request.getQueryParameters();
+        String                         timeoutMs   = queryParams != null ? queryParams.getFirst(RangerRESTUtils.REST_PARAM_LONG_POLL_TIMEOUT_MS) : null;
+
+        if (StringUtils.isNotBlank(timeoutMs) && HttpMethod.GET.equals(request.getMethod())) {
+            RangerServiceVersionWatcher versionWatcher = RangerServiceVersionWatcher.getInstance();
+            String                      path           = request.getPath();
+
+            if (versionWatcher != null && path != null) {
+                Matcher           policyMatcher = POLICY_DOWNLOAD_PATH.matcher(path);
+                Matcher           tagMatcher    = TAG_DOWNLOAD_PATH.matcher(path);
+                Matcher           roleMatcher   = ROLE_DOWNLOAD_PATH.matcher(path);
+                final Matcher     matcher;
+                final VersionType versionType;
+                final String      versionParam;
+
+                if (policyMatcher.matches()) {
+                    matcher      = policyMatcher;
+                    versionType  = VersionType.POLICY;
+                    versionParam = RangerRESTUtils.REST_PARAM_LAST_KNOWN_POLICY_VERSION;
+                } else if (tagMatcher.matches()) {
+                    matcher      = tagMatcher;
+                    versionType  = VersionType.TAG;
+                    versionParam = RangerRESTUtils.LAST_KNOWN_TAG_VERSION_PARAM;
+                } else if (roleMatcher.matches()) {
+                    matcher      = roleMatcher;
+                    versionType  = VersionType.ROLE;
+                    versionParam = RangerRESTUtils.REST_PARAM_LAST_KNOWN_ROLE_VERSION;
+                } else {
+                    matcher      = null;
+                    versionType  = null;
+                    versionParam = null;
+                }
+
+                String lastKnownVersion = versionType != null ? queryParams.getFirst(versionParam) : null;
+
+                if (StringUtils.isNotBlank(lastKnownVersion)) {
+                    String  serviceName      = matcher.group(2);
+                    boolean isSecureDownload = matcher.group(1) != null;
+
+                    if (!versionWatcher.isDownloadAuthenticated(serviceName, isSecureDownload, servletRequest)) {
+                        LOG.debug("RangerLongPollFilter.filter({}): request not authenticated for download. Not waiting for updates", path);
+
+                        return request;
+                    }
+
+                    try {
+                        versionWatcher.waitForUpdate(versionType, serviceName, Long.parseLong(lastKnownVersion), Long.parseLong(timeoutMs));
+                    } catch (NumberFormatException excp) {
+                        LOG.debug("RangerLongPollFilter.filter({}): invalid {}={} or {}={}. Not waiting for updates", path, versionParam, lastKnownVersion, RangerRESTUtils.REST_PARAM_LONG_POLL_TIMEOUT_MS, timeoutMs);
+                    } catch (InterruptedException excp) {
+                        LOG.debug("RangerLongPollFilter.filter({}): interrupted while waiting for updates", path);
+
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        return request;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.audit;
+
+import org.apache.ranger.audit.model.AuditIndexRecord;
+import org.apache.ranger.audit.model.SPOOL_FILE_STATUS;
+import org.apache.ranger.audit.queue.AuditSpoolIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestAuditSpoolIndex {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testJournalReplay() throws Exception {
+        File                   indexFile = new File(tempFolder.getRoot(), "index_test.json");
+        List<AuditIndexRecord> records   = new ArrayList<>();
+
+        records.add(createRecord("1", "spool_1.log"));
+        records.add(createRecord("2", "spool_2.log"));
+
+        AuditSpoolIndex<AuditIndexRecord> index = createIndex(indexFile, 100);
+
+        index.checkpoint(records);
+
+        for (int i = 1; i <= 10; i++) { // progress updates go to the journal, without rewriting the index file
+            records.get(0).setLinePosition(i * 100);
+            records.get(0).setStatus(SPOOL_FILE_STATUS.read_inprogress);
+
+            index.update(records.get(0), records);
+        }
+
+        index.close();
+
+        assertEquals(2, lineCount(indexFile));
+        assertEquals(10, lineCount(index.getJournalFile()));
+
+        List<AuditIndexRecord> loaded = createIndex(indexFile, 100).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("1", loaded.get(0).getId());
+        assertEquals(1000, loaded.get(0).getLinePosition());
+        assertEquals(SPOOL_FILE_STATUS.read_inprogress, loaded.get(0).getStatus());
+        assertEquals("2", loaded.get(1).getId());
+        assertEquals(0, loaded.get(1).getLinePosition());
+
+        // load folds the journal into the index file
+        assertEquals(0, lineCount(index.getJournalFile()));
+        assertEquals(1000, createIndex(indexFile, 100).load().get(0).getLinePosition());
+    }
+
+    @Test
+    public void testCheckpointOnFullJournal() throws Exception {
+        File                              indexFile = new File(tempFolder.getRoot(), "index_test.json");
+        List<AuditIndexRecord>            records   = new ArrayList<>();
+        AuditSpoolIndex<AuditIndexRecord> index     = createIndex(indexFile, 5);
+
+        records.add(createRecord("1", "spool_1.log"));
+
+        index.checkpoint(records);
+
+        for (int i = 1; i <= 6; i++) {
+            records.get(0).setLinePosition(i);
+
+            index.update(records.get(0), records);
+        }
+
+        index.close();
+
+        assertEquals(0, lineCount(index.getJournalFile()));
+        assertEquals(6, createIndex(indexFile, 5).load().get(0).getLinePosition());
+
+        // journal entries of records removed from the index are ignored
+        index.update(createRecord("3", "spool_3.log"), records);
+        index.close();
+
+        assertEquals(1, createIndex(indexFile, 5).load().size());
+    }
+
+    @Test
+    public void testPartialJournalEntry() throws Exception {
+        File                              indexFile = new File(tempFolder.getRoot(), "index_test.json");
+        List<AuditIndexRecord>            records   = new ArrayList<>();
+        AuditSpoolIndex<AuditIndexRecord> index     = createIndex(indexFile, 100);
+
+        records.add(createRecord("1", "spool_1.log"));
+
+        index.checkpoint(records);
+
+        records.get(0).setLinePosition(10);
+
+        index.update(records.get(0), records);
+        index.close();
+
+        // simulate a crash while appending to the journal
+        Files.write(index.getJournalFile().toPath(), "{\"id\":\"1\",\"linePos".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<AuditIndexRecord> loaded = createIndex(indexFile, 100).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals(10, loaded.get(0).getLinePosition());
+    }
+
+    private static AuditSpoolIndex<AuditIndexRecord> createIndex(File indexFile, int maxJournalRecords) {
+        return new AuditSpoolIndex<>(indexFile, AuditIndexRecord.class, AuditIndexRecord::getId, false, maxJournalRecords);
+    }
+
+    private static AuditIndexRecord createRecord(String id, String filePath) {
+        AuditIndexRecord ret = new AuditIndexRecord();
+
+        ret.setId(id);
+        ret.setFilePath(filePath);
+        ret.setStatus(SPOOL_FILE_STATUS.pending);
+
+        return ret;
+    }
+
+    private static int lineCount(File file) throws Exception {
+        return file.exists() ? Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size() : 0;
+    }
+}
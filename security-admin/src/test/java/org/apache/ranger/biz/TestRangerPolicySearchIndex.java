@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.biz;
+
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyItem;
+import org.apache.ranger.plugin.model.RangerPolicy.RangerPolicyResource;
+import org.apache.ranger.plugin.store.ServicePredicateUtil;
+import org.apache.ranger.plugin.util.SearchFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class TestRangerPolicySearchIndex {
+    private final List<RangerPolicy>      policies = Arrays.asList(
+            createPolicy(3L, "finance-tables", "db1", "finance_*", Collections.singletonList("alice"), Collections.singletonList("finance"), null, "pii"),
+            createPolicy(1L, "all-databases", "*", "*", Collections.singletonList("admin"), Collections.singletonList("public"), null, null),
+            createPolicy(2L, "sales-tables", "db2", "sales", Arrays.asList("bob", "Alicia"), null, Collections.singletonList("analysts"), "sales"),
+            createPolicy(4L, "zoned", "db3", "t1", Collections.singletonList("carol"), null, null, null));
+    private final RangerPolicySearchIndex index    = new RangerPolicySearchIndex(1L, 10L, policies);
+
+    @Test
+    public void testCandidatesIncludeAllMatches() {
+        policies.get(3).setZoneName("zone1");
+
+        RangerPolicySearchIndex index         = new RangerPolicySearchIndex(1L, 10L, policies);
+        ServicePredicateUtil    predicateUtil = new ServicePredicateUtil(null);
+
+        for (SearchFilter filter : Arrays.asList(createFilter(SearchFilter.USER, "ali"),
+                createFilter(SearchFilter.USER, "BOB"),
+                createFilter(SearchFilter.GROUP, "fin"),
+                createFilter(SearchFilter.ROLE, "analysts"),
+                createFilter(SearchFilter.POLICY_LABELS_PARTIAL, "PI"),
+                createFilter(SearchFilter.POL_RESOURCE, "sales"),
+                createFilter(SearchFilter.POLICY_NAME, "zoned"),
+                createFilter(SearchFilter.POLICY_NAME_PARTIAL, "tables"),
+                createFilter(SearchFilter.POLICY_ID, "2"),
+                createFilter(SearchFilter.ZONE_NAME, "zone1"),
+                createFilter(SearchFilter.POLICY_TYPE, "0"),
+                createFilter(SearchFilter.RESOURCE_PREFIX + "table", "finance_q1"),
+                createFilter(SearchFilter.RESOURCE_PREFIX + "column", "c1"))) {
+            List<RangerPolicy> expected = new ArrayList<>(policies);
+
+            predicateUtil.applyFilter(expected, filter);
+
+            List<RangerPolicy> candidates = index.getCandidatePolicies(filter);
+
+            Assert.assertTrue("missing candidates for filter " + filter, candidates.containsAll(expected));
+
+            predicateUtil.applyFilter(candidates, filter);
+
+            Assert.assertEquals("incorrect result for filter " + filter, new HashSet<>(expected), new HashSet<>(candidates));
+        }
+    }
+
+    @Test
+    public void testCandidatesAreNarrowed() {
+        SearchFilter filter = createFilter(SearchFilter.USER, "ali");
+
+        filter.setParam(SearchFilter.RESOURCE_PREFIX + "table", "sales");
+
+        Assert.assertEquals(Collections.singletonList(2L), getIds(index.getCandidatePolicies(filter)));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), getIds(index.getCandidatePolicies(new SearchFilter())));
+        Assert.assertEquals(Collections.emptyList(), getIds(index.getCandidatePolicies(createFilter(SearchFilter.POLICY_ID, "abc"))));
+        Assert.assertEquals(4, index.getPolicyCount());
+    }
+
+    private static SearchFilter createFilter(String name, String value) {
+        SearchFilter ret = new SearchFilter();
+
+        ret.setParam(name, value);
+
+        return ret;
+    }
+
+    private static List<Long> getIds(List<RangerPolicy> policies) {
+        List<Long> ret = new ArrayList<>();
+
+        for (RangerPolicy policy : policies) {
+            ret.add(policy.getId());
+        }
+
+        return ret;
+    }
+
+    private static RangerPolicy createPolicy(Long id, String name, String database, String table, List<String> users, List<String> groups, List<String> roles, String label) {
+        RangerPolicy                      ret       = new RangerPolicy();
+        RangerPolicyItem                  item      = new RangerPolicyItem();
+        Map<String, RangerPolicyResource> resources = new HashMap<>();
+
+        resources.put("database", new RangerPolicyResource(database));
+        resources.put("table", new RangerPolicyResource(table));
+
+        item.setUsers(users);
+        item.setGroups(groups);
+        item.setRoles(roles);
+
+        ret.setId(id);
+        ret.setName(name);
+        ret.setPolicyType(RangerPolicy.POLICY_TYPE_ACCESS);
+        ret.setResources(resources);
+        ret.setPolicyItems(Collections.singletonList(item));
+
+        if (label != null) {
+            ret.addPolicyLabel(label);
+        }
+
+        return ret;
+    }
+}
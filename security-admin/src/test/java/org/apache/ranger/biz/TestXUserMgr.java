@@ -134,6 +134,7 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -485,6 +486,7 @@ public void test06ModifyUserVisibilitySetOne() {
         Mockito.verify(xUserService).updateResource(vxUser);
         Mockito.verify(daoManager).getXXUser();
         Mockito.verify(xUserService).populateViewBean(xxUser);
+        Mockito.verify(xxGlobalStateDao).onGlobalAppDataChange(RANGER_USER_GROUP_GLOBAL_STATE_NAME);
     }
 
     @Test
@@ -597,6 +599,7 @@ public void test11ModifyGroupsVisibilitySetOne() {
         Mockito.verify(daoManager).getXXGroup();
         Mockito.verify(xGroupService).populateViewBean(xxGroup);
         Mockito.verify(xGroupService).updateResource(vXGroup);
+        Mockito.verify(xxGlobalStateDao).onGlobalAppDataChange(RANGER_USER_GROUP_GLOBAL_STATE_NAME);
     }
 
     @Test
@@ -3426,7 +3429,6 @@ public void test111CreateOrUpdateXUsers() {
         List<XXModuleDef> xXModuleDefs = xxModuleDefs();
 
         vXPortalUser.setUserRoleList(lstRole);
-        Mockito.when(userMgr.getUserProfileByLoginId(vXUser.getName())).thenReturn(null);
 
         Mockito.when(daoManager.getXXUser()).thenReturn(xxUserDao);
         Mockito.when(xxUserDao.findByUserName(vXUser.getName())).thenReturn(xXUser);
@@ -3569,8 +3571,11 @@ public void test113CreateOrUpdateXUsers() {
         List<XXModuleDef> xXModuleDefs = new ArrayList<>();
 
         vXPortalUser.setUserRoleList(lstRole);
-        Mockito.when(userMgr.getUserProfileByLoginId(vXUser.getName())).thenReturn(vXPortalUser);
+        Mockito.when(userMgr.mapXXPortalUserVXPortalUser(xXPortalUser)).thenReturn(vXPortalUser);
 
+        XXPortalUserDao xXPortalUserDao = Mockito.mock(XXPortalUserDao.class);
+        Mockito.when(daoManager.getXXPortalUser()).thenReturn(xXPortalUserDao);
+        Mockito.when(xXPortalUserDao.findByLoginIds(Collections.singleton(vXUser.getName()))).thenReturn(Collections.singletonList(xXPortalUser));
         Mockito.when(daoManager.getXXUser()).thenReturn(xxUserDao);
         Mockito.when(xxUserDao.findByUserName(vXUser.getName())).thenReturn(xXUser);
         Mockito.when(daoManager.getXXModuleDef()).thenReturn(xXModuleDefDao);
@@ -3612,11 +3617,14 @@ public void test113CreateOrUpdateXUsers() {
         vXPortalUser.setLastName("testuser");
         vXPortalUser.setPassword("TestPassword@123");
         vXPortalUser.setUserRoleList(lstRole);
-        Mockito.when(userMgr.getUserProfileByLoginId(vXUser.getName())).thenReturn(vXPortalUser);
+        Mockito.when(userMgr.mapXXPortalUserVXPortalUser(xXPortalUser)).thenReturn(vXPortalUser);
         Mockito.when(userMgr.updateUserWithPass(Mockito.any())).thenReturn(xXPortalUser);
         xUserMgr.createOrUpdateXUsers(users);
         vXUser.setPassword("*****");
         xUserMgr.createOrUpdateXUsers(users);
+
+        // existing users are read with one query for the batch, not looked up one by one
+        Mockito.verify(userMgr, Mockito.never()).getUserProfileByLoginId(Mockito.anyString());
     }
 
     @Test
@@ -3828,6 +3836,7 @@ public void test121UpdateDeletedUsers() {
         int count = xUserMgr.updateDeletedUsers(delUsers);
         Assert.assertNotNull(count);
         Assert.assertEquals(1, count);
+        Mockito.verify(xxGlobalStateDao).onGlobalAppDataChange(RANGER_USER_GROUP_GLOBAL_STATE_NAME);
     }
 
     @Test
@@ -3850,6 +3859,7 @@ public void test122UpdateDeletedGroups() {
         int count = xUserMgr.updateDeletedGroups(delGroups);
         Assert.assertNotNull(count);
         Assert.assertEquals(1, count);
+        Mockito.verify(xxGlobalStateDao).onGlobalAppDataChange(RANGER_USER_GROUP_GLOBAL_STATE_NAME);
     }
 
     @Test
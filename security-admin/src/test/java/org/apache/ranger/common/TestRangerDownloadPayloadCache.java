@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.ranger.plugin.model.RangerPolicy;
+import org.apache.ranger.plugin.util.RangerRoles;
+import org.apache.ranger.plugin.util.ServicePolicies;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+public class TestRangerDownloadPayloadCache {
+    @Test
+    public void testPayloadIsSerializedOncePerContent() throws Exception {
+        RangerDownloadPayloadCache cache          = RangerDownloadPayloadCache.getInstance();
+        AtomicInteger              serializeCount = new AtomicInteger();
+        String                     contentHash    = RangerDownloadPayloadCache.getContentHash(createRoles(5L));
+
+        cache.clear();
+
+        for (int i = 0; i < 3; i++) {
+            byte[] gzPayload = cache.getPayload(contentHash, out -> {
+                serializeCount.incrementAndGet();
+
+                out.write("{\"roleVersion\":5}".getBytes(StandardCharsets.UTF_8));
+            });
+
+            Assert.assertEquals("{\"roleVersion\":5}", IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(gzPayload)), StandardCharsets.UTF_8));
+        }
+
+        Assert.assertEquals(1, serializeCount.get());
+    }
+
+    @Test
+    public void testSetPayload() throws Exception {
+        RangerDownloadPayloadCache cache       = RangerDownloadPayloadCache.getInstance();
+        RangerRoles                roles       = createRoles(3L);
+        String                     contentHash = RangerDownloadPayloadCache.getContentHash(roles);
+        HttpServletRequest         request     = Mockito.mock(HttpServletRequest.class);
+
+        Assert.assertTrue(cache.setPayload(request, roles));
+        Mockito.verify(request).setAttribute(RangerDownloadPayloadCache.ATTR_CONTENT_HASH, contentHash);
+
+        // client already has the payload
+        HttpServletRequest cachedRequest = Mockito.mock(HttpServletRequest.class);
+
+        Mockito.when(cachedRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(RangerDownloadPayloadCache.getETag(contentHash));
+
+        Assert.assertFalse(cache.setPayload(cachedRequest, roles));
+        Mockito.verify(cachedRequest, Mockito.never()).setAttribute(Mockito.anyString(), Mockito.any());
+
+        Assert.assertTrue(cache.setPayload(null, roles));
+    }
+
+    @Test
+    public void testContentHash() throws Exception {
+        ServicePolicies policies     = createPolicies(10L, "policy-1");
+        ServicePolicies samePolicies = createPolicies(10L, "policy-1");
+        ServicePolicies otherContent = createPolicies(10L, "policy-2"); // same version and counts, different content
+
+        Assert.assertEquals(RangerDownloadPayloadCache.getContentHash(policies), RangerDownloadPayloadCache.getContentHash(samePolicies));
+        Assert.assertNotEquals(RangerDownloadPayloadCache.getContentHash(policies), RangerDownloadPayloadCache.getContentHash(otherContent));
+    }
+
+    private static RangerRoles createRoles(Long version) {
+        RangerRoles ret = new RangerRoles();
+
+        ret.setServiceName("dev_hive");
+        ret.setRoleVersion(version);
+
+        return ret;
+    }
+
+    private static ServicePolicies createPolicies(Long version, String policyName) {
+        ServicePolicies ret    = new ServicePolicies();
+        RangerPolicy    policy = new RangerPolicy();
+
+        policy.setName(policyName);
+
+        ret.setServiceName("dev_hive");
+        ret.setPolicyVersion(version);
+        ret.setPolicies(Collections.singletonList(policy));
+
+        return ret;
+    }
+}
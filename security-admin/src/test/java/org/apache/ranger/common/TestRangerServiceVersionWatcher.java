@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.common;
+
+import org.apache.ranger.biz.RangerBizUtil;
+import org.apache.ranger.common.RangerServiceVersionWatcher.VersionType;
+import org.apache.ranger.db.RangerDaoManager;
+import org.apache.ranger.db.XXServiceVersionInfoDao;
+import org.apache.ranger.entity.XXServiceVersionInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.WebApplicationException;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRangerServiceVersionWatcher {
+    private static final String SERVICE_NAME = "dev_hive";
+
+    private final XXServiceVersionInfo        versionInfo = new XXServiceVersionInfo();
+    private       RangerServiceVersionWatcher watcher;
+
+    @Before
+    public void setUp() {
+        RangerDaoManager        daoMgr = Mockito.mock(RangerDaoManager.class);
+        XXServiceVersionInfoDao dao    = Mockito.mock(XXServiceVersionInfoDao.class);
+
+        versionInfo.setPolicyVersion(5L);
+        versionInfo.setTagVersion(3L);
+        versionInfo.setRoleVersion(2L);
+
+        Mockito.when(daoMgr.getXXServiceVersionInfo()).thenReturn(dao);
+        Mockito.when(dao.getAllWithServiceNames()).thenReturn(Collections.singletonList(new Object[] {versionInfo, SERVICE_NAME}));
+
+        watcher             = new RangerServiceVersionWatcher();
+        watcher.daoMgr      = daoMgr;
+        watcher.txManager   = Mockito.mock(PlatformTransactionManager.class);
+        watcher.bizUtil     = Mockito.mock(RangerBizUtil.class);
+        watcher.serviceUtil = Mockito.mock(ServiceUtil.class);
+
+        watcher.init();
+    }
+
+    @Test
+    public void testNoWaitWhenVersionDiffers() throws Exception {
+        long startTime = System.currentTimeMillis();
+
+        assertTrue(watcher.waitForUpdate(VersionType.POLICY, SERVICE_NAME, 4L, 30000L));
+        assertTrue(watcher.waitForUpdate(VersionType.TAG, SERVICE_NAME, 2L, 30000L));
+        assertTrue("unknown service should not wait", watcher.waitForUpdate(VersionType.POLICY, "unknown_service", 5L, 30000L));
+        assertTrue("should not have waited for the timeout", System.currentTimeMillis() - startTime < 10000L);
+
+        assertFalse("should not wait for first download", watcher.waitForUpdate(VersionType.POLICY, SERVICE_NAME, -1L, 30000L));
+        assertFalse("should not wait without timeout", watcher.waitForUpdate(VersionType.POLICY, SERVICE_NAME, 5L, 0L));
+    }
+
+    @Test
+    public void testTimeoutWhenNoChange() throws Exception {
+        long startTime = System.currentTimeMillis();
+
+        assertFalse(watcher.waitForUpdate(VersionType.POLICY, SERVICE_NAME, 5L, 1500L));
+        assertTrue(System.currentTimeMillis() - startTime >= 1500L);
+        assertEquals(0, watcher.getWaiterCount());
+    }
+
+    @Test
+    public void testWakeUpOnChange() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Boolean> policyWait = executor.submit(() -> watcher.waitForUpdate(VersionType.POLICY, SERVICE_NAME, 5L, 60000L));
+            Future<Boolean> tagWait    = executor.submit(() -> watcher.waitForUpdate(VersionType.TAG, SERVICE_NAME, 3L, 60000L));
+
+            Thread.sleep(1500L);
+
+            assertFalse(policyWait.isDone());
+            assertFalse(tagWait.isDone());
+
+            versionInfo.setRoleVersion(3L); // role updates should end waits for policies
+
+            assertTrue(policyWait.get(10, TimeUnit.SECONDS));
+            assertFalse(tagWait.isDone());
+
+            versionInfo.setTagVersion(4L);
+
+            assertTrue(tagWait.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDownloadAuthentication() throws Exception {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+
+        Mockito.when(watcher.serviceUtil.isValidateHttpsAuthentication(SERVICE_NAME, request)).thenReturn(true);
+        Mockito.when(watcher.serviceUtil.isValidService(SERVICE_NAME, request)).thenReturn(true);
+
+        assertTrue(watcher.isDownloadAuthenticated(SERVICE_NAME, false, request));
+        assertFalse("secure download without a user session", watcher.isDownloadAuthenticated(SERVICE_NAME, true, request));
+        assertFalse(watcher.isDownloadAuthenticated(SERVICE_NAME, false, null));
+
+        Mockito.when(watcher.serviceUtil.isValidateHttpsAuthentication(SERVICE_NAME, request)).thenThrow(new WebApplicationException());
+
+        assertFalse(watcher.isDownloadAuthenticated(SERVICE_NAME, false, request));
+
+        Mockito.doThrow(new Exception("Unauthenticated access not allowed")).when(watcher.bizUtil).failUnauthenticatedDownloadIfNotAllowed();
+
+        assertFalse(watcher.isDownloadAuthenticated(SERVICE_NAME, false, request));
+    }
+}
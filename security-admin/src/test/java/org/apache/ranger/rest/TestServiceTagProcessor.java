@@ -275,4 +275,57 @@ public void test5processReplace() throws Exception {
         Mockito.verify(tagStore).deleteTagResourceMap(rangerTagRmp.getId());
         Mockito.verify(tagStore).deleteServiceResourceByGuid(Mockito.anyString());
     }
+
+    @Test
+    public void test6processAddOrUpdateSharedTag() throws Exception {
+        RangerServiceResource res1      = new RangerServiceResource();
+        RangerServiceResource res2      = new RangerServiceResource();
+        RangerServiceResource res1Store = new RangerServiceResource();
+        RangerServiceResource res2Store = new RangerServiceResource();
+
+        res1.setId(1L);
+        res1.setGuid("res1");
+        res2.setId(2L);
+        res2.setGuid("res2");
+        res1Store.setId(101L);
+        res1Store.setGuid("res1");
+        res2Store.setId(102L);
+        res2Store.setGuid("res2");
+
+        RangerTag incomingTag = new RangerTag();
+        RangerTag sharedTag   = new RangerTag();
+
+        incomingTag.setId(1L);
+        incomingTag.setGuid("sharedTag");
+        incomingTag.setType("PII");
+        incomingTag.setOwner(RangerTag.OWNER_GLOBAL);
+        sharedTag.setId(5L);
+        sharedTag.setGuid("sharedTag");
+        sharedTag.setType("PII");
+        sharedTag.setOwner(RangerTag.OWNER_GLOBAL);
+
+        Map<Long, List<Long>> resourceToTagIds = new HashMap<>();
+
+        resourceToTagIds.put(1L, new ArrayList<>(Collections.singletonList(1L)));
+        resourceToTagIds.put(2L, new ArrayList<>(Collections.singletonList(1L)));
+
+        serviceTags = new ServiceTags();
+        serviceTags.setServiceResources(new ArrayList<>(Arrays.asList(res1, res2)));
+        serviceTags.setTags(new HashMap<>(Collections.singletonMap(1L, incomingTag)));
+        serviceTags.setResourceToTagIds(resourceToTagIds);
+
+        TagStore tagStore = Mockito.mock(TagStore.class);
+
+        Mockito.when(tagStore.getServiceResourceByGuid("res1")).thenReturn(res1Store);
+        Mockito.when(tagStore.getServiceResourceByGuid("res2")).thenReturn(res2Store);
+        Mockito.when(tagStore.getTagByGuid("sharedTag")).thenReturn(sharedTag);
+
+        new ServiceTagsProcessor(tagStore).process(serviceTags);
+
+        // shared tag is looked up and updated once, and associated with both resources
+        Mockito.verify(tagStore, Mockito.times(1)).getTagByGuid("sharedTag");
+        Mockito.verify(tagStore, Mockito.times(1)).updateTag(incomingTag);
+        Mockito.verify(tagStore, Mockito.times(2)).createTagResourceMap(Mockito.any(RangerTagResourceMap.class));
+        Mockito.verify(tagStore, Mockito.never()).deleteServiceResource(Mockito.anyLong());
+    }
 }
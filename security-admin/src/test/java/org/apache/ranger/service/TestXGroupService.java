@@ -38,7 +38,10 @@
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 
 import static org.apache.ranger.service.RangerBaseModelService.OPERATION_CREATE_CONTEXT;
 import static org.apache.ranger.service.RangerBaseModelService.OPERATION_UPDATE_CONTEXT;
@@ -129,6 +132,30 @@ public void test5GetTransactionLog() {
         xGroupService.createTransactionLog(vObj, null, OPERATION_CREATE_CONTEXT);
     }
 
+    @Test
+    public void test6CreateOrUpdateXGroupsWithOutLogin() {
+        XXGroup existingGroup = createXXGroup();
+        VXGroup updatedGroup  = createvXGroup();
+        VXGroup newGroup      = createvXGroup();
+
+        newGroup.setId(null);
+        newGroup.setName("newGroup");
+
+        Mockito.when(daoManager.getXXGroup()).thenReturn(xXGroupDao);
+        Mockito.when(xXGroupDao.findByGroupNames(new HashSet<>(Arrays.asList(updatedGroup.getName(), newGroup.getName())))).thenReturn(Collections.singletonList(existingGroup));
+        Mockito.when(daoManager.getXXPortalUser()).thenReturn(xXPortalUserDao);
+        Mockito.when(xXPortalUserDao.getById(1L)).thenReturn(tUser);
+
+        xGroupService.createOrUpdateXGroupsWithOutLogin(Arrays.asList(updatedGroup, newGroup));
+
+        // existing groups are read with one query for the names in the batch, not by name for each group
+        Mockito.verify(xXGroupDao, Mockito.never()).findByGroupName(Mockito.anyString());
+        Mockito.verify(xXGroupDao, Mockito.never()).getAllGroupIdNames();
+        Mockito.verify(entityDao).update(existingGroup, false);
+        Mockito.verify(entityDao).create(Mockito.argThat(group -> group != existingGroup), Mockito.eq(false));
+        Mockito.verify(entityDao).flush();
+    }
+
     public VXGroup createvXGroup() {
         VXGroup vXGroup = new VXGroup();
         Date    date    = new Date();
@@ -94,6 +94,8 @@ public class TagSyncConfig extends Configuration {
     private static final int    DEFAULT_TAGSYNC_SINK_MAX_BATCH_SIZE = 1;
     private static final String TAGSYNC_SINK_MAX_BATCH_SIZE_PROP    = "ranger.tagsync.dest.ranger.max.batch.size";
     private static final String TAGSYNC_ATLASREST_SOURCE_ENTITIES_BATCH_SIZE = "ranger.tagsync.source.atlasrest.entities.batch.size";
+    private static final int    DEFAULT_TAGSYNC_ATLAS_SOURCE_WORKER_COUNT = 1;
+    private static final String TAGSYNC_ATLAS_SOURCE_WORKER_COUNT_PROP    = "ranger.tagsync.source.atlas.worker.count";
 
     private static TagSyncConfig instance;
     private static String        localHostname;
@@ -479,6 +481,21 @@ public static int getAtlasRestSourceEntitiesBatchSize(Properties prop) {
         return ret;
     }
 
+    public static int getAtlasSourceWorkerCount(Properties prop) {
+        String val = prop.getProperty(TAGSYNC_ATLAS_SOURCE_WORKER_COUNT_PROP);
+        int    ret = DEFAULT_TAGSYNC_ATLAS_SOURCE_WORKER_COUNT;
+
+        if (StringUtils.isNotBlank(val)) {
+            try {
+                ret = Integer.parseInt(val);
+            } catch (NumberFormatException exception) {
+                // Ignore
+            }
+        }
+
+        return Math.max(ret, 1);
+    }
+
     public Properties getProperties() {
         return props;
     }
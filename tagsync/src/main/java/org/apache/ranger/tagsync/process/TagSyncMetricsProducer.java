@@ -19,15 +19,24 @@
  * under the License.
  */
 
+import org.apache.ranger.authorization.utils.JsonUtils;
+import org.apache.ranger.plugin.model.RangerMetrics;
 import org.apache.ranger.plugin.util.RangerMetricsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class TagSyncMetricsProducer implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(TagSyncMetricsProducer.class);
 
+    private static final Map<String, Supplier<Map<String, Object>>> METRICS_SOURCES = new ConcurrentHashMap<>();
+
     private boolean shutdownFlag;
 
     public static void main(String[] args) {
@@ -36,6 +45,17 @@ public static void main(String[] args) {
         // try { tagSyncMetrics.writeJVMMetrics(); } catch (Throwable e) { }
     }
 
+    /*
+     * metrics returned by the given source, like by a tag source, are written to the metrics file along with JVM metrics
+     */
+    public static void registerMetricsSource(String name, Supplier<Map<String, Object>> source) {
+        METRICS_SOURCES.put(name, source);
+    }
+
+    public static void unregisterMetricsSource(String name) {
+        METRICS_SOURCES.remove(name);
+    }
+
     @Override
     public void run() {
         try {
@@ -84,7 +104,22 @@ private void writeJVMMetrics(String logFileNameWithPath, TagSyncConfig config) t
                     RangerMetricsUtil.setIsRoleActive(0);
                 }
             }
-            rangerMetricsUtil.writeMetricsToFile(userMetricFile);
+            if (METRICS_SOURCES.isEmpty()) {
+                rangerMetricsUtil.writeMetricsToFile(userMetricFile);
+            } else {
+                RangerMetrics       rangerMetrics  = rangerMetricsUtil.getVMStatus();
+                Map<String, Object> tagSyncMetrics = new LinkedHashMap<>();
+
+                for (Map.Entry<String, Supplier<Map<String, Object>>> entry : METRICS_SOURCES.entrySet()) {
+                    tagSyncMetrics.put(entry.getKey(), entry.getValue().get());
+                }
+
+                rangerMetrics.getData().put("tagsync", tagSyncMetrics);
+
+                try (FileWriter file = new FileWriter(userMetricFile)) {
+                    JsonUtils.objectToWriter(file, rangerMetrics);
+                }
+            }
         } catch (Throwable t) {
             LOG.error("TagSyncMetricsProducer.writeJVMMetrics() failed to write metrics into file. Error details: ", t);
             throw t;
@@ -32,6 +32,8 @@
 import org.apache.ranger.plugin.util.ServiceTags;
 import org.apache.ranger.tagsync.model.AbstractTagSource;
 import org.apache.ranger.tagsync.process.TagSyncConfig;
+import org.apache.ranger.tagsync.process.TagSyncMetricsProducer;
+import org.apache.ranger.tagsync.source.atlasrest.RangerAtlasEntity;
 import org.apache.ranger.tagsync.source.atlasrest.RangerAtlasEntityWithTags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,9 +42,17 @@
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AtlasTagSource extends AbstractTagSource {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasTagSource.class);
@@ -52,7 +62,25 @@ public class AtlasTagSource extends AbstractTagSource {
     public static final String TAGSYNC_ATLAS_ZOOKEEPER_ENDPOINT = "atlas.kafka.zookeeper.connect";
     public static final String TAGSYNC_ATLAS_CONSUMER_GROUP     = "atlas.kafka.entities.group.id";
     public static final int MAX_WAIT_TIME_IN_MILLIS = 1000;
+
+    private static final int    WORKER_QUEUE_CAPACITY   = 1000;
+    private static final long   MAX_BATCH_AGE_IN_MILLIS = 5 * MAX_WAIT_TIME_IN_MILLIS;
+    private static final String METRICS_SOURCE_NAME     = "atlasTagSource";
+
     private int maxBatchSize;
+    private int workerCount;
+
+    private final MessageOffsetTracker     offsetTracker     = new MessageOffsetTracker();
+    private       WorkerAssigner           workerAssigner;
+    private final List<NotificationWorker> workers           = new ArrayList<>();
+    private final List<Thread>             workerThreads     = new ArrayList<>();
+    private final AtomicLong               receivedCount     = new AtomicLong();
+    private final AtomicLong               processedCount    = new AtomicLong();
+    private final AtomicLong               coalescedCount    = new AtomicLong();
+    private final AtomicLong               uploadCount       = new AtomicLong();
+    private final AtomicLong               uploadTimeInMs    = new AtomicLong();
+    private       long                     lastMetricsTimeMs = System.currentTimeMillis();
+    private       long                     lastMetricsCount;
 
     private ConsumerRunnable consumerTask;
     private Thread           myThread;
@@ -102,16 +130,23 @@ public boolean initialize(Properties properties) {
             }
         }
 
+        maxBatchSize = TagSyncConfig.getSinkMaxBatchSize(properties);
+        workerCount  = TagSyncConfig.getAtlasSourceWorkerCount(properties);
+
         if (ret) {
             NotificationInterface                          notification = NotificationProvider.get();
             List<NotificationConsumer<EntityNotification>> iterators    = notification.createConsumers(NotificationInterface.NotificationType.ENTITIES, 1);
 
             consumerTask = new ConsumerRunnable(iterators.get(0));
-        }
 
-        maxBatchSize = TagSyncConfig.getSinkMaxBatchSize(properties);
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(new NotificationWorker());
+            }
+
+            workerAssigner = new WorkerAssigner(workers.size());
+        }
 
-        LOG.debug("<== AtlasTagSource.initialize(), result={}", ret);
+        LOG.debug("<== AtlasTagSource.initialize(), result={}, maxBatchSize={}, workerCount={}", ret, maxBatchSize, workerCount);
 
         return ret;
     }
@@ -123,9 +158,20 @@ public boolean start() {
         if (consumerTask == null) {
             LOG.error("No consumerTask!!!");
         } else {
+            for (int i = 0; i < workers.size(); i++) {
+                Thread workerThread = new Thread(workers.get(i), "AtlasTagSource-worker-" + i);
+
+                workerThread.setDaemon(true);
+                workerThread.start();
+
+                workerThreads.add(workerThread);
+            }
+
             myThread = new Thread(consumerTask);
             myThread.setDaemon(true);
             myThread.start();
+
+            TagSyncMetricsProducer.registerMetricsSource(METRICS_SOURCE_NAME, this::getMetrics);
         }
         LOG.debug("<== AtlasTagSource.start()");
         return myThread != null;
@@ -136,6 +182,14 @@ public void stop() {
         if (myThread != null && myThread.isAlive()) {
             myThread.interrupt();
         }
+
+        for (Thread workerThread : workerThreads) {
+            if (workerThread.isAlive()) {
+                workerThread.interrupt();
+            }
+        }
+
+        TagSyncMetricsProducer.unregisterMetricsSource(METRICS_SOURCE_NAME);
     }
 
     private static String getPrintableEntityNotification(EntityNotificationWrapper notification) {
@@ -149,15 +203,223 @@ private static String getPrintableEntityNotification(EntityNotificationWrapper n
         return sb.toString();
     }
 
-    private class ConsumerRunnable implements Runnable {
-        private final NotificationConsumer<EntityNotification> consumer;
+    private synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+
+        long now            = System.currentTimeMillis();
+        long processed      = processedCount.get();
+        long intervalInMs   = now - lastMetricsTimeMs;
+        long oldestPending  = offsetTracker.getOldestPendingTime();
+        int  queuedMessages = 0;
+
+        for (NotificationWorker worker : workers) {
+            queuedMessages += worker.getQueueSize();
+        }
+
+        ret.put("workerCount", workers.size());
+        ret.put("messagesReceived", receivedCount.get());
+        ret.put("messagesProcessed", processed);
+        ret.put("messagesCoalesced", coalescedCount.get());
+        ret.put("messagesQueued", queuedMessages);
+        ret.put("messagesPendingCommit", offsetTracker.getPendingCount());
+        ret.put("oldestPendingMessageAgeInMs", oldestPending != -1 ? (now - oldestPending) : 0);
+        ret.put("messagesProcessedPerSecond", intervalInMs > 0 ? ((processed - lastMetricsCount) * 1000 / intervalInMs) : 0);
+        ret.put("uploadCount", uploadCount.get());
+        ret.put("uploadTimeInMs", uploadTimeInMs.get());
+
+        lastMetricsTimeMs = now;
+        lastMetricsCount  = processed;
+
+        return ret;
+    }
+
+    /*
+     * tracks messages received from each partition, to commit offset of a message only after it and all messages
+     * before it in the partition are processed
+     */
+    static class MessageOffsetTracker {
+        private final Map<TopicPartition, TreeMap<Long, PendingOffset>> pendingOffsets = new HashMap<>();
+
+        synchronized void messageReceived(TopicPartition partition, long offset) {
+            pendingOffsets.computeIfAbsent(partition, k -> new TreeMap<>()).put(offset, new PendingOffset(System.currentTimeMillis()));
+        }
+
+        synchronized void messageProcessed(TopicPartition partition, long offset) {
+            TreeMap<Long, PendingOffset> offsets       = pendingOffsets.get(partition);
+            PendingOffset                pendingOffset = offsets != null ? offsets.get(offset) : null;
+
+            if (pendingOffset != null) {
+                pendingOffset.isProcessed = true;
+            }
+        }
+
+        // returns, for each partition, the highest offset up to which all messages have been processed
+        synchronized Map<TopicPartition, Long> getOffsetsToCommit() {
+            Map<TopicPartition, Long> ret = new HashMap<>();
+
+            for (Map.Entry<TopicPartition, TreeMap<Long, PendingOffset>> entry : pendingOffsets.entrySet()) {
+                Long offsetToCommit = null;
+
+                for (Iterator<Map.Entry<Long, PendingOffset>> iter = entry.getValue().entrySet().iterator(); iter.hasNext(); ) {
+                    Map.Entry<Long, PendingOffset> offset = iter.next();
+
+                    if (!offset.getValue().isProcessed) {
+                        break;
+                    }
+
+                    offsetToCommit = offset.getKey();
+
+                    iter.remove();
+                }
+
+                if (offsetToCommit != null) {
+                    ret.put(entry.getKey(), offsetToCommit);
+                }
+            }
+
+            return ret;
+        }
+
+        synchronized int getPendingCount() {
+            int ret = 0;
+
+            for (TreeMap<Long, PendingOffset> offsets : pendingOffsets.values()) {
+                ret += offsets.size();
+            }
+
+            return ret;
+        }
+
+        synchronized long getOldestPendingTime() {
+            long ret = -1;
+
+            for (TreeMap<Long, PendingOffset> offsets : pendingOffsets.values()) {
+                if (!offsets.isEmpty()) {
+                    long receivedTime = offsets.firstEntry().getValue().receivedTime;
+
+                    if (ret == -1 || receivedTime < ret) {
+                        ret = receivedTime;
+                    }
+                }
+            }
 
-        private final List<RangerAtlasEntityWithTags>             atlasEntitiesWithTags = new ArrayList<>();
-        private final List<AtlasKafkaMessage<EntityNotification>> messages              = new ArrayList<>();
-        private       AtlasKafkaMessage<EntityNotification>       lastUnhandledMessage;
+            return ret;
+        }
+
+        private static class PendingOffset {
+            final long receivedTime;
+            boolean    isProcessed;
+
+            PendingOffset(long receivedTime) {
+                this.receivedTime = receivedTime;
+            }
+        }
+    }
 
-        private long    offsetOfLastMessageCommittedToKafka = -1L;
-        private boolean isHandlingDeleteOps;
+    /*
+     * assigns notifications to workers, which process notifications in the order received. A notification goes to the
+     * worker having unprocessed notifications for the same guid or for the same qualifiedName, if any; otherwise to the
+     * worker given by the hash of its guid. Hence:
+     *  - notifications for an entity are processed in order, including across a rename, since the guid doesn't change
+     *  - a delete and a re-create of a resource under a new guid are processed in order, since the qualifiedName is the
+     *    same. Ranger admin finds a re-created resource by its signature and keeps the old guid, hence a delete of the old
+     *    guid processed later would remove the tags of the re-created resource
+     * When the guid and the qualifiedName have unprocessed notifications on different workers, e.g. a rename to the name
+     * of a resource that was just deleted, assign() waits until either of them is processed.
+     */
+    static class WorkerAssigner {
+        private final int                        workerCount;
+        private final Map<String, KeyAssignment> guidAssignments          = new HashMap<>();
+        private final Map<String, KeyAssignment> qualifiedNameAssignments = new HashMap<>();
+
+        WorkerAssigner(int workerCount) {
+            this.workerCount = workerCount;
+        }
+
+        synchronized int assign(String guid, String qualifiedName) throws InterruptedException {
+            while (true) {
+                KeyAssignment byGuid          = guid != null ? guidAssignments.get(guid) : null;
+                KeyAssignment byQualifiedName = qualifiedName != null ? qualifiedNameAssignments.get(qualifiedName) : null;
+
+                if (byGuid == null || byQualifiedName == null || byGuid.worker == byQualifiedName.worker) {
+                    final int ret;
+
+                    if (byGuid != null) {
+                        ret = byGuid.worker;
+                    } else if (byQualifiedName != null) {
+                        ret = byQualifiedName.worker;
+                    } else {
+                        String key = guid != null ? guid : qualifiedName;
+
+                        ret = key != null ? ((key.hashCode() & Integer.MAX_VALUE) % workerCount) : 0;
+                    }
+
+                    acquire(guidAssignments, guid, ret);
+                    acquire(qualifiedNameAssignments, qualifiedName, ret);
+
+                    return ret;
+                }
+
+                wait();
+            }
+        }
+
+        synchronized void release(String guid, String qualifiedName) {
+            release(guidAssignments, guid);
+            release(qualifiedNameAssignments, qualifiedName);
+
+            notifyAll();
+        }
+
+        private static void acquire(Map<String, KeyAssignment> assignments, String key, int worker) {
+            if (key != null) {
+                assignments.computeIfAbsent(key, k -> new KeyAssignment(worker)).pendingCount++;
+            }
+        }
+
+        private static void release(Map<String, KeyAssignment> assignments, String key) {
+            KeyAssignment assignment = key != null ? assignments.get(key) : null;
+
+            if (assignment != null && --assignment.pendingCount <= 0) {
+                assignments.remove(key);
+            }
+        }
+
+        private static class KeyAssignment {
+            final int worker;
+            int       pendingCount;
+
+            KeyAssignment(int worker) {
+                this.worker = worker;
+            }
+        }
+    }
+
+    private static class PendingNotification {
+        final AtlasKafkaMessage<EntityNotification> message;
+        final RangerAtlasEntityWithTags             entityWithTags;
+        final boolean                               isEntityDeleteOp;
+        final String                                guid;
+        final String                                qualifiedName;
+
+        PendingNotification(AtlasKafkaMessage<EntityNotification> message, RangerAtlasEntityWithTags entityWithTags, boolean isEntityDeleteOp) {
+            RangerAtlasEntity entity        = entityWithTags.getEntity();
+            Object            qualifiedName = entity.getAttributes() != null ? entity.getAttributes().get(AtlasResourceMapper.ENTITY_ATTRIBUTE_QUALIFIED_NAME) : null;
+
+            this.message          = message;
+            this.entityWithTags   = entityWithTags;
+            this.isEntityDeleteOp = isEntityDeleteOp;
+            this.guid             = entity.getGuid();
+            this.qualifiedName    = qualifiedName != null ? qualifiedName.toString() : null;
+        }
+
+        String getEntityKey() {
+            return guid != null ? guid : (message.getTopic() + ":" + message.getPartition() + ":" + message.getOffset());
+        }
+    }
+
+    private class ConsumerRunnable implements Runnable {
+        private final NotificationConsumer<EntityNotification> consumer;
 
         private ConsumerRunnable(NotificationConsumer<EntityNotification> consumer) {
             this.consumer = consumer;
@@ -175,51 +437,37 @@ public void run() {
 
                         if (newMessages.isEmpty()) {
                             LOG.debug("AtlasTagSource.ConsumerRunnable.run: no message from NotificationConsumer within {} milliseconds", MAX_WAIT_TIME_IN_MILLIS);
-
-                            if (CollectionUtils.isNotEmpty(atlasEntitiesWithTags)) {
-                                buildAndUploadServiceTags();
-                            }
                         } else {
                             for (AtlasKafkaMessage<EntityNotification> message : newMessages) {
-                                EntityNotification notification = message != null ? message.getMessage() : null;
-
-                                if (notification != null) {
-                                    EntityNotificationWrapper notificationWrapper = null;
-                                    try {
-                                        notificationWrapper = new EntityNotificationWrapper(notification);
-                                    } catch (Throwable e) {
-                                        LOG.error("notification:[{}] has some issues..perhaps null entity??", notification, e);
-                                    }
-                                    if (notificationWrapper != null) {
-                                        LOG.debug("Message-offset={}, Notification={}", message.getOffset(), getPrintableEntityNotification(notificationWrapper));
-
-                                        if (AtlasNotificationMapper.isNotificationHandled(notificationWrapper)) {
-                                            if ((notificationWrapper.getIsEntityDeleteOp() && !isHandlingDeleteOps) || (!notificationWrapper.getIsEntityDeleteOp() && isHandlingDeleteOps)) {
-                                                if (CollectionUtils.isNotEmpty(atlasEntitiesWithTags)) {
-                                                    buildAndUploadServiceTags();
-                                                }
-                                                isHandlingDeleteOps = !isHandlingDeleteOps;
-                                            }
-
-                                            atlasEntitiesWithTags.add(new RangerAtlasEntityWithTags(notificationWrapper));
-                                            messages.add(message);
-                                        } else {
-                                            AtlasNotificationMapper.logUnhandledEntityNotification(notificationWrapper);
-                                            lastUnhandledMessage = message;
-                                        }
-                                    }
-                                } else {
+                                if (message == null) {
                                     LOG.error("Null entityNotification received from Kafka!! Ignoring..");
+
+                                    continue;
+                                }
+
+                                TopicPartition partition   = getTopicPartition(message);
+                                boolean        isHandedOff = false;
+
+                                offsetTracker.messageReceived(partition, message.getOffset());
+
+                                receivedCount.incrementAndGet();
+
+                                try {
+                                    isHandedOff = handOff(message);
+                                } finally {
+                                    // a message not handed to a worker, including on an exception, must not hold back commits of its partition
+                                    if (!isHandedOff) {
+                                        offsetTracker.messageProcessed(partition, message.getOffset());
+                                    }
                                 }
-                            }
-                            if (CollectionUtils.isNotEmpty(atlasEntitiesWithTags) && atlasEntitiesWithTags.size() >= maxBatchSize) {
-                                buildAndUploadServiceTags();
                             }
                         }
-                        if (lastUnhandledMessage != null) {
-                            commitToKafka(lastUnhandledMessage);
-                            lastUnhandledMessage = null;
-                        }
+
+                        commitProcessedMessages();
+                    } catch (InterruptedException interrupted) {
+                        LOG.error("Interrupted: ", interrupted);
+                        LOG.error("Returning from thread. May cause process to be up but not processing events!!");
+                        return;
                     } catch (Exception exception) {
                         LOG.error("Caught exception..: ", exception);
                         // If transient error, retry after short interval
@@ -235,11 +483,145 @@ public void run() {
             }
         }
 
+        // returns true if the message was queued to a worker, which then marks it as processed
+        private boolean handOff(AtlasKafkaMessage<EntityNotification> message) throws InterruptedException {
+            EntityNotification notification = message.getMessage();
+            boolean            ret          = false;
+
+            if (notification != null) {
+                EntityNotificationWrapper notificationWrapper = null;
+                try {
+                    notificationWrapper = new EntityNotificationWrapper(notification);
+                } catch (Throwable e) {
+                    LOG.error("notification:[{}] has some issues..perhaps null entity??", notification, e);
+                }
+                if (notificationWrapper != null) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Message-offset={}, Notification={}", message.getOffset(), getPrintableEntityNotification(notificationWrapper));
+                    }
+
+                    if (AtlasNotificationMapper.isNotificationHandled(notificationWrapper)) {
+                        PendingNotification pendingNotification = new PendingNotification(message, new RangerAtlasEntityWithTags(notificationWrapper), notificationWrapper.getIsEntityDeleteOp());
+                        int                 worker              = workerAssigner.assign(pendingNotification.guid, pendingNotification.qualifiedName);
+
+                        try {
+                            workers.get(worker).addNotification(pendingNotification);
+
+                            ret = true;
+                        } finally {
+                            if (!ret) {
+                                workerAssigner.release(pendingNotification.guid, pendingNotification.qualifiedName);
+                            }
+                        }
+                    } else {
+                        AtlasNotificationMapper.logUnhandledEntityNotification(notificationWrapper);
+                    }
+                }
+            } else {
+                LOG.error("Null entityNotification received from Kafka!! Ignoring..");
+            }
+
+            return ret;
+        }
+
+        // offsets are committed by this thread, as the consumer must not be accessed by the workers
+        private void commitProcessedMessages() {
+            for (Map.Entry<TopicPartition, Long> entry : offsetTracker.getOffsetsToCommit().entrySet()) {
+                TopicPartition partition     = entry.getKey();
+                long           messageOffset = entry.getValue();
+
+                try {
+                    LOG.debug("Committing message with offset:[{}] of partition:[{}] to Kafka", messageOffset, partition);
+                    consumer.commit(partition, messageOffset);
+                } catch (Exception commitException) {
+                    LOG.warn("Ranger tagsync already processed message at offset {}. Ignoring failure in committing message of partition:[{}]", messageOffset, partition, commitException);
+                }
+            }
+        }
+
+        private TopicPartition getTopicPartition(AtlasKafkaMessage<EntityNotification> message) {
+            return new TopicPartition(message.getTopic(), message.getPartition());
+        }
+    }
+
+    /*
+     * builds and uploads ServiceTags for a batch of notifications, while the consumer continues to receive messages.
+     * Repeated notifications for an entity within a batch are coalesced, as each notification carries all
+     * classifications of the entity. A batch is uploaded when it has maxBatchSize notifications, including coalesced
+     * ones, when no notification is received for MAX_WAIT_TIME_IN_MILLIS, or when it is MAX_BATCH_AGE_IN_MILLIS old;
+     * hence an entity updated continuously doesn't hold back the upload and the offset commits
+     */
+    private class NotificationWorker implements Runnable {
+        private final BlockingQueue<PendingNotification>     queue                 = new LinkedBlockingQueue<>(WORKER_QUEUE_CAPACITY);
+        private final Map<String, RangerAtlasEntityWithTags> atlasEntitiesWithTags = new LinkedHashMap<>(); // entity-guid => latest notification
+        private final List<PendingNotification>              notifications         = new ArrayList<>();
+        private       boolean                                isHandlingDeleteOps;
+        private       long                                   batchStartTimeMs;
+
+        void addNotification(PendingNotification notification) throws InterruptedException {
+            queue.put(notification);
+        }
+
+        int getQueueSize() {
+            return queue.size();
+        }
+
+        @Override
+        public void run() {
+            LOG.debug("==> NotificationWorker.run()");
+
+            while (true) {
+                try {
+                    long                waitTimeMs   = notifications.isEmpty() ? MAX_WAIT_TIME_IN_MILLIS : Math.min(MAX_WAIT_TIME_IN_MILLIS, Math.max(batchStartTimeMs + MAX_BATCH_AGE_IN_MILLIS - System.currentTimeMillis(), 0));
+                    PendingNotification notification = queue.poll(waitTimeMs, TimeUnit.MILLISECONDS);
+
+                    if (notification != null) {
+                        if (notification.isEntityDeleteOp != isHandlingDeleteOps) {
+                            if (!notifications.isEmpty()) {
+                                buildAndUploadServiceTags();
+                            }
+                            isHandlingDeleteOps = !isHandlingDeleteOps;
+                        }
+
+                        if (notifications.isEmpty()) {
+                            batchStartTimeMs = System.currentTimeMillis();
+                        }
+
+                        if (atlasEntitiesWithTags.remove(notification.getEntityKey()) != null) {
+                            coalescedCount.incrementAndGet();
+                        }
+
+                        atlasEntitiesWithTags.put(notification.getEntityKey(), notification.entityWithTags);
+                        notifications.add(notification);
+                    }
+
+                    if (!notifications.isEmpty() && (notification == null || notifications.size() >= maxBatchSize || (System.currentTimeMillis() - batchStartTimeMs) >= MAX_BATCH_AGE_IN_MILLIS)) {
+                        buildAndUploadServiceTags();
+                    }
+                } catch (InterruptedException interrupted) {
+                    LOG.error("Interrupted: ", interrupted);
+                    LOG.error("Returning from thread. May cause process to be up but not processing events!!");
+                    return;
+                } catch (Exception exception) {
+                    LOG.error("Caught exception..: ", exception);
+                    // If transient error, retry after short interval
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException interrupted) {
+                        LOG.error("Interrupted: ", interrupted);
+                        LOG.error("Returning from thread. May cause process to be up but not processing events!!");
+                        return;
+                    }
+                }
+            }
+        }
+
         private void buildAndUploadServiceTags() throws Exception {
             LOG.debug("==> buildAndUploadServiceTags()");
 
-            if (CollectionUtils.isNotEmpty(atlasEntitiesWithTags) && CollectionUtils.isNotEmpty(messages)) {
-                Map<String, ServiceTags> serviceTagsMap = AtlasNotificationMapper.processAtlasEntities(atlasEntitiesWithTags);
+            if (!atlasEntitiesWithTags.isEmpty() && CollectionUtils.isNotEmpty(notifications)) {
+                long                     startTime      = System.currentTimeMillis();
+                Map<String, ServiceTags> serviceTagsMap = AtlasNotificationMapper.processAtlasEntities(new ArrayList<>(atlasEntitiesWithTags.values()));
 
                 if (MapUtils.isNotEmpty(serviceTagsMap)) {
                     if (serviceTagsMap.size() != 1) {
@@ -258,38 +640,27 @@ private void buildAndUploadServiceTags() throws Exception {
 
                         updateSink(entry.getValue());
                     }
-                }
-
-                AtlasKafkaMessage<EntityNotification> latestMessageDeliveredToRanger = messages.get(messages.size() - 1);
-                commitToKafka(latestMessageDeliveredToRanger);
 
-                atlasEntitiesWithTags.clear();
-                messages.clear();
+                    uploadCount.incrementAndGet();
+                    uploadTimeInMs.addAndGet(System.currentTimeMillis() - startTime);
+                }
 
-                LOG.debug("Completed processing batch of messages of size:[{}] received from NotificationConsumer", messages.size());
-            }
+                for (PendingNotification notification : notifications) {
+                    AtlasKafkaMessage<EntityNotification> message = notification.message;
 
-            LOG.debug("<== buildAndUploadServiceTags()");
-        }
+                    offsetTracker.messageProcessed(new TopicPartition(message.getTopic(), message.getPartition()), message.getOffset());
+                    workerAssigner.release(notification.guid, notification.qualifiedName);
+                }
 
-        private void commitToKafka(AtlasKafkaMessage<EntityNotification> messageToCommit) {
-            LOG.debug("==> commitToKafka({})", messageToCommit);
+                processedCount.addAndGet(notifications.size());
 
-            long messageOffset = messageToCommit.getOffset();
-            int  partitionId   = messageToCommit.getPartition();
+                LOG.debug("Completed processing batch of messages of size:[{}] received from NotificationConsumer", notifications.size());
 
-            if (offsetOfLastMessageCommittedToKafka < messageOffset) {
-                TopicPartition partition = new TopicPartition(messageToCommit.getTopic(), partitionId);
-                try {
-                    LOG.debug("Committing message with offset:[{}] to Kafka", messageOffset);
-                    consumer.commit(partition, messageOffset);
-                    offsetOfLastMessageCommittedToKafka = messageOffset;
-                } catch (Exception commitException) {
-                    LOG.warn("Ranger tagsync already processed message at offset {}. Ignoring failure in committing message:[{}]", messageOffset, messageToCommit, commitException);
-                }
+                atlasEntitiesWithTags.clear();
+                notifications.clear();
             }
 
-            LOG.debug("<== commitToKafka({})", messageToCommit);
+            LOG.debug("<== buildAndUploadServiceTags()");
         }
     }
 }
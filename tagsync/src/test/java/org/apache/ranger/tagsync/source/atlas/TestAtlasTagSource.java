@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.tagsync.source.atlas;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestAtlasTagSource {
+    private static final TopicPartition PARTITION_0  = new TopicPartition("ATLAS_ENTITIES", 0);
+    private static final TopicPartition PARTITION_1  = new TopicPartition("ATLAS_ENTITIES", 1);
+    private static final int            WORKER_COUNT = 4;
+
+    @Test
+    public void testOffsetsCommittedOnlyAfterPriorMessagesAreProcessed() {
+        AtlasTagSource.MessageOffsetTracker tracker = new AtlasTagSource.MessageOffsetTracker();
+
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.messageReceived(PARTITION_0, offset);
+        }
+
+        tracker.messageReceived(PARTITION_1, 3);
+
+        // messages processed out of order by different workers
+        tracker.messageProcessed(PARTITION_0, 11);
+        tracker.messageProcessed(PARTITION_0, 13);
+        tracker.messageProcessed(PARTITION_1, 3);
+
+        Map<TopicPartition, Long> toCommit = tracker.getOffsetsToCommit();
+
+        Assert.assertEquals(Collections.singletonMap(PARTITION_1, 3L), toCommit);
+        Assert.assertEquals(5, tracker.getPendingCount());
+
+        tracker.messageProcessed(PARTITION_0, 10);
+        tracker.messageProcessed(PARTITION_0, 12);
+
+        Assert.assertEquals(Collections.singletonMap(PARTITION_0, 13L), tracker.getOffsetsToCommit());
+        Assert.assertEquals(1, tracker.getPendingCount());
+        Assert.assertTrue(tracker.getOffsetsToCommit().isEmpty());
+
+        tracker.messageProcessed(PARTITION_0, 14);
+
+        Assert.assertEquals(Collections.singletonMap(PARTITION_0, 14L), tracker.getOffsetsToCommit());
+        Assert.assertEquals(0, tracker.getPendingCount());
+        Assert.assertEquals(-1, tracker.getOldestPendingTime());
+    }
+
+    @Test
+    public void testNotificationsForEntityAssignedToSameWorker() throws Exception {
+        AtlasTagSource.WorkerAssigner assigner = new AtlasTagSource.WorkerAssigner(WORKER_COUNT);
+
+        int worker = assigner.assign("guid-1", "default.testTable@cl1");
+
+        // rename, while the earlier notification is not yet processed
+        Assert.assertEquals(worker, assigner.assign("guid-1", "default.renamedTable@cl1"));
+
+        // re-create of the renamed table under a new guid goes after the rename
+        Assert.assertEquals(worker, assigner.assign("guid-2", "default.renamedTable@cl1"));
+
+        assigner.release("guid-1", "default.testTable@cl1");
+        assigner.release("guid-1", "default.renamedTable@cl1");
+        assigner.release("guid-2", "default.renamedTable@cl1");
+
+        // with no unprocessed notifications, the worker is given by the guid
+        Assert.assertEquals(getWorkerByGuid("guid-3"), assigner.assign("guid-3", "default.testTable@cl1"));
+    }
+
+    @Test
+    public void testDeleteAndRecreateProcessedInOrder() throws Exception {
+        AtlasTagSource.WorkerAssigner assigner  = new AtlasTagSource.WorkerAssigner(WORKER_COUNT);
+        String                        oldGuid   = getGuidForWorker(0);
+        String                        newGuid   = getGuidForWorker(1);
+        String                        tableName = "default.testTable@cl1";
+
+        int deleteWorker = assigner.assign(oldGuid, tableName);
+
+        Assert.assertEquals(0, deleteWorker);
+
+        // while the delete is not processed, the re-create goes to the same worker, though its guid hashes to another one
+        Assert.assertEquals(deleteWorker, assigner.assign(newGuid, tableName));
+
+        assigner.release(oldGuid, tableName);
+        assigner.release(newGuid, tableName);
+
+        Assert.assertEquals(1, assigner.assign(newGuid, tableName));
+    }
+
+    @Test(timeout = 10000)
+    public void testAssignWaitsWhenGuidAndQualifiedNameAreOnDifferentWorkers() throws Exception {
+        AtlasTagSource.WorkerAssigner assigner = new AtlasTagSource.WorkerAssigner(WORKER_COUNT);
+        String                        guid1    = getGuidForWorker(0);
+        String                        guid2    = getGuidForWorker(1);
+
+        Assert.assertEquals(0, assigner.assign(guid1, "default.table1@cl1"));
+        Assert.assertEquals(1, assigner.assign(guid2, "default.table2@cl1"));
+
+        // guid1 renamed to table2, while notifications for both are unprocessed on different workers
+        AtomicInteger  assigned = new AtomicInteger(-1);
+        CountDownLatch done     = new CountDownLatch(1);
+        Thread         thread   = new Thread(() -> {
+            try {
+                assigned.set(assigner.assign(guid1, "default.table2@cl1"));
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+
+            done.countDown();
+        });
+
+        thread.start();
+
+        Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+
+        assigner.release(guid2, "default.table2@cl1");
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, assigned.get());
+    }
+
+    private static int getWorkerByGuid(String guid) {
+        return (guid.hashCode() & Integer.MAX_VALUE) % WORKER_COUNT;
+    }
+
+    private static String getGuidForWorker(int worker) {
+        for (int i = 0; ; i++) {
+            String guid = "guid-" + i;
+
+            if (getWorkerByGuid(guid) == worker) {
+                return guid;
+            }
+        }
+    }
+}
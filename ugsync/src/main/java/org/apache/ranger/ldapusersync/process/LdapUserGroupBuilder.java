@@ -50,18 +50,29 @@
 import javax.naming.ldap.StartTlsRequest;
 import javax.naming.ldap.StartTlsResponse;
 
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 
 public class LdapUserGroupBuilder implements UserGroupSource {
     private static final Logger LOG = LoggerFactory.getLogger(LdapUserGroupBuilder.class);
@@ -85,6 +96,8 @@ public class LdapUserGroupBuilder implements UserGroupSource {
     private boolean groupSearchEnabled      = true;
     private int     pagedResultsSize        = PAGE_SIZE;
     private int     groupHierarchyLevels;
+    private int     groupHierarchyBatchSize;
+    private int     searchThreadCount;
     private int     deleteCycles;
     private int     userSearchScope;
     private int     groupSearchScope;
@@ -119,7 +132,6 @@ public class LdapUserGroupBuilder implements UserGroupSource {
     private Set<String>    userGroupNameAttributeSet;
     private Set<String>    otherUserAttributes;
     private Set<String>    otherGroupAttributes;
-    private LdapContext    ldapContext;
     private SearchControls userSearchControls;
     private SearchControls groupSearchControls;
 
@@ -134,7 +146,6 @@ public class LdapUserGroupBuilder implements UserGroupSource {
     /* { key = group DN, value = set of user DNs (members) } */
     private Map<String, Set<String>> sourceGroupUsers;
 
-    StartTlsResponse   tls;
     UgsyncAuditInfo    ugsyncAuditInfo;
     LdapSyncSourceInfo ldapSyncSourceInfo;
 
@@ -280,8 +291,9 @@ public void updateSink(UserGroupSink sink) throws Throwable {
         }
     }
 
-    private void createLdapContext() throws Throwable {
-        Properties env = new Properties();
+    private LdapConnection createLdapConnection() throws Exception {
+        Properties       env = new Properties();
+        StartTlsResponse tls = null;
 
         env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
         env.put(Context.PROVIDER_URL, ldapUrl);
@@ -318,7 +330,7 @@ private void createLdapContext() throws Throwable {
             }
         }
 
-        ldapContext = new InitialLdapContext(env, null);
+        LdapContext ldapContext = new InitialLdapContext(env, null);
 
         if (!ldapUrl.startsWith("ldaps")) {
             if (config.isStartTlsEnabled()) {
@@ -338,6 +350,8 @@ private void createLdapContext() throws Throwable {
         ldapContext.addToEnvironment(Context.SECURITY_CREDENTIALS, ldapBindPassword);
         ldapContext.addToEnvironment(Context.SECURITY_AUTHENTICATION, ldapAuthenticationMechanism);
         ldapContext.addToEnvironment(Context.REFERRAL, ldapReferral);
+
+        return new LdapConnection(ldapContext, tls);
     }
 
     private void setConfig() throws Throwable {
@@ -386,6 +400,8 @@ private void setConfig() throws Throwable {
         groupNameAttribute       = config.getGroupNameAttribute();
         groupCloudIdAttribute    = config.getGroupCloudIdAttribute();
         groupHierarchyLevels     = config.getGroupHierarchyLevels();
+        groupHierarchyBatchSize  = config.getGroupHierarchyBatchSize();
+        searchThreadCount        = config.getLdapSearchThreadCount();
         extendedGroupSearchFilter = "(&" + extendedGroupSearchFilter + "(|(" + groupMemberAttributeName + "={0})(" + groupMemberAttributeName + "={1})))";
 
         groupSearchControls = new SearchControls();
@@ -443,260 +459,72 @@ private void setConfig() throws Throwable {
                 ldapUrl, ldapBindDn, ldapAuthenticationMechanism, searchBase, Arrays.toString(userSearchBase), userSearchScope, userObjectClass, userSearchFilter, extendedUserSearchFilter, userNameAttribute, userSearchAttributes, userGroupNameAttributeSet, otherUserAttributes, pagedResultsEnabled, pagedResultsSize, groupSearchEnabled, Arrays.toString(groupSearchBase), groupSearchScope, groupObjectClass, groupSearchFilter, extendedGroupSearchFilter, extendedAllGroupsSearchFilter, groupMemberAttributeName, groupNameAttribute, groupSearchAttributes, groupSearchFirstEnabled, userSearchEnabled, ldapReferral);
     }
 
-    private void closeLdapContext() throws Throwable {
-        if (tls != null) {
-            tls.close();
-        }
-
-        if (ldapContext != null) {
-            ldapContext.close();
-        }
-    }
-
     private long getUsers(boolean computeDeletes) throws Throwable {
-        NamingEnumeration<SearchResult> userSearchResultEnum  = null;
-        NamingEnumeration<SearchResult> groupSearchResultEnum = null;
-        long                            highestdeltaSyncUserTime;
-
-        try {
-            createLdapContext();
-
-            int total;
-
-            // Activate paged results
-            if (pagedResultsEnabled) {
-                ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, Control.NONCRITICAL)});
-            }
-
-            DateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
-
-            if (!groupUserTable.rowKeySet().isEmpty() || !config.isDeltaSyncEnabled() || (computeDeletes)) {
-                // Fix RANGER-1957: Perform full sync when there are updates to the groups or when incremental sync is not enabled
-                deltaSyncUserTime      = 0;
-                deltaSyncUserTimeStamp = dateFormat.format(new Date(0));
-            }
+        DateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+        long       highestdeltaSyncUserTime;
 
-            extendedUserSearchFilter = "(objectclass=" + userObjectClass + ")(|(uSNChanged>=" + deltaSyncUserTime + ")(modifyTimestamp>=" + deltaSyncUserTimeStamp + "Z))";
+        if (!groupUserTable.rowKeySet().isEmpty() || !config.isDeltaSyncEnabled() || (computeDeletes)) {
+            // Fix RANGER-1957: Perform full sync when there are updates to the groups or when incremental sync is not enabled
+            deltaSyncUserTime      = 0;
+            deltaSyncUserTimeStamp = dateFormat.format(new Date(0));
+        }
 
-            if (userSearchFilter != null && !userSearchFilter.trim().isEmpty()) {
-                String customFilter = userSearchFilter.trim();
+        extendedUserSearchFilter = "(objectclass=" + userObjectClass + ")(|(uSNChanged>=" + deltaSyncUserTime + ")(modifyTimestamp>=" + deltaSyncUserTimeStamp + "Z))";
 
-                if (!customFilter.startsWith("(")) {
-                    customFilter = "(" + customFilter + ")";
-                }
+        if (userSearchFilter != null && !userSearchFilter.trim().isEmpty()) {
+            String customFilter = userSearchFilter.trim();
 
-                extendedUserSearchFilter = "(&" + extendedUserSearchFilter + customFilter + ")";
-            } else {
-                extendedUserSearchFilter = "(&" + extendedUserSearchFilter + ")";
+            if (!customFilter.startsWith("(")) {
+                customFilter = "(" + customFilter + ")";
             }
 
-            LOG.info("extendedUserSearchFilter = {}", extendedUserSearchFilter);
-
-            highestdeltaSyncUserTime = deltaSyncUserTime;
-
-            // When multiple OUs are configured, go through each OU as the user search base to search for users.
-            for (String s : userSearchBase) {
-                byte[] cookie  = null;
-                int    counter = 0;
-
-                try {
-                    int paged = 0;
-
-                    do {
-                        userSearchResultEnum = ldapContext.search(s, extendedUserSearchFilter, userSearchControls);
-
-                        while (userSearchResultEnum.hasMore()) {
-                            // searchResults contains all the user entries
-                            final SearchResult userEntry = userSearchResultEnum.next();
-
-                            if (userEntry == null)  {
-                                LOG.info("userEntry null, skipping sync for the entry");
-                                continue;
-                            }
-
-                            Attributes attributes = userEntry.getAttributes();
-
-                            if (attributes == null)  {
-                                LOG.info("attributes  missing for entry {}, skipping sync", userEntry.getNameInNamespace());
-                                continue;
-                            }
-
-                            Attribute userNameAttr = attributes.get(userNameAttribute);
-
-                            if (userNameAttr == null)  {
-                                LOG.info("{} missing for entry {}, skipping sync", userNameAttribute, userEntry.getNameInNamespace());
-                                continue;
-                            }
-
-                            String userFullName = (userEntry.getNameInNamespace());
-                            String userName     = (String) userNameAttr.get();
-
-                            if (userName == null || userName.trim().isEmpty())  {
-                                LOG.info("{} empty for entry {}, skipping sync", userNameAttribute, userEntry.getNameInNamespace());
-                                continue;
-                            }
-
-                            Attribute timeStampAttr = attributes.get("uSNChanged");
-
-                            if (timeStampAttr != null) {
-                                String uSNChangedVal        = (String) timeStampAttr.get();
-                                long   currentDeltaSyncTime = Long.parseLong(uSNChangedVal);
-
-                                LOG.info("uSNChangedVal = {} and currentDeltaSyncTime = {}", uSNChangedVal, currentDeltaSyncTime);
-
-                                if (currentDeltaSyncTime > highestdeltaSyncUserTime) {
-                                    highestdeltaSyncUserTime = currentDeltaSyncTime;
-                                }
-                            } else {
-                                timeStampAttr = attributes.get("modifytimestamp");
-
-                                if (timeStampAttr != null) {
-                                    String timeStampVal         = (String) timeStampAttr.get();
-                                    Date   parseDate            = dateFormat.parse(timeStampVal);
-                                    long   currentDeltaSyncTime = parseDate.getTime();
-
-                                    LOG.info("timeStampVal = {} and currentDeltaSyncTime = {}", timeStampVal, currentDeltaSyncTime);
-
-                                    if (currentDeltaSyncTime > highestdeltaSyncUserTime) {
-                                        highestdeltaSyncUserTime = currentDeltaSyncTime;
-                                        deltaSyncUserTimeStamp   = timeStampVal;
-                                    }
-                                }
-                            }
-
-                            // Get all the groups from the group name attribute of the user only when group search is not enabled.
-                            if (!groupSearchEnabled) {
-                                for (String useGroupNameAttribute : userGroupNameAttributeSet) {
-                                    Attribute userGroupfAttribute = userEntry.getAttributes().get(useGroupNameAttribute);
-
-                                    if (userGroupfAttribute != null) {
-                                        NamingEnumeration<?> groupEnum = userGroupfAttribute.getAll();
-
-                                        while (groupEnum.hasMore()) {
-                                            String groupDN = (String) groupEnum.next();
-
-                                            LOG.debug("Adding {} to {}", groupDN, userName);
-
-                                            Map<String, String> groupAttrMap = new HashMap<>();
-                                            String              groupName    = getShortName(groupDN);
-
-                                            groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, groupName);
-                                            groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupDN);
-                                            groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                                            groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
-
-                                            sourceGroups.put(groupDN, groupAttrMap);
-
-                                            LOG.debug("As groupsearch is disabled, adding group {} from user memberof attribute for user {}", groupName, userName);
-
-                                            groupUserTable.put(groupDN, userFullName, userFullName);
-                                        }
-                                    }
-                                }
-                            }
-
-                            Map<String, String> userAttrMap = new HashMap<>();
-
-                            userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
-                            userAttrMap.put(UgsyncCommonConstants.FULL_NAME, userFullName);
-                            userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                            userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
-
-                            Attribute userCloudIdAttr = attributes.get(userCloudIdAttribute);
-
-                            if (userCloudIdAttr != null) {
-                                addToAttrMap(userAttrMap, "cloud_id", userCloudIdAttr, config.getUserCloudIdAttributeDataType());
-                            }
-
-                            for (String otherUserAttribute : otherUserAttributes) {
-                                if (attributes.get(otherUserAttribute) != null) {
-                                    String attrType = config.getOtherUserAttributeDataType(otherUserAttribute);
-
-                                    addToAttrMap(userAttrMap, otherUserAttribute, attributes.get(otherUserAttribute), attrType);
-                                }
-                            }
-
-                            sourceUsers.put(userFullName, userAttrMap);
-
-                            if ((groupUserTable.containsColumn(userFullName) || groupUserTable.containsColumn(userName))) {
-                                Map<String, String> userMap = groupUserTable.column(userFullName);
-
-                                if (MapUtils.isEmpty(userMap)) {
-                                    userMap = groupUserTable.column(userName);
-                                }
-
-                                for (Map.Entry<String, String> entry : userMap.entrySet()) {
-                                    LOG.debug("Updating groupUserTable {} with: {} for {}", entry.getValue(), userName, entry.getKey());
-
-                                    groupUserTable.put(entry.getKey(), userFullName, userFullName);
-                                }
-                            }
+            extendedUserSearchFilter = "(&" + extendedUserSearchFilter + customFilter + ")";
+        } else {
+            extendedUserSearchFilter = "(&" + extendedUserSearchFilter + ")";
+        }
 
-                            counter++;
+        LOG.info("extendedUserSearchFilter = {}", extendedUserSearchFilter);
 
-                            if (counter <= 2000) {
-                                LOG.info("Updating user count: {}, userName: {}", counter, userName);
+        highestdeltaSyncUserTime = deltaSyncUserTime;
 
-                                if (counter == 2000) {
-                                    LOG.info("===> 2000 user records have been synchronized so far. From now on, only a summary progress log will be written for every 100 users. To continue to see detailed log for every user, please enable Trace level logging. <===");
-                                }
-                            } else {
-                                if (LOG.isTraceEnabled()) {
-                                    LOG.trace("Updating user count: {}, userName: {}", counter, userName);
-                                } else if (counter % 100 == 0) {
-                                    LOG.info("Synced {} users till now", counter);
-                                }
-                            }
-                        }
+        // When multiple OUs are configured, go through each OU as the user search base to search for users.
+        List<LdapSearch> searches = new ArrayList<>(userSearchBase.length);
 
-                        // Examine the paged results control response
-                        Control[] controls = ldapContext.getResponseControls();
+        for (String s : userSearchBase) {
+            searches.add((ldapContext, results) -> searchUsers(ldapContext, s, results));
+        }
 
-                        if (controls != null) {
-                            for (Control control : controls) {
-                                if (control instanceof PagedResultsResponseControl) {
-                                    PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
+        for (SearchResults results : runSearches(searches, deltaSyncUserTime)) {
+            sourceGroups.putAll(results.groups);
+            groupUserTable.putAll(results.groupUserTable);
+            sourceUsers.putAll(results.users);
 
-                                    total = prrc.getResultSize();
+            for (Map.Entry<String, String> user : results.userNames.entrySet()) {
+                String userFullName = user.getKey();
+                String userName     = user.getValue();
 
-                                    if (total != 0) {
-                                        LOG.debug("END-OF-PAGE total : {}", total);
-                                    } else {
-                                        LOG.debug("END-OF-PAGE total : unknown");
-                                    }
+                if ((groupUserTable.containsColumn(userFullName) || groupUserTable.containsColumn(userName))) {
+                    Map<String, String> userMap = groupUserTable.column(userFullName);
 
-                                    cookie = prrc.getCookie();
-                                }
-                            }
-                        } else {
-                            LOG.debug("No controls were sent from the server");
-                        }
+                    if (MapUtils.isEmpty(userMap)) {
+                        userMap = groupUserTable.column(userName);
+                    }
 
-                        // Re-activate paged results
-                        if (pagedResultsEnabled) {
-                            LOG.debug("Fetched paged results round: {}", ++paged);
+                    for (Map.Entry<String, String> entry : new ArrayList<>(userMap.entrySet())) {
+                        LOG.debug("Updating groupUserTable {} with: {} for {}", entry.getValue(), userName, entry.getKey());
 
-                            ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
-                        }
+                        groupUserTable.put(entry.getKey(), userFullName, userFullName);
                     }
-                    while (cookie != null);
-
-                    LOG.info("LdapUserGroupBuilder.getUsers() completed with user count: {}", counter);
-                } catch (Exception t) {
-                    LOG.error("LdapUserGroupBuilder.getUsers() failed with exception: ", t);
-                    LOG.info("LdapUserGroupBuilder.getUsers() user count: {}", counter);
                 }
             }
-        } finally {
-            if (userSearchResultEnum != null) {
-                userSearchResultEnum.close();
-            }
 
-            if (groupSearchResultEnum != null) {
-                groupSearchResultEnum.close();
-            }
+            if (results.highestDeltaSyncTime > highestdeltaSyncUserTime) {
+                highestdeltaSyncUserTime = results.highestDeltaSyncTime;
 
-            closeLdapContext();
+                if (results.deltaSyncTimeStamp != null) {
+                    deltaSyncUserTimeStamp = results.deltaSyncTimeStamp;
+                }
+            }
         }
 
         LOG.debug("highestDeltaSyncUserTime = {}", highestdeltaSyncUserTime);
@@ -705,209 +533,50 @@ private long getUsers(boolean computeDeletes) throws Throwable {
     }
 
     private long getGroups(boolean computeDeletes) throws Throwable {
-        NamingEnumeration<SearchResult> groupSearchResultEnum     = null;
-        DateFormat                      dateFormat                = new SimpleDateFormat(DATE_FORMAT);
-        long                            highestdeltaSyncGroupTime = deltaSyncGroupTime;
-
-        try {
-            createLdapContext();
-
-            int total;
+        DateFormat dateFormat                = new SimpleDateFormat(DATE_FORMAT);
+        long       highestdeltaSyncGroupTime = deltaSyncGroupTime;
 
-            // Activate paged results
-            if (pagedResultsEnabled) {
-                ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, Control.NONCRITICAL)});
-            }
-
-            extendedGroupSearchFilter = "(objectclass=" + groupObjectClass + ")";
-
-            if (groupSearchFilter != null && !groupSearchFilter.trim().isEmpty()) {
-                String customFilter = groupSearchFilter.trim();
-
-                if (!customFilter.startsWith("(")) {
-                    customFilter = "(" + customFilter + ")";
-                }
+        extendedGroupSearchFilter = "(objectclass=" + groupObjectClass + ")";
 
-                extendedGroupSearchFilter = extendedGroupSearchFilter + customFilter;
-            }
+        if (groupSearchFilter != null && !groupSearchFilter.trim().isEmpty()) {
+            String customFilter = groupSearchFilter.trim();
 
-            if (!config.isDeltaSyncEnabled() || (computeDeletes)) {
-                // Perform full sync when incremental sync is not enabled
-                deltaSyncGroupTime      = 0;
-                deltaSyncGroupTimeStamp = dateFormat.format(new Date(0));
+            if (!customFilter.startsWith("(")) {
+                customFilter = "(" + customFilter + ")";
             }
 
-            extendedAllGroupsSearchFilter = "(&" + extendedGroupSearchFilter + "(|(uSNChanged>=" + deltaSyncGroupTime + ")(modifyTimestamp>=" + deltaSyncGroupTimeStamp + "Z)))";
-
-            LOG.info("extendedAllGroupsSearchFilter = {}", extendedAllGroupsSearchFilter);
-
-            for (String s : groupSearchBase) {
-                byte[] cookie  = null;
-                int    counter = 0;
-
-                try {
-                    int paged = 0;
-
-                    do {
-                        groupSearchResultEnum = ldapContext.search(s, extendedAllGroupsSearchFilter, groupSearchControls);
-
-                        while (groupSearchResultEnum.hasMore()) {
-                            final SearchResult groupEntry = groupSearchResultEnum.next();
-
-                            if (groupEntry == null) {
-                                LOG.info("groupEntry null, skipping sync for the entry");
-                                continue;
-                            }
-
-                            counter++;
-
-                            Attributes attributes    = groupEntry.getAttributes();
-                            Attribute  groupNameAttr = attributes.get(groupNameAttribute);
-
-                            if (groupNameAttr == null) {
-                                LOG.info("{} empty for entry {}, skipping sync", groupNameAttribute, groupEntry.getNameInNamespace());
-                                continue;
-                            }
-
-                            String              groupFullName = (groupEntry.getNameInNamespace());
-                            String              gName         = (String) groupNameAttr.get();
-                            Map<String, String> groupAttrMap  = new HashMap<>();
-
-                            groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, gName);
-                            groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupFullName);
-                            groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                            groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
-
-                            Attribute groupCloudIdAttr = attributes.get(groupCloudIdAttribute);
-
-                            if (groupCloudIdAttr != null) {
-                                addToAttrMap(groupAttrMap, "cloud_id", groupCloudIdAttr, config.getGroupCloudIdAttributeDataType());
-                            }
-
-                            for (String otherGroupAttribute : otherGroupAttributes) {
-                                if (attributes.get(otherGroupAttribute) != null) {
-                                    String attrType = config.getOtherGroupAttributeDataType(otherGroupAttribute);
-
-                                    addToAttrMap(groupAttrMap, otherGroupAttribute, attributes.get(otherGroupAttribute), attrType);
-                                }
-                            }
-
-                            sourceGroups.put(groupFullName, groupAttrMap);
-
-                            Attribute timeStampAttr = attributes.get("uSNChanged");
-                            if (timeStampAttr != null) {
-                                String uSNChangedVal        = (String) timeStampAttr.get();
-                                long   currentDeltaSyncTime = Long.parseLong(uSNChangedVal);
-
-                                if (currentDeltaSyncTime > highestdeltaSyncGroupTime) {
-                                    highestdeltaSyncGroupTime = currentDeltaSyncTime;
-                                }
-                            } else {
-                                timeStampAttr = attributes.get("modifytimestamp");
-
-                                if (timeStampAttr != null) {
-                                    String timeStampVal         = (String) timeStampAttr.get();
-                                    Date   parseDate            = dateFormat.parse(timeStampVal);
-                                    long   currentDeltaSyncTime = parseDate.getTime();
-
-                                    LOG.info("timeStampVal = {} and currentDeltaSyncTime = {}", timeStampVal, currentDeltaSyncTime);
-
-                                    if (currentDeltaSyncTime > highestdeltaSyncGroupTime) {
-                                        highestdeltaSyncGroupTime = currentDeltaSyncTime;
-                                        deltaSyncGroupTimeStamp   = timeStampVal;
-                                    }
-                                }
-                            }
-
-                            Attribute groupMemberAttr = attributes.get(groupMemberAttributeName);
-                            int       userCount       = 0;
-
-                            if (groupMemberAttr == null || groupMemberAttr.size() <= 0) {
-                                try {
-                                    LOG.info("No members available for {}", gName);
-                                } catch (Exception e) {
-                                    throw new RuntimeException(e);
-                                }
-
-                                sourceGroupUsers.put(groupFullName, new HashSet<>());
-                                continue;
-                            }
-
-                            NamingEnumeration<?> userEnum = groupMemberAttr.getAll();
-
-                            while (userEnum.hasMore()) {
-                                String originalUserFullName = (String) userEnum.next();
-
-                                if (originalUserFullName == null || originalUserFullName.trim().isEmpty()) {
-                                    sourceGroupUsers.put(groupFullName, new HashSet<>());
-                                    continue;
-                                }
-
-                                userCount++;
-
-                                if (!userSearchEnabled) {
-                                    Map<String, String> userAttrMap = new HashMap<>();
-                                    String              userName    = getShortName(originalUserFullName);
-
-                                    userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
-                                    userAttrMap.put(UgsyncCommonConstants.FULL_NAME, originalUserFullName);
-                                    userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                                    userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
-
-                                    sourceUsers.put(originalUserFullName, userAttrMap);
-
-                                    LOG.debug("As usersearch is disabled, adding user {} from group member attribute for group {}", userName, gName);
-                                }
-
-                                groupUserTable.put(groupFullName, originalUserFullName, originalUserFullName);
-                            }
+            extendedGroupSearchFilter = extendedGroupSearchFilter + customFilter;
+        }
 
-                            LOG.info("No. of members in the group {} = {}", gName, userCount);
-                        }
+        if (!config.isDeltaSyncEnabled() || (computeDeletes)) {
+            // Perform full sync when incremental sync is not enabled
+            deltaSyncGroupTime      = 0;
+            deltaSyncGroupTimeStamp = dateFormat.format(new Date(0));
+        }
 
-                        // Examine the paged results control response
-                        Control[] controls = ldapContext.getResponseControls();
+        extendedAllGroupsSearchFilter = "(&" + extendedGroupSearchFilter + "(|(uSNChanged>=" + deltaSyncGroupTime + ")(modifyTimestamp>=" + deltaSyncGroupTimeStamp + "Z)))";
 
-                        if (controls != null) {
-                            for (Control control : controls) {
-                                if (control instanceof PagedResultsResponseControl) {
-                                    PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
+        LOG.info("extendedAllGroupsSearchFilter = {}", extendedAllGroupsSearchFilter);
 
-                                    total = prrc.getResultSize();
+        List<LdapSearch> searches = new ArrayList<>(groupSearchBase.length);
 
-                                    if (total != 0) {
-                                        LOG.debug("END-OF-PAGE total: {}", total);
-                                    } else {
-                                        LOG.debug("END-OF-PAGE total: unknown");
-                                    }
+        for (String s : groupSearchBase) {
+            searches.add((ldapContext, results) -> searchGroups(ldapContext, s, results));
+        }
 
-                                    cookie = prrc.getCookie();
-                                }
-                            }
-                        } else {
-                            LOG.debug("No controls were sent from the server");
-                        }
+        for (SearchResults results : runSearches(searches, deltaSyncGroupTime)) {
+            sourceGroups.putAll(results.groups);
+            sourceGroupUsers.putAll(results.groupUsers);
+            sourceUsers.putAll(results.users);
+            groupUserTable.putAll(results.groupUserTable);
 
-                        // Re-activate paged results
-                        if (pagedResultsEnabled) {
-                            LOG.debug("Fetched paged results round: {}", ++paged);
-                            ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
-                        }
-                    }
-                    while (cookie != null);
+            if (results.highestDeltaSyncTime > highestdeltaSyncGroupTime) {
+                highestdeltaSyncGroupTime = results.highestDeltaSyncTime;
 
-                    LOG.info("LdapUserGroupBuilder.getGroups() completed with group count: {}", counter);
-                } catch (Exception t) {
-                    LOG.error("LdapUserGroupBuilder.getGroups() failed with exception: ", t);
-                    LOG.info("LdapUserGroupBuilder.getGroups() group count: {}", counter);
+                if (results.deltaSyncTimeStamp != null) {
+                    deltaSyncGroupTimeStamp = results.deltaSyncTimeStamp;
                 }
             }
-        } finally {
-            if (groupSearchResultEnum != null) {
-                groupSearchResultEnum.close();
-            }
-
-            closeLdapContext();
         }
 
         if (groupHierarchyLevels > 0) {
@@ -960,186 +629,69 @@ private void goUpGroupHierarchy(Set<String> groups, int groupHierarchyLevels, St
         }
     }
 
+    /*
+     * searches for groups having any of the given groups as member, one level up the hierarchy at a time. Group DNs are
+     * batched into OR-filters of up to groupHierarchyBatchSize DNs; batches are searched concurrently
+     */
     private void goUpGroupHierarchyLdap(Set<String> groupDNs, int groupHierarchyLevels) throws Throwable {
         if (groupHierarchyLevels <= 0 || groupDNs.isEmpty()) {
             return;
         }
 
-        Set<String>                     nextLevelGroups       = new HashSet<>();
-        NamingEnumeration<SearchResult> groupSearchResultEnum = null;
+        String groupFilter = "(&(objectclass=" + groupObjectClass + ")";
 
-        try {
-            createLdapContext();
+        if (groupSearchFilter != null && !groupSearchFilter.trim().isEmpty()) {
+            String customFilter = groupSearchFilter.trim();
 
-            int total;
+            if (!customFilter.startsWith("(")) {
+                customFilter = "(" + customFilter + ")";
+            }
 
-            // Activate paged results
-            if (pagedResultsEnabled) {
-                ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, Control.NONCRITICAL)});
-            }
-
-            String groupFilter = "(&(objectclass=" + groupObjectClass + ")";
-
-            if (groupSearchFilter != null && !groupSearchFilter.trim().isEmpty()) {
-                String customFilter = groupSearchFilter.trim();
-
-                if (!customFilter.startsWith("(")) {
-                    customFilter = "(" + customFilter + ")";
-                }
-
-                groupFilter += customFilter + "(|";
-            }
-
-            StringBuilder filter = new StringBuilder();
-
-            for (String groupDN : groupDNs) {
-                filter.append("(").append(groupMemberAttributeName).append("=").append(groupDN).append(")");
-            }
-
-            filter.append("))");
+            groupFilter += customFilter;
+        }
 
-            groupFilter += filter;
+        List<LdapSearch> searches = new ArrayList<>();
 
-            LOG.info("extendedAllGroupsSearchFilter = {}", groupFilter);
+        for (String batchFilter : getGroupHierarchyFilters(groupFilter, groupMemberAttributeName, groupDNs, groupHierarchyBatchSize)) {
+            LOG.debug("extendedAllGroupsSearchFilter = {}", batchFilter);
 
             for (String s : groupSearchBase) {
-                byte[] cookie  = null;
-                int    counter = 0;
-
-                try {
-                    do {
-                        groupSearchResultEnum = ldapContext.search(s, groupFilter, groupSearchControls);
-
-                        while (groupSearchResultEnum.hasMore()) {
-                            final SearchResult groupEntry = groupSearchResultEnum.next();
-
-                            if (groupEntry == null) {
-                                LOG.info("groupEntry null, skipping sync for the entry");
-                                continue;
-                            }
-
-                            counter++;
-
-                            Attribute groupNameAttr = groupEntry.getAttributes().get(groupNameAttribute);
-
-                            if (groupNameAttr == null) {
-                                LOG.info("{} empty for entry {}, skipping sync", groupNameAttribute, groupEntry.getNameInNamespace());
-                                continue;
-                            }
-
-                            String groupFullName = (groupEntry.getNameInNamespace());
-
-                            nextLevelGroups.add(groupFullName);
-
-                            String    gName           = (String) groupNameAttr.get();
-                            Attribute groupMemberAttr = groupEntry.getAttributes().get(groupMemberAttributeName);
-                            int       userCount       = 0;
-
-                            if (groupMemberAttr == null || groupMemberAttr.size() <= 0) {
-                                LOG.info("No members available for {}", gName);
-                                continue;
-                            }
-
-                            Map<String, String> groupAttrMap = new HashMap<>();
-
-                            groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, gName);
-                            groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupFullName);
-                            groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                            groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
-
-                            for (String otherGroupAttribute : otherGroupAttributes) {
-                                Attribute otherGroupAttr = groupEntry.getAttributes().get(otherGroupAttribute);
-
-                                if (otherGroupAttr != null) {
-                                    groupAttrMap.put(otherGroupAttribute, (String) otherGroupAttr.get());
-                                }
-                            }
-
-                            sourceGroups.put(groupFullName, groupAttrMap);
-
-                            NamingEnumeration<?> userEnum = groupMemberAttr.getAll();
-
-                            while (userEnum.hasMore()) {
-                                String originalUserFullName = (String) userEnum.next();
-
-                                if (originalUserFullName == null || originalUserFullName.trim().isEmpty()) {
-                                    continue;
-                                }
-
-                                userCount++;
-
-                                if (!userSearchEnabled && !sourceGroups.containsKey(originalUserFullName)) {
-                                    Map<String, String> userAttrMap = new HashMap<>();
-                                    String              userName    = getShortName(originalUserFullName);
-
-                                    userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
-                                    userAttrMap.put(UgsyncCommonConstants.FULL_NAME, originalUserFullName);
-                                    userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
-                                    userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+                searches.add((ldapContext, results) -> searchGroupHierarchy(ldapContext, s, batchFilter, results));
+            }
+        }
 
-                                    sourceUsers.put(originalUserFullName, userAttrMap);
-                                }
+        LOG.info("LdapUserGroupBuilder.goUpGroupHierarchyLdap(): searching for parents of {} groups, in {} searches", groupDNs.size(), searches.size());
 
-                                groupUserTable.put(groupFullName, originalUserFullName, originalUserFullName);
-                            }
+        Set<String> nextLevelGroups = new HashSet<>();
+        Set<String> members         = new HashSet<>();
 
-                            LOG.info("No. of members in the group {} = {}", gName, userCount);
-                        }
-
-                        // Examine the paged results control response
-                        Control[] controls = ldapContext.getResponseControls();
-
-                        if (controls != null) {
-                            for (Control control : controls) {
-                                if (control instanceof PagedResultsResponseControl) {
-                                    PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
-
-                                    total = prrc.getResultSize();
-
-                                    if (total != 0) {
-                                        LOG.debug("END-OF-PAGE total : {}", total);
-                                    } else {
-                                        LOG.debug("END-OF-PAGE total : unknown");
-                                    }
+        for (SearchResults results : runSearches(searches, 0)) {
+            nextLevelGroups.addAll(results.groupDNs);
+            sourceGroups.putAll(results.groups);
+            groupUserTable.putAll(results.groupUserTable);
+            members.addAll(results.groupUserTable.columnKeySet());
+        }
 
-                                    cookie = prrc.getCookie();
-                                }
-                            }
-                        } else {
-                            LOG.debug("No controls were sent from the server");
-                        }
+        if (!userSearchEnabled) {
+            for (String originalUserFullName : members) {
+                if (!sourceGroups.containsKey(originalUserFullName)) {
+                    Map<String, String> userAttrMap = new HashMap<>();
+                    String              userName    = getShortName(originalUserFullName);
 
-                        // Re-activate paged results
-                        if (pagedResultsEnabled) {
-                            ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
-                        }
-                    }
-                    while (cookie != null);
+                    userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
+                    userAttrMap.put(UgsyncCommonConstants.FULL_NAME, originalUserFullName);
+                    userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                    userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
 
-                    LOG.info("LdapUserGroupBuilder.goUpGroupHierarchyLdap() completed with group count: {}", counter);
-                } catch (RuntimeException re) {
-                    LOG.error("LdapUserGroupBuilder.goUpGroupHierarchyLdap() failed with runtime exception: ", re);
-                    throw re;
-                } catch (Exception t) {
-                    LOG.error("LdapUserGroupBuilder.goUpGroupHierarchyLdap() failed with exception: ", t);
-                    LOG.info("LdapUserGroupBuilder.goUpGroupHierarchyLdap() group count: {}", counter);
+                    sourceUsers.put(originalUserFullName, userAttrMap);
                 }
             }
-        } catch (RuntimeException re) {
-            LOG.error("LdapUserGroupBuilder.goUpGroupHierarchyLdap() failed with exception: ", re);
-            throw re;
-        } finally {
-            if (groupSearchResultEnum != null) {
-                groupSearchResultEnum.close();
-            }
-
-            closeLdapContext();
         }
 
         goUpGroupHierarchyLdap(nextLevelGroups, groupHierarchyLevels - 1);
     }
 
-    private void addToAttrMap(Map<String, String> userAttrMap, String attrName, Attribute attr, String attrType) throws Throwable {
+    private void addToAttrMap(Map<String, String> userAttrMap, String attrName, Attribute attr, String attrType) throws NamingException {
         if (attrType.equals(DATA_TYPE_BYTEARRAY)) {
             try {
                 byte[] otherUserAttrBytes = (byte[]) attr.get();
@@ -1259,9 +811,10 @@ private String getDNForMemberOf(String searchFilter) throws Throwable {
 
         String computedSearchFilter = "";
 
-        try {
-            createLdapContext();
+        LdapConnection connection = createLdapConnection();
 
+        try {
+            LdapContext    ldapContext       = connection.getContext();
             SearchControls searchControls    = new SearchControls();
             Set<String>    searchAttributes  = new HashSet<>();
             int            total;
@@ -1377,11 +930,705 @@ private String getDNForMemberOf(String searchFilter) throws Throwable {
                 userSearchResultEnum.close();
             }
 
-            closeLdapContext();
+            connection.close();
         }
 
         LOG.debug("computedSearchFilter = {}", computedSearchFilter);
 
         return computedSearchFilter;
     }
+
+    private void searchUsers(LdapContext ldapContext, String searchBase, SearchResults results) throws Exception {
+        NamingEnumeration<SearchResult> userSearchResultEnum = null;
+        DateFormat                      dateFormat           = new SimpleDateFormat(DATE_FORMAT);
+        byte[]                          cookie               = null;
+        int                             counter              = 0;
+        int                             total;
+
+        try {
+            int paged = 0;
+
+            do {
+                userSearchResultEnum = ldapContext.search(searchBase, extendedUserSearchFilter, userSearchControls);
+
+                while (userSearchResultEnum.hasMore()) {
+                    // searchResults contains all the user entries
+                    final SearchResult userEntry = userSearchResultEnum.next();
+
+                    if (userEntry == null)  {
+                        LOG.info("userEntry null, skipping sync for the entry");
+                        continue;
+                    }
+
+                    Attributes attributes = userEntry.getAttributes();
+
+                    if (attributes == null)  {
+                        LOG.info("attributes  missing for entry {}, skipping sync", userEntry.getNameInNamespace());
+                        continue;
+                    }
+
+                    Attribute userNameAttr = attributes.get(userNameAttribute);
+
+                    if (userNameAttr == null)  {
+                        LOG.info("{} missing for entry {}, skipping sync", userNameAttribute, userEntry.getNameInNamespace());
+                        continue;
+                    }
+
+                    String userFullName = (userEntry.getNameInNamespace());
+                    String userName     = (String) userNameAttr.get();
+
+                    if (userName == null || userName.trim().isEmpty())  {
+                        LOG.info("{} empty for entry {}, skipping sync", userNameAttribute, userEntry.getNameInNamespace());
+                        continue;
+                    }
+
+                    Attribute timeStampAttr = attributes.get("uSNChanged");
+
+                    if (timeStampAttr != null) {
+                        String uSNChangedVal        = (String) timeStampAttr.get();
+                        long   currentDeltaSyncTime = Long.parseLong(uSNChangedVal);
+
+                        LOG.info("uSNChangedVal = {} and currentDeltaSyncTime = {}", uSNChangedVal, currentDeltaSyncTime);
+
+                        if (currentDeltaSyncTime > results.highestDeltaSyncTime) {
+                            results.highestDeltaSyncTime = currentDeltaSyncTime;
+                        }
+                    } else {
+                        timeStampAttr = attributes.get("modifytimestamp");
+
+                        if (timeStampAttr != null) {
+                            String timeStampVal         = (String) timeStampAttr.get();
+                            Date   parseDate            = dateFormat.parse(timeStampVal);
+                            long   currentDeltaSyncTime = parseDate.getTime();
+
+                            LOG.info("timeStampVal = {} and currentDeltaSyncTime = {}", timeStampVal, currentDeltaSyncTime);
+
+                            if (currentDeltaSyncTime > results.highestDeltaSyncTime) {
+                                results.highestDeltaSyncTime = currentDeltaSyncTime;
+                                results.deltaSyncTimeStamp   = timeStampVal;
+                            }
+                        }
+                    }
+
+                    // Get all the groups from the group name attribute of the user only when group search is not enabled.
+                    if (!groupSearchEnabled) {
+                        for (String useGroupNameAttribute : userGroupNameAttributeSet) {
+                            Attribute userGroupfAttribute = userEntry.getAttributes().get(useGroupNameAttribute);
+
+                            if (userGroupfAttribute != null) {
+                                NamingEnumeration<?> groupEnum = userGroupfAttribute.getAll();
+
+                                while (groupEnum.hasMore()) {
+                                    String groupDN = (String) groupEnum.next();
+
+                                    LOG.debug("Adding {} to {}", groupDN, userName);
+
+                                    Map<String, String> groupAttrMap = new HashMap<>();
+                                    String              groupName    = getShortName(groupDN);
+
+                                    groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, groupName);
+                                    groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupDN);
+                                    groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                                    groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+
+                                    results.groups.put(groupDN, groupAttrMap);
+
+                                    LOG.debug("As groupsearch is disabled, adding group {} from user memberof attribute for user {}", groupName, userName);
+
+                                    results.groupUserTable.put(groupDN, userFullName, userFullName);
+                                }
+                            }
+                        }
+                    }
+
+                    Map<String, String> userAttrMap = new HashMap<>();
+
+                    userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
+                    userAttrMap.put(UgsyncCommonConstants.FULL_NAME, userFullName);
+                    userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                    userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+
+                    Attribute userCloudIdAttr = attributes.get(userCloudIdAttribute);
+
+                    if (userCloudIdAttr != null) {
+                        addToAttrMap(userAttrMap, "cloud_id", userCloudIdAttr, config.getUserCloudIdAttributeDataType());
+                    }
+
+                    for (String otherUserAttribute : otherUserAttributes) {
+                        if (attributes.get(otherUserAttribute) != null) {
+                            String attrType = config.getOtherUserAttributeDataType(otherUserAttribute);
+
+                            addToAttrMap(userAttrMap, otherUserAttribute, attributes.get(otherUserAttribute), attrType);
+                        }
+                    }
+
+                    results.users.put(userFullName, userAttrMap);
+                    results.userNames.put(userFullName, userName);
+
+                    counter++;
+
+                    if (counter <= 2000) {
+                        LOG.info("Updating user count: {}, userName: {}", counter, userName);
+
+                        if (counter == 2000) {
+                            LOG.info("===> 2000 user records have been synchronized so far. From now on, only a summary progress log will be written for every 100 users. To continue to see detailed log for every user, please enable Trace level logging. <===");
+                        }
+                    } else {
+                        if (LOG.isTraceEnabled()) {
+                            LOG.trace("Updating user count: {}, userName: {}", counter, userName);
+                        } else if (counter % 100 == 0) {
+                            LOG.info("Synced {} users till now", counter);
+                        }
+                    }
+                }
+
+                // Examine the paged results control response
+                Control[] controls = ldapContext.getResponseControls();
+
+                if (controls != null) {
+                    for (Control control : controls) {
+                        if (control instanceof PagedResultsResponseControl) {
+                            PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
+
+                            total = prrc.getResultSize();
+
+                            if (total != 0) {
+                                LOG.debug("END-OF-PAGE total : {}", total);
+                            } else {
+                                LOG.debug("END-OF-PAGE total : unknown");
+                            }
+
+                            cookie = prrc.getCookie();
+                        }
+                    }
+                } else {
+                    LOG.debug("No controls were sent from the server");
+                }
+
+                // Re-activate paged results
+                if (pagedResultsEnabled) {
+                    LOG.debug("Fetched paged results round: {}", ++paged);
+
+                    ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
+                }
+            }
+            while (cookie != null);
+
+            LOG.info("LdapUserGroupBuilder.getUsers() completed for search base {} with user count: {}", searchBase, counter);
+        } catch (Exception t) {
+            LOG.error("LdapUserGroupBuilder.getUsers() failed with exception: ", t);
+            LOG.info("LdapUserGroupBuilder.getUsers() user count: {}", counter);
+        } finally {
+            if (userSearchResultEnum != null) {
+                userSearchResultEnum.close();
+            }
+        }
+    }
+
+    private void searchGroups(LdapContext ldapContext, String searchBase, SearchResults results) throws Exception {
+        NamingEnumeration<SearchResult> groupSearchResultEnum = null;
+        DateFormat                      dateFormat            = new SimpleDateFormat(DATE_FORMAT);
+        byte[]                          cookie                = null;
+        int                             counter               = 0;
+        int                             total;
+
+        try {
+            int paged = 0;
+
+            do {
+                groupSearchResultEnum = ldapContext.search(searchBase, extendedAllGroupsSearchFilter, groupSearchControls);
+
+                while (groupSearchResultEnum.hasMore()) {
+                    final SearchResult groupEntry = groupSearchResultEnum.next();
+
+                    if (groupEntry == null) {
+                        LOG.info("groupEntry null, skipping sync for the entry");
+                        continue;
+                    }
+
+                    counter++;
+
+                    Attributes attributes    = groupEntry.getAttributes();
+                    Attribute  groupNameAttr = attributes.get(groupNameAttribute);
+
+                    if (groupNameAttr == null) {
+                        LOG.info("{} empty for entry {}, skipping sync", groupNameAttribute, groupEntry.getNameInNamespace());
+                        continue;
+                    }
+
+                    String              groupFullName = (groupEntry.getNameInNamespace());
+                    String              gName         = (String) groupNameAttr.get();
+                    Map<String, String> groupAttrMap  = new HashMap<>();
+
+                    groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, gName);
+                    groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupFullName);
+                    groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                    groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+
+                    Attribute groupCloudIdAttr = attributes.get(groupCloudIdAttribute);
+
+                    if (groupCloudIdAttr != null) {
+                        addToAttrMap(groupAttrMap, "cloud_id", groupCloudIdAttr, config.getGroupCloudIdAttributeDataType());
+                    }
+
+                    for (String otherGroupAttribute : otherGroupAttributes) {
+                        if (attributes.get(otherGroupAttribute) != null) {
+                            String attrType = config.getOtherGroupAttributeDataType(otherGroupAttribute);
+
+                            addToAttrMap(groupAttrMap, otherGroupAttribute, attributes.get(otherGroupAttribute), attrType);
+                        }
+                    }
+
+                    results.groups.put(groupFullName, groupAttrMap);
+
+                    Attribute timeStampAttr = attributes.get("uSNChanged");
+                    if (timeStampAttr != null) {
+                        String uSNChangedVal        = (String) timeStampAttr.get();
+                        long   currentDeltaSyncTime = Long.parseLong(uSNChangedVal);
+
+                        if (currentDeltaSyncTime > results.highestDeltaSyncTime) {
+                            results.highestDeltaSyncTime = currentDeltaSyncTime;
+                        }
+                    } else {
+                        timeStampAttr = attributes.get("modifytimestamp");
+
+                        if (timeStampAttr != null) {
+                            String timeStampVal         = (String) timeStampAttr.get();
+                            Date   parseDate            = dateFormat.parse(timeStampVal);
+                            long   currentDeltaSyncTime = parseDate.getTime();
+
+                            LOG.info("timeStampVal = {} and currentDeltaSyncTime = {}", timeStampVal, currentDeltaSyncTime);
+
+                            if (currentDeltaSyncTime > results.highestDeltaSyncTime) {
+                                results.highestDeltaSyncTime = currentDeltaSyncTime;
+                                results.deltaSyncTimeStamp   = timeStampVal;
+                            }
+                        }
+                    }
+
+                    Attribute groupMemberAttr = attributes.get(groupMemberAttributeName);
+                    int       userCount       = 0;
+
+                    if (groupMemberAttr == null || groupMemberAttr.size() <= 0) {
+                        try {
+                            LOG.info("No members available for {}", gName);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+
+                        results.groupUsers.put(groupFullName, new HashSet<>());
+                        continue;
+                    }
+
+                    NamingEnumeration<?> userEnum = groupMemberAttr.getAll();
+
+                    while (userEnum.hasMore()) {
+                        String originalUserFullName = (String) userEnum.next();
+
+                        if (originalUserFullName == null || originalUserFullName.trim().isEmpty()) {
+                            results.groupUsers.put(groupFullName, new HashSet<>());
+                            continue;
+                        }
+
+                        userCount++;
+
+                        if (!userSearchEnabled) {
+                            Map<String, String> userAttrMap = new HashMap<>();
+                            String              userName    = getShortName(originalUserFullName);
+
+                            userAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, userName);
+                            userAttrMap.put(UgsyncCommonConstants.FULL_NAME, originalUserFullName);
+                            userAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                            userAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+
+                            results.users.put(originalUserFullName, userAttrMap);
+
+                            LOG.debug("As usersearch is disabled, adding user {} from group member attribute for group {}", userName, gName);
+                        }
+
+                        results.groupUserTable.put(groupFullName, originalUserFullName, originalUserFullName);
+                    }
+
+                    LOG.info("No. of members in the group {} = {}", gName, userCount);
+                }
+
+                // Examine the paged results control response
+                Control[] controls = ldapContext.getResponseControls();
+
+                if (controls != null) {
+                    for (Control control : controls) {
+                        if (control instanceof PagedResultsResponseControl) {
+                            PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
+
+                            total = prrc.getResultSize();
+
+                            if (total != 0) {
+                                LOG.debug("END-OF-PAGE total: {}", total);
+                            } else {
+                                LOG.debug("END-OF-PAGE total: unknown");
+                            }
+
+                            cookie = prrc.getCookie();
+                        }
+                    }
+                } else {
+                    LOG.debug("No controls were sent from the server");
+                }
+
+                // Re-activate paged results
+                if (pagedResultsEnabled) {
+                    LOG.debug("Fetched paged results round: {}", ++paged);
+                    ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
+                }
+            }
+            while (cookie != null);
+
+            LOG.info("LdapUserGroupBuilder.getGroups() completed for search base {} with group count: {}", searchBase, counter);
+        } catch (Exception t) {
+            LOG.error("LdapUserGroupBuilder.getGroups() failed with exception: ", t);
+            LOG.info("LdapUserGroupBuilder.getGroups() group count: {}", counter);
+        } finally {
+            if (groupSearchResultEnum != null) {
+                groupSearchResultEnum.close();
+            }
+        }
+    }
+
+    private void searchGroupHierarchy(LdapContext ldapContext, String searchBase, String groupFilter, SearchResults results) throws Exception {
+        NamingEnumeration<SearchResult> groupSearchResultEnum = null;
+        byte[]                          cookie                = null;
+        int                             counter               = 0;
+        int                             total;
+
+        try {
+            do {
+                groupSearchResultEnum = ldapContext.search(searchBase, groupFilter, groupSearchControls);
+
+                while (groupSearchResultEnum.hasMore()) {
+                    final SearchResult groupEntry = groupSearchResultEnum.next();
+
+                    if (groupEntry == null) {
+                        LOG.info("groupEntry null, skipping sync for the entry");
+                        continue;
+                    }
+
+                    counter++;
+
+                    Attribute groupNameAttr = groupEntry.getAttributes().get(groupNameAttribute);
+
+                    if (groupNameAttr == null) {
+                        LOG.info("{} empty for entry {}, skipping sync", groupNameAttribute, groupEntry.getNameInNamespace());
+                        continue;
+                    }
+
+                    String groupFullName = (groupEntry.getNameInNamespace());
+
+                    results.groupDNs.add(groupFullName);
+
+                    String    gName           = (String) groupNameAttr.get();
+                    Attribute groupMemberAttr = groupEntry.getAttributes().get(groupMemberAttributeName);
+                    int       userCount       = 0;
+
+                    if (groupMemberAttr == null || groupMemberAttr.size() <= 0) {
+                        LOG.info("No members available for {}", gName);
+                        continue;
+                    }
+
+                    Map<String, String> groupAttrMap = new HashMap<>();
+
+                    groupAttrMap.put(UgsyncCommonConstants.ORIGINAL_NAME, gName);
+                    groupAttrMap.put(UgsyncCommonConstants.FULL_NAME, groupFullName);
+                    groupAttrMap.put(UgsyncCommonConstants.SYNC_SOURCE, currentSyncSource);
+                    groupAttrMap.put(UgsyncCommonConstants.LDAP_URL, config.getLdapUrl());
+
+                    for (String otherGroupAttribute : otherGroupAttributes) {
+                        Attribute otherGroupAttr = groupEntry.getAttributes().get(otherGroupAttribute);
+
+                        if (otherGroupAttr != null) {
+                            groupAttrMap.put(otherGroupAttribute, (String) otherGroupAttr.get());
+                        }
+                    }
+
+                    results.groups.put(groupFullName, groupAttrMap);
+
+                    NamingEnumeration<?> userEnum = groupMemberAttr.getAll();
+
+                    while (userEnum.hasMore()) {
+                        String originalUserFullName = (String) userEnum.next();
+
+                        if (originalUserFullName == null || originalUserFullName.trim().isEmpty()) {
+                            continue;
+                        }
+
+                        userCount++;
+
+                        results.groupUserTable.put(groupFullName, originalUserFullName, originalUserFullName);
+                    }
+
+                    LOG.info("No. of members in the group {} = {}", gName, userCount);
+                }
+
+                // Examine the paged results control response
+                Control[] controls = ldapContext.getResponseControls();
+
+                if (controls != null) {
+                    for (Control control : controls) {
+                        if (control instanceof PagedResultsResponseControl) {
+                            PagedResultsResponseControl prrc = (PagedResultsResponseControl) control;
+
+                            total = prrc.getResultSize();
+
+                            if (total != 0) {
+                                LOG.debug("END-OF-PAGE total : {}", total);
+                            } else {
+                                LOG.debug("END-OF-PAGE total : unknown");
+                            }
+
+                            cookie = prrc.getCookie();
+                        }
+                    }
+                } else {
+                    LOG.debug("No controls were sent from the server");
+                }
+
+                // Re-activate paged results
+                if (pagedResultsEnabled) {
+                    ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, cookie, Control.CRITICAL)});
+                }
+            }
+            while (cookie != null);
+
+            LOG.info("LdapUserGroupBuilder.goUpGroupHierarchyLdap() completed for search base {} with group count: {}", searchBase, counter);
+        } catch (RuntimeException re) {
+            LOG.error("LdapUserGroupBuilder.goUpGroupHierarchyLdap() failed with runtime exception: ", re);
+            throw re;
+        } catch (Exception t) {
+            LOG.error("LdapUserGroupBuilder.goUpGroupHierarchyLdap() failed with exception: ", t);
+            LOG.info("LdapUserGroupBuilder.goUpGroupHierarchyLdap() group count: {}", counter);
+        } finally {
+            if (groupSearchResultEnum != null) {
+                groupSearchResultEnum.close();
+            }
+        }
+    }
+
+    /*
+     * runs the searches on up to searchThreadCount pooled LDAP contexts; results are returned in the order of the
+     * searches, to be merged by the caller thread
+     */
+    private List<SearchResults> runSearches(List<LdapSearch> searches, long deltaSyncTime) throws Throwable {
+        List<SearchResults> ret         = new ArrayList<>(searches.size());
+        int                 threadCount = Math.min(searchThreadCount, searches.size());
+
+        if (searches.isEmpty()) {
+            return ret;
+        }
+
+        try (LdapContextPool contextPool = new LdapContextPool(Math.max(threadCount, 1))) {
+            if (threadCount <= 1) {
+                for (LdapSearch search : searches) {
+                    ret.add(runSearch(contextPool, search, deltaSyncTime));
+                }
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+                try {
+                    List<Future<SearchResults>> futures = new ArrayList<>(searches.size());
+
+                    for (LdapSearch search : searches) {
+                        futures.add(executor.submit(() -> runSearch(contextPool, search, deltaSyncTime)));
+                    }
+
+                    for (Future<SearchResults> future : futures) {
+                        try {
+                            ret.add(future.get());
+                        } catch (ExecutionException excp) {
+                            throw excp.getCause();
+                        }
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private SearchResults runSearch(LdapContextPool contextPool, LdapSearch search, long deltaSyncTime) throws Exception {
+        SearchResults  ret        = new SearchResults(deltaSyncTime);
+        LdapConnection connection = contextPool.borrow();
+
+        try {
+            LdapContext ldapContext = connection.getContext();
+
+            // Activate paged results
+            if (pagedResultsEnabled) {
+                ldapContext.setRequestControls(new Control[] {new PagedResultsControl(pagedResultsSize, Control.NONCRITICAL)});
+            }
+
+            search.search(ldapContext, ret);
+        } finally {
+            contextPool.release(connection);
+        }
+
+        return ret;
+    }
+
+    /*
+     * returns filters for groups having any of the given groups as member, with up to batchSize group DNs in each filter.
+     * groupFilter is expected to be an unterminated AND-filter, like "(&(objectclass=group)"
+     */
+    static List<String> getGroupHierarchyFilters(String groupFilter, String groupMemberAttributeName, Collection<String> groupDNs, int batchSize) {
+        List<String> ret   = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+
+        for (Iterator<String> iter = groupDNs.iterator(); iter.hasNext(); ) {
+            batch.add(iter.next());
+
+            if (batch.size() >= batchSize || !iter.hasNext()) {
+                StringBuilder filter = new StringBuilder(groupFilter).append("(|");
+
+                for (String groupDN : batch) {
+                    filter.append("(").append(groupMemberAttributeName).append("=").append(escapeFilterValue(groupDN)).append(")");
+                }
+
+                filter.append("))");
+
+                ret.add(filter.toString());
+
+                batch.clear();
+            }
+        }
+
+        return ret;
+    }
+
+    // escapes characters that are special in LDAP search filters (RFC 4515)
+    static String escapeFilterValue(String value) {
+        StringBuilder ret = new StringBuilder(value.length());
+
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\':
+                    ret.append("\\5c");
+                    break;
+                case '*':
+                    ret.append("\\2a");
+                    break;
+                case '(':
+                    ret.append("\\28");
+                    break;
+                case ')':
+                    ret.append("\\29");
+                    break;
+                case '\0':
+                    ret.append("\\00");
+                    break;
+                default:
+                    ret.append(c);
+                    break;
+            }
+        }
+
+        return ret.toString();
+    }
+
+    private interface LdapSearch {
+        void search(LdapContext ldapContext, SearchResults results) throws Exception;
+    }
+
+    /* entries found by a search, on a search thread */
+    private static class SearchResults {
+        final Map<String, Map<String, String>> users          = new HashMap<>();
+        final Map<String, Map<String, String>> groups         = new HashMap<>();
+        final Map<String, Set<String>>         groupUsers     = new HashMap<>();
+        final Map<String, String>              userNames      = new LinkedHashMap<>(); // user DN => user name
+        final Set<String>                      groupDNs       = new HashSet<>();
+        final Table<String, String, String>    groupUserTable = HashBasedTable.create();
+        long                                   highestDeltaSyncTime;
+        String                                 deltaSyncTimeStamp;
+
+        SearchResults(long deltaSyncTime) {
+            this.highestDeltaSyncTime = deltaSyncTime;
+        }
+    }
+
+    private static class LdapConnection {
+        private final LdapContext      ldapContext;
+        private final StartTlsResponse tls;
+
+        LdapConnection(LdapContext ldapContext, StartTlsResponse tls) {
+            this.ldapContext = ldapContext;
+            this.tls         = tls;
+        }
+
+        LdapContext getContext() {
+            return ldapContext;
+        }
+
+        void close() {
+            try {
+                if (tls != null) {
+                    tls.close();
+                }
+            } catch (IOException excp) {
+                LOG.warn("failed to close TLS session", excp);
+            }
+
+            try {
+                ldapContext.close();
+            } catch (NamingException excp) {
+                LOG.warn("failed to close LDAP context", excp);
+            }
+        }
+    }
+
+    /* LDAP contexts are created on demand, up to maxSize, and closed when the pool is closed */
+    private class LdapContextPool implements AutoCloseable {
+        private final BlockingQueue<LdapConnection> available   = new LinkedBlockingQueue<>();
+        private final List<LdapConnection>          connections = new ArrayList<>();
+        private final int                           maxSize;
+
+        LdapContextPool(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        LdapConnection borrow() throws Exception {
+            LdapConnection ret = available.poll();
+
+            if (ret == null) {
+                synchronized (connections) {
+                    if (connections.size() < maxSize) {
+                        ret = createLdapConnection();
+
+                        connections.add(ret);
+                    }
+                }
+
+                if (ret == null) {
+                    ret = available.take();
+                }
+            }
+
+            return ret;
+        }
+
+        void release(LdapConnection connection) {
+            available.offer(connection);
+        }
+
+        @Override
+        public void close() {
+            synchronized (connections) {
+                for (LdapConnection connection : connections) {
+                    connection.close();
+                }
+
+                connections.clear();
+            }
+
+            available.clear();
+        }
+    }
 }
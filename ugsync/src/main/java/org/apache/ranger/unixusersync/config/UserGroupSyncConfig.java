@@ -96,6 +96,8 @@ public class UserGroupSyncConfig {
     private static final String LGSYNC_GROUP_CLOUDID_ATTRIBUTE_DATATYPE                              = "ranger.usersync.ldap.group.cloudid.attribute.datatype";
     private static final String UGSYNC_GROUPNAME_CASE_CONVERSION_PARAM                               = "ranger.usersync.ldap.groupname.caseconversion";
     private static final String LGSYNC_GROUP_HIERARCHY_LEVELS                                        = "ranger.usersync.ldap.grouphierarchylevels";
+    private static final String LGSYNC_GROUP_HIERARCHY_BATCH_SIZE                                    = "ranger.usersync.ldap.grouphierarchy.batch.size";
+    private static final String LGSYNC_SEARCH_THREAD_COUNT                                           = "ranger.usersync.ldap.search.thread.count";
 
     private static final String LGSYNC_LDAP_BIND_KEYSTORE                                            = "ranger.usersync.credstore.filename";
     private static final String LGSYNC_LDAP_DELTASYNC_ENABLED                                        = "ranger.usersync.ldap.deltasync";
@@ -125,6 +127,8 @@ public class UserGroupSyncConfig {
     private static final String  DEFAULT_UGSYNC_GROUPNAME_CASE_CONVERSION_VALUE                      = UGSYNC_NONE_CASE_CONVERSION_VALUE;
     private static final String  DEFAULT_LGSYNC_REFERRAL                                             = "ignore";
     private static final int     DEFAULT_LGSYNC_GROUP_HIERARCHY_LEVELS                               = 0;
+    private static final int     DEFAULT_LGSYNC_GROUP_HIERARCHY_BATCH_SIZE                           = 100;
+    private static final int     DEFAULT_LGSYNC_SEARCH_THREAD_COUNT                                  = 1;
     private static final int     DEFAULT_LGSYNC_PAGED_RESULTS_SIZE                                   = 500;
     private static final boolean DEFAULT_LGSYNC_LDAP_DELTASYNC_ENABLED                               = false;
     private static final boolean DEFAULT_LGSYNC_LDAP_STARTTLS_ENABLED                                = false;
@@ -193,6 +197,8 @@ public class UserGroupSyncConfig {
     /* Policy Manager Configs */
     public static final String UGSYNC_PM_URL_PROP                                                    = "ranger.usersync.policymanager.baseURL";
     public static final String UGSYNC_MAX_RECORDS_PER_API_CALL_PROP                                  = "ranger.usersync.policymanager.maxrecordsperapicall";
+    public static final String UGSYNC_MAX_RECORDS_PER_UPLOAD_CALL_PROP                               = "ranger.usersync.policymanager.maxrecordsperuploadcall";
+    public static final String UGSYNC_SNAPSHOT_FILE_PROP                                             = "ranger.usersync.policymanager.snapshot.file";
     public static final String UGSYNC_MOCK_RUN_PROP                                                  = "ranger.usersync.policymanager.mockrun";
     public static final String UGSYNC_TEST_RUN_PROP                                                  = "ranger.usersync.policymanager.testrun";
 
@@ -380,6 +386,15 @@ public String getMaxRecordsPerAPICall() {
         return prop.getProperty(UGSYNC_MAX_RECORDS_PER_API_CALL_PROP);
     }
 
+    // Ranger Admin creates/updates users, groups and memberships in bulk; uploads can be larger than pages of downloads
+    public String getMaxRecordsPerUploadCall() {
+        return prop.getProperty(UGSYNC_MAX_RECORDS_PER_UPLOAD_CALL_PROP, getMaxRecordsPerAPICall());
+    }
+
+    public String getSnapshotFile() {
+        return StringUtils.trimToNull(prop.getProperty(UGSYNC_SNAPSHOT_FILE_PROP));
+    }
+
     public String getSSLKeyStoreType() {
         return prop.getProperty(SSL_KEYSTORE_FILE_TYPE_PARAM, KeyStore.getDefaultType());
     }
@@ -1009,6 +1024,40 @@ public int getGroupHierarchyLevels() {
         return groupHierarchyLevels;
     }
 
+    public int getGroupHierarchyBatchSize() {
+        int    groupHierarchyBatchSize;
+        String val = prop.getProperty(LGSYNC_GROUP_HIERARCHY_BATCH_SIZE);
+
+        if (val == null || val.trim().isEmpty()) {
+            groupHierarchyBatchSize = DEFAULT_LGSYNC_GROUP_HIERARCHY_BATCH_SIZE;
+        } else {
+            groupHierarchyBatchSize = Integer.parseInt(val.trim());
+        }
+
+        if (groupHierarchyBatchSize < 1) {
+            groupHierarchyBatchSize = DEFAULT_LGSYNC_GROUP_HIERARCHY_BATCH_SIZE;
+        }
+
+        return groupHierarchyBatchSize;
+    }
+
+    public int getLdapSearchThreadCount() {
+        int    searchThreadCount;
+        String val = prop.getProperty(LGSYNC_SEARCH_THREAD_COUNT);
+
+        if (val == null || val.trim().isEmpty()) {
+            searchThreadCount = DEFAULT_LGSYNC_SEARCH_THREAD_COUNT;
+        } else {
+            searchThreadCount = Integer.parseInt(val.trim());
+        }
+
+        if (searchThreadCount < 1) {
+            searchThreadCount = DEFAULT_LGSYNC_SEARCH_THREAD_COUNT;
+        }
+
+        return searchThreadCount;
+    }
+
     public String getProperty(String aPropertyName) {
         return prop.getProperty(aPropertyName);
     }
@@ -1275,6 +1324,16 @@ public void setGroupHierarchyLevel(int groupHierarchyLevel) {
         prop.setProperty(LGSYNC_GROUP_HIERARCHY_LEVELS, String.valueOf(groupHierarchyLevel));
     }
 
+    /* Used only for unit testing */
+    public void setGroupHierarchyBatchSize(int groupHierarchyBatchSize) {
+        prop.setProperty(LGSYNC_GROUP_HIERARCHY_BATCH_SIZE, String.valueOf(groupHierarchyBatchSize));
+    }
+
+    /* Used only for unit testing */
+    public void setLdapSearchThreadCount(int searchThreadCount) {
+        prop.setProperty(LGSYNC_SEARCH_THREAD_COUNT, String.valueOf(searchThreadCount));
+    }
+
     /* Used only for unit testing */
     public void setGroupnames(String groupnames) {
         prop.setProperty(LGSYNC_GROUPNAMES, groupnames);
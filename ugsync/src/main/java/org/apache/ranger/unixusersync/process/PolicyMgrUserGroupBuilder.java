@@ -44,8 +44,19 @@
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.NewCookie;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -54,9 +65,12 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 public class PolicyMgrUserGroupBuilder extends AbstractUserGroupSource implements UserGroupSink {
     private static final Logger LOG = LoggerFactory.getLogger(PolicyMgrUserGroupBuilder.class);
@@ -74,6 +88,7 @@ public class PolicyMgrUserGroupBuilder extends AbstractUserGroupSource implement
     public static final String PM_USER_LIST_URI                    = "/service/xusers/users/";
     public static final String PM_GROUP_LIST_URI                   = "/service/xusers/groups/";
     public static final String PM_GET_ALL_GROUP_USER_MAP_LIST_URI  = "/service/xusers/ugsync/groupusers";
+    public static final String PM_GET_USER_STORE_VERSION_URI       = "/service/xusers/ugsync/userstore/version";
     /* ******************* */
 
     /* ***** PUT API **** */
@@ -130,12 +145,17 @@ public class PolicyMgrUserGroupBuilder extends AbstractUserGroupSource implement
     private boolean isUserSyncNameValidationEnabled;
     private boolean isSyncSourceValidationEnabled;
     private String  recordsToPullPerCall = "10";
+    private String  recordsToPushPerCall = "10";
     private String  currentSyncSource;
     private String  ldapUrl;
     private String  authenticationType;
     private String  rangerCookieName;
     private String  policyMgrBaseUrl;
     private Cookie  sessionId;
+    private File    snapshotFile;
+    private Long    userStoreVersion;
+    private boolean isAdminUpdated;
+    private int     ownVersionUpdates; // user-store version updates by the uploads of this instance in the current sync
 
     String              principal;
     String              keytab;
@@ -178,6 +198,7 @@ public synchronized void init() throws Throwable {
         isUserSyncNameValidationEnabled = config.isUserSyncNameValidationEnabled();
         isSyncSourceValidationEnabled   = config.isSyncSourceValidationEnabled();
         recordsToPullPerCall            = config.getMaxRecordsPerAPICall();
+        recordsToPushPerCall            = config.getMaxRecordsPerUploadCall();
         policyMgrBaseUrl                = config.getPolicyManagerBaseURL();
         isMockRun                       = config.isMockRunEnabled();
         isRangerCookieEnabled           = config.isUserSyncRangerCookieEnabled();
@@ -187,6 +208,8 @@ public synchronized void init() throws Throwable {
         userCache                       = new HashMap<>();
         groupCache                      = new HashMap<>();
         groupUsersCache                 = new HashMap<>();
+        snapshotFile                    = config.getSnapshotFile() != null ? new File(config.getSnapshotFile()) : null;
+        userStoreVersion                = null;
         isStartupFlag                   = true;
         ldapUrl                         = null;
         currentSyncSource               = config.getCurrentSyncSource();
@@ -290,6 +313,12 @@ public void addOrUpdateUsersGroups(Map<String, Map<String, String>> sourceGroups
         noOfModifiedUsers    = 0;
         noOfModifiedGroups   = 0;
         computeRolesForUsers = new HashSet<>();
+        isAdminUpdated       = false;
+        ownVersionUpdates    = 0;
+
+        if (!isStartupFlag && snapshotFile != null) {
+            reconcileWithAdmin();
+        }
 
         if (!isStartupFlag && computeDeletes) {
             LOG.info("Computing deleted users/groups");
@@ -390,6 +419,19 @@ public void addOrUpdateUsersGroups(Map<String, Map<String, String>> sourceGroups
         if (MapUtils.isNotEmpty(deltaGroupUsers)) {
             groupUsersCache.putAll(deltaGroupUsers);
         }
+
+        if (snapshotFile != null && isAdminUpdated) {
+            Long adminUserStoreVersion = getUserStoreVersion();
+            Long lastKnownVersion      = userStoreVersion;
+
+            userStoreVersion = getVersionAfterOwnUpdates(lastKnownVersion, ownVersionUpdates, adminUserStoreVersion);
+
+            if (userStoreVersion == null) {
+                LOG.info("User-store in Ranger admin updated by other clients: version={}, lastKnownVersion={}, ownVersionUpdates={}. Users and groups will be reloaded from Ranger admin", adminUserStoreVersion, lastKnownVersion, ownVersionUpdates);
+            }
+
+            saveSnapshot();
+        }
     }
 
     protected String userNameTransform(String userName) {
@@ -450,9 +492,7 @@ private void buildUserGroupInfo() throws Throwable {
             Subject sub        = SecureClientLogin.loginUserFromKeytab(principal, keytab, nameRules);
             Boolean isInitDone = Subject.doAs(sub, (PrivilegedAction<Boolean>) () -> {
                 try {
-                    buildGroupList();
-                    buildUserList();
-                    buildGroupUserLinkList();
+                    loadUserGroupInfo();
                 } catch (Throwable e) {
                     LOG.error("Failed to build Users and Groups from Ranger admin : ", e);
                     return false;
@@ -468,10 +508,203 @@ private void buildUserGroupInfo() throws Throwable {
                 throw new Exception(msg);
             }
         } else {
+            loadUserGroupInfo();
+        }
+    }
+
+    /*
+     * users, groups and group memberships are downloaded from Ranger admin only when the snapshot saved by an earlier
+     * run is not of the current user-store version in Ranger admin, i.e. when the user-store was updated by other clients
+     */
+    private void loadUserGroupInfo() throws Throwable {
+        LOG.debug("==> PolicyMgrUserGroupBuilder.loadUserGroupInfo()");
+
+        Long adminUserStoreVersion = snapshotFile != null ? getUserStoreVersionFromAdmin() : null;
+
+        if (adminUserStoreVersion == null || !loadSnapshot(adminUserStoreVersion)) {
+            userCache       = new HashMap<>();
+            groupCache      = new HashMap<>();
+            groupUsersCache = new HashMap<>();
+
             buildGroupList();
             buildUserList();
             buildGroupUserLinkList();
+
+            // version is read before the download, so that updates made during the download are reconciled in the next cycle
+            userStoreVersion = adminUserStoreVersion;
+
+            if (adminUserStoreVersion != null) {
+                saveSnapshot();
+            }
+        }
+
+        LOG.debug("<== PolicyMgrUserGroupBuilder.loadUserGroupInfo(): userStoreVersion={}", userStoreVersion);
+    }
+
+    private void reconcileWithAdmin() throws Throwable {
+        Long adminUserStoreVersion = getUserStoreVersion();
+
+        if (adminUserStoreVersion != null && !adminUserStoreVersion.equals(userStoreVersion)) {
+            LOG.info("User-store in Ranger admin updated since last sync: version={}, lastKnownVersion={}. Reloading users and groups from Ranger admin", adminUserStoreVersion, userStoreVersion);
+
+            buildUserGroupInfo();
+        }
+    }
+
+    private Long getUserStoreVersion() throws Throwable {
+        Long ret;
+
+        if (AUTH_KERBEROS.equalsIgnoreCase(authenticationType) && SecureClientLogin.isKerberosCredentialExists(principal, keytab)) {
+            Subject sub = SecureClientLogin.loginUserFromKeytab(principal, keytab, nameRules);
+
+            ret = Subject.doAs(sub, (PrivilegedAction<Long>) this::getUserStoreVersionFromAdmin);
+        } else {
+            ret = getUserStoreVersionFromAdmin();
+        }
+
+        return ret;
+    }
+
+    private Long getUserStoreVersionFromAdmin() {
+        LOG.debug("==> PolicyMgrUserGroupBuilder.getUserStoreVersionFromAdmin()");
+
+        Long   ret      = null;
+        String response = null;
+
+        if (isRangerCookieEnabled) {
+            response = cookieBasedGetEntity(PM_GET_USER_STORE_VERSION_URI, 0);
+        } else {
+            try {
+                ClientResponse clientResp = ldapUgSyncClient.get(PM_GET_USER_STORE_VERSION_URI, null);
+
+                if (clientResp != null && clientResp.getStatus() == HttpServletResponse.SC_OK) {
+                    response = clientResp.getEntity(String.class);
+                }
+            } catch (Exception e) {
+                LOG.warn("Failed to get user-store version from Ranger admin. Error is : {}", e.getMessage());
+            }
+        }
+
+        response = StringUtils.trim(response);
+
+        if (StringUtils.isNotEmpty(response) && StringUtils.isNumeric(response)) {
+            ret = Long.valueOf(response);
+        } else {
+            LOG.debug("Unexpected response from {} : {}", PM_GET_USER_STORE_VERSION_URI, response);
+        }
+
+        LOG.debug("<== PolicyMgrUserGroupBuilder.getUserStoreVersionFromAdmin(): {}", ret);
+
+        return ret;
+    }
+
+    /*
+     * returns the user-store version in Ranger admin if it is the one produced by the uploads of this instance, i.e. if
+     * no other client updated the user-store since lastKnownVersion. Returns null otherwise, for users and groups to be
+     * reloaded from Ranger admin. Ranger admin updates the user-store version once for each upload of users, groups,
+     * group memberships and deleted users or groups, except for uploads with no valid entry
+     */
+    static Long getVersionAfterOwnUpdates(Long lastKnownVersion, int ownVersionUpdates, Long adminUserStoreVersion) {
+        if (lastKnownVersion == null || adminUserStoreVersion == null) {
+            return null;
+        }
+
+        return adminUserStoreVersion.longValue() == lastKnownVersion + ownVersionUpdates ? adminUserStoreVersion : null;
+    }
+
+    static UserGroupSnapshot loadSnapshot(File snapshotFile, String policyMgrBaseUrl, Long adminUserStoreVersion) {
+        LOG.debug("==> PolicyMgrUserGroupBuilder.loadSnapshot({}, {})", snapshotFile, adminUserStoreVersion);
+
+        UserGroupSnapshot ret = null;
+
+        if (snapshotFile.isFile()) {
+            try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(snapshotFile.toPath())), StandardCharsets.UTF_8)) {
+                UserGroupSnapshot snapshot = JsonUtils.getMapper().readValue(reader, UserGroupSnapshot.class);
+
+                if (!StringUtils.equals(snapshot.getPolicyMgrBaseUrl(), policyMgrBaseUrl) || !Objects.equals(adminUserStoreVersion, snapshot.getUserStoreVersion())) {
+                    LOG.info("Ignoring snapshot in file '{}': policyMgrBaseUrl={}, userStoreVersion={}; Ranger admin userStoreVersion={}", snapshotFile.getAbsolutePath(), snapshot.getPolicyMgrBaseUrl(), snapshot.getUserStoreVersion(), adminUserStoreVersion);
+                } else {
+                    ret = snapshot;
+                }
+            } catch (Exception excp) {
+                LOG.error("Failed to load snapshot from file '{}'. Users and groups will be loaded from Ranger admin", snapshotFile.getAbsolutePath(), excp);
+            }
+        }
+
+        LOG.debug("<== PolicyMgrUserGroupBuilder.loadSnapshot({}, {}): ret={}", snapshotFile, adminUserStoreVersion, ret != null);
+
+        return ret;
+    }
+
+    /*
+     * snapshot is written to a file readable only by the owner, as it has the attributes of all users and groups. A null
+     * snapshot removes the file, so that the next start loads users and groups from Ranger admin
+     */
+    static void saveSnapshot(File snapshotFile, UserGroupSnapshot snapshot) {
+        LOG.debug("==> PolicyMgrUserGroupBuilder.saveSnapshot({})", snapshotFile);
+
+        if (snapshot == null) {
+            if (snapshotFile.exists() && !snapshotFile.delete()) {
+                LOG.warn("Failed to delete snapshot file '{}'", snapshotFile.getAbsolutePath());
+            }
+        } else {
+            Path tmpFile = Paths.get(snapshotFile.getPath() + ".tmp");
+
+            try {
+                Files.deleteIfExists(tmpFile);
+
+                if (tmpFile.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                    Files.createFile(tmpFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+                } else {
+                    File file = Files.createFile(tmpFile).toFile();
+
+                    if (!file.setReadable(false, false) || !file.setReadable(true, true) || !file.setWritable(false, false) || !file.setWritable(true, true)) {
+                        LOG.warn("Failed to restrict permissions of snapshot file '{}' to the owner", file.getAbsolutePath());
+                    }
+                }
+
+                try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(tmpFile)), StandardCharsets.UTF_8)) {
+                    JsonUtils.getMapper().writeValue(writer, snapshot);
+                }
+
+                Files.move(tmpFile, snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception excp) {
+                LOG.error("Failed to save snapshot to file '{}'", snapshotFile.getAbsolutePath(), excp);
+            }
         }
+
+        LOG.debug("<== PolicyMgrUserGroupBuilder.saveSnapshot({})", snapshotFile);
+    }
+
+    private boolean loadSnapshot(Long adminUserStoreVersion) {
+        UserGroupSnapshot snapshot = loadSnapshot(snapshotFile, policyMgrBaseUrl, adminUserStoreVersion);
+
+        if (snapshot != null) {
+            userCache        = snapshot.getUsers() != null ? snapshot.getUsers() : new HashMap<>();
+            groupCache       = snapshot.getGroups() != null ? snapshot.getGroups() : new HashMap<>();
+            groupUsersCache  = snapshot.getGroupUsers() != null ? snapshot.getGroupUsers() : new HashMap<>();
+            userStoreVersion = snapshot.getUserStoreVersion();
+
+            LOG.info("Loaded users and groups from snapshot file '{}': userStoreVersion={}, users={}, groups={}", snapshotFile.getAbsolutePath(), userStoreVersion, userCache.size(), groupCache.size());
+        }
+
+        return snapshot != null;
+    }
+
+    private void saveSnapshot() {
+        UserGroupSnapshot snapshot = null;
+
+        if (userStoreVersion != null) {
+            snapshot = new UserGroupSnapshot();
+
+            snapshot.setPolicyMgrBaseUrl(policyMgrBaseUrl);
+            snapshot.setUserStoreVersion(userStoreVersion);
+            snapshot.setUsers(userCache);
+            snapshot.setGroups(groupCache);
+            snapshot.setGroupUsers(groupUsersCache);
+        }
+
+        saveSnapshot(snapshotFile, snapshot);
     }
 
     private void buildGroupList() throws Throwable {
@@ -627,6 +860,8 @@ private void addOrUpdateUsers(Map<String, Map<String, String>> sourceUsers) thro
 
                 throw new Exception(msg);
             }
+
+            isAdminUpdated = true;
         }
     }
 
@@ -641,6 +876,8 @@ private void addOrUpdateGroups(Map<String, Map<String, String>> sourceGroups) th
 
                 throw new Exception(msg);
             }
+
+            isAdminUpdated = true;
         }
     }
 
@@ -657,6 +894,8 @@ private void addOrUpdateGroupUsers(Map<String, Set<String>> sourceGroupUsers) th
 
                 throw new Exception(msg);
             }
+
+            isAdminUpdated = true;
         }
     }
 
@@ -680,6 +919,8 @@ private void updateUserRoles() throws Throwable {
 
             throw new Exception(msg);
         }
+
+        isAdminUpdated = true;
     }
 
     private <T> T setOtherAttributes(T uginfo, String syncSource, Map<String, String> otherAttrsMap, String otherAttributes) {
@@ -1041,7 +1282,7 @@ private int getUsers(GetXUserListResponse xUserList) throws Throwable {
         int ret           = 0;
         int totalCount    = xUserList.getTotalCount();
         int uploadedCount = 0;
-        int pageSize      = Integer.parseInt(recordsToPullPerCall);
+        int pageSize      = Integer.parseInt(recordsToPushPerCall);
 
         while (uploadedCount < totalCount) {
             checkStatus();
@@ -1064,6 +1305,10 @@ private int getUsers(GetXUserListResponse xUserList) throws Throwable {
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    if (ret > 0) { // Ranger admin doesn't update the user-store version when no user is valid
+                        ownVersionUpdates++;
+                    }
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateUsers {}", uploadedCount, e);
                     throw e;
@@ -1145,7 +1390,7 @@ private int getGroups(GetXGroupListResponse xGroupList) throws Throwable {
         int ret           = 0;
         int totalCount    = xGroupList.getTotalCount();
         int uploadedCount = 0;
-        int pageSize      = Integer.parseInt(recordsToPullPerCall);
+        int pageSize      = Integer.parseInt(recordsToPushPerCall);
 
         while (uploadedCount < totalCount) {
             checkStatus();
@@ -1162,6 +1407,8 @@ private int getGroups(GetXGroupListResponse xGroupList) throws Throwable {
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    ownVersionUpdates++;
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateGroups {}", uploadedCount, e);
                     throw e;
@@ -1217,7 +1464,7 @@ private int getGroupUsers(List<GroupUserInfo> groupUserInfoList) throws Throwabl
         int ret           = 0;
         int totalCount    = groupUserInfoList.size();
         int uploadedCount = 0;
-        int pageSize      = Integer.parseInt(recordsToPullPerCall);
+        int pageSize      = Integer.parseInt(recordsToPushPerCall);
 
         while (uploadedCount < totalCount) {
             checkStatus();
@@ -1230,6 +1477,10 @@ private int getGroupUsers(List<GroupUserInfo> groupUserInfoList) throws Throwabl
                 try {
                     ret            = Integer.parseInt(response);
                     uploadedCount += pageSize;
+
+                    if (ret > 0) { // Ranger admin doesn't update the user-store version when no membership is updated
+                        ownVersionUpdates++;
+                    }
                 } catch (NumberFormatException e) {
                     LOG.error("Failed to addOrUpdateGroupUsers {}", uploadedCount, e);
                     throw e;
@@ -1720,6 +1971,8 @@ private void updateDeletedGroups(Map<String, Map<String, String>> sourceGroups)
 
                 throw new Exception(msg);
             }
+
+            isAdminUpdated = true;
         }
 
         LOG.info("No. of groups marked for delete = {}", deletedGroups.size());
@@ -1810,6 +2063,10 @@ private int getDeletedGroups() throws Throwable {
         if (response != null) {
             try {
                 ret = Integer.parseInt(response);
+
+                if (ret > 0) {
+                    ownVersionUpdates++;
+                }
             } catch (NumberFormatException e) {
                 LOG.error("Failed to update deleted groups", e);
                 throw e;
@@ -1835,6 +2092,8 @@ private void updateDeletedUsers(Map<String, Map<String, String>> sourceUsers) th
 
                 throw new Exception(msg);
             }
+
+            isAdminUpdated = true;
         }
 
         LOG.info("No. of users marked for delete = {}", deletedUsers.size());
@@ -1923,6 +2182,10 @@ private int getDeletedUsers() throws Throwable {
         if (response != null) {
             try {
                 ret = Integer.parseInt(response);
+
+                if (ret > 0) {
+                    ownVersionUpdates++;
+                }
             } catch (NumberFormatException e) {
                 LOG.error("Failed to update deleted users", e);
                 throw e;
@@ -1952,4 +2215,53 @@ private void checkStatus() {
             localHostname = "unknown";
         }
     }
+
+    /* users, groups and group memberships in Ranger admin, as of the user-store version, saved across restarts */
+    static class UserGroupSnapshot {
+        private String                   policyMgrBaseUrl;
+        private Long                     userStoreVersion;
+        private Map<String, XUserInfo>   users;
+        private Map<String, XGroupInfo>  groups;
+        private Map<String, Set<String>> groupUsers;
+
+        public String getPolicyMgrBaseUrl() {
+            return policyMgrBaseUrl;
+        }
+
+        public void setPolicyMgrBaseUrl(String policyMgrBaseUrl) {
+            this.policyMgrBaseUrl = policyMgrBaseUrl;
+        }
+
+        public Long getUserStoreVersion() {
+            return userStoreVersion;
+        }
+
+        public void setUserStoreVersion(Long userStoreVersion) {
+            this.userStoreVersion = userStoreVersion;
+        }
+
+        public Map<String, XUserInfo> getUsers() {
+            return users;
+        }
+
+        public void setUsers(Map<String, XUserInfo> users) {
+            this.users = users;
+        }
+
+        public Map<String, XGroupInfo> getGroups() {
+            return groups;
+        }
+
+        public void setGroups(Map<String, XGroupInfo> groups) {
+            this.groups = groups;
+        }
+
+        public Map<String, Set<String>> getGroupUsers() {
+            return groupUsers;
+        }
+
+        public void setGroupUsers(Map<String, Set<String>> groupUsers) {
+            this.groupUsers = groupUsers;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.ldapusersync.process;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLdapUserGroupBuilder {
+    private static final String GROUP_FILTER = "(&(objectclass=groupOfNames)";
+
+    @Test
+    public void testEscapeFilterValue() {
+        assertEquals("CN=Group10,OU=Groups,DC=ranger", LdapUserGroupBuilder.escapeFilterValue("CN=Group10,OU=Groups,DC=ranger"));
+        assertEquals("CN=R&D \\28Sales\\29,OU=Groups", LdapUserGroupBuilder.escapeFilterValue("CN=R&D (Sales),OU=Groups"));
+        assertEquals("CN=a\\2ab\\5cc\\00d", LdapUserGroupBuilder.escapeFilterValue("CN=a*b\\c\0d"));
+        assertEquals("", LdapUserGroupBuilder.escapeFilterValue(""));
+    }
+
+    @Test
+    public void testGroupHierarchyFiltersAreBatched() {
+        LinkedHashSet<String> groupDNs = new LinkedHashSet<>(Arrays.asList("CN=g1,OU=Groups", "CN=g2,OU=Groups", "CN=g3 (old),OU=Groups"));
+
+        List<String> filters = LdapUserGroupBuilder.getGroupHierarchyFilters(GROUP_FILTER, "member", groupDNs, 2);
+
+        assertEquals(2, filters.size());
+        assertEquals("(&(objectclass=groupOfNames)(|(member=CN=g1,OU=Groups)(member=CN=g2,OU=Groups)))", filters.get(0));
+        assertEquals("(&(objectclass=groupOfNames)(|(member=CN=g3 \\28old\\29,OU=Groups)))", filters.get(1));
+
+        filters = LdapUserGroupBuilder.getGroupHierarchyFilters(GROUP_FILTER, "member", groupDNs, 100);
+
+        assertEquals(1, filters.size());
+        assertEquals("(&(objectclass=groupOfNames)(|(member=CN=g1,OU=Groups)(member=CN=g2,OU=Groups)(member=CN=g3 \\28old\\29,OU=Groups)))", filters.get(0));
+
+        assertTrue(LdapUserGroupBuilder.getGroupHierarchyFilters(GROUP_FILTER, "member", Collections.emptySet(), 2).isEmpty());
+    }
+}
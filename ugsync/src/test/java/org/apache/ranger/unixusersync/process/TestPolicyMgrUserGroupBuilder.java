@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.ranger.unixusersync.process;
+
+import org.apache.ranger.ugsyncutil.model.XGroupInfo;
+import org.apache.ranger.ugsyncutil.model.XUserInfo;
+import org.apache.ranger.unixusersync.process.PolicyMgrUserGroupBuilder.UserGroupSnapshot;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TestPolicyMgrUserGroupBuilder {
+    private static final String POLICY_MGR_URL = "http://localhost:6080";
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndLoadSnapshot() throws Exception {
+        File snapshotFile = new File(tmpFolder.getRoot(), "ugsync-snapshot.json.gz");
+
+        PolicyMgrUserGroupBuilder.saveSnapshot(snapshotFile, createSnapshot(10L));
+
+        UserGroupSnapshot snapshot = PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, POLICY_MGR_URL, 10L);
+
+        assertNotNull(snapshot);
+        assertEquals(Long.valueOf(10L), snapshot.getUserStoreVersion());
+        assertEquals("user1", snapshot.getUsers().get("user1").getName());
+        assertEquals("group1", snapshot.getGroups().get("group1").getName());
+        assertEquals(Collections.singleton("user1"), snapshot.getGroupUsers().get("group1"));
+        assertFalse(new File(snapshotFile.getPath() + ".tmp").exists());
+
+        if (snapshotFile.toPath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(snapshotFile.toPath())));
+        }
+
+        // a null snapshot removes the file
+        PolicyMgrUserGroupBuilder.saveSnapshot(snapshotFile, null);
+
+        assertFalse(snapshotFile.exists());
+        assertNull(PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, POLICY_MGR_URL, 10L));
+    }
+
+    @Test
+    public void testSnapshotIgnoredOnVersionMismatch() throws Exception {
+        File snapshotFile = new File(tmpFolder.getRoot(), "ugsync-snapshot.json.gz");
+
+        PolicyMgrUserGroupBuilder.saveSnapshot(snapshotFile, createSnapshot(10L));
+
+        assertNull(PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, POLICY_MGR_URL, 11L));
+        assertNull(PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, POLICY_MGR_URL, null));
+        assertNull(PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, "http://otherhost:6080", 10L));
+
+        Files.write(snapshotFile.toPath(), "not a snapshot".getBytes());
+
+        assertNull(PolicyMgrUserGroupBuilder.loadSnapshot(snapshotFile, POLICY_MGR_URL, 10L));
+    }
+
+    @Test
+    public void testVersionAfterOwnUpdates() {
+        // only this instance updated the user-store: one upload of users and one of groups
+        assertEquals(Long.valueOf(12L), PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(10L, 2, 12L));
+        assertEquals(Long.valueOf(10L), PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(10L, 0, 10L));
+
+        // another client updated the user-store as well
+        assertNull(PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(10L, 2, 13L));
+        assertNull(PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(10L, 0, 11L));
+
+        // version unknown
+        assertNull(PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(null, 2, 12L));
+        assertNull(PolicyMgrUserGroupBuilder.getVersionAfterOwnUpdates(10L, 2, null));
+    }
+
+    private UserGroupSnapshot createSnapshot(Long userStoreVersion) {
+        UserGroupSnapshot snapshot = new UserGroupSnapshot();
+        XUserInfo         user     = new XUserInfo();
+        XGroupInfo        group    = new XGroupInfo();
+
+        user.setName("user1");
+        group.setName("group1");
+
+        snapshot.setPolicyMgrBaseUrl(POLICY_MGR_URL);
+        snapshot.setUserStoreVersion(userStoreVersion);
+        snapshot.setUsers(Collections.singletonMap(user.getName(), user));
+        snapshot.setGroups(Collections.singletonMap(group.getName(), group));
+        snapshot.setGroupUsers(Collections.singletonMap(group.getName(), new HashSet<>(Collections.singleton(user.getName()))));
+
+        return snapshot;
+    }
+}
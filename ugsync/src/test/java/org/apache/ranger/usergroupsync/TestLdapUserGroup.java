@@ -446,8 +446,31 @@ public void testGroupsWithNoUsers() throws Throwable {
         assertEquals(2, sink.getGroupsWithNoUsers());
     }
 
+    @Test
+    public void testUpdateSinkMultipleOUsConcurrentSearch() throws Throwable {
+        config.setUserNameAttribute("sAMAccountName");
+        config.setUserSearchBase("cn=users,DC=ranger,DC=qe,DC=hortonworks,DC=com;ou=HadoopUsers,DC=ranger,DC=qe,DC=hortonworks,DC=com;ou=BusinessUsers,DC=ranger,DC=qe,DC=hortonworks,DC=com");
+        config.setUserSearchFilter("cn=*");
+        config.setGroupSearchBase("OU=HdpGroups,OU=HadoopUsers,DC=ranger,DC=qe,DC=hortonworks,DC=com;OU=Groups,DC=ranger,DC=qe,DC=hortonworks,DC=com");
+        config.setGroupSearchFilter("cn=*");
+        config.setUserGroupMemberAttributeName("member");
+        config.setUserObjectClass("organizationalPerson");
+        config.setGroupObjectClass("groupOfNames");
+        config.setGroupSearchEnabled(true);
+        config.setGroupSearchFirstEnabled(false);
+        config.setPagedResultsEnabled(true);
+        config.setLdapSearchThreadCount(3);
+        ldapBuilder.init();
+        sink.init();
+        ldapBuilder.updateSink(sink);
+        assertEquals(111, sink.getTotalUsers());
+        assertEquals(13, sink.getTotalGroups());
+    }
+
     @After
     public void shutdown() throws Exception {
+        config.setLdapSearchThreadCount(1);
+
         if (getService().isStarted()) {
             getService().shutdown();
         }